@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.picobase.PbManager;
 import com.picobase.PbUtil;
+import com.picobase.config.PbConfig;
 import com.picobase.console.config.PbConsoleConfig;
 import com.picobase.console.json.LocalDateTimeDeserializer;
 import com.picobase.console.json.LocalDateTimeSerializer;
@@ -71,18 +72,14 @@ public class PbConsoleInject {
 
 
     /**
-     * 具有代理能力的 MapperManager ， 用于查看方法调用的sql日志输出
-     * <p>
-     * PbMapperManager 已经在 autoconfig 模块注入过，这里会覆盖 autoconfig 模块中的注入
-     *
-     * @return
+     * 开发模式下以 debug 级别输出每一条 SQL 及其耗时
      */
-   /* @Bean
-    @Primary
-    public PbMapperManager getPbMapperManager() {
-        MapperManagerWithProxy mapperManagerWithProxy = new MapperManagerWithProxy();
-        return mapperManagerWithProxy;
-    }*/
+    @Autowired(required = false)
+    public void setPbSqlLog(PbConsoleConfig config, PbConfig pbConfig) {
+        if (config.isDev()) {
+            pbConfig.getSql().setIsLog(true);
+        }
+    }
 
 
     /**
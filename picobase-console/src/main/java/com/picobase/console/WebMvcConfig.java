@@ -1,7 +1,11 @@
 package com.picobase.console;
 
 import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.picobase.console.json.LocalDateTimeDeserializer;
 import com.picobase.console.json.LocalDateTimeSerializer;
@@ -12,6 +16,7 @@ import com.picobase.console.web.interceptor.LoadCollectionInterceptor;
 import com.picobase.context.PbHolder;
 import com.picobase.context.model.PbRequest;
 import com.picobase.logic.FieldsFilterProcessor;
+import com.picobase.logic.FieldsProjection;
 import com.picobase.model.AdminModel;
 import com.picobase.model.RecordModel;
 import com.picobase.model.schema.Schema;
@@ -19,16 +24,20 @@ import com.picobase.persistence.mapper.PbMapperManager;
 import com.picobase.persistence.repository.Page;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -118,6 +127,12 @@ class FieldsFilterHttpMessageConverter extends MappingJackson2HttpMessageConvert
             return;
         }
 
+        // record 响应在序列化过程中直接挑选字段，不再经过 Map 的编码与解码
+        if (isRecordResponse(object)) {
+            writeRecords(object, FieldsProjection.compile(fields), outputMessage);
+            return;
+        }
+
         // 存在 fields 过滤
         ObjectMapper mapper = super.getObjectMapper();
         String encoded = mapper.writeValueAsString(object);
@@ -134,4 +149,45 @@ class FieldsFilterHttpMessageConverter extends MappingJackson2HttpMessageConvert
 
     }
 
+    /**
+     * 与 super.writeInternal 一致：按响应的 Content-Type 确定编码、写入前后缀且不关闭响应流，序列化时带上字段投影
+     */
+    private void writeRecords(Object object, FieldsProjection projection, HttpOutputMessage outputMessage) throws IOException {
+        JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders().getContentType());
+        OutputStream outputStream = StreamUtils.nonClosing(outputMessage.getBody());
+        try (JsonGenerator generator = getObjectMapper().getFactory().createGenerator(outputStream, encoding)) {
+            writePrefix(generator, object);
+            getObjectMapper().writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withAttribute(RecordSerializer.PROJECTION, projection)
+                    .writeValue(generator, object);
+            writeSuffix(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException ex) {
+            throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    /**
+     * 是否为 record、record 列表或 record 分页响应，fields 作用于其中的每一个 record
+     */
+    private static boolean isRecordResponse(Object object) {
+        if (object instanceof RecordModel) {
+            return true;
+        }
+        Collection<?> items = object instanceof Page<?> page ? page.getItems()
+                : object instanceof Collection<?> c ? c : null;
+        if (items == null) {
+            return false;
+        }
+        for (Object item : items) {
+            if (!(item instanceof RecordModel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.picobase.console.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求日志写入配置
+ */
+public class LogsConfig {
+
+    /**
+     * 日志队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃新日志
+         */
+        DROP_NEWEST,
+        /**
+         * 丢弃队列中最旧的日志，保留新日志
+         */
+        DROP_OLDEST,
+        /**
+         * 阻塞等待队列空位，超过 offerTimeout 仍无空位时丢弃新日志
+         */
+        BLOCK
+    }
+
+    /**
+     * 请求采样规则，按配置顺序匹配，第一条同时匹配路径和状态码类别的规则生效
+     */
+    public static class SampleRule {
+
+        /**
+         * 路由匹配符，如 /api/collections/**
+         */
+        private String path = "/**";
+
+        /**
+         * 状态码类别，如 2xx、4xx，为空时匹配所有状态码
+         */
+        private String status;
+
+        /**
+         * 采样率，取值 0 ~ 1
+         */
+        private double rate = 1;
+
+        public String getPath() {
+            return path;
+        }
+
+        public SampleRule setPath(String path) {
+            this.path = path;
+            return this;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public SampleRule setStatus(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public SampleRule setRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "SampleRule{" +
+                    "path='" + path + '\'' +
+                    ", status='" + status + '\'' +
+                    ", rate=" + rate +
+                    '}';
+        }
+    }
+
+    /**
+     * 日志队列容量
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单次批量写入的最大日志条数，队列积压达到该值时立即写入
+     */
+    private int batchSize = 500;
+
+    /**
+     * 最长刷新间隔（单位：毫秒），未达到 batchSize 时最多等待该时间后写入
+     */
+    private long flushInterval = 1000;
+
+    /**
+     * 队列满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    /**
+     * BLOCK 策略下等待队列空位的最长时间（单位：毫秒）
+     */
+    private long offerTimeout = 100;
+
+    /**
+     * 日志保留天数
+     */
+    private int maxDays = 7;
+
+    /**
+     * 是否将 pb_log 按天分区，开启后过期日志通过 DROP PARTITION 删除
+     * <p> 仅支持 MySQL，首次维护时会将主键调整为 (id, created) </p>
+     */
+    private boolean partition = false;
+
+    /**
+     * 预先创建的分区天数
+     */
+    private int partitionAheadDays = 3;
+
+    /**
+     * 不记录日志的路由匹配符
+     */
+    private List<String> excludePaths = new ArrayList<>(List.of("/api/logs/**", "/console/**"));
+
+    /**
+     * 默认采样率，取值 0 ~ 1，未匹配任何 sampleRules 的请求按该值采样
+     */
+    private double sampleRate = 1;
+
+    /**
+     * 按路由及状态码类别配置的采样规则
+     */
+    private List<SampleRule> sampleRules = new ArrayList<>();
+
+    /**
+     * 慢请求阈值（单位：毫秒），耗时达到该值的请求及所有错误请求始终记录，不参与采样
+     */
+    private long slowThreshold = 1000;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public LogsConfig setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public LogsConfig setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public LogsConfig setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public LogsConfig setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    public long getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public LogsConfig setOfferTimeout(long offerTimeout) {
+        this.offerTimeout = offerTimeout;
+        return this;
+    }
+
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    public LogsConfig setMaxDays(int maxDays) {
+        this.maxDays = maxDays;
+        return this;
+    }
+
+    public boolean isPartition() {
+        return partition;
+    }
+
+    public LogsConfig setPartition(boolean partition) {
+        this.partition = partition;
+        return this;
+    }
+
+    public int getPartitionAheadDays() {
+        return partitionAheadDays;
+    }
+
+    public LogsConfig setPartitionAheadDays(int partitionAheadDays) {
+        this.partitionAheadDays = partitionAheadDays;
+        return this;
+    }
+
+    public List<String> getExcludePaths() {
+        return excludePaths;
+    }
+
+    public LogsConfig setExcludePaths(List<String> excludePaths) {
+        this.excludePaths = excludePaths;
+        return this;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public LogsConfig setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    public List<SampleRule> getSampleRules() {
+        return sampleRules;
+    }
+
+    public LogsConfig setSampleRules(List<SampleRule> sampleRules) {
+        this.sampleRules = sampleRules;
+        return this;
+    }
+
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public LogsConfig setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "LogsConfig{" +
+                "queueCapacity=" + queueCapacity +
+                ", batchSize=" + batchSize +
+                ", flushInterval=" + flushInterval +
+                ", overflowPolicy=" + overflowPolicy +
+                ", offerTimeout=" + offerTimeout +
+                ", maxDays=" + maxDays +
+                ", partition=" + partition +
+                ", partitionAheadDays=" + partitionAheadDays +
+                ", excludePaths=" + excludePaths +
+                ", sampleRate=" + sampleRate +
+                ", sampleRules=" + sampleRules +
+                ", slowThreshold=" + slowThreshold +
+                '}';
+    }
+}
@@ -40,6 +40,11 @@ public class PbConsoleConfig {
     private boolean isDev = false;
 
 
+    /**
+     * 请求日志写入配置
+     */
+    private LogsConfig logs = new LogsConfig();
+
     private S3Config s3Config;
     private String dataDirPath = Paths.get(System.getProperty("user.dir"), defaultDataDir, localStorageDirName).toString();
 
@@ -105,6 +110,15 @@ public class PbConsoleConfig {
     }
 
 
+    public LogsConfig getLogs() {
+        return logs;
+    }
+
+    public PbConsoleConfig setLogs(LogsConfig logs) {
+        this.logs = logs;
+        return this;
+    }
+
     public S3Config getS3Config() {
         return s3Config;
     }
@@ -123,6 +137,7 @@ public class PbConsoleConfig {
                 ", include='" + include + '\'' +
                 ", exclude='" + exclude + '\'' +
                 ", isDev=" + isDev +
+                ", logs=" + logs +
                 ", s3Config=" + s3Config +
                 ", dataDirPath='" + dataDirPath + '\'' +
                 '}';
@@ -1,20 +1,24 @@
 package com.picobase.console.eventhandler;
 
+import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
 import com.picobase.PbManager;
+import com.picobase.PbUtil;
 import com.picobase.annotation.PbEventReceiver;
 import com.picobase.annotation.PbScheduler;
+import com.picobase.console.config.LogsConfig;
+import com.picobase.console.config.PbConsoleConfig;
 import com.picobase.console.mapper.LogMapper;
 import com.picobase.console.model.LogModel;
+import com.picobase.console.model.LogWriterStats;
 import com.picobase.log.PbLog;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Date;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.picobase.console.PbConsoleRegister.CONFIG_PREFIX;
 
@@ -25,56 +29,63 @@ import static com.picobase.console.PbConsoleRegister.CONFIG_PREFIX;
 @ConditionalOnProperty(CONFIG_PREFIX + ".isDev")
 public class LogHandler {
 
-    private static final int BATCH_SIZE = 1000;
-    private static final int CAPACITY = 10000;
-
-    private final Queue<LogModel> queue = new ArrayBlockingQueue<>(CAPACITY);
-
     private LogMapper logMapper;
+    private LogWriter logWriter;
+    private LogsConfig config;
     private PbLog log = PbManager.getLog();
 
 
-    LogHandler(LogMapper logMapper) {
+    LogHandler(LogMapper logMapper, PbConsoleConfig config) {
         this.logMapper = logMapper;
+        this.config = config.getLogs();
+        this.logWriter = new LogWriter(logMapper, this.config);
     }
 
-    @PbEventReceiver(isAsync = true)
-    public void onLogModel(LogModel log) {
-        if (log.getMessage().matches(".*/(api/logs|console/).*")) { //忽略 log 相关的请求
-            return;
+    /**
+     * 容器完成初始化后启动日志写入线程
+     */
+    @PostConstruct
+    public void start() {
+        logWriter.start();
+        if (config.isPartition()) {
+            // 启动时创建当天及之后的分区，避免跨天前日志全部写入 pmax
+            PbUtil.schedule(this::cronDeleteLogs, 0, TimeUnit.SECONDS);
         }
+    }
 
+    @PbEventReceiver(isAsync = true)
+    public void onLogModel(LogModel log) {
         log.setRowid(DateUtil.date(log.getCreated()).getTime());
-        queue.offer(log);
+        logWriter.offer(log);
     }
 
     /**
-     * 每三十秒批量保存日志数据
+     * @return 日志写入器运行指标
      */
-    @PbScheduler(cron = "0/30 * * * * ?")
-    public void cronBatchSaveLogs() {
+    public LogWriterStats getWriterStats() {
+        return logWriter.stats();
+    }
 
-        List<LogModel> list = new ArrayList<>();
-        while (true) {
-            LogModel log = queue.poll();
-            if (log == null || list.size() == BATCH_SIZE) {
-                break;
-            }
-            list.add(log);
-        }
-        if (list.isEmpty()) {
-            return;
-        }
-        log.debug("cronBatchSaveLogs log size: {}", list.size());
-        logMapper.batchSave(list);
+    @PreDestroy
+    public void destroy() {
+        logWriter.stop();
     }
 
     /**
-     * 定时删除七天前的日志
+     * 定时删除 maxDays 天前的日志，开启分区时同时维护 pb_log 分区
      */
     @PbScheduler(cron = "0 0 10 * * ?") //每天10点执行
     public void cronDeleteLogs() {
         log.debug("cronDeleteLogs.");
-        logMapper.deleteBeforeTime(DateUtil.offsetDay(new Date(), -7)); //删除七天前的数据
+        try {
+            DateTime before = DateUtil.offsetDay(new Date(), -config.getMaxDays());
+            if (config.isPartition() && logMapper.maintainPartitions(config.getMaxDays(), config.getPartitionAheadDays())) {
+                logMapper.deleteStatsBeforeTime(before);
+            } else {
+                logMapper.deleteBeforeTime(before);
+            }
+        } catch (Exception e) {
+            log.error("cronDeleteLogs failed: {}", e.getMessage());
+        }
     }
 }
@@ -0,0 +1,206 @@
+package com.picobase.console.eventhandler;
+
+import com.picobase.PbManager;
+import com.picobase.console.config.LogsConfig;
+import com.picobase.console.mapper.LogMapper;
+import com.picobase.console.model.LogModel;
+import com.picobase.console.model.LogWriterStats;
+import com.picobase.log.PbLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 日志写入器，在独立线程中消费日志队列
+ * <p> 队列积压达到 batchSize 时立即批量写入，否则最多等待 flushInterval 后写入；队列满时按 {@link LogsConfig.OverflowPolicy} 处理并计数 </p>
+ */
+public class LogWriter {
+
+    private static final PbLog log = PbManager.getLog();
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * DROP_OLDEST 策略下腾出空间的最大重试次数，多个生产者竞争时避免无限自旋
+     */
+    private static final int DROP_OLDEST_RETRIES = 3;
+
+    private final LogMapper logMapper;
+    private final LogsConfig config;
+    private final BlockingQueue<LogModel> queue;
+    private Thread worker;
+    private volatile boolean running = false;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    public LogWriter(LogMapper logMapper, LogsConfig config) {
+        this.logMapper = logMapper;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+    }
+
+    /**
+     * 启动写入线程，重复调用无效
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "pb-log-writer");
+        worker.setDaemon(true);
+        worker.setUncaughtExceptionHandler((t, e) -> log.error(t.toString(), e));
+        worker.start();
+    }
+
+    /**
+     * 停止写入线程，队列中剩余的日志会在线程退出前写入
+     */
+    public synchronized void stop() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(config.getFlushInterval() + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 提交日志到写入队列
+     *
+     * @param model 日志
+     * @return 是否成功进入队列，false 表示该日志被丢弃
+     */
+    public boolean offer(LogModel model) {
+        boolean success = switch (config.getOverflowPolicy()) {
+            case DROP_NEWEST -> queue.offer(model);
+            case DROP_OLDEST -> offerDropOldest(model);
+            case BLOCK -> offerBlocking(model);
+        };
+        if (success) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+        return success;
+    }
+
+    /**
+     * 队列满时丢弃最旧的日志腾出空间，重试 {@link #DROP_OLDEST_RETRIES} 次仍失败时丢弃当前日志
+     */
+    private boolean offerDropOldest(LogModel model) {
+        for (int i = 0; i < DROP_OLDEST_RETRIES; i++) {
+            if (queue.offer(model)) {
+                return true;
+            }
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return queue.offer(model);
+    }
+
+    private boolean offerBlocking(LogModel model) {
+        try {
+            return queue.offer(model, config.getOfferTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        int batchSize = Math.max(1, config.getBatchSize());
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushInterval());
+        List<LogModel> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + intervalNanos;
+
+        while (running) {
+            try {
+                long wait = deadline - System.nanoTime();
+                if (wait > 0) {
+                    LogModel first = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, batchSize - batch.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                flush(batch);
+                deadline = System.nanoTime() + intervalNanos;
+            }
+        }
+
+        // 退出前写入剩余日志
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (!queue.isEmpty());
+    }
+
+    private void flush(List<LogModel> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int size = batch.size();
+        long start = System.nanoTime();
+        try {
+            if (logMapper.batchSave(batch)) {
+                written.add(size);
+            } else {
+                failed.add(size);
+            }
+        } catch (Exception e) {
+            failed.add(size);
+            log.error("LogWriter flush {} logs failed: {}", size, e.getMessage());
+        } finally {
+            batch.clear();
+        }
+
+        long cost = System.nanoTime() - start;
+        lastFlushNanos = cost;
+        flushNanos.add(cost);
+        flushCount.increment();
+        maxFlushNanos.accumulateAndGet(cost, Math::max);
+        log.debug("LogWriter flushed {} logs in {} ms", size, cost / NANOS_PER_MILLI);
+    }
+
+    /**
+     * @return 当前运行指标快照
+     */
+    public LogWriterStats stats() {
+        long flushes = flushCount.sum();
+        return new LogWriterStats()
+                .setOverflowPolicy(config.getOverflowPolicy().name())
+                .setQueueSize(queue.size())
+                .setQueueCapacity(config.getQueueCapacity())
+                .setAccepted(accepted.sum())
+                .setDropped(dropped.sum())
+                .setWritten(written.sum())
+                .setFailed(failed.sum())
+                .setFlushCount(flushes)
+                .setLastFlushLatency(lastFlushNanos / NANOS_PER_MILLI)
+                .setAvgFlushLatency(flushes == 0 ? 0 : flushNanos.sum() / NANOS_PER_MILLI / flushes)
+                .setMaxFlushLatency(maxFlushNanos.get() / NANOS_PER_MILLI);
+    }
+}
@@ -3,24 +3,114 @@ package com.picobase.console.json;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.picobase.json.LazyJson;
+import com.picobase.logic.FieldModifier;
+import com.picobase.logic.FieldsProjection;
 import com.picobase.model.RecordModel;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 
+/**
+ * 流式序列化 RecordModel：按 {@link RecordModel#exportPublic} 的导出规则直接写入 JsonGenerator，不再构建 publicData Map
+ * <p>
+ * 序列化属性 {@link #PROJECTION} 存在时，在写入过程中同时应用预编译的 fields 挑选规则
+ */
 public class RecordSerializer extends JsonSerializer<RecordModel> {
 
+    /**
+     * 序列化属性 key，值为作用于被序列化 record 的 {@link FieldsProjection}
+     */
+    public static final Class<FieldsProjection> PROJECTION = FieldsProjection.class;
 
     @Override
     public void serialize(RecordModel record, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-        // record 未被导出过
-        if (!record.isAlreadyExported()) {
-            //执行 map 构建 ，导出数据
-            record.publicExport();
-        }
-        // 获取要导出的数据
-        Map<String, Object> exportedData = record.getPublicData();
-        //执行序列化
-        gen.writeObject(exportedData);
+        FieldsProjection projection = (FieldsProjection) serializers.getAttribute(PROJECTION);
+        if (projection == null) {
+            writeRecord(record, null, gen, serializers);
+            return;
+        }
+
+        // 嵌套的 record 由子节点挑选，期间清除该属性，避免整体输出的值再次应用顶层规则
+        serializers.setAttribute(PROJECTION, null);
+        try {
+            writeRecord(record, projection, gen, serializers);
+        } finally {
+            serializers.setAttribute(PROJECTION, projection);
+        }
+    }
+
+    private void writeRecord(RecordModel record, FieldsProjection projection, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        // 已导出过的 record 以 publicData 为准，publicData 可能已被修改
+        if (record.isAlreadyExported()) {
+            if (projection == null) {
+                serializers.defaultSerializeValue(record.getPublicData(), gen);
+            } else {
+                writeProjected(record.getPublicData(), projection, gen, serializers);
+            }
+            return;
+        }
+
+        gen.writeStartObject(record);
+        record.exportPublic((name, value) -> writeField(name, value, projection, gen, serializers));
+        gen.writeEndObject();
+    }
+
+    private void writeField(String name, Object value, FieldsProjection projection, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (value instanceof LazyJson<?> json) {
+            // 未修改的 json 值直接输出原始内容，需要挑选或修改时才使用解析后的值
+            if (projection == null || projection.leaf(name) == FieldModifier.Nil_Modifier) {
+                gen.writeFieldName(name);
+                gen.writeRawValue(json.raw());
+                return;
+            }
+            value = json.get();
+        }
+
+        if (projection == null) {
+            gen.writeFieldName(name);
+            serializers.defaultSerializeValue(value, gen);
+            return;
+        }
+
+        FieldModifier modifier = projection.leaf(name);
+        if (modifier != null) {
+            gen.writeFieldName(name);
+            serializers.defaultSerializeValue(modifier.modify(value), gen);
+            return;
+        }
+        FieldsProjection child = projection.child(name);
+        if (child != null) {
+            gen.writeFieldName(name);
+            writeProjected(value, child, gen, serializers);
+        }
+    }
+
+    /**
+     * 按挑选规则写入值：record 与 Map 挑选其 key，集合逐项挑选其中的 record 与 Map，其余值原样写入
+     */
+    private void writeProjected(Object value, FieldsProjection projection, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (value instanceof RecordModel record) {
+            writeRecord(record, projection, gen, serializers);
+        } else if (value instanceof Map<?, ?> map) {
+            gen.writeStartObject(map);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeField(String.valueOf(entry.getKey()), entry.getValue(), projection, gen, serializers);
+            }
+            gen.writeEndObject();
+        } else if (value instanceof Collection<?> items) {
+            gen.writeStartArray(items, items.size());
+            for (Object item : items) {
+                if (item instanceof RecordModel || item instanceof Map) {
+                    writeProjected(item, projection, gen, serializers);
+                } else {
+                    serializers.defaultSerializeValue(item, gen);
+                }
+            }
+            gen.writeEndArray();
+        } else {
+            serializers.defaultSerializeValue(value, gen);
+        }
     }
 }
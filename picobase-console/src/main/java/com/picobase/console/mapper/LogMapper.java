@@ -2,36 +2,96 @@ package com.picobase.console.mapper;
 
 import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.NumberUtil;
 import com.picobase.PbManager;
 import com.picobase.console.model.LogModel;
 import com.picobase.console.model.LogsStatsItem;
+import com.picobase.console.model.StatementCacheStats;
 import com.picobase.json.PbJsonTemplate;
 import com.picobase.persistence.dbx.expression.Expression;
 import com.picobase.persistence.mapper.AbstractMapper;
 import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+import com.picobase.persistence.resolver.SimpleFieldResolver;
+import com.picobase.search.SearchFilter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class LogMapper extends AbstractMapper<LogModel> {
 
-    private static final String SAVE_LOG_SQL = "insert into pb_log(id,level,message,data,created,updated,rowid) values(?,?,?,?,?,?,?)";
+    private static final String SAVE_LOG_SQL = "insert into pb_log(id,level,message,data,created,updated,rowid) values";
+    private static final String SAVE_LOG_VALUES = "(?,?,?,?,?,?,?)";
+    private static final int SAVE_LOG_COLUMNS = 7;
 
+    /**
+     * 单条 insert 语句最多包含的行数，避免超出 max_allowed_packet 及占位符数量限制
+     */
+    private static final int MAX_ROWS_PER_INSERT = 500;
+
+    private static final List<String> LOG_FIELDS = List.of("rowid", "level", "message", "id", "created", "data", "updated", "^data\\.[\\w\\.\\:]*\\w+$");
+
+    private final LogStatsRollup rollup = new LogStatsRollup();
+
+    private final LogPartitions partitions = new LogPartitions();
+
+
+    /**
+     * 使用多行 insert 批量保存日志，并在同一事务中更新预聚合统计
+     *
+     * @param logs 日志
+     * @return 是否保存成功
+     */
+    public boolean batchSave(List<LogModel> logs) {
+        if (logs.isEmpty()) {
+            return true;
+        }
+        rollup.ensureTable();
 
-    public void batchSave(List<LogModel> logs) {
         PbJsonTemplate pbJsonTemplate = PbManager.getPbJsonTemplate();
-        List<ModifyRequest> requests = logs.stream().map(log -> {
-            ModifyRequest request = new ModifyRequest(SAVE_LOG_SQL);
-            request.setArgs(new Object[]{log.getId(), log.getLevel(), log.getMessage(), pbJsonTemplate.toJsonString(log.getData()), log.getCreated(), log.getUpdated(), log.getRowid()});
-            return request;
-        }).collect(Collectors.toList());
-        if (requests.isEmpty()) {
-            return;
+        List<ModifyRequest> requests = new ArrayList<>(logs.size() / MAX_ROWS_PER_INSERT + 1);
+        for (int from = 0; from < logs.size(); from += MAX_ROWS_PER_INSERT) {
+            List<LogModel> rows = logs.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, logs.size()));
+            StringBuilder sql = new StringBuilder(SAVE_LOG_SQL.length() + rows.size() * (SAVE_LOG_VALUES.length() + 1));
+            sql.append(SAVE_LOG_SQL);
+            Object[] args = new Object[rows.size() * SAVE_LOG_COLUMNS];
+            int i = 0;
+            for (LogModel log : rows) {
+                sql.append(i == 0 ? " " : ",").append(SAVE_LOG_VALUES);
+                args[i++] = log.getId();
+                args[i++] = log.getLevel();
+                args[i++] = log.getMessage();
+                args[i++] = pbJsonTemplate.toJsonString(log.getData());
+                args[i++] = log.getCreated();
+                args[i++] = log.getUpdated();
+                args[i++] = log.getRowid();
+            }
+            requests.add(new ModifyRequest(sql.toString()).setArgs(args));
         }
-        PbManager.getPbDatabaseOperate().update(requests);
+        requests.addAll(rollup.upsertRequests(logs));
+        return Boolean.TRUE.equals(PbManager.getPbDatabaseOperate().update(requests));
+    }
+
+    /**
+     * 按小时统计请求数，优先使用预聚合统计表，filter 包含统计表不支持的字段时查询原始表
+     *
+     * @param filter filter 表达式
+     * @return 按小时分组的请求数
+     */
+    public List<LogsStatsItem> stats(String filter) {
+        Expression expr = new SearchFilter(filter).buildExpr(new SimpleFieldResolver(LOG_FIELDS));
+
+        List<LogsStatsItem> items = rollup.stats(filter, expr);
+        if (items != null) {
+            return items;
+        }
+        return stats(expr);
     }
 
-    public List<LogsStatsItem> stats(Expression expr) {
+    private List<LogsStatsItem> stats(Expression expr) {
         var query = modelQuery().select("count(id) as total", "DATE_FORMAT(created,'%Y-%m-%d %H:00:00') as date").groupBy("date");
         if (expr != null) {
             query.andWhere(expr);
@@ -46,6 +106,74 @@ public class LogMapper extends AbstractMapper<LogModel> {
 
     public void deleteBeforeTime(DateTime dateTime) {
         String sql = "delete from pb_log where created <= ?";
-        PbManager.getPbDatabaseOperate().update(List.of(new ModifyRequest(sql).setArgs(new Object[]{DateUtil.toLocalDateTime(dateTime)})));
+        LocalDateTime time = DateUtil.toLocalDateTime(dateTime);
+        List<ModifyRequest> requests = new ArrayList<>(5);
+        requests.add(new ModifyRequest(sql).setArgs(new Object[]{time}));
+        requests.addAll(rollup.deleteBeforeRequests(time));
+        PbManager.getPbDatabaseOperate().update(requests);
+    }
+
+    /**
+     * 删除指定时间之前的预聚合统计行，pb_log 已分区时过期日志由 DROP PARTITION 删除
+     */
+    public void deleteStatsBeforeTime(DateTime dateTime) {
+        List<ModifyRequest> deleteStats = rollup.deleteBeforeRequests(DateUtil.toLocalDateTime(dateTime));
+        if (!deleteStats.isEmpty()) {
+            PbManager.getPbDatabaseOperate().update(deleteStats);
+        }
+    }
+
+    /**
+     * pb_log 按天分区维护
+     *
+     * @param maxDays   日志保留天数
+     * @param aheadDays 预先创建的分区天数
+     * @return pb_log 是否已按天分区
+     */
+    public boolean maintainPartitions(int maxDays, int aheadDays) {
+        return partitions.maintain(maxDays, aheadDays);
+    }
+
+    /**
+     * 服务端预编译语句的 prepare / execute 计数及各连接缓存的语句数，用于观察驱动预编译语句缓存的复用效果
+     *
+     * @return StatementCacheStats
+     */
+    public StatementCacheStats statementCacheStats() {
+        PbDatabaseOperate db = PbManager.getPbDatabaseOperate();
+        Map<String, Long> status = new HashMap<>();
+        try {
+            for (Map<String, Object> row : db.queryMany("show global status where Variable_name in " +
+                    "('Com_stmt_prepare','Com_stmt_execute','Com_stmt_reprepare','Prepared_stmt_count')", new Object[0])) {
+                status.put(String.valueOf(row.get("Variable_name")), NumberUtil.parseLong(String.valueOf(row.get("Value")), 0L));
+            }
+        } catch (Exception e) {
+            // 无权限查询全局状态时计数均为 0
+            PbManager.getLog().debug("Failed to load global statement status: {}", e.getMessage());
+        }
+        long prepares = status.getOrDefault("Com_stmt_prepare", 0L);
+        long executes = status.getOrDefault("Com_stmt_execute", 0L);
+        StatementCacheStats stats = new StatementCacheStats()
+                .setPrepares(prepares)
+                .setExecutes(executes)
+                .setReprepares(status.getOrDefault("Com_stmt_reprepare", 0L))
+                .setOpenStatements(status.getOrDefault("Prepared_stmt_count", 0L))
+                .setReuseRatio(executes == 0 ? 0 : Math.max(0, 1 - (double) prepares / executes));
+
+        try {
+            for (Map<String, Object> row : db.queryMany("select t.processlist_id as connection_id, count(*) as statements, " +
+                    "sum(p.count_execute) as executes from performance_schema.prepared_statements_instances p " +
+                    "join performance_schema.threads t on t.thread_id = p.owner_thread_id " +
+                    "where t.processlist_id is not null group by t.processlist_id order by executes desc", new Object[0])) {
+                stats.getConnections().add(new StatementCacheStats.Connection()
+                        .setConnectionId(((Number) row.get("connection_id")).longValue())
+                        .setStatements(((Number) row.get("statements")).longValue())
+                        .setExecutes(((Number) row.get("executes")).longValue()));
+            }
+        } catch (Exception e) {
+            // performance_schema 未开启或无权限时只返回全局计数
+            PbManager.getLog().debug("Failed to load prepared statements from performance_schema: {}", e.getMessage());
+        }
+        return stats;
     }
 }
@@ -0,0 +1,124 @@
+package com.picobase.console.mapper;
+
+import com.picobase.PbManager;
+import com.picobase.log.PbLog;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * pb_log 按天分区管理，分区方式为 RANGE COLUMNS(created)
+ * <p> 分区 pYYYYMMDD 存放当天的日志，pmax 兜底；预先创建未来若干天的分区，过期日志通过 DROP PARTITION 删除，避免大批量 DELETE 锁表 </p>
+ */
+class LogPartitions {
+
+    private static final String TABLE = "pb_log";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final PbLog log = PbManager.getLog();
+
+    /**
+     * 分区维护：未分区时将 pb_log 转换为按天分区，创建未来 aheadDays 天的分区，删除早于 maxDays 天的分区
+     *
+     * @param maxDays   日志保留天数
+     * @param aheadDays 预先创建的分区天数
+     * @return pb_log 是否已按天分区，false 时调用方应使用 DELETE 清理过期日志
+     */
+    boolean maintain(int maxDays, int aheadDays) {
+        PbDatabaseOperate db = PbManager.getPbDatabaseOperate();
+        LocalDate today = LocalDate.now();
+        LocalDate oldest = today.minusDays(maxDays);
+        LocalDate last = today.plusDays(aheadDays);
+
+        List<String> names = db.queryMany("select partition_name from information_schema.partitions " +
+                        "where table_schema = database() and table_name = ? and partition_name is not null order by partition_ordinal_position",
+                new Object[]{TABLE}, String.class);
+        if (names == null || names.isEmpty()) {
+            return partitionTable(db, oldest, last);
+        }
+        if (!names.contains(MAX_PARTITION)) {
+            log.warn("pb_log is partitioned without {} partition, skip partition maintenance.", MAX_PARTITION);
+            return false;
+        }
+
+        List<String> expired = new ArrayList<>();
+        LocalDate lastDay = null;
+        for (String name : names) {
+            LocalDate day = parseDay(name);
+            if (day == null) {
+                continue;
+            }
+            if (day.isBefore(oldest)) {
+                expired.add(name);
+            }
+            if (lastDay == null || day.isAfter(lastDay)) {
+                lastDay = day;
+            }
+        }
+
+        List<String> ddl = new ArrayList<>(2);
+        LocalDate from = lastDay == null ? today : lastDay.plusDays(1);
+        if (!from.isAfter(last)) {
+            ddl.add("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" + partitionDefinitions(from, last) + ")");
+        }
+        // 至少保留一个按天分区
+        if (!expired.isEmpty() && expired.size() < names.size() - 1) {
+            ddl.add("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(",", expired));
+        }
+        if (!ddl.isEmpty()) {
+            log.info("pb_log partition maintenance, add from {} to {}, drop {}", from, last, expired);
+            return Boolean.TRUE.equals(db.executeDdl(ddl));
+        }
+        return true;
+    }
+
+    /**
+     * 将未分区的 pb_log 转换为按天分区，主键需要包含分区字段 created
+     */
+    private boolean partitionTable(PbDatabaseOperate db, LocalDate first, LocalDate last) {
+        String type = db.queryOne("select data_type from information_schema.columns where table_schema = database() and table_name = ? and column_name = 'created'",
+                new Object[]{TABLE}, String.class);
+        if (!"datetime".equalsIgnoreCase(type) && !"date".equalsIgnoreCase(type)) {
+            log.warn("pb_log.created type is {}, RANGE COLUMNS partition requires datetime, skip partition.", type);
+            return false;
+        }
+
+        List<String> primaryKey = db.queryMany("select column_name from information_schema.statistics " +
+                        "where table_schema = database() and table_name = ? and index_name = 'PRIMARY' order by seq_in_index",
+                new Object[]{TABLE}, String.class);
+
+        List<String> ddl = new ArrayList<>(2);
+        if (primaryKey == null || primaryKey.isEmpty()) {
+            ddl.add("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, created)");
+        } else if (primaryKey.stream().noneMatch("created"::equalsIgnoreCase)) {
+            ddl.add("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (" + String.join(", ", primaryKey) + ", created)");
+        }
+        // 第一个分区同时容纳更早的日志，会在之后的维护中随过期被删除
+        ddl.add("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(created) (" + partitionDefinitions(first, last) + ")");
+
+        log.info("pb_log partition by day from {} to {}", first, last);
+        return Boolean.TRUE.equals(db.executeDdl(ddl));
+    }
+
+    private static String partitionDefinitions(LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            sql.append("PARTITION ").append(NAME_FORMAT.format(day))
+                    .append(" VALUES LESS THAN ('").append(day.plusDays(1)).append(" 00:00:00'), ");
+        }
+        return sql.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    private static LocalDate parseDay(String name) {
+        try {
+            return LocalDate.parse(name, NAME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
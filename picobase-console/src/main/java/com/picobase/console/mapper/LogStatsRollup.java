@@ -0,0 +1,363 @@
+package com.picobase.console.mapper;
+
+import com.picobase.PbManager;
+import com.picobase.PbUtil;
+import com.picobase.console.model.LogModel;
+import com.picobase.console.model.LogsStatsItem;
+import com.picobase.exception.PbException;
+import com.picobase.log.PbLog;
+import com.picobase.persistence.dbx.SelectQuery;
+import com.picobase.persistence.dbx.expression.Expression;
+import com.picobase.persistence.fexpr.*;
+import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.persistence.resolver.PlaceholderAllocator;
+import com.picobase.persistence.resolver.ResolverResult;
+import com.picobase.search.SearchFilter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * pb_log 预聚合统计，按分钟、小时两种粒度维护 level、status、method、auth 及耗时区间维度的请求数
+ * <p> 统计行与日志在同一事务中增量写入；stats 查询从统计表读取已结束的时间桶，仅当前未结束的时间桶查询 pb_log 原始表 </p>
+ */
+class LogStatsRollup {
+
+    static final String TABLE = "pb_log_stats";
+
+    private static final String PERIOD_MINUTE = "m";
+    private static final String PERIOD_HOUR = "h";
+
+    /**
+     * 耗时区间下限（单位：毫秒），统计行中 latency 字段记录请求所在区间的下限
+     */
+    private static final int[] LATENCY_BUCKETS = {0, 10, 50, 100, 500, 1000, 5000};
+
+    private static final int MAX_ROWS_PER_UPSERT = 500;
+
+    private static final String MINUTE_FORMAT = "%Y-%m-%d %H:%i:00";
+    private static final String HOUR_FORMAT = "%Y-%m-%d %H:00:00";
+
+    /**
+     * filter 中的时间值，用于判断 created 条件是否按整分钟划分
+     */
+    private static final Pattern DATETIME_VALUE = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}(?:[ T]\\d{2}:\\d{2}(?::(\\d{2})(?:\\.(\\d+))?)?)?Z?$");
+
+    private static final String CREATE_TABLE_SQL = """
+            create table if not exists pb_log_stats (
+                period  char(1)     not null,
+                bucket  datetime    not null,
+                level   int         not null,
+                status  int         not null,
+                method  varchar(16) not null,
+                auth    varchar(32) not null,
+                latency int         not null,
+                total   bigint      not null,
+                primary key (period, bucket, level, status, method, auth, latency)
+            )""";
+
+    private static final String UPSERT_SQL = "insert into pb_log_stats(period,bucket,level,status,method,auth,latency,total) values";
+    private static final String UPSERT_VALUES = "(?,?,?,?,?,?,?,?)";
+    private static final String UPSERT_UPDATE = " on duplicate key update total = total + values(total)";
+
+    private final PbLog log = PbManager.getLog();
+
+    /**
+     * 统计表状态：null 未初始化，true 可用，false 初始化失败（stats 退回到原始表查询）
+     */
+    private volatile Boolean ready;
+
+    /**
+     * 确保统计表存在，首次创建时从 pb_log 中回填已有数据
+     */
+    void ensureTable() {
+        if (ready != null) {
+            return;
+        }
+        try {
+            Long exists = PbManager.getPbDatabaseOperate().queryOne(
+                    "select count(*) from information_schema.tables where table_schema = database() and table_name = ?",
+                    new Object[]{TABLE}, Long.class);
+            if (exists == null || exists == 0) {
+                PbManager.getPbDatabaseOperate().update(List.of(
+                        new ModifyRequest(CREATE_TABLE_SQL),
+                        new ModifyRequest(backfillSql("")).setArgs(new Object[]{PERIOD_MINUTE, MINUTE_FORMAT}),
+                        new ModifyRequest(backfillSql("")).setArgs(new Object[]{PERIOD_HOUR, HOUR_FORMAT})
+                ));
+            }
+            ready = true;
+        } catch (Exception e) {
+            ready = false;
+            log.warn("LogStatsRollup disabled, stats will be queried from pb_log: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param where 限定回填范围的条件（以 " where" 开头），为空时回填全部日志
+     */
+    private static String backfillSql(String where) {
+        StringBuilder latency = new StringBuilder("CASE");
+        for (int i = LATENCY_BUCKETS.length - 1; i > 0; i--) {
+            latency.append(" WHEN CAST(JSON_EXTRACT(data,'$.execTime') AS UNSIGNED) >= ").append(LATENCY_BUCKETS[i])
+                    .append(" THEN ").append(LATENCY_BUCKETS[i]);
+        }
+        latency.append(" ELSE 0 END");
+
+        return "insert into pb_log_stats(period,bucket,level,status,method,auth,latency,total) " +
+                "select ?, DATE_FORMAT(created, ?) as s_bucket, level as s_level, " +
+                "COALESCE(JSON_EXTRACT(data,'$.status'),0) as s_status, " +
+                "COALESCE(JSON_UNQUOTE(JSON_EXTRACT(data,'$.method')),'') as s_method, " +
+                "COALESCE(JSON_UNQUOTE(JSON_EXTRACT(data,'$.auth')),'') as s_auth, " +
+                latency + " as s_latency, count(*) " +
+                "from pb_log" + where + " group by s_bucket, s_level, s_status, s_method, s_auth, s_latency";
+    }
+
+    /**
+     * 将一批日志聚合为统计表的 upsert 语句
+     *
+     * @param logs 日志
+     * @return upsert 语句，统计表不可用时返回空列表
+     */
+    List<ModifyRequest> upsertRequests(List<LogModel> logs) {
+        if (!Boolean.TRUE.equals(ready) || logs.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Key, long[]> counts = new HashMap<>();
+        for (LogModel model : logs) {
+            Map<String, Object> data = model.getData() == null ? Map.of() : model.getData();
+            LocalDateTime minute = model.getCreated().truncatedTo(ChronoUnit.MINUTES);
+            int status = data.get("status") instanceof Number n ? n.intValue() : 0;
+            String method = data.get("method") == null ? "" : data.get("method").toString();
+            String auth = data.get("auth") == null ? "" : data.get("auth").toString();
+            int latency = latencyBucket(data.get("execTime") instanceof Number n ? n.longValue() : 0);
+
+            counts.computeIfAbsent(new Key(PERIOD_MINUTE, minute, model.getLevel(), status, method, auth, latency), k -> new long[1])[0]++;
+            counts.computeIfAbsent(new Key(PERIOD_HOUR, minute.truncatedTo(ChronoUnit.HOURS), model.getLevel(), status, method, auth, latency), k -> new long[1])[0]++;
+        }
+
+        List<ModifyRequest> requests = new ArrayList<>();
+        Iterator<Map.Entry<Key, long[]>> it = counts.entrySet().iterator();
+        while (it.hasNext()) {
+            int rows = Math.min(MAX_ROWS_PER_UPSERT, counts.size() - requests.size() * MAX_ROWS_PER_UPSERT);
+            StringBuilder sql = new StringBuilder(UPSERT_SQL);
+            Object[] args = new Object[rows * 8];
+            int i = 0;
+            for (int row = 0; row < rows; row++) {
+                Map.Entry<Key, long[]> entry = it.next();
+                Key key = entry.getKey();
+                sql.append(row == 0 ? " " : ",").append(UPSERT_VALUES);
+                args[i++] = key.period();
+                args[i++] = key.bucket();
+                args[i++] = key.level();
+                args[i++] = key.status();
+                args[i++] = key.method();
+                args[i++] = key.auth();
+                args[i++] = key.latency();
+                args[i++] = entry.getValue()[0];
+            }
+            requests.add(new ModifyRequest(sql.append(UPSERT_UPDATE).toString()).setArgs(args));
+        }
+        return requests;
+    }
+
+    private static int latencyBucket(long execTime) {
+        for (int i = LATENCY_BUCKETS.length - 1; i > 0; i--) {
+            if (execTime >= LATENCY_BUCKETS[i]) {
+                return LATENCY_BUCKETS[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 使用统计表查询按小时分组的请求数
+     *
+     * @param filter  原始 filter
+     * @param rawExpr filter 基于 pb_log 原始表构建的表达式，用于查询当前未结束的时间桶
+     * @return 统计结果，filter 中包含统计表不支持的字段或条件、统计表不可用时返回 null
+     */
+    List<LogsStatsItem> stats(String filter, Expression rawExpr) {
+        if (!Boolean.TRUE.equals(ready)) {
+            return null;
+        }
+
+        // filter 中包含 created 条件时使用分钟粒度，只有分钟桶能精确表示的 created 条件才使用统计表
+        if (filter != null && !filter.isBlank() && !createdByMinutes(filter)) {
+            return null;
+        }
+
+        StatsFieldResolver resolver = new StatsFieldResolver();
+        Expression expr;
+        try {
+            expr = new SearchFilter(filter).buildExpr(resolver);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        String period = resolver.byCreated ? PERIOD_MINUTE : PERIOD_HOUR;
+        LocalDateTime current = LocalDateTime.now().truncatedTo(resolver.byCreated ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+
+        SelectQuery rolled = PbUtil.getPbDbxBuilder()
+                .select("sum(total) as total", "DATE_FORMAT(bucket,'%Y-%m-%d %H:00:00') as date")
+                .from(TABLE)
+                .where(Expression.newExpr("period = :statsPeriod AND bucket < :statsCurrent", Map.of("statsPeriod", period, "statsCurrent", current)))
+                .groupBy("date");
+        if (expr != null) {
+            rolled.andWhere(expr);
+        }
+
+        SelectQuery unfinished = PbUtil.getPbDbxBuilder()
+                .select("count(id) as total", "DATE_FORMAT(created,'%Y-%m-%d %H:00:00') as date")
+                .from("pb_log")
+                .where(Expression.newExpr("created >= :statsCurrent", Map.of("statsCurrent", current)))
+                .groupBy("date");
+        if (rawExpr != null) {
+            unfinished.andWhere(rawExpr);
+        }
+
+        TreeMap<LocalDateTime, LogsStatsItem> merged = new TreeMap<>();
+        for (List<LogsStatsItem> items : List.of(rolled.all(LogsStatsItem.class), unfinished.all(LogsStatsItem.class))) {
+            for (LogsStatsItem item : items) {
+                merged.merge(item.getDate(), item, (a, b) -> a.setTotal(a.getTotal() + b.getTotal()));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * 删除指定时间之前的统计行，需在删除 pb_log 中同一时间之前的日志后执行
+     * <p> 早于 time 所在时间桶的统计行直接删除；time 所在的分钟、小时桶仍有 time 之后的日志，删除后从 pb_log 重新聚合 </p>
+     *
+     * @return 删除及重新聚合的语句，统计表不可用时返回空列表
+     */
+    List<ModifyRequest> deleteBeforeRequests(LocalDateTime time) {
+        if (!Boolean.TRUE.equals(ready)) {
+            return List.of();
+        }
+        List<ModifyRequest> requests = new ArrayList<>(4);
+        for (String period : List.of(PERIOD_MINUTE, PERIOD_HOUR)) {
+            boolean minute = PERIOD_MINUTE.equals(period);
+            LocalDateTime bucket = time.truncatedTo(minute ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+            LocalDateTime bucketEnd = minute ? bucket.plusMinutes(1) : bucket.plusHours(1);
+            requests.add(new ModifyRequest("delete from pb_log_stats where period = ? and bucket <= ?").setArgs(new Object[]{period, bucket}));
+            requests.add(new ModifyRequest(backfillSql(" where created > ? and created < ?") + UPSERT_UPDATE)
+                    .setArgs(new Object[]{period, minute ? MINUTE_FORMAT : HOUR_FORMAT, time, bucketEnd}));
+        }
+        return requests;
+    }
+
+    /**
+     * 判断 filter 中的 created 条件是否都可以由分钟桶精确表示
+     * <p> 只有与整分钟时间比较的 {@code created >= t} 及 {@code created < t}（或 {@code t <= created}、{@code t > created}）
+     * 等价于 {@code bucket >= t}、{@code bucket < t}；其他比较（如 {@code created > '10:37:00'} 改写为 bucket 后会漏掉 10:37 这一分钟，
+     * {@code <=}、{@code =}、{@code !=} 会包含或排除整分钟）以及与非整分钟时间、字段比较时查询原始表 </p>
+     */
+    static boolean createdByMinutes(String filter) {
+        List<ExprGroup> data;
+        try {
+            data = FexprParser.parse(filter);
+        } catch (Exception e) {
+            return false;
+        }
+        return createdByMinutes(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean createdByMinutes(Object item) {
+        if (item instanceof List<?> groups) {
+            return ((List<ExprGroup>) groups).stream().allMatch(group -> createdByMinutes(group.getItem()));
+        }
+        if (item instanceof ExprGroup group) {
+            return createdByMinutes(group.getItem());
+        }
+        if (!(item instanceof Expr expr)) {
+            return false;
+        }
+        boolean leftCreated = isCreated(expr.getLeft());
+        boolean rightCreated = isCreated(expr.getRight());
+        if (leftCreated == rightCreated) {
+            // 不含 created 的条件由 StatsFieldResolver 判断，created 与自身比较查询原始表
+            return !leftCreated;
+        }
+        SignOp op = expr.getOp();
+        Token value = leftCreated ? expr.getRight() : expr.getLeft();
+        boolean rangeOp = leftCreated
+                ? op == SignOp.SignGte || op == SignOp.SignLt
+                : op == SignOp.SignLte || op == SignOp.SignGt;
+        return rangeOp && value.getType() == TokenType.Text && DATETIME_VALUE.matcher(value.getLiteral().trim()).matches()
+                && alignedToMinutes(List.of(value.getLiteral()));
+    }
+
+    private static boolean isCreated(Token token) {
+        return token.getType() == TokenType.Identifier && "created".equals(token.getLiteral());
+    }
+
+    /**
+     * @return filter 参数中的时间值是否都是整分钟（统计表的分钟桶可以精确表示）
+     */
+    static boolean alignedToMinutes(Collection<Object> values) {
+        for (Object value : values) {
+            if (value instanceof LocalDateTime dateTime) {
+                if (!dateTime.equals(dateTime.truncatedTo(ChronoUnit.MINUTES))) {
+                    return false;
+                }
+                continue;
+            }
+            if (!(value instanceof String str)) {
+                continue;
+            }
+            Matcher matcher = DATETIME_VALUE.matcher(str.trim());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String seconds = matcher.group(1);
+            String fraction = matcher.group(2);
+            if ((seconds != null && !seconds.equals("00")) || (fraction != null && !fraction.chars().allMatch(c -> c == '0'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Key(String period, LocalDateTime bucket, int level, int status, String method, String auth,
+                       int latency) {
+    }
+
+    /**
+     * 将 filter 中的日志字段映射为统计表字段，不支持的字段抛出异常
+     */
+    private static class StatsFieldResolver implements FieldResolver {
+
+        private static final Map<String, String> COLUMNS = Map.of(
+                "created", "bucket",
+                "level", "level",
+                "data.status", "status",
+                "data.method", "method",
+                "data.auth", "auth"
+        );
+
+        private final PlaceholderAllocator placeholders = new PlaceholderAllocator();
+        private boolean byCreated;
+
+        @Override
+        public PlaceholderAllocator placeholders() {
+            return placeholders;
+        }
+
+        @Override
+        public ResolverResult resolve(String field) {
+            String column = COLUMNS.get(field);
+            if (column == null) {
+                throw new PbException("Failed to resolve field {} from log stats.", field);
+            }
+            if ("bucket".equals(column)) {
+                byCreated = true;
+            }
+            return ResolverResult.builder().identifier("`" + column + "`").build();
+        }
+    }
+}
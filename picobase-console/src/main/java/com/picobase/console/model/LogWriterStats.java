@@ -0,0 +1,126 @@
+package com.picobase.console.model;
+
+/**
+ * 日志写入器运行指标快照
+ */
+public class LogWriterStats {
+    private String overflowPolicy;
+    private int queueSize;
+    private int queueCapacity;
+    private long accepted;
+    private long dropped;
+    private long written;
+    private long failed;
+    private long flushCount;
+    /**
+     * 最近一次批量写入耗时（单位：毫秒）
+     */
+    private double lastFlushLatency;
+    /**
+     * 平均批量写入耗时（单位：毫秒）
+     */
+    private double avgFlushLatency;
+    /**
+     * 最大批量写入耗时（单位：毫秒）
+     */
+    private double maxFlushLatency;
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public LogWriterStats setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public LogWriterStats setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public LogWriterStats setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public LogWriterStats setAccepted(long accepted) {
+        this.accepted = accepted;
+        return this;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public LogWriterStats setDropped(long dropped) {
+        this.dropped = dropped;
+        return this;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public LogWriterStats setWritten(long written) {
+        this.written = written;
+        return this;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public LogWriterStats setFailed(long failed) {
+        this.failed = failed;
+        return this;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public LogWriterStats setFlushCount(long flushCount) {
+        this.flushCount = flushCount;
+        return this;
+    }
+
+    public double getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    public LogWriterStats setLastFlushLatency(double lastFlushLatency) {
+        this.lastFlushLatency = lastFlushLatency;
+        return this;
+    }
+
+    public double getAvgFlushLatency() {
+        return avgFlushLatency;
+    }
+
+    public LogWriterStats setAvgFlushLatency(double avgFlushLatency) {
+        this.avgFlushLatency = avgFlushLatency;
+        return this;
+    }
+
+    public double getMaxFlushLatency() {
+        return maxFlushLatency;
+    }
+
+    public LogWriterStats setMaxFlushLatency(double maxFlushLatency) {
+        this.maxFlushLatency = maxFlushLatency;
+        return this;
+    }
+}
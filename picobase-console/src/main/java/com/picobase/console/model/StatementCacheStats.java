@@ -0,0 +1,124 @@
+package com.picobase.console.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务端预编译语句的复用情况快照
+ */
+public class StatementCacheStats {
+    /**
+     * 服务端累计 prepare 次数（Com_stmt_prepare）
+     */
+    private long prepares;
+    /**
+     * 服务端累计预编译语句执行次数（Com_stmt_execute）
+     */
+    private long executes;
+    /**
+     * 因表结构变化导致的重新 prepare 次数（Com_stmt_reprepare）
+     */
+    private long reprepares;
+    /**
+     * 服务端当前打开的预编译语句数量（Prepared_stmt_count），开启驱动缓存后即各连接缓存中的语句总数
+     */
+    private long openStatements;
+    /**
+     * 执行复用已有预编译语句的比例：1 - prepares / executes
+     */
+    private double reuseRatio;
+    /**
+     * 按连接统计的预编译语句，来自 performance_schema，未开启时为空
+     */
+    private List<Connection> connections = new ArrayList<>();
+
+    public long getPrepares() {
+        return prepares;
+    }
+
+    public StatementCacheStats setPrepares(long prepares) {
+        this.prepares = prepares;
+        return this;
+    }
+
+    public long getExecutes() {
+        return executes;
+    }
+
+    public StatementCacheStats setExecutes(long executes) {
+        this.executes = executes;
+        return this;
+    }
+
+    public long getReprepares() {
+        return reprepares;
+    }
+
+    public StatementCacheStats setReprepares(long reprepares) {
+        this.reprepares = reprepares;
+        return this;
+    }
+
+    public long getOpenStatements() {
+        return openStatements;
+    }
+
+    public StatementCacheStats setOpenStatements(long openStatements) {
+        this.openStatements = openStatements;
+        return this;
+    }
+
+    public double getReuseRatio() {
+        return reuseRatio;
+    }
+
+    public StatementCacheStats setReuseRatio(double reuseRatio) {
+        this.reuseRatio = reuseRatio;
+        return this;
+    }
+
+    public List<Connection> getConnections() {
+        return connections;
+    }
+
+    public StatementCacheStats setConnections(List<Connection> connections) {
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * 单个连接上缓存的预编译语句
+     */
+    public static class Connection {
+        private long connectionId;
+        private long statements;
+        private long executes;
+
+        public long getConnectionId() {
+            return connectionId;
+        }
+
+        public Connection setConnectionId(long connectionId) {
+            this.connectionId = connectionId;
+            return this;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public Connection setStatements(long statements) {
+            this.statements = statements;
+            return this;
+        }
+
+        public long getExecutes() {
+            return executes;
+        }
+
+        public Connection setExecutes(long executes) {
+            this.executes = executes;
+            return this;
+        }
+    }
+}
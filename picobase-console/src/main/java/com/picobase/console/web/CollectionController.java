@@ -8,12 +8,16 @@ import com.picobase.logic.mapper.CollectionMapper;
 import com.picobase.model.CollectionModel;
 import com.picobase.model.CollectionUpsert;
 import com.picobase.model.event.*;
+import com.picobase.persistence.model.IndexSuggestion;
 import com.picobase.persistence.repository.Page;
 import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.search.IndexAdvisor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/collections")
 public class CollectionController {
@@ -90,6 +94,19 @@ public class CollectionController {
         return collection;
     }
 
+    /**
+     * 根据采样到的 record 列表查询生成的索引建议，建议中的 index 可直接加入集合的 indexes
+     *
+     * @param explain 是否对每条建议的采样查询执行 EXPLAIN
+     */
+    @GetMapping(value = "{collectionIdOrName}/index-suggestions")
+    public List<IndexSuggestion> indexSuggestions(@PathVariable String collectionIdOrName, @RequestParam(defaultValue = "false") boolean explain) {
+        CollectionModel collection = mapper.findCollectionByNameOrId(collectionIdOrName);
+        if (collection == null) {
+            throw new BadRequestException("the requested resource wasn't found.");
+        }
+        return IndexAdvisor.getInstance().suggest(collection, explain);
+    }
 
     /**
      * TODO 【bug】当存在一个普通 Collection  A, 和一个依赖 A 的 View Collection B， 直接删除 A时会报错。
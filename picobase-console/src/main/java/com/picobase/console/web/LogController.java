@@ -1,17 +1,23 @@
 package com.picobase.console.web;
 
 import com.picobase.PbUtil;
+import com.picobase.console.eventhandler.LogHandler;
 import com.picobase.console.mapper.LogMapper;
 import com.picobase.console.model.LogModel;
+import com.picobase.console.model.LogWriterStats;
 import com.picobase.console.model.LogsStatsItem;
+import com.picobase.console.model.StatementCacheStats;
 import com.picobase.console.web.interceptor.LoadCollection;
+import com.picobase.exception.NotFoundException;
 import com.picobase.json.PbJsonTemplate;
+import com.picobase.persistence.model.SqlStatementStats;
 import com.picobase.persistence.repository.Page;
-import com.picobase.persistence.resolver.SimpleFieldResolver;
-import com.picobase.search.SearchFilter;
+import com.picobase.persistence.repository.SqlStatsRecorder;
 import com.picobase.util.PbConstants;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
@@ -25,9 +31,12 @@ public class LogController {
 
     private LogMapper logMapper;
 
-    public LogController(PbJsonTemplate jsonTemplate, LogMapper mapper) {
+    private ObjectProvider<LogHandler> logHandler;
+
+    public LogController(PbJsonTemplate jsonTemplate, LogMapper mapper, ObjectProvider<LogHandler> logHandler) {
         this.jsonTemplate = jsonTemplate;
         this.logMapper = mapper;
+        this.logHandler = logHandler;
     }
 
     @GetMapping
@@ -38,9 +47,34 @@ public class LogController {
 
     @GetMapping("/stats")
     public List<LogsStatsItem> stats(HttpServletRequest request) {
-        SimpleFieldResolver resolver = new SimpleFieldResolver(List.of("rowid", "level", "message", "id", "created", "data", "updated", "^data\\.[\\w\\.\\:]*\\w+$"));
-        var expr = new SearchFilter(request.getParameter(PbConstants.QueryParam.FILTER)).buildExpr(resolver);
+        return logMapper.stats(request.getParameter(PbConstants.QueryParam.FILTER));
+    }
+
+    /**
+     * 日志写入器的队列、丢弃数量及批量写入耗时指标
+     */
+    @GetMapping("/writer")
+    public LogWriterStats writerStats() {
+        LogHandler handler = logHandler.getIfAvailable();
+        if (handler == null) {
+            throw new NotFoundException("Request logs are not enabled.");
+        }
+        return handler.getWriterStats();
+    }
+
+    /**
+     * 按累计耗时倒序的 SQL 语句执行统计
+     */
+    @GetMapping("/sql")
+    public List<SqlStatementStats> sqlStats(@RequestParam(defaultValue = "20") int limit) {
+        return SqlStatsRecorder.getInstance().top(limit);
+    }
 
-        return logMapper.stats(expr);
+    /**
+     * 服务端预编译语句的复用情况，配合 picobase.sql.cachePrepStmts 观察语句缓存效果
+     */
+    @GetMapping("/sql/statements")
+    public StatementCacheStats statementCacheStats() {
+        return logMapper.statementCacheStats();
     }
 }
@@ -1,17 +1,16 @@
 package com.picobase.console.web;
 
 import cn.hutool.core.date.DateUtil;
-import cn.hutool.core.date.StopWatch;
 import com.picobase.PbManager;
 import com.picobase.PbUtil;
 import com.picobase.console.PbConsoleConstants;
+import com.picobase.console.config.LogsConfig;
 import com.picobase.console.model.LogModel;
 import com.picobase.context.PbHolder;
 import com.picobase.log.PbLog;
 import com.picobase.model.FailureResult;
 import com.picobase.model.RequestInfo;
 import com.picobase.util.PbConstants;
-import org.apache.catalina.connector.RequestFacade;
 import org.springframework.core.annotation.Order;
 
 import javax.servlet.*;
@@ -21,6 +20,7 @@ import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.picobase.console.PbConsoleConstants.ErrorResponse;
 import static com.picobase.console.util.HttpUtil.getFullRequestUrl;
@@ -32,26 +32,43 @@ public class LogFilter implements Filter {
 
     private PbLog log = PbManager.getLog();
 
+    private final LogSampler sampler;
+
+    public LogFilter(LogsConfig config) {
+        this.sampler = new LogSampler(config);
+    }
+
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse res = (HttpServletResponse) response;
+
         String fullRequestUrl = getFullRequestUrl(request);
-        log.info("{} {}", ((RequestFacade) request).getMethod(), fullRequestUrl);
+        log.info("{} {}", req.getMethod(), fullRequestUrl);
+
+        // 头部采样：排除的请求直接放行，未被采样的请求只保留计时，不构建日志对象（采样只作用于持久化的日志记录）
+        LogSampler.Decision decision = sampler.begin(req.getRequestURI().substring(req.getContextPath().length()));
+        if (decision == LogSampler.EXCLUDED) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long createdMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        chain.doFilter(request, response); //执行 chain 调用
+        long execTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (!sampler.shouldRecord(decision, res.getStatus(), execTime)) {
+            return;
+        }
 
         LogModel logModel = new LogModel();
         logModel.refreshId();
         logModel.setMessage(fullRequestUrl);
-        logModel.setCreated(DateUtil.toLocalDateTime(new Date()));
+        logModel.setCreated(DateUtil.toLocalDateTime(new Date(createdMillis)));
         logModel.refreshUpdated();
 
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-        chain.doFilter(request, response); //执行 chain 调用
-        stopWatch.stop();
-
-        HttpServletRequest req = (HttpServletRequest) request;
-        HttpServletResponse res = (HttpServletResponse) response;
-
         RequestInfo requestInfo = (RequestInfo) PbHolder.getStorage().get(REQUEST_INFO_KEY);
 
         String auth = PbConsoleConstants.RequestAuthGuest;
@@ -68,13 +85,13 @@ public class LogFilter implements Filter {
             failureResult = (FailureResult) PbHolder.getStorage().get(ErrorResponse);
         }
 
-        Map<String, Object> data = new HashMap<>();
-        data.put("execTime", stopWatch.getTotalTimeMillis());
+        Map<String, Object> data = new HashMap<>(16);
+        data.put("execTime", execTime);
         data.put("type", "request");
         data.put("auth", auth);
         data.put("status", res.getStatus());
         data.put("method", req.getMethod().toUpperCase());
-        data.put("url", getFullRequestUrl(request));
+        data.put("url", fullRequestUrl);
         data.put("referer", req.getHeader("referer"));
         data.put("remoteIp", request.getRemoteAddr());
         data.put("userIp", realUserIp(req));
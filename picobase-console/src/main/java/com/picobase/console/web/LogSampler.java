@@ -0,0 +1,132 @@
+package com.picobase.console.web;
+
+import com.picobase.console.config.LogsConfig;
+import com.picobase.exception.PbException;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求日志采样器，排除路由及采样规则在创建时预编译
+ * <p> 请求开始时完成路由匹配及随机数抽样（头部采样），请求结束后根据状态码类别确定采样率；错误请求及慢请求始终记录 </p>
+ */
+class LogSampler {
+
+    /**
+     * 排除的请求，不记录也不参与采样
+     */
+    static final Decision EXCLUDED = new Decision(null, 0);
+
+    /**
+     * 无需抽样，始终记录
+     */
+    private static final Decision RECORDED = new Decision(List.of(), 0);
+
+    private final List<PathPattern> excludes = new ArrayList<>();
+    private final List<Rule> rules = new ArrayList<>();
+    private final double defaultRate;
+    private final long slowThreshold;
+    /**
+     * 是否所有请求都会被记录，此时无需抽样
+     */
+    private final boolean recordAll;
+
+    LogSampler(LogsConfig config) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        if (config.getExcludePaths() != null) {
+            config.getExcludePaths().forEach(path -> excludes.add(parser.parse(path)));
+        }
+        boolean all = config.getSampleRate() >= 1;
+        if (config.getSampleRules() != null) {
+            for (LogsConfig.SampleRule rule : config.getSampleRules()) {
+                rules.add(new Rule(parser.parse(rule.getPath()), statusClass(rule.getStatus()), rule.getRate()));
+                all &= rule.getRate() >= 1;
+            }
+        }
+        this.defaultRate = config.getSampleRate();
+        this.slowThreshold = config.getSlowThreshold();
+        this.recordAll = all;
+    }
+
+    private static int statusClass(String status) {
+        if (status == null || status.isBlank()) {
+            return -1;
+        }
+        char c = status.trim().charAt(0);
+        if (c < '1' || c > '5') {
+            throw new PbException("Invalid sample rule status {}, expected 1xx ~ 5xx.", status);
+        }
+        return c - '0';
+    }
+
+    /**
+     * 请求开始时调用，完成路由匹配及抽样
+     *
+     * @param path 不含 context path 的请求路径
+     * @return 采样决定，被排除的请求返回 {@link #EXCLUDED}
+     */
+    Decision begin(String path) {
+        if (excludes.isEmpty() && recordAll) {
+            return RECORDED;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern exclude : excludes) {
+            if (exclude.matches(container)) {
+                return EXCLUDED;
+            }
+        }
+        if (recordAll) {
+            return RECORDED;
+        }
+
+        List<Rule> matched = null;
+        for (Rule rule : rules) {
+            if (rule.pattern.matches(container)) {
+                if (matched == null) {
+                    matched = new ArrayList<>(2);
+                }
+                matched.add(rule);
+            }
+        }
+        return new Decision(matched == null ? List.of() : matched, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 请求结束时调用，确定该请求是否需要记录
+     *
+     * @param decision 请求开始时的采样决定
+     * @param status   响应状态码
+     * @param execTime 请求耗时（单位：毫秒）
+     * @return 是否记录该请求
+     */
+    boolean shouldRecord(Decision decision, int status, long execTime) {
+        if (decision == EXCLUDED) {
+            return false;
+        }
+        if (recordAll || status >= 400 || execTime >= slowThreshold) {
+            return true;
+        }
+        double rate = defaultRate;
+        int statusClass = status / 100;
+        for (Rule rule : decision.rules) {
+            if (rule.statusClass == -1 || rule.statusClass == statusClass) {
+                rate = rule.rate;
+                break;
+            }
+        }
+        return decision.roll < rate;
+    }
+
+    private record Rule(PathPattern pattern, int statusClass, double rate) {
+    }
+
+    /**
+     * 请求开始时的采样决定，包含匹配到的采样规则及抽样随机数
+     */
+    record Decision(List<Rule> rules, double roll) {
+    }
+}
@@ -22,7 +22,8 @@ import com.picobase.persistence.dbx.SelectQuery;
 import com.picobase.persistence.dbx.expression.Expression;
 import com.picobase.persistence.repository.Page;
 import com.picobase.persistence.resolver.RecordFieldResolver;
-import com.picobase.search.SearchFilter;
+import com.picobase.search.RuleEvaluator;
+import com.picobase.search.RulePlan;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
@@ -96,25 +97,38 @@ public class RecordController {
 
             testForm.loadRequest();
 
-            Consumer<SelectQuery> createRuleFunc = selectQuery -> {
-                if (StrUtil.isEmpty(collection.getCreateRule())) {
-                    return;
+            // 规则只引用 record 自身字段及请求字段时在内存中检查，不再临时保存 record
+            Optional<Boolean> allowed = Optional.empty();
+            if (RuleEvaluator.isResolvable(collection.getCreateRule(), collection)) {
+                testForm.dryValidate();
+                if (!testRecord.hasId()) {
+                    testRecord.refreshId();
                 }
-                RecordFieldResolver resolver = new RecordFieldResolver(collection, requestInfo, true);
-
-                Expression expr = new SearchFilter(collection.getCreateRule()).buildExpr(resolver);
-                resolver.updateQuery(selectQuery);
-                selectQuery.andWhere(expr);
-            };
+                allowed = RuleEvaluator.evaluate(collection.getCreateRule(), testRecord, requestInfo);
+            }
 
-            testForm.drySubmit(s -> {
-                Optional<RecordModel> recordOptional = recordMapper.findRecordById(collection.getId(), testRecord.getId(), createRuleFunc);
-                if (recordOptional.isEmpty()) {
+            if (allowed.isPresent()) {
+                if (!allowed.get()) {
                     throw new BadRequestException("DrySubmit create rule failure");
                 }
-                hasFullManageAccess.set(hasAuthManageAccess(recordOptional.get(), requestInfo));
-            });
-
+                hasFullManageAccess.set(hasAuthManageAccess(testRecord, requestInfo));
+            } else {
+                Consumer<SelectQuery> createRuleFunc = selectQuery -> {
+                    RecordFieldResolver resolver = new RecordFieldResolver(collection, requestInfo, true);
+
+                    Expression expr = RulePlan.buildExpr(collection.getCreateRule(), resolver);
+                    resolver.updateQuery(selectQuery);
+                    selectQuery.andWhere(expr);
+                };
+
+                testForm.drySubmit(s -> {
+                    Optional<RecordModel> recordOptional = recordMapper.findRecordById(collection.getId(), testRecord.getId(), createRuleFunc);
+                    if (recordOptional.isEmpty()) {
+                        throw new BadRequestException("DrySubmit create rule failure");
+                    }
+                    hasFullManageAccess.set(hasAuthManageAccess(recordOptional.get(), requestInfo));
+                });
+            }
         }
 
         RecordModel record = new RecordModel(collection);
@@ -159,26 +173,19 @@ public class RecordController {
 
         // eager fetch the record so that the modifier field values are replaced
         // and available when accessing requestInfo.Data using just the field name
+        RecordModel loaded = null;
         if (requestInfo.hasModifierDataKeys()) {
             Optional<RecordModel> recordOptional = recordMapper.findRecordById(collection.getId(), id);
             if (recordOptional.isEmpty()) {
                 throw new NotFoundException();
             }
-            requestInfo.setData(recordOptional.get().replaceModifers(requestInfo.getData()));
+            loaded = recordOptional.get();
+            requestInfo.setData(loaded.replaceModifers(requestInfo.getData()));
 
         }
 
-        Consumer<SelectQuery> ruleFunc = selectQuery -> {
-            if (requestInfo.getAdmin() == null && StrUtil.isNotEmpty(collection.getUpdateRule())) {
-                RecordFieldResolver recordFieldResolver = new RecordFieldResolver(collection, requestInfo, true);
-                Expression expression = new SearchFilter(collection.getUpdateRule()).buildExpr(recordFieldResolver);
-                recordFieldResolver.updateQuery(selectQuery);
-                selectQuery.andWhere(expression);
-            }
-        };
-
         // fetch record
-        Optional<RecordModel> recordOptional = recordMapper.findRecordById(collection.getId(), id, ruleFunc);
+        Optional<RecordModel> recordOptional = findRecordByRule(collection, id, collection.getUpdateRule(), requestInfo, loaded);
         if (recordOptional.isEmpty()) {
             throw new NotFoundException();
         }
@@ -222,16 +229,7 @@ public class RecordController {
             throw new ForbiddenException("Only admins can perform this action.");
         }
 
-        Consumer<SelectQuery> ruleFunc = selectQuery -> {
-            if (requestInfo.getAdmin() == null && StrUtil.isNotEmpty(collection.getDeleteRule())) {
-                RecordFieldResolver recordFieldResolver = new RecordFieldResolver(collection, requestInfo, true);
-                Expression expression = new SearchFilter(collection.getDeleteRule()).buildExpr(recordFieldResolver);
-                recordFieldResolver.updateQuery(selectQuery);
-                selectQuery.andWhere(expression);
-            }
-        };
-
-        Optional<RecordModel> recordOptional = recordMapper.findRecordById(collection.getId(), recordId, ruleFunc);
+        Optional<RecordModel> recordOptional = findRecordByRule(collection, recordId, collection.getDeleteRule(), requestInfo, null);
         if (recordOptional.isEmpty()) {
             throw new NotFoundException();
         }
@@ -15,6 +15,10 @@ public class PbConfig implements Serializable {
      * S3 配置
      */
     public S3Config s3 = new S3Config();
+    /**
+     * SQL 执行统计配置
+     */
+    public PbSqlConfig sql = new PbSqlConfig();
     /**
      * token 名称 （同时也是： cookie 名称、提交 token 时参数的名称、存储 token 时的 key 前缀）
      */
@@ -114,6 +118,12 @@ public class PbConfig implements Serializable {
      */
     private String jwtSecretKey;
 
+    /**
+     * 已编译的权限、角色匹配器跨请求缓存的时间（单位: 秒），默认值0代表只在同一请求内缓存，设置为 -1 代表不过期；
+     * 权限数据变化后需调用 refreshPermission 使缓存失效
+     */
+    private long permissionCacheTimeout = 0;
+
 
     /**
      * @return 是否在初始化配置时在控制台打印版本字符画
@@ -505,6 +515,22 @@ public class PbConfig implements Serializable {
         return this;
     }
 
+    /**
+     * @return SQL 执行统计配置
+     */
+    public PbSqlConfig getSql() {
+        return sql;
+    }
+
+    /**
+     * @param sql SQL 执行统计配置
+     * @return 对象自身
+     */
+    public PbConfig setSql(PbSqlConfig sql) {
+        this.sql = sql;
+        return this;
+    }
+
     /**
      * @return Http Basic 认证的默认账号和密码
      */
@@ -537,12 +563,29 @@ public class PbConfig implements Serializable {
         return this;
     }
 
+    /**
+     * @return 已编译的权限、角色匹配器跨请求缓存的时间（单位: 秒），0 代表只在同一请求内缓存，-1 代表不过期
+     */
+    public long getPermissionCacheTimeout() {
+        return permissionCacheTimeout;
+    }
+
+    /**
+     * @param permissionCacheTimeout 已编译的权限、角色匹配器跨请求缓存的时间（单位: 秒），0 代表只在同一请求内缓存，-1 代表不过期
+     * @return 对象自身
+     */
+    public PbConfig setPermissionCacheTimeout(long permissionCacheTimeout) {
+        this.permissionCacheTimeout = permissionCacheTimeout;
+        return this;
+    }
+
 
     @Override
     public String toString() {
         return "PbConfig{" +
                 "cookie=" + cookie +
                 ", s3=" + s3 +
+                ", sql=" + sql +
                 ", tokenName='" + tokenName + '\'' +
                 ", timeout=" + timeout +
                 ", activeTimeout=" + activeTimeout +
@@ -567,6 +610,7 @@ public class PbConfig implements Serializable {
                 ", dataRefreshPeriod=" + dataRefreshPeriod +
                 ", basic='" + basic + '\'' +
                 ", jwtSecretKey='" + jwtSecretKey + '\'' +
+                ", permissionCacheTimeout=" + permissionCacheTimeout +
                 '}';
     }
 }
@@ -0,0 +1,215 @@
+package com.picobase.config;
+
+import java.io.Serializable;
+
+/**
+ * SQL 执行统计及预编译语句缓存相关配置
+ */
+public class PbSqlConfig implements Serializable {
+
+    /**
+     * 是否记录 SQL 执行统计（按语句指纹统计耗时分布、影响行数及错误数）
+     */
+    private Boolean recordStats = true;
+
+    /**
+     * 慢 SQL 阈值（单位：毫秒），执行耗时达到该值的语句以 warn 级别输出，设置为 -1 代表不输出慢 SQL 日志
+     */
+    private long slowThreshold = 1000;
+
+    /**
+     * 最多统计的语句指纹数量，超出后的语句合并统计
+     */
+    private int maxStatements = 1000;
+
+    /**
+     * 是否以 debug 级别输出每一条 SQL 及其耗时，仅建议在开发环境开启
+     */
+    private Boolean isLog = false;
+
+    /**
+     * 是否开启 MySQL 驱动的预编译语句缓存（cachePrepStmts），开启后每个连接按 SQL 缓存预编译语句（LRU），相同 SQL 不再重复解析
+     * <p> 仅对 jdbc:mysql: 连接串生效，连接串中已显式配置的同名参数不会被覆盖 </p>
+     */
+    private Boolean cachePrepStmts = true;
+
+    /**
+     * 是否使用服务端预编译语句（useServerPrepStmts），与 cachePrepStmts 一同开启时服务端的解析结果可在同一连接上复用
+     * <p> 会改变驱动与服务端的交互方式（COM_STMT_PREPARE / EXECUTE），默认不开启，需显式配置为 true </p>
+     */
+    private Boolean useServerPrepStmts = false;
+
+    /**
+     * 每个连接最多缓存的预编译语句数量（prepStmtCacheSize）
+     */
+    private int prepStmtCacheSize = 250;
+
+    /**
+     * 可被缓存的 SQL 最大长度（prepStmtCacheSqlLimit），超出该长度的语句不缓存
+     */
+    private int prepStmtCacheSqlLimit = 2048;
+
+    /**
+     * 索引建议的采样比例（0 ~ 1），按该比例记录 record 列表查询使用的过滤及排序字段，设置为 0 代表不采样
+     */
+    private double indexAdvisorSampleRate = 0.1;
+
+    /**
+     * @return 是否记录 SQL 执行统计
+     */
+    public Boolean getRecordStats() {
+        return recordStats;
+    }
+
+    /**
+     * @param recordStats 是否记录 SQL 执行统计
+     * @return 对象自身
+     */
+    public PbSqlConfig setRecordStats(Boolean recordStats) {
+        this.recordStats = recordStats;
+        return this;
+    }
+
+    /**
+     * @return 慢 SQL 阈值（单位：毫秒）
+     */
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * @param slowThreshold 慢 SQL 阈值（单位：毫秒），设置为 -1 代表不输出慢 SQL 日志
+     * @return 对象自身
+     */
+    public PbSqlConfig setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+        return this;
+    }
+
+    /**
+     * @return 最多统计的语句指纹数量
+     */
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    /**
+     * @param maxStatements 最多统计的语句指纹数量
+     * @return 对象自身
+     */
+    public PbSqlConfig setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+        return this;
+    }
+
+    /**
+     * @return 是否以 debug 级别输出每一条 SQL 及其耗时
+     */
+    public Boolean getIsLog() {
+        return isLog;
+    }
+
+    /**
+     * @param isLog 是否以 debug 级别输出每一条 SQL 及其耗时
+     * @return 对象自身
+     */
+    public PbSqlConfig setIsLog(Boolean isLog) {
+        this.isLog = isLog;
+        return this;
+    }
+
+    /**
+     * @return 是否开启 MySQL 驱动的预编译语句缓存
+     */
+    public Boolean getCachePrepStmts() {
+        return cachePrepStmts;
+    }
+
+    /**
+     * @param cachePrepStmts 是否开启 MySQL 驱动的预编译语句缓存
+     * @return 对象自身
+     */
+    public PbSqlConfig setCachePrepStmts(Boolean cachePrepStmts) {
+        this.cachePrepStmts = cachePrepStmts;
+        return this;
+    }
+
+    /**
+     * @return 是否使用服务端预编译语句
+     */
+    public Boolean getUseServerPrepStmts() {
+        return useServerPrepStmts;
+    }
+
+    /**
+     * @param useServerPrepStmts 是否使用服务端预编译语句
+     * @return 对象自身
+     */
+    public PbSqlConfig setUseServerPrepStmts(Boolean useServerPrepStmts) {
+        this.useServerPrepStmts = useServerPrepStmts;
+        return this;
+    }
+
+    /**
+     * @return 每个连接最多缓存的预编译语句数量
+     */
+    public int getPrepStmtCacheSize() {
+        return prepStmtCacheSize;
+    }
+
+    /**
+     * @param prepStmtCacheSize 每个连接最多缓存的预编译语句数量
+     * @return 对象自身
+     */
+    public PbSqlConfig setPrepStmtCacheSize(int prepStmtCacheSize) {
+        this.prepStmtCacheSize = prepStmtCacheSize;
+        return this;
+    }
+
+    /**
+     * @return 可被缓存的 SQL 最大长度
+     */
+    public int getPrepStmtCacheSqlLimit() {
+        return prepStmtCacheSqlLimit;
+    }
+
+    /**
+     * @param prepStmtCacheSqlLimit 可被缓存的 SQL 最大长度
+     * @return 对象自身
+     */
+    public PbSqlConfig setPrepStmtCacheSqlLimit(int prepStmtCacheSqlLimit) {
+        this.prepStmtCacheSqlLimit = prepStmtCacheSqlLimit;
+        return this;
+    }
+
+    /**
+     * @return 索引建议的采样比例
+     */
+    public double getIndexAdvisorSampleRate() {
+        return indexAdvisorSampleRate;
+    }
+
+    /**
+     * @param indexAdvisorSampleRate 索引建议的采样比例（0 ~ 1），设置为 0 代表不采样
+     * @return 对象自身
+     */
+    public PbSqlConfig setIndexAdvisorSampleRate(double indexAdvisorSampleRate) {
+        this.indexAdvisorSampleRate = indexAdvisorSampleRate;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PbSqlConfig{" +
+                "recordStats=" + recordStats +
+                ", slowThreshold=" + slowThreshold +
+                ", maxStatements=" + maxStatements +
+                ", isLog=" + isLog +
+                ", cachePrepStmts=" + cachePrepStmts +
+                ", useServerPrepStmts=" + useServerPrepStmts +
+                ", prepStmtCacheSize=" + prepStmtCacheSize +
+                ", prepStmtCacheSqlLimit=" + prepStmtCacheSqlLimit +
+                ", indexAdvisorSampleRate=" + indexAdvisorSampleRate +
+                '}';
+    }
+}
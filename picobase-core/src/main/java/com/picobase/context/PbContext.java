@@ -4,7 +4,9 @@ package com.picobase.context;
 import com.picobase.context.model.PbRequest;
 import com.picobase.context.model.PbResponse;
 import com.picobase.context.model.PbStorage;
+import com.picobase.router.PbPathPatterns;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -52,6 +54,19 @@ public interface PbContext {
      */
     boolean matchPath(String pattern, String path);
 
+    /**
+     * 判断：路由匹配符集合中是否有任一匹配符可以匹配成功指定路径
+     * <p> 默认将匹配符集合预编译为 {@link PbPathPatterns}，对路径只遍历一次，匹配规则与 springboot 中的 {@link #matchPath} 一致；
+     * matchPath 使用其他匹配规则的上下文处理器需一并重写此方法 </p>
+     *
+     * @param patterns 路由匹配符集合
+     * @param path     需要匹配的路径
+     * @return /
+     */
+    default boolean matchPaths(List<String> patterns, String path) {
+        return PbPathPatterns.compile(patterns).match(path);
+    }
+
     /**
      * 判断：在本次请求中，此上下文是否可用。
      * <p> 例如在部分 rpc 调用时， 一级上下文会返回 false，这时候框架就会选择使用二级上下文来处理请求 </p>
@@ -8,6 +8,7 @@ import com.picobase.error.PbErrorCode;
 import com.picobase.exception.InvalidContextException;
 
 import javax.swing.text.html.Option;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -49,6 +50,11 @@ public class PbContextDefaultImpl implements PbContext {
         throw new InvalidContextException(ERROR_MESSAGE).setCode(PbErrorCode.CODE_10001);
     }
 
+    @Override
+    public boolean matchPaths(List<String> patterns, String path) {
+        throw new InvalidContextException(ERROR_MESSAGE).setCode(PbErrorCode.CODE_10001);
+    }
+
     @Override
     public <T> Optional<T> createObjFromRequest(Class<T> dto) {
         throw new InvalidContextException(ERROR_MESSAGE).setCode(PbErrorCode.CODE_10001);
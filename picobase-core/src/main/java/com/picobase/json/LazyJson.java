@@ -0,0 +1,62 @@
+package com.picobase.json;
+
+import java.util.function.Function;
+
+/**
+ * 延迟解析的 json 值：保留驱动返回的原始 json 字符串，第一次取结构化的值时才解析
+ * <p>
+ * 未被修改的值在序列化时可直接输出原始 json，省去解析与重新序列化；解析结果只计算一次，可在多个线程间共享
+ *
+ * @param <T> 解析后的类型
+ */
+public final class LazyJson<T> {
+
+    private final String raw;
+    private Function<String, T> decoder;
+    private T value;
+    private volatile boolean decoded;
+
+    private LazyJson(String raw, Function<String, T> decoder) {
+        this.raw = raw;
+        this.decoder = decoder;
+    }
+
+    public static <T> LazyJson<T> of(String raw, Function<String, T> decoder) {
+        return new LazyJson<>(raw, decoder);
+    }
+
+    /**
+     * @return 原始 json 字符串
+     */
+    public String raw() {
+        return raw;
+    }
+
+    /**
+     * @return 解析后的值，第一次调用时解析
+     */
+    public T get() {
+        if (!decoded) {
+            synchronized (this) {
+                if (!decoded) {
+                    value = decoder.apply(raw);
+                    decoder = null;
+                    decoded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return 是否已经解析过
+     */
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
@@ -1,100 +1,74 @@
 package com.picobase.logic;
 
-import cn.hutool.core.util.StrUtil;
 import com.picobase.util.Tokenizer;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class FieldsFilterProcessor {
 
 
     public static void pickFields(Object data, String rawFields) {
-        var parsedFields = parseFields(rawFields);
+        var projection = FieldsProjection.compile(rawFields);
+        if (projection == null) {
+            return; // nothing to pick
+        }
 
-        pickParsedFields(data, parsedFields);
+        pickFields(data, projection);
     }
 
-    private static void pickParsedFields(Object data, Map<String, FieldModifier> parsedFields) {
-        if (data instanceof List list) {
-            list.forEach(item -> {
-                if (item instanceof Map m) {
-                    pickMapFields(m, parsedFields);
+    /**
+     * 使用预编译的 fields 挑选 data 中的字段，data 为 Map 或 Map 列表，其余值保持不变
+     *
+     * @param data       被挑选的数据，原地修改
+     * @param projection 预编译的 fields
+     */
+    public static void pickFields(Object data, FieldsProjection projection) {
+        if (data instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof Map<?, ?> m) {
+                    pickMapFields(m, projection);
                 } else {
                     // for now ignore non-map values
                 }
-            });
-        } else if (data instanceof Map map) {
-            pickMapFields(map, parsedFields);
+            }
+        } else if (data instanceof Map<?, ?> map) {
+            pickMapFields(map, projection);
         }
     }
 
 
     /*
-     * 根据 parsedFields 更新 data 结构
-     * @fields 被允许的字段，FieldModifier 可能为null;
+     * 根据 projection 一次遍历更新 data 结构
      */
-    private static void pickMapFields(Map<String, Object> data, Map<String, FieldModifier> fields) {
-        if (fields.isEmpty()) {
-            return; // nothing to pick
-        }
-        if (fields.containsKey("*")) {
-            var m = fields.get("*");
-            // append all missing root level data keys
-            data.keySet().forEach(k -> {
-                boolean exsists = false;
-                Set<String> fs = fields.keySet();
-                for (String f : fs) {
-                    if ((f + ".").startsWith(k + ".")) {
-                        exsists = true;
-                        break;
-                    }
-                }
-
-                if (!exsists) {
-                    fields.put(k, m);
-                }
+    private static void pickMapFields(Map<?, ?> data, FieldsProjection projection) {
+        for (var it = ((Map<Object, Object>) data).entrySet().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            var key = String.valueOf(entry.getKey());
 
-            });
-        }
-
-
-        DataLoop:
-        for (String k : new HashSet<>(data.keySet())) {
-            var matchingFields = new ConcurrentHashMap<String, FieldModifier>(fields.size());
-            fields.entrySet().forEach(e -> {
-                var f = e.getKey();
-                if ((f + ".").startsWith(k + ".")) {
-                    matchingFields.put(f, e.getValue());
-                }
-            });
-
-            if (matchingFields.isEmpty()) {
-                data.remove(k);
-                continue DataLoop;
-            }
-
-            // remove the current key from the matching fields path
-            for (String f : new HashSet<String>(matchingFields.keySet())) {
-                var m = matchingFields.get(f);
-                var remains = StrUtil.removeSuffix(StrUtil.removePrefix(f + ".", k + "."), ".");
+            var modifier = projection.leaf(key);
+            if (modifier != null) {
                 // final key
-                if (StrUtil.isEmpty(remains)) {
-                    data.put(k, m.modify(data.get(k)));
-                    continue DataLoop;
+                if (modifier != FieldModifier.Nil_Modifier) {
+                    entry.setValue(modifier.modify(entry.getValue()));
                 }
+                continue;
+            }
 
-                // cleanup the old field key and continue with the rest of the field path
-                matchingFields.remove(f);
-                matchingFields.put(remains, m);
+            var child = projection.child(key);
+            if (child == null) {
+                it.remove();
+                continue;
             }
 
-            pickParsedFields(data.get(k), matchingFields);
+            // continue with the rest of the field path
+            pickFields(entry.getValue(), child);
         }
     }
 
 
-    private static Map<String, FieldModifier> parseFields(String rawFields) {
+    static Map<String, FieldModifier> parseFields(String rawFields) {
         var t = Tokenizer.newFromString(rawFields);
         var fields = t.scanAll();
         var result = new HashMap<String, FieldModifier>(fields.size());
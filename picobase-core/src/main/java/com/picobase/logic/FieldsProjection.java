@@ -0,0 +1,94 @@
+package com.picobase.logic;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 预编译的 fields 查询参数，按 "." 分隔的路径组织成不可变的树，每个请求只解析一次
+ * <p>
+ * 对某一层的 key：
+ * <ul>
+ *     <li>完整匹配的字段保留整个值，并应用其 modifier</li>
+ *     <li>否则存在以该 key 开头的路径时，使用子节点继续挑选其值</li>
+ *     <li>否则存在 "*" 时保留整个值，并应用 "*" 的 modifier</li>
+ *     <li>其余 key 被移除</li>
+ * </ul>
+ */
+public final class FieldsProjection {
+
+    private static final String WILDCARD = "*";
+
+    private final Map<String, FieldModifier> leaves;
+    private final Map<String, FieldsProjection> children;
+    private final FieldModifier wildcard;
+
+    private FieldsProjection(Map<String, FieldModifier> leaves, Map<String, FieldsProjection> children, FieldModifier wildcard) {
+        this.leaves = leaves;
+        this.children = children;
+        this.wildcard = wildcard;
+    }
+
+    /**
+     * 解析 fields 查询参数，例如 "*,expand.rel.title:excerpt(10)"
+     *
+     * @param rawFields fields 查询参数
+     * @return 预编译的挑选规则，没有任何字段时返回 null
+     */
+    public static FieldsProjection compile(String rawFields) {
+        if (StrUtil.isBlank(rawFields)) {
+            return null;
+        }
+        Map<String, FieldModifier> fields = FieldsFilterProcessor.parseFields(rawFields);
+        return fields.isEmpty() ? null : of(fields);
+    }
+
+    static FieldsProjection of(Map<String, FieldModifier> fields) {
+        Map<String, FieldModifier> leaves = new HashMap<>();
+        Map<String, Map<String, FieldModifier>> nested = new HashMap<>();
+        FieldModifier wildcard = null;
+        for (Map.Entry<String, FieldModifier> entry : fields.entrySet()) {
+            String path = entry.getKey();
+            int dot = path.indexOf('.');
+            String key = dot < 0 ? path : path.substring(0, dot);
+            String remains = dot < 0 ? "" : StrUtil.removeSuffix(path.substring(dot + 1), ".");
+            if (!remains.isEmpty()) {
+                nested.computeIfAbsent(key, k -> new HashMap<>()).put(remains, entry.getValue());
+            } else if (WILDCARD.equals(key)) {
+                wildcard = entry.getValue();
+            } else {
+                leaves.put(key, entry.getValue());
+            }
+        }
+
+        Map<String, FieldsProjection> children = new HashMap<>(nested.size());
+        nested.forEach((key, paths) -> {
+            if (!leaves.containsKey(key)) {
+                children.put(key, of(paths));
+            }
+        });
+        return new FieldsProjection(Collections.unmodifiableMap(leaves), Collections.unmodifiableMap(children), wildcard);
+    }
+
+    /**
+     * @param key 当前层的 key
+     * @return 保留整个值时使用的 modifier，不保留整个值时返回 null
+     */
+    public FieldModifier leaf(String key) {
+        FieldModifier modifier = leaves.get(key);
+        if (modifier == null && wildcard != null && !children.containsKey(key)) {
+            return wildcard;
+        }
+        return modifier;
+    }
+
+    /**
+     * @param key 当前层的 key
+     * @return 挑选该 key 的值时使用的子节点，没有时返回 null
+     */
+    public FieldsProjection child(String key) {
+        return children.get(key);
+    }
+}
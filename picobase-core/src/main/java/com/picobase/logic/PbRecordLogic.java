@@ -35,7 +35,7 @@ import com.picobase.persistence.repository.Page;
 import com.picobase.persistence.resolver.ListUtil;
 import com.picobase.persistence.resolver.RecordFieldResolver;
 import com.picobase.search.PbProvider;
-import com.picobase.search.SearchFilter;
+import com.picobase.search.RulePlan;
 import com.picobase.util.PbConstants;
 
 import java.nio.file.Paths;
@@ -169,7 +169,7 @@ public class PbRecordLogic {
         var searchProvider = new PbProvider(fieldsResolver).query(recordMapper.recordQuery(collection));
 
         if (requestInfo.getAdmin() == null && StrUtil.isNotEmpty(collection.getListRule())) {
-            searchProvider.addFilter(new SearchFilter(collection.getListRule()));
+            searchProvider.addFilter(RulePlan.filter(collection.getListRule()));
         }
         Page<RecordModel> result;
 
@@ -284,7 +284,7 @@ public class PbRecordLogic {
         Consumer<SelectQuery> ruleFunc = selectQuery -> {
             if (requestInfo.getAdmin() == null && StrUtil.isNotEmpty(collection.getViewRule())) {
                 RecordFieldResolver recordFieldResolver = new RecordFieldResolver(collection, requestInfo, true);
-                Expression expression = new SearchFilter(collection.getViewRule()).buildExpr(recordFieldResolver);
+                Expression expression = RulePlan.buildExpr(collection.getViewRule(), recordFieldResolver);
                 recordFieldResolver.updateQuery(selectQuery);
                 selectQuery.andWhere(expression);
             }
@@ -11,13 +11,15 @@ import com.picobase.exception.PbException;
 import com.picobase.log.PbLog;
 import com.picobase.logic.mapper.RecordMapper;
 import com.picobase.model.AdminModel;
+import com.picobase.model.CollectionModel;
 import com.picobase.model.RecordModel;
 import com.picobase.model.RequestInfo;
 import com.picobase.persistence.dbx.SelectQuery;
 import com.picobase.persistence.dbx.expression.Expression;
 import com.picobase.persistence.resolver.RecordFieldResolver;
 import com.picobase.persistence.resolver.ResultCouple;
-import com.picobase.search.SearchFilter;
+import com.picobase.search.RuleEvaluator;
+import com.picobase.search.RulePlan;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -188,7 +190,7 @@ public class RecordHelper {
                     }
 
                     var resolver = new RecordFieldResolver(relCollection, requestInfo, true);
-                    var expr = new SearchFilter(relCollection.getViewRule()).buildExpr(resolver);
+                    var expr = RulePlan.buildExpr(relCollection.getViewRule(), resolver);
                     resolver.updateQuery(q);
                     q.andWhere(expr);
                 });
@@ -245,7 +247,7 @@ public class RecordHelper {
                 .select(quoteSimpleColumnName(collection.getName()) + ".id")
                 .andWhere(Expression.in(quoteSimpleColumnName(collection.getName()) + ".id", recordIds));
         var resolver = new RecordFieldResolver(collection, requestInfo, true);
-        var expr = new SearchFilter(authOptions.getManageRule()).buildExpr(resolver);
+        var expr = RulePlan.buildExpr(authOptions.getManageRule(), resolver);
         resolver.updateQuery(query);
         query.andWhere(expr);
 
@@ -271,6 +273,41 @@ public class RecordHelper {
     }
 
 
+    /**
+     * 按 id 查找满足规则的 record（admin 不受规则限制）
+     * <p>
+     * 规则可在内存中计算时按 id 查找后直接计算规则，否则将规则作为查询条件
+     *
+     * @param rule   集合规则，为空时表示不限制
+     * @param loaded 已按 id 查找的 record，不为 null 时不再查找
+     */
+    public static Optional<RecordModel> findRecordByRule(CollectionModel collection, String recordId, String rule, RequestInfo requestInfo, RecordModel loaded) {
+        boolean checkRule = requestInfo.getAdmin() == null && StrUtil.isNotEmpty(rule);
+        if (checkRule && !RuleEvaluator.isResolvable(rule, collection)) {
+            return findRecordByRuleQuery(collection, recordId, rule, requestInfo);
+        }
+
+        Optional<RecordModel> record = loaded != null ? Optional.of(loaded) : recordMapper.findRecordById(collection.getId(), recordId);
+        if (!checkRule || record.isEmpty()) {
+            return record;
+        }
+
+        Optional<Boolean> allowed = RuleEvaluator.evaluate(rule, record.get(), requestInfo);
+        if (allowed.isEmpty()) {
+            return findRecordByRuleQuery(collection, recordId, rule, requestInfo);
+        }
+        return allowed.get() ? record : Optional.empty();
+    }
+
+    private static Optional<RecordModel> findRecordByRuleQuery(CollectionModel collection, String recordId, String rule, RequestInfo requestInfo) {
+        return recordMapper.findRecordById(collection.getId(), recordId, selectQuery -> {
+            RecordFieldResolver resolver = new RecordFieldResolver(collection, requestInfo, true);
+            Expression expression = RulePlan.buildExpr(rule, resolver);
+            resolver.updateQuery(selectQuery);
+            selectQuery.andWhere(expression);
+        });
+    }
+
     // hasAuthManageAccess checks whether the client is allowed to have full
     // [forms.RecordUpsert] auth management permissions
     // (aka. allowing to change system auth fields without oldPassword).
@@ -290,7 +327,7 @@ public class RecordHelper {
 
         Consumer<SelectQuery> ruleConsumer = selectQuery -> {
             RecordFieldResolver resolver = new RecordFieldResolver(record.getCollection(), requestInfo, true);
-            Expression expression = new SearchFilter(manageRule).buildExpr(resolver);
+            Expression expression = RulePlan.buildExpr(manageRule, resolver);
             resolver.updateQuery(selectQuery);
             selectQuery.andWhere(expression);
         };
@@ -1,11 +1,13 @@
 package com.picobase.logic.authz;
 
 import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.IdUtil;
 import com.picobase.PbManager;
 import com.picobase.annotation.*;
 import com.picobase.cache.PbCache;
 import com.picobase.config.PbConfig;
 import com.picobase.config.PbCookieConfig;
+import com.picobase.context.PbContext;
 import com.picobase.context.PbHolder;
 import com.picobase.context.model.PbCookie;
 import com.picobase.context.model.PbRequest;
@@ -25,7 +27,10 @@ import com.picobase.util.SaValue2Box;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.picobase.exception.NotLoginException.*;
 
@@ -44,6 +49,16 @@ public class PbAuthZLogic {
     public String loginType;
     private PbConfig config;
 
+    /**
+     * 最多跨请求缓存的匹配器数量，达到后先清除已过期的匹配器，仍未低于该数量时不再缓存
+     */
+    private static final int MAX_CACHED_MATCHERS = 10000;
+
+    /**
+     * 跨请求缓存的已编译权限、角色匹配器，key 为 Account-Session 的 key 加匹配器类型
+     */
+    private final Map<String, CachedMatcher> matcherCache = new ConcurrentHashMap<>();
+
     /**
      * 初始化 PbAuthZLogic, 并指定账号类型
      *
@@ -1804,7 +1819,7 @@ public class PbAuthZLogic {
      * @return 是否含有指定角色标识
      */
     public boolean hasRole(Object loginId, String role) {
-        return hasElement(getRoleList(loginId), role);
+        return getRoleMatcher(loginId).match(role);
     }
 
     /**
@@ -1863,11 +1878,9 @@ public class PbAuthZLogic {
         }
 
         // 开始校验
-        List<String> roleList = getRoleList(loginId);
-        for (String role : roleArray) {
-            if (!hasElement(roleList, role)) {
-                throw new NotRoleException(role, this.loginType).setCode(PbErrorCode.CODE_11041);
-            }
+        String missing = getRoleMatcher(loginId).firstMismatch(roleArray);
+        if (missing != null) {
+            throw new NotRoleException(missing, this.loginType).setCode(PbErrorCode.CODE_11041);
         }
     }
 
@@ -1885,13 +1898,9 @@ public class PbAuthZLogic {
             return;
         }
 
-        // 开始校验
-        List<String> roleList = getRoleList(loginId);
-        for (String role : roleArray) {
-            if (hasElement(roleList, role)) {
-                // 有的话提前退出 
-                return;
-            }
+        // 开始校验，有的话提前退出
+        if (getRoleMatcher(loginId).matchAny(roleArray)) {
+            return;
         }
 
         // 代码至此，说明一个都没通过，需要抛出无角色异常
@@ -1942,7 +1951,7 @@ public class PbAuthZLogic {
      * @return 是否含有指定权限
      */
     public boolean hasPermission(Object loginId, String permission) {
-        return hasElement(getPermissionList(loginId), permission);
+        return getPermissionMatcher(loginId).match(permission);
     }
 
     /**
@@ -2001,11 +2010,9 @@ public class PbAuthZLogic {
         }
 
         // 开始校验
-        List<String> permissionList = getPermissionList(loginId);
-        for (String permission : permissionArray) {
-            if (!hasElement(permissionList, permission)) {
-                throw new NotPermissionException(permission, this.loginType).setCode(PbErrorCode.CODE_11051);
-            }
+        String missing = getPermissionMatcher(loginId).firstMismatch(permissionArray);
+        if (missing != null) {
+            throw new NotPermissionException(missing, this.loginType).setCode(PbErrorCode.CODE_11051);
         }
     }
 
@@ -2023,13 +2030,9 @@ public class PbAuthZLogic {
             return;
         }
 
-        // 开始校验
-        List<String> permissionList = getPermissionList(loginId);
-        for (String permission : permissionArray) {
-            if (hasElement(permissionList, permission)) {
-                // 有的话提前退出
-                return;
-            }
+        // 开始校验，有的话提前退出
+        if (getPermissionMatcher(loginId).matchAny(permissionArray)) {
+            return;
         }
 
         // 代码至此，说明一个都没通过，需要抛出无权限异常
@@ -2037,6 +2040,112 @@ public class PbAuthZLogic {
     }
 
 
+    // ------------------- 权限、角色匹配器 -------------------
+
+    /**
+     * 获取：指定账号已编译的角色匹配器，在当前请求内缓存，配置 permissionCacheTimeout 后跨请求缓存
+     *
+     * @param loginId 账号id
+     * @return /
+     */
+    public PbElementMatcher getRoleMatcher(Object loginId) {
+        return getMatcher(loginId, PbSession.ROLE_LIST, () -> getRoleList(loginId));
+    }
+
+    /**
+     * 获取：指定账号已编译的权限匹配器，在当前请求内缓存，配置 permissionCacheTimeout 后跨请求缓存
+     *
+     * @param loginId 账号id
+     * @return /
+     */
+    public PbElementMatcher getPermissionMatcher(Object loginId) {
+        return getMatcher(loginId, PbSession.PERMISSION_LIST, () -> getPermissionList(loginId));
+    }
+
+    /**
+     * 指定账号的权限、角色数据已变化，使已编译的匹配器失效（集群部署时通过 PbCache 中的版本号通知其他节点）
+     *
+     * @param loginId 账号id
+     */
+    public void refreshPermission(Object loginId) {
+        long cacheTimeout = getConfigOrGlobal().getPermissionCacheTimeout();
+        if (cacheTimeout != 0) {
+            getPbCache().set(splicingKeyAuthzVersion(loginId), IdUtil.fastSimpleUUID(), cacheTimeout < 0 ? PbCache.NEVER_EXPIRE : cacheTimeout);
+        }
+        String sessionKey = splicingKeySession(loginId);
+        for (String kind : new String[]{PbSession.ROLE_LIST, PbSession.PERMISSION_LIST}) {
+            matcherCache.remove(sessionKey + ":" + kind);
+            if (isRequestValid()) {
+                PbHolder.getStorage().delete(PbConstants.AUTHZ_MATCHER_SAVE_KEY + sessionKey + ":" + kind);
+            }
+        }
+    }
+
+    private PbElementMatcher getMatcher(Object loginId, String kind, Supplier<List<String>> source) {
+        String key = splicingKeySession(loginId) + ":" + kind;
+
+        // 1. 当前请求内已编译
+        PbStorage storage = isRequestValid() ? PbHolder.getStorage() : null;
+        String storageKey = PbConstants.AUTHZ_MATCHER_SAVE_KEY + key;
+        if (storage != null && storage.get(storageKey) instanceof PbElementMatcher matcher) {
+            return matcher;
+        }
+
+        // 2. 跨请求缓存，版本号变化或过期后重新编译
+        long cacheTimeout = getConfigOrGlobal().getPermissionCacheTimeout();
+        PbElementMatcher matcher = null;
+        String version = null;
+        if (cacheTimeout != 0) {
+            version = getPbCache().get(splicingKeyAuthzVersion(loginId));
+            CachedMatcher cached = matcherCache.get(key);
+            if (cached != null && cached.isValid(version)) {
+                matcher = cached.matcher;
+            }
+        }
+        if (matcher == null) {
+            matcher = PbElementMatcher.compile(source.get());
+            if (cacheTimeout != 0) {
+                cacheMatcher(key, matcher, version, cacheTimeout);
+            }
+        }
+
+        if (storage != null) {
+            storage.set(storageKey, matcher);
+        }
+        return matcher;
+    }
+
+    private void cacheMatcher(String key, PbElementMatcher matcher, String version, long cacheTimeout) {
+        if (matcherCache.size() >= MAX_CACHED_MATCHERS && !matcherCache.containsKey(key)) {
+            long now = System.currentTimeMillis();
+            matcherCache.values().removeIf(v -> v.expireAt() <= now);
+            if (matcherCache.size() >= MAX_CACHED_MATCHERS) {
+                return;
+            }
+        }
+        long expireAt = cacheTimeout < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + cacheTimeout * 1000;
+        matcherCache.put(key, new CachedMatcher(matcher, version, expireAt));
+    }
+
+    /**
+     * 当前线程是否处于有效的请求上下文中（非 Web 线程下不使用请求级缓存）
+     */
+    private static boolean isRequestValid() {
+        PbContext context = PbHolder.getContext();
+        return context != null && context.isValid();
+    }
+
+    /**
+     * 跨请求缓存的匹配器，记录编译时的版本号
+     */
+    private record CachedMatcher(PbElementMatcher matcher, String version, long expireAt) {
+
+        boolean isValid(String currentVersion) {
+            return expireAt > System.currentTimeMillis() && Objects.equals(version, currentVersion);
+        }
+    }
+
+
     // ------------------- id 反查 token 相关操作 -------------------
 
     /**
@@ -2824,6 +2933,16 @@ public class PbAuthZLogic {
         return getConfigOrGlobal().getTokenName() + ":" + loginType + ":disable:" + service + ":" + loginId;
     }
 
+    /**
+     * 拼接： 在保存权限、角色数据版本号时，应该使用的 key
+     *
+     * @param loginId 账号id
+     * @return key
+     */
+    public String splicingKeyAuthzVersion(Object loginId) {
+        return getConfigOrGlobal().getTokenName() + ":" + loginType + ":authz-version:" + loginId;
+    }
+
     /**
      * 拼接： 在保存业务二级认证标记时，应该使用的 key
      *
@@ -0,0 +1,176 @@
+package com.picobase.logic.authz;
+
+import com.picobase.strategy.PbStrategy;
+import com.picobase.util.CommonHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 预编译的权限码（或角色标识）匹配器
+ *
+ * <p> 不含 * 的元素放入哈希集合做精确匹配；含 * 的元素按第一个 * 之前的前缀放入前缀树，匹配时沿待校验元素的字符遍历前缀树，
+ * 只对前缀相同的通配符做模糊匹配（前缀之后只剩 * 时直接命中）。匹配结果与 {@link PbStrategy#DEFAULT_HAS_ELEMENT} 一致。 </p>
+ */
+public final class PbElementMatcher {
+
+    private static final char WILDCARD = '*';
+
+    private final List<String> list;
+    private final Set<String> exact;
+    private final Node wildcards;
+
+    private PbElementMatcher(List<String> list) {
+        this.list = list == null ? Collections.emptyList() : list;
+        this.exact = new HashSet<>(this.list);
+
+        Node root = null;
+        for (String element : this.list) {
+            int star = element == null ? -1 : element.indexOf(WILDCARD);
+            if (star < 0) {
+                continue;
+            }
+            if (root == null) {
+                root = new Node();
+            }
+            Node node = root;
+            for (int i = 0; i < star; i++) {
+                node = node.child(element.charAt(i));
+            }
+            node.addRest(element.substring(star));
+        }
+        this.wildcards = root;
+    }
+
+    /**
+     * 编译权限码（或角色标识）集合
+     *
+     * @param list 权限码（或角色标识）集合
+     * @return 匹配器
+     */
+    public static PbElementMatcher compile(List<String> list) {
+        return new PbElementMatcher(list);
+    }
+
+    /**
+     * @return 编译前的权限码（或角色标识）集合
+     */
+    public List<String> getList() {
+        return list;
+    }
+
+    /**
+     * 判断：集合中是否包含指定元素（模糊匹配）
+     *
+     * @param element 元素
+     * @return /
+     */
+    public boolean match(String element) {
+        PbStrategy strategy = PbStrategy.instance;
+        if (strategy.hasElement != PbStrategy.DEFAULT_HAS_ELEMENT) {
+            // 自定义的匹配算法，不使用预编译结果
+            return strategy.hasElement.apply(list, element);
+        }
+        if (exact.contains(element)) {
+            return true;
+        }
+        if (wildcards == null || element == null) {
+            return false;
+        }
+
+        Node node = wildcards;
+        for (int i = 0; ; i++) {
+            if (node.matchRest(element, i)) {
+                return true;
+            }
+            if (i == element.length() || node.children == null) {
+                return false;
+            }
+            node = node.children.get(element.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 依次校验多个元素，返回第一个未匹配的元素
+     *
+     * @param elements 元素数组
+     * @return 第一个未匹配的元素，全部匹配时返回 null
+     */
+    public String firstMismatch(String... elements) {
+        for (String element : elements) {
+            if (!match(element)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断：多个元素中是否有任一元素匹配
+     *
+     * @param elements 元素数组
+     * @return /
+     */
+    public boolean matchAny(String... elements) {
+        for (String element : elements) {
+            if (match(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private Map<Character, Node> children;
+        /**
+         * 以当前前缀开头的通配符在前缀之后的部分（以 * 开头）
+         */
+        private List<String> rests;
+        /**
+         * 存在只剩 * 的通配符，即当前前缀开头的元素全部命中
+         */
+        private boolean any;
+
+        Node child(char c) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        void addRest(String rest) {
+            if (rest.chars().allMatch(c -> c == WILDCARD)) {
+                any = true;
+                return;
+            }
+            if (rests == null) {
+                rests = new ArrayList<>();
+            }
+            rests.add(rest);
+        }
+
+        boolean matchRest(String element, int offset) {
+            if (any) {
+                return true;
+            }
+            if (rests == null) {
+                return false;
+            }
+            String suffix = element.substring(offset);
+            for (String rest : rests) {
+                if (CommonHelper.vagueMatch(rest, suffix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import com.picobase.cache.LazyCache;
 import com.picobase.exception.BadRequestException;
 import com.picobase.exception.PbException;
 import com.picobase.model.*;
+import com.picobase.model.schema.FullTextSearchable;
+import com.picobase.model.schema.JsonIndexedPath;
 import com.picobase.model.schema.MultiValuer;
 import com.picobase.model.schema.Schema;
 import com.picobase.model.schema.SchemaField;
@@ -23,6 +25,7 @@ import com.picobase.persistence.mapper.AbstractMapper;
 import com.picobase.persistence.mapper.MappingOptions;
 import com.picobase.persistence.model.Index;
 import com.picobase.persistence.repository.StorageContextHolder;
+import com.picobase.search.RulePlan;
 import com.picobase.util.PbConstants;
 import com.picobase.util.Tokenizer;
 
@@ -570,6 +573,9 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
             }
 
             createCollectionIndexes(newCollection);
+            syncFullTextIndexes(newCollection, null);
+            createJsonPathColumns(newCollection);
+            RelationJunction.syncCollection(newCollection, null);
             return;
         }
 
@@ -589,6 +595,9 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
             renameTable(oldTableName, newTableName);
         }
 
+        // drop the generated columns that depend on deleted or renamed columns
+        dropJsonPathColumns(newCollection, oldCollection);
+
         // check for deleted columns
         for (SchemaField oldField : oldSchema.getFields()) {
             if (null != newSchema.getFieldById(oldField.getId())) {
@@ -630,6 +639,10 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
         normalizeSingleVsMultipleFieldChanges(newCollection, oldCollection);
 
         createCollectionIndexes(newCollection);
+        syncFullTextIndexes(newCollection, oldCollection);
+        createJsonPathColumns(newCollection);
+
+        RelationJunction.syncCollection(newCollection, oldCollection);
     }
 
     private void normalizeSingleVsMultipleFieldChanges(CollectionModel newCollection, CollectionModel oldCollection) {
@@ -757,6 +770,88 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
     }
 
 
+    /**
+     * 按字段的全文索引选项（{@link FullTextSearchable}）创建或删除 FULLTEXT 索引
+     * <p>
+     * 索引名使用集合及字段 id，字段改名后索引不变；删除字段时 MySQL 随列一起删除索引
+     * <p>
+     * 使用 ngram 分词器，默认分词器按空格及标点分词，无法切分中日韩文本
+     */
+    private void syncFullTextIndexes(CollectionModel newCollection, CollectionModel oldCollection) {
+        if (newCollection.isView()) {
+            return;
+        }
+
+        String tableName = newCollection.getName();
+        for (SchemaField field : newCollection.getSchema().getFields()) {
+            String indexName = String.format("_%s_%s_ft", newCollection.getId(), field.getId());
+            if (isFullText(field)) {
+                if (!indexExists(tableName, indexName)) {
+                    createIndex(Collections.singletonList(String.format("CREATE FULLTEXT INDEX `%s` ON `%s` (`%s`) WITH PARSER ngram", indexName, tableName, field.getName())));
+                }
+            } else if (oldCollection != null && isFullText(oldCollection.getSchema().getFieldById(field.getId())) && indexExists(tableName, indexName)) {
+                dropIndex(tableName, indexName);
+            }
+        }
+    }
+
+    /**
+     * 为 json 字段声明的索引路径（{@link JsonIndexedPath}）创建生成列及索引
+     */
+    private void createJsonPathColumns(CollectionModel collection) {
+        if (collection.isView()) {
+            return;
+        }
+
+        String tableName = collection.getName();
+        for (SchemaField field : collection.getSchema().getFields()) {
+            for (JsonIndexedPath indexed : JsonIndexedPath.of(field)) {
+                if (!columnExists(tableName, indexed.columnName())) {
+                    addColumn(tableName, quoteSimpleColumnName(indexed.columnName()), indexed.columnDefinition());
+                    createIndex(Collections.singletonList(String.format("CREATE INDEX `%s` ON `%s` (`%s`)", indexed.indexName(), tableName, indexed.columnName())));
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除不再声明的索引路径的生成列；字段删除、改名或类型变化时生成列的表达式失效，同样先删除，之后重新创建
+     * <p>
+     * 需在删除及重命名列之前执行，生成列所在的索引随列一起删除
+     */
+    private void dropJsonPathColumns(CollectionModel newCollection, CollectionModel oldCollection) {
+        if (newCollection.isView()) {
+            return;
+        }
+
+        String tableName = newCollection.getName();
+        for (SchemaField oldField : oldCollection.getSchema().getFields()) {
+            SchemaField newField = newCollection.getSchema().getFieldById(oldField.getId());
+            for (JsonIndexedPath indexed : JsonIndexedPath.of(oldField)) {
+                boolean kept = newField != null && StrUtil.equals(newField.getName(), oldField.getName())
+                        && JsonIndexedPath.of(newField).stream().anyMatch(p -> p.columnName().equals(indexed.columnName()));
+                if (!kept && columnExists(tableName, indexed.columnName())) {
+                    dropColumn(tableName, quoteSimpleColumnName(indexed.columnName()));
+                }
+            }
+        }
+    }
+
+    private boolean columnExists(String tableName, String columnName) {
+        List<Map> result = PbUtil.getPbDbxBuilder()
+                .newQuery("SHOW COLUMNS FROM " + tableName + " WHERE Field = :columnName")
+                .bind(Map.of("columnName", columnName)).all(Map.class);
+        return CollUtil.isNotEmpty(result);
+    }
+
+    private static boolean isFullText(SchemaField field) {
+        if (field == null) {
+            return false;
+        }
+        field.initOptions();
+        return field.getOptions() instanceof FullTextSearchable options && options.isFullText();
+    }
+
     private void dropCollectionIndex(CollectionModel collection) {
         if (collection.isView()) {
             return; // views don't have indexes
@@ -837,6 +932,7 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
             deleteView(tempName);
         } else {
             deleteTable(tempName);
+            RelationJunction.syncCollection(null, collection);
         }
 
 
@@ -955,5 +1051,7 @@ public class CollectionMapper extends AbstractMapper<CollectionModel> {
 
     public void removeCache(String nameOrId) {
         cache.remove(nameOrId);
+        // 规则计划中包含关联集合的字段解析结果，集合变化时全部重新编译
+        RulePlan.invalidateAll();
     }
 }
@@ -1,15 +1,11 @@
 package com.picobase.logic.mapper;
 
 import cn.hutool.core.date.DateUtil;
-import com.picobase.PbManager;
 import com.picobase.model.CollectionModel;
-import com.picobase.model.schema.Schema;
 import com.picobase.persistence.repository.PbRowMapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Map;
 
 public class CollectionRowMapper implements PbRowMapper<CollectionModel> {
     @Override
@@ -19,12 +15,8 @@ public class CollectionRowMapper implements PbRowMapper<CollectionModel> {
         model.setName(rs.getString("name"));
         model.setType(rs.getString("type"));
         model.setSystem(rs.getBoolean("system"));
-
-        Schema schema = PbManager.getPbJsonTemplate().parseJsonToObject(rs.getString("schema"), Schema.class);
-        model.setSchema(schema);
-
-        List<String> indexList = PbManager.getPbJsonTemplate().parseJsonToObject(rs.getString("indexes"), List.class);
-        model.setIndexes(indexList);
+        // schema、indexes 及 options 在第一次访问时才解析
+        model.loadJson(rs.getString("schema"), rs.getString("indexes"), rs.getString("options"));
 
         model.setListRule(rs.getString("listRule"));
         model.setCreateRule(rs.getString("createRule"));
@@ -32,9 +24,6 @@ public class CollectionRowMapper implements PbRowMapper<CollectionModel> {
         model.setUpdateRule(rs.getString("updateRule"));
         model.setViewRule(rs.getString("viewRule"));
 
-        Map<String, Object> options = PbManager.getPbJsonTemplate().parseJsonToObject(rs.getString("options"), Map.class);
-        model.setOptions(options);
-
         model.setCreated(DateUtil.toLocalDateTime(rs.getTimestamp("created")));
         model.setUpdated(DateUtil.toLocalDateTime(rs.getTimestamp("updated")));
 
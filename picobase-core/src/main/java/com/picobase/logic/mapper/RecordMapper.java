@@ -15,6 +15,7 @@ import com.picobase.model.schema.fieldoptions.RelationOptions;
 import com.picobase.persistence.dbx.SelectQuery;
 import com.picobase.persistence.dbx.expression.Expression;
 import com.picobase.persistence.mapper.AbstractMapper;
+import com.picobase.persistence.resolver.JunctionJoin;
 import com.picobase.persistence.resolver.ListUtil;
 import com.picobase.persistence.resolver.ResultCouple;
 import com.picobase.util.PbConstants;
@@ -162,7 +163,10 @@ public class RecordMapper extends AbstractMapper<RecordModel> {
                             .from(indirectRel.getName())
                             .limit(1000);// the limit is arbitrary chosen and may change in the future
 
-                    if (indirectRelFieldOptions.isMultiple()) {
+                    if (JunctionJoin.isEnabled(indirectRelField)) {
+                        q.innerJoin(JunctionJoin.TABLE + " je2", JunctionJoin.sourceJoin("je2", indirectRel.getName(), indirectRel, indirectRelField))
+                                .andWhere(newExpr("`je2`.`target_id` = :id"));
+                    } else if (indirectRelFieldOptions.isMultiple()) {
                         q.innerJoin(
                                 String.format("( SELECT `id` FROM %s,%s `je` WHERE `je`.`value` = :id ) je2", indirectRel.getName(), jsonEach(indirectRelField.getName()))
                                 , newExpr(String.format("`je2`.`id` = `%s`.`id`", indirectRel.getName())));
@@ -459,9 +463,22 @@ public class RecordMapper extends AbstractMapper<RecordModel> {
         if (StrUtil.isEmpty(String.valueOf(dataMap.get("id")))) {
             dataMap.put("id", model.getId());
         }
-        super.insertQuery(dataMap).execute();
-
+        withJunction(model, () -> super.insertQuery(dataMap).execute());
+    }
 
+    /**
+     * 集合有开启关联表的 relation 字段时，记录写入与关联表同步在同一事务中执行
+     */
+    private void withJunction(RecordModel model, Runnable write) {
+        if (RelationJunction.enabledFields(model.getCollection()).isEmpty()) {
+            write.run();
+            return;
+        }
+        PbManager.getPbDatabaseOperate().runInTransaction(state -> {
+            write.run();
+            RelationJunction.syncRecord(model);
+            return null;
+        }, false);
     }
 
     public void updateRecord(RecordModel model) {
@@ -478,7 +495,7 @@ public class RecordMapper extends AbstractMapper<RecordModel> {
         /**
          * 执行更新操作，这里没有调用父类 update ， 因为model是动态的 record ，并不知道具体操作哪张表
          */
-        PbUtil.getPbDbxBuilder().update(model.tableName(), BeanUtil.beanToMap(model.columnValueMap()), newHashExpr(Map.of("id", model.getId()))).execute();
+        withJunction(model, () -> PbUtil.getPbDbxBuilder().update(model.tableName(), BeanUtil.beanToMap(model.columnValueMap()), newHashExpr(Map.of("id", model.getId()))).execute());
 
     }
 
@@ -515,6 +532,7 @@ public class RecordMapper extends AbstractMapper<RecordModel> {
             // delete the record before the relation references to ensure that there
             // will be no "A<->B" relations to prevent deadlock when calling DeleteRecord recursively
             PbUtil.deleteById(record.getId(), RecordModel.class);
+            RelationJunction.deleteRecord(record);
             cascadeRecordDelete(record, refs);
             return null;
         }, false);
@@ -541,7 +559,11 @@ public class RecordMapper extends AbstractMapper<RecordModel> {
 
                 if (field.getOptions() instanceof MultiValuer) {
                     MultiValuer opt = (MultiValuer) field.getOptions();
-                    if (!opt.isMultiple()) {
+                    if (JunctionJoin.isEnabled(field)) {
+                        query.andWhere(Expression.exists(Expression.newExpr(String.format(
+                                "SELECT 1 FROM %s `__je__` WHERE `__je__`.`collection_id` = :jecollection AND `__je__`.`field_id` = :jefield AND `__je__`.`source_id` = %s.`id` AND `__je__`.`target_id` = :jevalue",
+                                JunctionJoin.TABLE, recordTableName), Map.of("jecollection", refCollection.getId(), "jefield", field.getId(), "jevalue", mainRecord.getId()))));
+                    } else if (!opt.isMultiple()) {
                         query.andWhere(Expression.newHashExpr(Map.of(prefixedFieldName, mainRecord.getId())));
                     } else {
                         query.andWhere(Expression.exists(Expression.newExpr(String.format(
@@ -1,14 +1,20 @@
 package com.picobase.logic.mapper;
 
 import com.picobase.exception.PbException;
+import com.picobase.json.LazyJson;
 import com.picobase.model.CollectionModel;
 import com.picobase.model.RecordModel;
+import com.picobase.model.schema.MultiValuer;
 import com.picobase.model.schema.SchemaField;
 import com.picobase.persistence.repository.PbRowMapper;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static com.picobase.util.PbConstants.authFieldNames;
@@ -17,6 +23,12 @@ import static com.picobase.util.PbConstants.baseModelFieldNames;
 public class RecordRowMapper implements PbRowMapper<RecordModel> {
     private final CollectionModel collection;
 
+    /**
+     * 当前 ResultSet 的列映射计划，每个 ResultSet 只根据 ResultSetMetaData 计算一次
+     */
+    private ResultSet planResultSet;
+    private Plan plan;
+
 
     public RecordRowMapper(CollectionModel collection) {
         this.collection = collection;
@@ -24,50 +36,35 @@ public class RecordRowMapper implements PbRowMapper<RecordModel> {
 
     @Override
     public RecordModel mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return newRecordFromResultSet(collection, rs);
+        if (plan == null || planResultSet != rs) {
+            plan = Plan.of(collection, rs.getMetaData());
+            planResultSet = rs;
+        }
+        return newRecordFromResultSet(collection, plan, rs);
     }
 
 
     /**
-     * 从 ResultSet 初始化 RecordModel
+     * 从 ResultSet 初始化 RecordModel，按映射计划中的列序号取值
      */
-    private RecordModel newRecordFromResultSet(CollectionModel collection, ResultSet rs) {
-        Map<String, Object> resultMap;
-        try {
-            resultMap = new HashMap<>(rs.getMetaData().getColumnCount());
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-
-        // load schema fields
-        for (SchemaField field : collection.getSchema().getFields()) {
-            try {
-                resultMap.put(field.getName(), rs.getObject(field.getName()));
-            } catch (SQLException e) {
-                //ignore exception
-                //resultMap.put(field.getName(), null);
-                throw new PbException(e);
-            }
-        }
-        // load base model fields
-        for (String name : baseModelFieldNames) {
-            try {
-                resultMap.put(name, rs.getObject(name));
-            } catch (SQLException e) {
-                //throw new RuntimeException(e);
-                resultMap.put(name, null);
-            }
-        }
-
-        // load auth fields
-        if (collection.isAuth()) {
-            for (String name : authFieldNames) {
-                try {
-                    resultMap.put(name, rs.getObject(name));
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
+    private RecordModel newRecordFromResultSet(CollectionModel collection, Plan plan, ResultSet rs) throws SQLException {
+        Map<String, Object> resultMap = new HashMap<>(plan.capacity);
+        for (int i = 0; i < plan.names.length; i++) {
+            int column = plan.columns[i];
+            Object value;
+            if (column < 0) {
+                value = null;
+            } else if (plan.strings[i]) {
+                value = rs.getString(column);
+                SchemaField jsonField = plan.jsonFields[i];
+                if (jsonField != null && value instanceof String str && str.startsWith("[")) {
+                    // 多值字段的 json 数组在第一次访问时才解析，未修改时原样输出
+                    value = LazyJson.of(str, jsonField::prepareValue);
                 }
+            } else {
+                value = rs.getObject(column);
             }
+            resultMap.put(plan.names[i], value);
         }
 
         var record = new RecordModel(collection);
@@ -78,5 +75,90 @@ public class RecordRowMapper implements PbRowMapper<RecordModel> {
         return record;
     }
 
+    /**
+     * 字段名到列序号的映射计划：依次为 schema 字段、基础字段及 auth 字段
+     */
+    private static class Plan {
+        private final String[] names;
+        /**
+         * 字段对应的列序号（从 1 开始），-1 表示结果集中没有该列，取值为 null
+         */
+        private final int[] columns;
+        /**
+         * 字符类型的列直接使用 getString 读取
+         */
+        private final boolean[] strings;
+        /**
+         * 以 json 数组存储的多值 schema 字段，其余为 null
+         */
+        private final SchemaField[] jsonFields;
+        private final int capacity;
+
+        private Plan(String[] names, int[] columns, boolean[] strings, SchemaField[] jsonFields) {
+            this.names = names;
+            this.columns = columns;
+            this.strings = strings;
+            this.jsonFields = jsonFields;
+            this.capacity = (int) (names.length / 0.75f) + 1;
+        }
+
+        static Plan of(CollectionModel collection, ResultSetMetaData metaData) throws SQLException {
+            // 与按列名取值一致：列名不区分大小写，同名列取第一个
+            int columnCount = metaData.getColumnCount();
+            Map<String, Integer> labels = new HashMap<>((int) (columnCount / 0.75f) + 1);
+            for (int i = columnCount; i >= 1; i--) {
+                labels.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+
+            List<SchemaField> fields = collection.getSchema().getFields();
+            int size = fields.size() + baseModelFieldNames.length + (collection.isAuth() ? authFieldNames.length : 0);
+            String[] names = new String[size];
+            int[] columns = new int[size];
+            boolean[] strings = new boolean[size];
+            SchemaField[] jsonFields = new SchemaField[size];
+            int n = 0;
+
+            // load schema fields
+            for (SchemaField field : fields) {
+                Integer column = labels.get(field.getName().toLowerCase(Locale.ROOT));
+                if (column == null) {
+                    throw new PbException("Column '{}' not found.", field.getName());
+                }
+                field.initOptions();
+                if (field.getOptions() instanceof MultiValuer multiValuer && multiValuer.isMultiple()) {
+                    jsonFields[n] = field;
+                }
+                names[n] = field.getName();
+                columns[n] = column;
+                strings[n++] = isString(metaData.getColumnType(column));
+            }
+            // load base model fields, 缺少的基础字段取值为 null
+            for (String name : baseModelFieldNames) {
+                Integer column = labels.get(name.toLowerCase(Locale.ROOT));
+                names[n] = name;
+                columns[n] = column == null ? -1 : column;
+                strings[n++] = column != null && isString(metaData.getColumnType(column));
+            }
+            // load auth fields
+            if (collection.isAuth()) {
+                for (String name : authFieldNames) {
+                    Integer column = labels.get(name.toLowerCase(Locale.ROOT));
+                    if (column == null) {
+                        throw new PbException("Column '{}' not found.", name);
+                    }
+                    names[n] = name;
+                    columns[n] = column;
+                    strings[n++] = isString(metaData.getColumnType(column));
+                }
+            }
+            return new Plan(names, columns, strings, jsonFields);
+        }
 
+        private static boolean isString(int type) {
+            return switch (type) {
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> true;
+                default -> false;
+            };
+        }
+    }
 }
@@ -0,0 +1,204 @@
+package com.picobase.logic.mapper;
+
+import com.picobase.PbManager;
+import com.picobase.exception.PbException;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.persistence.resolver.JunctionJoin;
+import com.picobase.persistence.resolver.ListUtil;
+import com.picobase.util.PbConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.picobase.persistence.resolver.DbUtil.jsonEach;
+
+/**
+ * 多值 relation 字段的关联表（{@link PbConstants.TableName#RELATION}）
+ * <p>
+ * relation 字段的值仍以 json 数组保存在记录表中；开启 {@link com.picobase.model.schema.fieldoptions.RelationOptions#isJunction()} 的字段额外在关联表中维护
+ * (collection_id, field_id, source_id, target_id) 行，关联表与记录在同一事务中写入。
+ * 过滤条件、back relation 及 expand 通过关联表上的索引 join，不再展开 json 数组扫描整表
+ */
+public final class RelationJunction {
+
+    public static final String TABLE = JunctionJoin.TABLE;
+
+    private static final String CREATE_TABLE_SQL = """
+            create table if not exists pb_relation (
+                collection_id varchar(32)  not null,
+                field_id      varchar(100) not null,
+                source_id     varchar(32)  not null,
+                target_id     varchar(255) not null,
+                primary key (collection_id, field_id, source_id, target_id),
+                key _pb_relation_target_idx (collection_id, field_id, target_id, source_id)
+            )""";
+
+    private static final String INSERT_SQL = "insert ignore into pb_relation(collection_id,field_id,source_id,target_id) values(?,?,?,?)";
+    private static final String DELETE_SOURCE_SQL = "delete from pb_relation where collection_id = ? and field_id = ? and source_id = ?";
+    private static final String DELETE_RECORD_SQL = "delete from pb_relation where collection_id = ? and source_id = ?";
+    private static final String DELETE_FIELD_SQL = "delete from pb_relation where collection_id = ? and field_id = ?";
+    private static final String DELETE_COLLECTION_SQL = "delete from pb_relation where collection_id = ?";
+
+    private static volatile boolean ready;
+
+    private RelationJunction() {
+    }
+
+    /**
+     * @return 集合中开启关联表的字段
+     */
+    public static List<SchemaField> enabledFields(CollectionModel collection) {
+        if (collection == null || collection.isView() || collection.getSchema() == null) {
+            return List.of();
+        }
+        List<SchemaField> fields = null;
+        for (SchemaField field : collection.getSchema().getFields()) {
+            if (JunctionJoin.isEnabled(field)) {
+                if (fields == null) {
+                    fields = new ArrayList<>();
+                }
+                fields.add(field);
+            }
+        }
+        return fields == null ? List.of() : fields;
+    }
+
+    /**
+     * 确保关联表存在
+     * <p>
+     * 表已存在时不执行 DDL，避免在 record 写入的事务中隐式提交
+     */
+    public static void ensureTable() {
+        if (ready) {
+            return;
+        }
+        Long exists = PbManager.getPbDatabaseOperate().queryOne(
+                "select count(*) from information_schema.tables where table_schema = database() and table_name = ?",
+                new Object[]{TABLE}, Long.class);
+        if ((exists == null || exists == 0) && !PbManager.getPbDatabaseOperate().executeDdl(List.of(CREATE_TABLE_SQL))) {
+            throw new PbException("Failed to create the {} table", TABLE);
+        }
+        ready = true;
+    }
+
+    /**
+     * 同步 record 开启关联表字段的关联行，在 record 写入的事务中调用
+     */
+    public static void syncRecord(RecordModel record) {
+        List<SchemaField> fields = enabledFields(record.getCollection());
+        if (fields.isEmpty()) {
+            return;
+        }
+
+        String collectionId = record.getCollection().getId();
+        Map<String, Object> original = record.isNew() ? null : record.getOriginalData();
+        List<ModifyRequest> requests = new ArrayList<>();
+        for (SchemaField field : fields) {
+            List<String> ids = record.getStringList(field.getName());
+            if (original != null && Objects.equals(ids, ListUtil.toUniqueStringList(original.get(field.getName())))) {
+                continue; // unchanged
+            }
+            if (!record.isNew()) {
+                requests.add(new ModifyRequest(DELETE_SOURCE_SQL).setArgs(new Object[]{collectionId, field.getId(), record.getId()}));
+            }
+            for (String id : ids) {
+                requests.add(new ModifyRequest(INSERT_SQL).setArgs(new Object[]{collectionId, field.getId(), record.getId(), id}));
+            }
+        }
+        execute(requests);
+    }
+
+    /**
+     * 删除 record 作为引用方的关联行
+     */
+    public static void deleteRecord(RecordModel record) {
+        if (!enabledFields(record.getCollection()).isEmpty()) {
+            execute(List.of(new ModifyRequest(DELETE_RECORD_SQL).setArgs(new Object[]{record.getCollection().getId(), record.getId()})));
+        }
+    }
+
+    /**
+     * 集合 schema 变化后同步关联表：新开启的字段回填已有数据，关闭或删除的字段清除关联行
+     *
+     * @param newCollection 新的集合，删除集合时为 null
+     * @param oldCollection 原集合，新建集合时为 null
+     */
+    public static void syncCollection(CollectionModel newCollection, CollectionModel oldCollection) {
+        List<SchemaField> oldFields = enabledFields(oldCollection);
+        List<SchemaField> newFields = enabledFields(newCollection);
+        if (oldFields.isEmpty() && newFields.isEmpty()) {
+            return;
+        }
+        ensureTable();
+
+        if (newCollection == null) {
+            execute(List.of(new ModifyRequest(DELETE_COLLECTION_SQL).setArgs(new Object[]{oldCollection.getId()})));
+            return;
+        }
+        for (SchemaField field : oldFields) {
+            if (newFields.stream().noneMatch(f -> f.getId().equals(field.getId()))) {
+                execute(List.of(new ModifyRequest(DELETE_FIELD_SQL).setArgs(new Object[]{oldCollection.getId(), field.getId()})));
+            }
+        }
+        for (SchemaField field : newFields) {
+            if (oldFields.stream().noneMatch(f -> f.getId().equals(field.getId()))) {
+                backfill(newCollection, field);
+            }
+        }
+    }
+
+    /**
+     * 从记录表的 json 数组重建字段的关联行，可重复执行
+     *
+     * @return 写入的关联行数
+     */
+    public static int backfill(CollectionModel collection, SchemaField field) {
+        ensureTable();
+        String table = collection.getName();
+        String column = table + "." + field.getName();
+        execute(List.of(new ModifyRequest(DELETE_FIELD_SQL).setArgs(new Object[]{collection.getId(), field.getId()})));
+
+        int[] total = new int[1];
+        ModifyRequest insert = new ModifyRequest(String.format("insert ignore into pb_relation(collection_id,field_id,source_id,target_id) " +
+                "select ?, ?, `%s`.`id`, `je`.`value` from `%s`, %s `je` where `je`.`value` is not null and `je`.`value` <> ''",
+                table, table, jsonEach(column))).setArgs(new Object[]{collection.getId(), field.getId()});
+        if (!PbManager.getPbDatabaseOperate().update(List.of(insert), (rows, e) -> total[0] = rows == null ? 0 : rows)) {
+            throw new PbException("Failed to backfill the {} rows of {}.{}", TABLE, collection.getName(), field.getName());
+        }
+        return total[0];
+    }
+
+    /**
+     * 迁移工具：为所有开启关联表的字段回填关联行，用于开启关联表前已存在的数据或关联表数据不一致时的修复
+     *
+     * @return 写入的关联行数
+     */
+    public static int backfillAll() {
+        CollectionMapper collectionMapper = new CollectionMapper();
+        List<CollectionModel> collections = new ArrayList<>(collectionMapper.findCollectionsByType(PbConstants.CollectionType.Base));
+        collections.addAll(collectionMapper.findCollectionsByType(PbConstants.CollectionType.Auth));
+
+        int total = 0;
+        for (CollectionModel collection : collections) {
+            for (SchemaField field : enabledFields(collection)) {
+                total += backfill(collection, field);
+            }
+        }
+        return total;
+    }
+
+    private static void execute(List<ModifyRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        ensureTable();
+        if (!PbManager.getPbDatabaseOperate().update(requests)) {
+            throw new PbException("Failed to update the {} table", TABLE);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.picobase.model;
 
 
 import com.picobase.PbManager;
+import com.picobase.json.LazyJson;
 import com.picobase.json.PbJsonTemplate;
 import com.picobase.model.schema.Schema;
 import com.picobase.model.schema.fieldoptions.CollectionAuthOptions;
@@ -33,6 +34,11 @@ public class CollectionModel extends BaseModel implements Model {
 
     private Map<String, Object> options;
 
+    // json columns loaded from the database, decoded on first access (see loadJson)
+    private volatile LazyJson<Schema> schemaJson;
+    private volatile LazyJson<List<String>> indexesJson;
+    private volatile LazyJson<Map<String, Object>> optionsJson;
+
     public CollectionModel() {
 
     }
@@ -44,14 +50,25 @@ public class CollectionModel extends BaseModel implements Model {
         this.name = source.name;
         this.type = source.type;
         this.system = source.system;
-        this.schema = Schema.newSchema(source.schema.getFields());
-        this.indexes = new ArrayList<>(source.indexes);
+        this.schema = Schema.newSchema(source.getSchema().getFields());
+        this.indexes = new ArrayList<>(source.getIndexes());
         this.listRule = source.listRule;
         this.viewRule = source.viewRule;
         this.createRule = source.createRule;
         this.updateRule = source.updateRule;
         this.deleteRule = source.deleteRule;
-        this.options = new HashMap<>(source.options);
+        this.options = new HashMap<>(source.getOptions());
+    }
+
+    /**
+     * 设置数据库中读取的 schema、indexes 及 options 原始 json，在第一次访问对应属性时才解析
+     */
+    public CollectionModel loadJson(String schema, String indexes, String options) {
+        PbJsonTemplate pbJsonTemplate = PbManager.getPbJsonTemplate();
+        this.schemaJson = LazyJson.of(schema, raw -> pbJsonTemplate.parseJsonToObject(raw, Schema.class));
+        this.indexesJson = LazyJson.of(indexes, raw -> pbJsonTemplate.parseJsonToObject(raw, List.class));
+        this.optionsJson = LazyJson.of(options, raw -> pbJsonTemplate.parseJsonToObject(raw, Map.class));
+        return this;
     }
 
     @Override
@@ -93,11 +110,16 @@ public class CollectionModel extends BaseModel implements Model {
 
 
     public <T> T decodeOptions(Class<T> clazz) {
-        // raw serialize
-
         PbJsonTemplate pbJsonTemplate = PbManager.getPbJsonTemplate();
 
-        String raw = pbJsonTemplate.toJsonString(options);
+        // options 未被访问过时直接解析原始 json
+        LazyJson<Map<String, Object>> json = this.optionsJson;
+        if (json != null && !json.isDecoded() && json.raw() != null) {
+            return pbJsonTemplate.parseJsonToObject(json.raw(), clazz);
+        }
+
+        // raw serialize
+        String raw = pbJsonTemplate.toJsonString(this.getOptions());
 
         return pbJsonTemplate.parseJsonToObject(raw, clazz);
 
@@ -131,20 +153,24 @@ public class CollectionModel extends BaseModel implements Model {
     }
 
     public Schema getSchema() {
-        return schema;
+        LazyJson<Schema> json = this.schemaJson;
+        return json != null ? json.get() : schema;
     }
 
     public CollectionModel setSchema(Schema schema) {
         this.schema = schema;
+        this.schemaJson = null;
         return this;
     }
 
     public List<String> getIndexes() {
-        return indexes;
+        LazyJson<List<String>> json = this.indexesJson;
+        return json != null ? json.get() : indexes;
     }
 
     public CollectionModel setIndexes(List<String> indexes) {
         this.indexes = indexes;
+        this.indexesJson = null;
         return this;
     }
 
@@ -194,11 +220,13 @@ public class CollectionModel extends BaseModel implements Model {
     }
 
     public Map<String, Object> getOptions() {
-        return options;
+        LazyJson<Map<String, Object>> json = this.optionsJson;
+        return json != null ? json.get() : options;
     }
 
     public CollectionModel setOptions(Map<String, Object> options) {
         this.options = options;
+        this.optionsJson = null;
         return this;
     }
 
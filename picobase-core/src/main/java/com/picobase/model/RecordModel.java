@@ -6,6 +6,7 @@ import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.picobase.PbManager;
 import com.picobase.exception.PbException;
+import com.picobase.json.LazyJson;
 import com.picobase.model.schema.Schema;
 import com.picobase.model.schema.SchemaField;
 import com.picobase.persistence.resolver.ListUtil;
@@ -33,8 +34,20 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
     private boolean ignoreEmailVisibility; // whether to ignore the emailVisibility flag for auth collections
     private boolean loaded;
     private Map<String, Object> originalData; // the original (aka. first loaded) model data
-    private Store<Object> expand; // expanded relations
-    private Store<Object> data; // any custom data in addition to the base model fields
+    private boolean originalLazy; // originalData still contains lazy json values, they are decoded on first access
+    private Map<String, Object> expand; // expanded relations (lazily created)
+
+    // any custom data in addition to the base model fields:
+    // schema field values are stored by the schema position, other keys are stored in the lazily created extra map.
+    // a record is only used by a single thread, so no concurrent maps are needed.
+    private Schema.FieldIndex layout; // the schema field layout of values
+    private Object[] values; // schema field values, null means not set
+    private Map<String, Object> extra; // non schema fields (auth and unknown fields)
+    private boolean shared; // values and extra are shared with a clean copy and must be copied before write
+    private Schema.FieldIndex originalLayout; // the original values of a clean copy, originalData is created from them on demand
+    private Object[] originalValues;
+    private Map<String, Object> originalExtra;
+
     private ConcurrentHashMap<String, Object> publicData; // all public export data
     private boolean alreadyExported = false;
 
@@ -55,7 +68,6 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
 
     public RecordModel(CollectionModel collection) {
         this.collection = collection;
-        this.data = new Store<>();
     }
 
 
@@ -72,6 +84,7 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
         if (!loaded) {
             loaded = true;
             originalData = resultMap;
+            originalLazy = resultMap.values().stream().anyMatch(LazyJson.class::isInstance);
         }
 
         resultMap.keySet().forEach(key -> this.set(key, resultMap.get(key)));
@@ -92,22 +105,138 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
             default -> {
                 var v = value;
 
-
-                SchemaField field = this.collection.getSchema().getFieldByName(key);
-                if (field != null) {
-                    v = field.prepareValue(v);
+                int slot = slot(key);
+                if (v instanceof LazyJson<?> json && slot < 0) {
+                    v = json.get();
+                }
+                if (slot >= 0) {
+                    // the lazy json values are normalized on first access
+                    if (!(v instanceof LazyJson)) {
+                        v = this.layout.field(slot).prepareValue(v);
+                    }
                 } else if (this.collection.isAuth()) {
                     v = normalizeAuthField(key, value);
                 }
 
-                if (this.data == null) {
-                    this.data = new Store<>();
+                // null values are stored as empty string
+                if (v == null) {
+                    v = "";
+                }
+                beforeWrite();
+                if (slot >= 0) {
+                    this.values[slot] = v;
+                } else {
+                    if (this.extra == null) {
+                        this.extra = new HashMap<>();
+                    }
+                    this.extra.put(key, v);
+                }
+            }
+
+        }
+    }
+
+    /**
+     * 返回 key 对应的 schema 字段位置，不是 schema 字段时返回 -1
+     */
+    private int slot(String key) {
+        return syncLayout().indexOf(key);
+    }
+
+    /**
+     * schema 字段发生变化时按字段名迁移已有的值
+     */
+    private Schema.FieldIndex syncLayout() {
+        Schema.FieldIndex index = this.collection.getSchema().fieldIndex();
+        if (index != this.layout) {
+            relayout(index);
+        }
+        return index;
+    }
+
+    private void relayout(Schema.FieldIndex index) {
+        Schema.FieldIndex old = this.layout;
+        Object[] oldValues = this.values;
+        this.layout = index;
+        this.values = new Object[index.size()];
+        this.shared = false;
+        if (this.extra != null) {
+            this.extra = new HashMap<>(this.extra);
+            // move the extra values of the new schema fields
+            this.extra.entrySet().removeIf(entry -> {
+                int slot = index.indexOf(entry.getKey());
+                if (slot < 0) {
+                    return false;
+                }
+                this.values[slot] = entry.getValue();
+                return true;
+            });
+        }
+        if (old == null || oldValues == null) {
+            return;
+        }
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            String name = old.field(i).getName();
+            int slot = index.indexOf(name);
+            if (slot >= 0 && index.field(slot) == old.field(i)) {
+                this.values[slot] = oldValues[i];
+            } else if (slot >= 0) {
+                this.values[slot] = unwrap(oldValues[i]);
+            } else {
+                if (this.extra == null) {
+                    this.extra = new HashMap<>();
                 }
+                this.extra.put(name, unwrap(oldValues[i]));
+            }
+        }
+    }
 
-                this.data.set(key, v);
+    /**
+     * copy-on-write: 与 clean copy 共享的数据在第一次写入前复制
+     */
+    private void beforeWrite() {
+        if (this.shared) {
+            this.values = this.values.clone();
+            if (this.extra != null) {
+                this.extra = new HashMap<>(this.extra);
             }
+            this.shared = false;
+        }
+    }
 
+    /**
+     * @return 所有已设置的 data 值（schema 字段及其他字段）的浅拷贝
+     */
+    private Map<String, Object> dataMap() {
+        Map<String, Object> result = new HashMap<>();
+        if (this.values != null) {
+            for (int i = 0; i < this.values.length; i++) {
+                if (this.values[i] != null) {
+                    result.put(this.layout.field(i).getName(), unwrap(this.values[i]));
+                }
+            }
         }
+        if (this.extra != null) {
+            result.putAll(this.extra);
+        }
+        return result;
+    }
+
+    private boolean isDataEmpty() {
+        if (this.extra != null && !this.extra.isEmpty()) {
+            return false;
+        }
+        if (this.values != null) {
+            for (Object value : this.values) {
+                if (value != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -147,17 +276,14 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
             case Updated:
                 return this.getUpdated();
             default:
-                Object v = null;
-                if (this.data != null) {
-                    v = this.data.get(key);
-                }
-
                 // normalize the field value in case it is missing or an incorrect type was set
                 // to ensure that the DB will always have normalized columns value.
-                var field = this.collection.getSchema().getFieldByName(key);
-                if (field != null) {
-                    v = field.prepareValue(v);
-                } else if (this.collection.isAuth()) {
+                int slot = slot(key);
+                if (slot >= 0) {
+                    return getSlot(slot);
+                }
+                Object v = this.extra == null ? null : this.extra.get(key);
+                if (this.collection.isAuth()) {
                     v = normalizeAuthField(key, v);
                 }
                 return v;
@@ -165,6 +291,18 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
         }
     }
 
+    private Object getSlot(int slot) {
+        Object v = this.values == null ? null : unwrap(this.values[slot]);
+        return this.layout.field(slot).prepareValue(v);
+    }
+
+    /**
+     * @return 延迟解析的 json 值解析后的结果，其余值原样返回
+     */
+    private static Object unwrap(Object value) {
+        return value instanceof LazyJson<?> json ? json.get() : value;
+    }
+
     /**
      * PublicExport exports only the record fields that are safe to be public.
      * <p>
@@ -173,49 +311,87 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
      */
     public Map<String, Object> publicExport() {
         ConcurrentHashMap<String, Object> result = new ConcurrentHashMap<>(this.collection.getSchema().getFields().size() + 5);
+        this.exportPublic((key, value) -> {
+            if (Expand.equals(key)) {
+                value = new HashMap<>((Map<String, Object>) value);
+            }
+            result.put(key, unwrap(value));
+        });
+
+        this.publicData = result;
+        this.alreadyExported = true;
+        return result;
+    }
+
+    /**
+     * 依次输出可公开的字段，导出规则与 {@link #publicExport()} 相同，但不创建中间 Map，供流式序列化直接使用
+     * <p>
+     * expand 以 record 内部的 Map 原样输出，调用方不应修改；
+     * 数据库中加载且未被修改的多值字段以 {@link LazyJson} 输出，可直接写出其原始 json，{@link LazyJson#get()} 为规范化后的值
+     *
+     * @param consumer 字段名及字段值的消费者
+     */
+    public <E extends Exception> void exportPublic(PublicFieldConsumer<E> consumer) throws E {
         // export unknown data fields if allowed
         if (this.exportUnknown) {
-            result.putAll(this.unknownData());
+            Map<String, Object> unknown = this.unknownData();
+            if (unknown != null) {
+                for (Map.Entry<String, Object> entry : unknown.entrySet()) {
+                    consumer.accept(entry.getKey(), entry.getValue());
+                }
+            }
         }
 
         // export schema field values
-        this.collection.getSchema().getFields().forEach(field -> {
-            var v = this.get(field.getName());
-            result.put(field.getName(), v == null ? "" : v);
-        });
-
+        Schema.FieldIndex index = syncLayout();
+        for (int i = 0; i < index.size(); i++) {
+            String name = index.field(i).getName();
+            if (index.indexOf(name) != i) {
+                continue; // duplicated field name
+            }
+            if (this.values != null && this.values[i] instanceof LazyJson<?> json) {
+                consumer.accept(name, json);
+                continue;
+            }
+            var v = getSlot(i);
+            consumer.accept(name, v == null ? "" : v);
+        }
 
         // export some of the safe auth collection fields
         if (this.collection.isAuth()) {
-            result.put(Verified, this.verified());
-            result.put(Username, this.username());
-            result.put(EmailVisibility, this.emailVisibility());
+            consumer.accept(Verified, this.verified());
+            consumer.accept(Username, this.username());
+            consumer.accept(EmailVisibility, this.emailVisibility());
             if (this.ignoreEmailVisibility || this.emailVisibility()) {
-                result.put(Email, this.email());
+                consumer.accept(Email, this.email());
             }
         }
 
         // export base model fields
-        result.put(Id, TypeSafe.anyToString(this.getId(), ""));
+        consumer.accept(Id, TypeSafe.anyToString(this.getId(), ""));
         if (!this.collection.isView() || this.getCreated() != null) {
-            result.put(Created, this.getCreated() == null ? "" : this.getCreated());
+            consumer.accept(Created, this.getCreated() == null ? "" : this.getCreated());
         }
         if (!this.collection.isView() || this.getUpdated() != null) {
-            result.put(Updated, this.getUpdated() == null ? "" : this.getUpdated());
+            consumer.accept(Updated, this.getUpdated() == null ? "" : this.getUpdated());
         }
 
         // add helper collection reference fields
-        result.put(CollectionId, TypeSafe.anyToString(this.collection.getId(), ""));
-        result.put(CollectionName, TypeSafe.anyToString(this.collection.getName(), ""));
+        consumer.accept(CollectionId, TypeSafe.anyToString(this.collection.getId(), ""));
+        consumer.accept(CollectionName, TypeSafe.anyToString(this.collection.getName(), ""));
 
         // add expand (if set)
         if (expand != null && !this.expand.isEmpty()) {
-            result.put(Expand, this.expand.getAll());
+            consumer.accept(Expand, this.expand);
         }
+    }
 
-        this.publicData = result;
-        this.alreadyExported = true;
-        return result;
+    /**
+     * {@link #exportPublic(PublicFieldConsumer)} 的字段消费者
+     */
+    @FunctionalInterface
+    public interface PublicFieldConsumer<E extends Exception> {
+        void accept(String name, Object value) throws E;
     }
 
     public boolean emailVisibility() {
@@ -252,25 +428,23 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
      * nor defined by the collection schema.
      */
     public Map<String, Object> unknownData() {
-        if (this.data.isEmpty()) {
+        if (isDataEmpty()) {
             return null;
         }
-        return extractUnknownData(this.data.getAll());
-    }
-
-    private Map<String, Object> extractUnknownData(Map<String, Object> all) {
+        // schema field values are never stored in extra
+        syncLayout();
+        Map<String, Object> result = new HashMap<>();
+        if (this.extra == null) {
+            return result;
+        }
         Set<String> knownFields = new HashSet<>();
         knownFields.addAll(Arrays.asList(systemFieldNames));
         knownFields.addAll(Arrays.asList(baseModelFieldNames));
-        this.collection.getSchema().getFields().stream()
-                .map(SchemaField::getName)
-                .forEach(knownFields::add);
         if (this.collection.isAuth()) {
             knownFields.addAll(Arrays.asList(authFieldNames));
         }
 
-        Map<String, Object> result = new HashMap<>();
-        all.forEach((k, v) -> {
+        this.extra.forEach((k, v) -> {
             if (!knownFields.contains(k)) {
                 result.put(k, v);
             }
@@ -387,17 +561,16 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
      * SchemaData returns a shallow copy ONLY of the defined record schema fields data
      */
     public Map<String, Object> schemaData() {
-        Map<String, Object> result = new HashMap<>();
-        Map<String, Object> data = this.data.getAll();
-
-        for (SchemaField field : collection.getSchema().getFields()) {
-            String fieldName = field.getName();
-            Object fieldValue = data.get(fieldName);
-            if (Objects.nonNull(fieldValue)) {
-                result.put(fieldName, fieldValue);
+        Schema.FieldIndex index = syncLayout();
+        Map<String, Object> result = new HashMap<>((int) (index.size() / 0.75f) + 1);
+        if (this.values == null) {
+            return result;
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                result.putIfAbsent(index.field(i).getName(), unwrap(this.values[i]));
             }
         }
-
         return result;
     }
 
@@ -512,11 +685,17 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
     }
 
     public void setExpand(Map<String, Object> expand) {
-
         if (this.expand == null) {
-            this.expand = new Store<>();
+            this.expand = new HashMap<>();
+        } else {
+            this.expand.clear();
         }
-        this.expand.reset(expand);
+        putExpand(expand);
+    }
+
+    private void putExpand(Map<String, Object> expand) {
+        // null values are stored as empty string
+        expand.forEach((k, v) -> this.expand.put(k, v == null ? "" : v));
     }
 
     /**
@@ -525,7 +704,23 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
      */
     public RecordModel cleanCopy() {
         var newRecord = new RecordModel(this.collection);
-        newRecord.load(this.data.getAll());
+        syncLayout();
+        if (this.values != null) {
+            // share the current data with the copy, both copy it before the next write
+            this.shared = true;
+            newRecord.shared = true;
+            newRecord.layout = this.layout;
+            newRecord.values = this.values;
+            newRecord.extra = this.extra;
+            newRecord.originalLayout = this.layout;
+            newRecord.originalValues = this.values;
+            newRecord.originalExtra = this.extra;
+        } else if (this.extra != null) {
+            newRecord.extra = new HashMap<>(this.extra);
+            newRecord.originalExtra = this.extra;
+            this.extra = new HashMap<>(this.extra);
+        }
+        newRecord.loaded = true;
         newRecord.setId(this.getId());
         newRecord.setCreated(this.getCreated());
         newRecord.setUpdated(this.getUpdated());
@@ -537,9 +732,9 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
      */
     public Map<String, Object> expand() {
         if (this.expand == null) {
-            this.expand = new Store<>();
+            return new HashMap<>();
         }
-        return this.expand.getAll();
+        return new HashMap<>(this.expand);
     }
 
     /**
@@ -557,11 +752,11 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
 
         // no old expand
         if (this.expand == null) {
-            this.expand = new Store<>(expand);
+            setExpand(expand);
             return;
         }
 
-        var oldExpand = this.expand.getAll();
+        var oldExpand = new HashMap<>(this.expand);
 
         for (String key : expand.keySet()) {
             var new_ = expand.get(key);
@@ -618,7 +813,7 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
             }
 
         }
-        this.expand.reset(oldExpand);
+        setExpand(oldExpand);
     }
 
     /**
@@ -645,7 +840,7 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
                 ", loaded=" + loaded +
                 ", originalData=" + originalData +
                 ", expand=" + expand +
-                ", data=" + data +
+                ", data=" + dataMap() +
                 '}';
     }
 
@@ -671,6 +866,29 @@ public class RecordModel extends BaseModel implements ColumnValueMapper {
     }
 
     public Map<String, Object> getOriginalData() {
+        if (originalData == null && loaded && (originalValues != null || originalExtra != null)) {
+            // clean copy: create the original data from the shared snapshot
+            Map<String, Object> result = new HashMap<>();
+            if (originalValues != null) {
+                for (int i = 0; i < originalValues.length; i++) {
+                    if (originalValues[i] != null) {
+                        result.put(originalLayout.field(i).getName(), unwrap(originalValues[i]));
+                    }
+                }
+            }
+            if (originalExtra != null) {
+                result.putAll(originalExtra);
+            }
+            originalData = result;
+            originalLayout = null;
+            originalValues = null;
+            originalExtra = null;
+        }
+        if (originalLazy) {
+            // loaded from the database: expose the decoded values instead of the lazy json wrappers
+            originalData.replaceAll((key, value) -> unwrap(value));
+            originalLazy = false;
+        }
         return originalData;
     }
 
@@ -621,10 +621,7 @@ public class RecordUpsert implements Validatable {
      * // This method doesn't handle file uploads/deletes or trigger any app events!
      */
     public void drySubmit(Consumer<Object> action) {
-        Errors err = this.validateAndFill();
-        if (err != null) {
-            throw new BadRequestException(err);
-        }
+        dryValidate();
 
         PbManager.getPbDatabaseOperate().runInTransaction(s -> {
             saveRecord();
@@ -637,6 +634,16 @@ public class RecordUpsert implements Validatable {
         }, true);
     }
 
+    /**
+     * 校验表单并填充 record，不写入数据库，用于在内存中检查 record 是否满足规则
+     */
+    public void dryValidate() {
+        Errors err = this.validateAndFill();
+        if (err != null) {
+            throw new BadRequestException(err);
+        }
+    }
+
     /**
      * // Submit validates the form and upserts the form Record model.
      * //
@@ -0,0 +1,9 @@
+package com.picobase.model.schema;
+
+
+/**
+ * 可开启全文索引的字段选项，开启后字段列上维护 FULLTEXT 索引，过滤条件 {@code ~~} 及 {@code @rank} 排序使用 MATCH ... AGAINST
+ */
+public interface FullTextSearchable {
+    boolean isFullText();
+}
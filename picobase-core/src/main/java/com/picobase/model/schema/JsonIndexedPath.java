@@ -0,0 +1,163 @@
+package com.picobase.model.schema;
+
+import cn.hutool.core.collection.CollUtil;
+import com.picobase.model.schema.fieldoptions.JsonOptions;
+import com.picobase.util.PbConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * json 字段中声明索引的路径（{@link JsonOptions#getIndexedPaths()}）
+ * <p>
+ * 每个路径在记录表中维护一个 STORED INVISIBLE 生成列及其索引，生成列只保存 json 类型与声明类型一致的值（其余为 NULL），
+ * text 列使用二进制排序规则，与 json 值的比较方式一致；
+ * 过滤条件中与该路径相同的 json 路径在与同类型的值比较时改写为生成列，使用索引查找（见 SearchFilter）
+ */
+public final class JsonIndexedPath {
+
+    public static final String TYPE_TEXT = "text";
+    public static final String TYPE_NUMBER = "number";
+
+    /**
+     * text 生成列保存的最大字符数，超出的值 JSON_VALUE 返回错误，生成列为 NULL
+     */
+    public static final int TEXT_LENGTH = 255;
+
+    /**
+     * JSON_TYPE 返回的数字类型
+     */
+    private static final String NUMBER_JSON_TYPES = "'INTEGER','UNSIGNED INTEGER','DOUBLE','DECIMAL'";
+
+    private static final Pattern PATH_PATTERN = Pattern.compile("^\\w+(\\.\\w+)*(:(" + TYPE_TEXT + "|" + TYPE_NUMBER + "))?$");
+
+    private final SchemaField field;
+    private final String spec;
+    /**
+     * 与 ResolverRunner 解析的 json 路径格式一致，例如 address.city、tags[0]
+     */
+    private final String path;
+    private final String type;
+
+    private JsonIndexedPath(SchemaField field, String spec) {
+        this.field = field;
+        this.spec = spec;
+
+        String[] parts = spec.split(":", 2);
+        this.type = parts.length > 1 ? parts[1] : TYPE_TEXT;
+        StringBuilder sb = new StringBuilder();
+        String[] props = parts[0].split("\\.");
+        for (int i = 0; i < props.length; i++) {
+            if (props[i].chars().allMatch(Character::isDigit)) {
+                sb.append('[').append(props[i]).append(']');
+            } else {
+                if (i > 0) {
+                    sb.append('.');
+                }
+                sb.append(props[i]);
+            }
+        }
+        this.path = sb.toString();
+    }
+
+    public static boolean isValid(String spec) {
+        return spec != null && PATH_PATTERN.matcher(spec).matches();
+    }
+
+    /**
+     * @return json 字段声明的索引路径，非 json 字段返回空列表
+     */
+    public static List<JsonIndexedPath> of(SchemaField field) {
+        if (field == null || !PbConstants.FieldType.Json.equals(field.getType())) {
+            return List.of();
+        }
+        field.initOptions();
+        if (!(field.getOptions() instanceof JsonOptions options) || CollUtil.isEmpty(options.getIndexedPaths())) {
+            return List.of();
+        }
+        List<JsonIndexedPath> result = new ArrayList<>(options.getIndexedPaths().size());
+        for (String spec : options.getIndexedPaths()) {
+            if (isValid(spec)) {
+                result.add(new JsonIndexedPath(field, spec));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param path ResolverRunner 解析的 json 路径
+     * @return 与路径对应的索引路径，没有声明时返回 null
+     */
+    public static JsonIndexedPath find(SchemaField field, String path) {
+        for (JsonIndexedPath indexed : of(field)) {
+            if (indexed.path.equals(path)) {
+                return indexed;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 生成列名，由字段 id 及路径声明决定，字段改名后不变
+     */
+    public String columnName() {
+        return "_jp_" + field.getId() + "_" + Integer.toHexString(spec.hashCode());
+    }
+
+    public String indexName() {
+        return columnName() + "_idx";
+    }
+
+    /**
+     * 生成列的定义，按字段当前的列名提取；json 类型与声明类型不一致时为 NULL，不做类型转换
+     */
+    public String columnDefinition() {
+        String jsonPath = "$" + (path.startsWith("[") ? "" : ".") + path;
+        String jsonType = String.format("JSON_TYPE(JSON_EXTRACT(`%s`, '%s'))", field.getName(), jsonPath);
+        if (isText()) {
+            return String.format("VARCHAR(%d) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin GENERATED ALWAYS AS "
+                            + "(CASE WHEN %s = 'STRING' THEN JSON_VALUE(`%s`, '%s' RETURNING CHAR(%d) NULL ON ERROR) END) STORED INVISIBLE",
+                    TEXT_LENGTH, jsonType, field.getName(), jsonPath, TEXT_LENGTH);
+        }
+        return String.format("DOUBLE GENERATED ALWAYS AS "
+                        + "(CASE WHEN %s IN (%s) THEN JSON_VALUE(`%s`, '%s' RETURNING DOUBLE NULL ON ERROR) END) STORED INVISIBLE",
+                jsonType, NUMBER_JSON_TYPES, field.getName(), jsonPath);
+    }
+
+    /**
+     * @return 值的类型是否与声明类型一致（text 为文本，number 为数字），只有同类型的比较可以使用生成列
+     */
+    public boolean isSameType(Object value) {
+        return isText() ? value instanceof String : value instanceof Number;
+    }
+
+    /**
+     * @return 生成列能否保存与该值相等的 json 值，超过 {@link #TEXT_LENGTH} 的文本在生成列中为 NULL
+     */
+    public boolean isStorable(Object value) {
+        if (!isSameType(value)) {
+            return false;
+        }
+        return !(value instanceof String text) || text.codePointCount(0, text.length()) <= TEXT_LENGTH;
+    }
+
+    public SchemaField getField() {
+        return field;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return 是否为 text 生成列
+     */
+    public boolean isText() {
+        return !TYPE_NUMBER.equals(type);
+    }
+}
@@ -9,6 +9,8 @@ import com.picobase.validator.Validatable;
 import com.picobase.validator.Validation;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,7 +23,12 @@ import static com.picobase.validator.Validation.by;
 
 
 public class Schema implements Validatable {
-    private List<SchemaField> fields = new ArrayList<>();
+    private List<SchemaField> fields = new FieldList();
+
+    /**
+     * 字段名到字段位置的索引，字段列表或字段名变化后重新构建
+     */
+    private FieldIndex fieldIndex;
 
     private Schema() {
 
@@ -60,12 +67,39 @@ public class Schema implements Validatable {
             // replace existing
             if (field.getId().equals(newField.getId())) {
                 fields.set(i, newField);
+                this.fieldIndex = null;
                 return;
             }
         }
 
         // add new field
         fields.add(newField);
+        this.fieldIndex = null;
+    }
+
+    /**
+     * 删除指定 id 的字段
+     *
+     * @param id 字段 id
+     */
+    public void removeField(String id) {
+        if (fields.removeIf(field -> field.getId().equals(id))) {
+            this.fieldIndex = null;
+        }
+    }
+
+    /**
+     * 修改指定 id 的字段名称
+     *
+     * @param id      字段 id
+     * @param newName 新的字段名称
+     */
+    public void renameField(String id, String newName) {
+        SchemaField field = getFieldById(id);
+        if (field != null) {
+            field.setName(newName);
+            this.fieldIndex = null;
+        }
     }
 
     // GetFieldById returns a single field by its id.
@@ -74,7 +108,24 @@ public class Schema implements Validatable {
     }
 
     public SchemaField getFieldByName(String fieldName) {
-        return fields.stream().filter(field -> field.getName().equals(fieldName)).findFirst().orElse(null);
+        FieldIndex index = fieldIndex();
+        int i = index.indexOf(fieldName);
+        return i < 0 ? null : index.field(i);
+    }
+
+    /**
+     * 获取字段名到字段位置的索引
+     * <p> 通过 Schema 的方法修改字段、直接修改 getFields() 列表或修改字段名称后，索引会自动重建 </p>
+     *
+     * @return FieldIndex
+     */
+    public FieldIndex fieldIndex() {
+        FieldIndex index = this.fieldIndex;
+        if (index == null || index.source != fields || index.version != version(fields) || index.renames != SchemaField.renames()) {
+            index = new FieldIndex(fields);
+            this.fieldIndex = index;
+        }
+        return index;
     }
 
     public Map<String, SchemaField> asMap() {
@@ -90,7 +141,8 @@ public class Schema implements Validatable {
     }
 
     public Schema setFields(List<SchemaField> fields) {
-        this.fields = fields;
+        this.fields = fields instanceof FieldList ? fields : new FieldList(fields);
+        this.fieldIndex = null;
         return this;
     }
 
@@ -167,4 +219,72 @@ public class Schema implements Validatable {
     }
 
 
+
+    /**
+     * @return 字段列表的修改次数，不是 FieldList 时无法跟踪，返回 -1（按列表长度判断）
+     */
+    private static int version(List<SchemaField> fields) {
+        return fields instanceof FieldList list ? list.version() : -1 - fields.size();
+    }
+
+    /**
+     * 记录修改次数的字段列表，增删字段及替换字段（set）都会增加修改次数
+     */
+    private static final class FieldList extends ArrayList<SchemaField> {
+        FieldList() {
+        }
+
+        FieldList(Collection<? extends SchemaField> fields) {
+            super(fields);
+        }
+
+        @Override
+        public SchemaField set(int index, SchemaField element) {
+            modCount++;
+            return super.set(index, element);
+        }
+
+        int version() {
+            return modCount;
+        }
+    }
+
+    /**
+     * 字段列表的不可变快照及字段名到位置的索引，同名字段取第一个
+     */
+    public static final class FieldIndex {
+        private final List<SchemaField> source;
+        private final int version;
+        private final long renames;
+        private final SchemaField[] fields;
+        private final Map<String, Integer> positions;
+
+        private FieldIndex(List<SchemaField> source) {
+            this.source = source;
+            this.version = version(source);
+            this.renames = SchemaField.renames();
+            this.fields = source.toArray(new SchemaField[0]);
+            this.positions = new HashMap<>((int) (fields.length / 0.75f) + 1);
+            for (int i = 0; i < fields.length; i++) {
+                positions.putIfAbsent(fields[i].getName(), i);
+            }
+        }
+
+        /**
+         * @param fieldName 字段名
+         * @return 字段位置，不存在时返回 -1
+         */
+        public int indexOf(String fieldName) {
+            Integer i = positions.get(fieldName);
+            return i == null ? -1 : i;
+        }
+
+        public SchemaField field(int index) {
+            return fields[index];
+        }
+
+        public int size() {
+            return fields.length;
+        }
+    }
 }
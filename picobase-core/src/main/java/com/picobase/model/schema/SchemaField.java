@@ -9,6 +9,8 @@ import com.picobase.persistence.resolver.ListUtil;
 import com.picobase.util.StringEscapeUtils;
 import com.picobase.util.TypeSafe;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.picobase.util.PbConstants.FIELD_VALUE_MODIFIER_ADD;
 import static com.picobase.util.PbConstants.FIELD_VALUE_MODIFIER_SUBTRACT;
 import static com.picobase.util.PbConstants.FieldType.Number;
@@ -17,6 +19,11 @@ import static com.picobase.util.PbConstants.FieldType.*;
 
 public class SchemaField {
 
+    /**
+     * 已有字段改名的累计次数，Schema 的字段名索引以此判断是否过期
+     */
+    private static final AtomicLong RENAMES = new AtomicLong();
+
     private boolean system;
 
     private String id;
@@ -251,10 +258,21 @@ public class SchemaField {
     }
 
     public SchemaField setName(String name) {
+        if (this.name != null && !this.name.equals(name)) {
+            // 已有字段改名，使所有 Schema 的字段名索引失效
+            RENAMES.incrementAndGet();
+        }
         this.name = name;
         return this;
     }
 
+    /**
+     * @return 已有字段改名的累计次数
+     */
+    static long renames() {
+        return RENAMES.get();
+    }
+
     public String getType() {
         return type;
     }
@@ -1,9 +1,10 @@
 package com.picobase.model.schema.fieldoptions;
 
 
+import com.picobase.model.schema.FullTextSearchable;
 import com.picobase.validator.Errors;
 
-public class EditorOptions implements FieldOptions {
+public class EditorOptions implements FieldOptions, FullTextSearchable {
     // ConvertUrls is usually used to instruct the editor whether to
     // apply url conversion (eg. stripping the domain name in case the
     // urls are using the same domain as the one where the editor is loaded).
@@ -11,6 +12,11 @@ public class EditorOptions implements FieldOptions {
     // (see also https://www.tiny.cloud/docs/tinymce/6/url-handling/#convert_urls)
     private boolean convertUrls;
 
+    /**
+     * FullText indicates whether a FULLTEXT index is maintained for the field column.
+     */
+    private boolean fullText;
+
 
     @Override
     public Errors validate() {
@@ -25,4 +31,14 @@ public class EditorOptions implements FieldOptions {
         this.convertUrls = convertUrls;
         return this;
     }
+
+    @Override
+    public boolean isFullText() {
+        return fullText;
+    }
+
+    public EditorOptions setFullText(boolean fullText) {
+        this.fullText = fullText;
+        return this;
+    }
 }
@@ -1,14 +1,27 @@
 package com.picobase.model.schema.fieldoptions;
 
 
+import com.picobase.model.schema.JsonIndexedPath;
+import com.picobase.validator.Err;
 import com.picobase.validator.Errors;
 
+import java.util.List;
+
 import static com.picobase.validator.Validation.*;
 
 public class JsonOptions implements FieldOptions {
 
     private int maxSize;
 
+    /**
+     * IndexedPaths lists the json paths used in filters (eg. "status", "address.city", "total:number")
+     * that are maintained as indexed stored generated columns.
+     * <p>
+     * The optional ":number" suffix declares the value type (text by default),
+     * filters on an indexed path compare the extracted value as the declared type.
+     */
+    private List<String> indexedPaths;
+
     public JsonOptions(int maxSize) {
         this.maxSize = maxSize;
     }
@@ -19,10 +32,30 @@ public class JsonOptions implements FieldOptions {
     @Override
     public Errors validate() {
         return validateObject(this,
-                field(JsonOptions::getMaxSize, required, min(1)));
+                field(JsonOptions::getMaxSize, required, min(1)),
+                field(JsonOptions::getIndexedPaths, by(value -> {
+                    if (value == null) {
+                        return null;
+                    }
+                    for (Object path : (List<?>) value) {
+                        if (!(path instanceof String str) || !JsonIndexedPath.isValid(str)) {
+                            return Err.newError("validation_invalid_json_path", "Invalid indexed json path " + path);
+                        }
+                    }
+                    return null;
+                })));
     }
 
     public int getMaxSize() {
         return maxSize;
     }
+
+    public List<String> getIndexedPaths() {
+        return indexedPaths;
+    }
+
+    public JsonOptions setIndexedPaths(List<String> indexedPaths) {
+        this.indexedPaths = indexedPaths;
+        return this;
+    }
 }
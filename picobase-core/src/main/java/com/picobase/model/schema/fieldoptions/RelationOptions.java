@@ -36,6 +36,13 @@ public class RelationOptions implements FieldOptions, MultiValuer {
      */
     private Integer maxSelect;
 
+    /**
+     * Junction indicates whether the relation ids of a multiple relation field
+     * are additionally maintained in the pb_relation junction table,
+     * allowing indexed joins for filters, back relations and expands.
+     */
+    private boolean junction;
+
 
     //@JsonIgnore
     @Override
@@ -107,4 +114,13 @@ public class RelationOptions implements FieldOptions, MultiValuer {
         this.maxSelect = maxSelect;
         return this;
     }
+
+    public boolean isJunction() {
+        return junction;
+    }
+
+    public RelationOptions setJunction(boolean junction) {
+        this.junction = junction;
+        return this;
+    }
 }
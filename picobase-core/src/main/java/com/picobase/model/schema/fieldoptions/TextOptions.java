@@ -2,6 +2,7 @@ package com.picobase.model.schema.fieldoptions;
 
 
 import cn.hutool.core.util.StrUtil;
+import com.picobase.model.schema.FullTextSearchable;
 import com.picobase.validator.Err;
 import com.picobase.validator.Errors;
 import com.picobase.validator.RuleFunc;
@@ -11,10 +12,14 @@ import java.util.regex.PatternSyntaxException;
 
 import static com.picobase.validator.Validation.*;
 
-public class TextOptions implements FieldOptions {
+public class TextOptions implements FieldOptions, FullTextSearchable {
     private Integer min;
     private Integer max;
     private String pattern;
+    /**
+     * FullText indicates whether a FULLTEXT index is maintained for the field column.
+     */
+    private boolean fullText;
 
 
     @Override
@@ -73,5 +78,14 @@ public class TextOptions implements FieldOptions {
         this.pattern = pattern;
         return this;
     }
-}
 
+    @Override
+    public boolean isFullText() {
+        return fullText;
+    }
+
+    public TextOptions setFullText(boolean fullText) {
+        this.fullText = fullText;
+        return this;
+    }
+}
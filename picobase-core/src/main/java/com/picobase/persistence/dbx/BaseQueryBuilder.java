@@ -119,9 +119,10 @@ public class BaseQueryBuilder implements QueryBuilder {
     @Override
     public String buildWhere(Expression where, Map<String, Object> params) {
         if (where != null) {
-            String condition = where.build(params);
-            if (!condition.isEmpty()) {
-                return "WHERE " + condition;
+            StringBuilder sb = new StringBuilder("WHERE ");
+            where.build(sb, params);
+            if (sb.length() > 6) {
+                return sb.toString();
             }
         }
         return "";
@@ -141,9 +142,10 @@ public class BaseQueryBuilder implements QueryBuilder {
     @Override
     public String buildHaving(Expression having, Map<String, Object> params) {
         if (having != null) {
-            String condition = having.build(params);
-            if (!condition.isEmpty()) {
-                return "HAVING " + condition;
+            StringBuilder sb = new StringBuilder("HAVING ");
+            having.build(sb, params);
+            if (sb.length() > 7) {
+                return sb.toString();
             }
         }
         return "";
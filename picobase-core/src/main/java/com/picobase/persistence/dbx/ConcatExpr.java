@@ -1,6 +1,5 @@
 package com.picobase.persistence.dbx;
 
-import cn.hutool.core.util.StrUtil;
 import com.picobase.persistence.dbx.expression.Expression;
 
 import java.util.ArrayList;
@@ -24,28 +23,61 @@ public class ConcatExpr implements Expression {
      */
     @Override
     public String build(Map<String, Object> params) {
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
         if (parts.size() == 0) {
-            return "";
+            return;
         }
-        List<String> stringParts = new ArrayList<>();
-
+        int start = sb.length();
+        sb.append('(');
+        int count = 0;
         for (Expression p : parts) {
             if (p == null) {
                 continue;
             }
-            String sql = p.build(params);
-            if (!"".equals(sql)) {
-                stringParts.add(sql);
+            int mark = sb.length();
+            if (count > 0 && separator != null) {
+                sb.append(separator);
+            }
+            int partStart = sb.length();
+            p.build(sb, params);
+            if (sb.length() == partStart) {
+                sb.setLength(mark);
+            } else {
+                count++;
             }
         }
 
+        if (count == 0) {
+            sb.setLength(start);
+            return;
+        }
         // skip extra parenthesis for single concat expression
-        if (stringParts.size() == 1
-                && !stringParts.get(0).toUpperCase().contains(" AND ")
-                && !stringParts.get(0).toUpperCase().contains(" OR ")) {
-            return stringParts.get(0);
+        if (count == 1
+                && !containsIgnoreCase(sb, start + 1, " AND ")
+                && !containsIgnoreCase(sb, start + 1, " OR ")) {
+            sb.deleteCharAt(start);
+            return;
+        }
+        sb.append(')');
+    }
+
+    private static boolean containsIgnoreCase(StringBuilder sb, int from, String str) {
+        for (int i = from, last = sb.length() - str.length(); i <= last; i++) {
+            int j = 0;
+            while (j < str.length() && Character.toUpperCase(sb.charAt(i + j)) == str.charAt(j)) {
+                j++;
+            }
+            if (j == str.length()) {
+                return true;
+            }
         }
-        return "(" + StrUtil.join(separator, stringParts) + ")";
+        return false;
     }
 
     public void addPart(Expression expr) {
@@ -6,8 +6,15 @@ import com.picobase.persistence.repository.PbDatabaseOperate;
 public class MysqlPbDbxBuilder extends BaseBuilder implements PbDbxBuilder {
 
 
+    /**
+     * 最多缓存的 SQL 模板数量
+     */
+    private static final int MAX_SQL_TEMPLATES = 2048;
+
     private QueryBuilder qb;
 
+    private final SqlTemplateCache sqlTemplateCache = new SqlTemplateCache(MAX_SQL_TEMPLATES);
+
     public MysqlPbDbxBuilder(PbDatabaseOperate dbOperate) {
         super(dbOperate);
         this.qb = new BaseQueryBuilder();
@@ -24,5 +31,10 @@ public class MysqlPbDbxBuilder extends BaseBuilder implements PbDbxBuilder {
         return this.qb;
     }
 
+    @Override
+    public SqlTemplateCache sqlTemplateCache() {
+        return this.sqlTemplateCache;
+    }
+
 
 }
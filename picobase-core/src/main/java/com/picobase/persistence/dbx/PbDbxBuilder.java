@@ -18,6 +18,13 @@ public interface PbDbxBuilder {
 
     Query newQuery(String sql);
 
+    /**
+     * @return SelectQuery 使用的 SQL 模板缓存，返回 null 时不缓存
+     */
+    default SqlTemplateCache sqlTemplateCache() {
+        return null;
+    }
+
 
     /**
      * Insert creates a Query that represents an INSERT SQL statement.
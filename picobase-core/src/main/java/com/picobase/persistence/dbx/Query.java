@@ -13,10 +13,20 @@ import java.util.concurrent.atomic.AtomicReference;
 
 
 public class Query {
+    /**
+     * row() 查询结果的类型
+     */
+    @SuppressWarnings("unchecked")
+    private static final Class<Map<String, Object>> ROW_TYPE = (Class<Map<String, Object>>) (Class<?>) Map.class;
+
     private Map<String, Object> params;
     private String sql;
     private String rawSql;
     private PbDatabaseOperate dbOperate;
+    /**
+     * 预解析的 SQL 模板，存在时查询使用位置参数执行
+     */
+    private SqlTemplate template;
 
 
     public Query(PbDatabaseOperate dbOperate, String sql) {
@@ -40,7 +50,8 @@ public class Query {
      * @return
      */
     public Map<String, Object> row() {
-        return this.dbOperate.queryOne(this.sql, this.params, Map.class);
+        Object[] args = positionalArgs();
+        return args == null ? this.dbOperate.queryOne(this.sql, this.params, ROW_TYPE) : this.dbOperate.queryOne(this.template.getSql(), args, ROW_TYPE);
     }
 
     /**
@@ -51,23 +62,26 @@ public class Query {
      * @return 所有数据
      */
     public <T> List<T> all(Class<T> clz) {
-        return this.dbOperate.queryMany(this.sql, this.params, clz);
+        Object[] args = positionalArgs();
+        return args == null ? this.dbOperate.queryMany(this.sql, this.params, clz) : this.dbOperate.queryMany(this.template.getSql(), args, clz);
     }
 
     public <T> List<T> column(Class<T> clz) {
-        return this.dbOperate.queryMany(this.sql, this.params, clz);
+        return all(clz);
     }
 
     public Long count() {
-        return this.dbOperate.queryOne(this.sql, this.params, Long.class);
+        return one(Long.class);
     }
 
     public <T> T one(Class<T> clz) {
-        return this.dbOperate.queryOne(this.sql, this.params, clz);
+        Object[] args = positionalArgs();
+        return args == null ? this.dbOperate.queryOne(this.sql, this.params, clz) : this.dbOperate.queryOne(this.template.getSql(), args, clz);
     }
 
     public <T> T one(PbRowMapper<T> rm) {
-        return this.dbOperate.queryOne(this.sql, this.params, rm);
+        Object[] args = positionalArgs();
+        return args == null ? this.dbOperate.queryOne(this.sql, this.params, rm) : this.dbOperate.queryOne(this.template.getSql(), args, rm);
     }
 
     public String sql() {
@@ -92,7 +106,15 @@ public class Query {
     }
 
     public <T> List<T> all(PbRowMapper<T> rm) {
-        return this.dbOperate.queryMany(this.sql, this.params, rm);
+        Object[] args = positionalArgs();
+        return args == null ? this.dbOperate.queryMany(this.sql, this.params, rm) : this.dbOperate.queryMany(this.template.getSql(), args, rm);
+    }
+
+    /**
+     * @return 按模板参数顺序排列的参数值，无模板或无法使用位置参数时返回 null
+     */
+    private Object[] positionalArgs() {
+        return this.template == null ? null : this.template.args(this.params);
     }
 
     public Map<String, Object> getParams() {
@@ -109,6 +131,16 @@ public class Query {
 
     public void setSql(String sql) {
         this.sql = sql;
+        this.template = null;
+    }
+
+    public SqlTemplate getTemplate() {
+        return template;
+    }
+
+    public Query setTemplate(SqlTemplate template) {
+        this.template = template;
+        return this;
     }
 
     public String getRawSql() {
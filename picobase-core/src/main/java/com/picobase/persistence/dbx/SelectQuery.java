@@ -16,6 +16,10 @@ import static com.picobase.persistence.dbx.expression.Expression.or;
 
 
 public class SelectQuery implements Cloneable {
+
+    private static final String LIMIT_PARAM = "pbLimit";
+    private static final String OFFSET_PARAM = "pbOffset";
+
     private List<String> selects;
 
     private List<String> from;
@@ -145,19 +149,98 @@ public class SelectQuery implements Cloneable {
     }
 
     public Query build() {
+        SqlTemplateCache cache = this.builder.sqlTemplateCache();
+        if (cache == null || !this.union.isEmpty()) {
+            return buildWithoutTemplate();
+        }
+
+        Map<String, Object> params = new HashMap<>(this.params); //copy
+
+        // 表达式部分（join ON、WHERE、HAVING）每次都需要构建以收集参数，不在缓存范围内；
+        // 其余子句的拼接及命名参数解析结果按查询结构缓存
+        List<String> joins = new ArrayList<>(this.join.size() * 3);
+        for (JoinInfo info : this.join) {
+            joins.add(info.getJoin());
+            joins.add(info.getTable());
+            joins.add(info.getOn() == null ? "" : info.getOn().build(params));
+        }
+        String where = this.where == null ? "" : this.where.build(params);
+        String having = this.having == null ? "" : this.having.build(params);
+        boolean hasLimit = this.limit >= 0 || this.offset > 0;
+        boolean hasOffset = this.offset > 0;
+
+        Shape shape = new Shape(this.selects, this.distinct, this.selectOption, this.from, joins, where,
+                this.groupBy, having, this.orderBy, hasLimit, hasOffset);
+        SqlTemplate template = cache.get(shape);
+        if (template == null) {
+            template = SqlTemplate.parse(buildTemplateSql(joins, where, having, hasLimit, hasOffset));
+            cache.put(shape.copy(), template);
+        }
+
+        if (hasLimit) {
+            params.put(LIMIT_PARAM, this.limit < 0 ? Long.MAX_VALUE : this.limit);
+        }
+        if (hasOffset) {
+            params.put(OFFSET_PARAM, this.offset);
+        }
+        return this.builder.newQuery(template.getNamedSql()).bind(params).setTemplate(template);
+    }
+
+    /**
+     * 拼接 SQL 模板，表达式部分使用已构建的 SQL 片段，LIMIT/OFFSET 使用命名参数
+     */
+    private String buildTemplateSql(List<String> joins, String where, String having, boolean hasLimit, boolean hasOffset) {
+        Map<String, Object> ignored = new HashMap<>();
+        List<JoinInfo> joinInfos = new ArrayList<>(this.join.size());
+        for (int i = 0; i < joins.size(); i += 3) {
+            joinInfos.add(new JoinInfo(joins.get(i), joins.get(i + 1), Expression.newExpr(joins.get(i + 2))));
+        }
+
+        QueryBuilder qb = this.builder.QueryBuilder();
+        String sql = joinClauses(List.of(
+                qb.buildSelect(this.selects, this.distinct, this.selectOption),
+                qb.buildFrom(this.from),
+                qb.buildJoin(joinInfos, ignored),
+                qb.buildWhere(Expression.newExpr(where), ignored),
+                qb.buildGroupBy(this.groupBy),
+                qb.buildHaving(Expression.newExpr(having), ignored)
+        ));
+        sql = qb.buildOrderByAndLimit(sql, this.orderBy, -1, 0);
+        if (hasLimit) {
+            sql += " LIMIT :" + LIMIT_PARAM;
+        }
+        if (hasOffset) {
+            sql += " OFFSET :" + OFFSET_PARAM;
+        }
+        return sql;
+    }
+
+    private Query buildWithoutTemplate() {
         Map<String, Object> params = new HashMap<>(this.params); //copy
 
         QueryBuilder qb = this.builder.QueryBuilder();
-        List<String> clauses = List.of(
+        String sql = joinClauses(List.of(
                 qb.buildSelect(this.selects, this.distinct, this.selectOption),
                 qb.buildFrom(this.from),
                 qb.buildJoin(this.join, params),
                 qb.buildWhere(this.where, params),
                 qb.buildGroupBy(this.groupBy),
                 qb.buildHaving(this.having, params)
-        );
+        ));
+
+        sql = qb.buildOrderByAndLimit(sql, this.orderBy, this.limit, this.offset);
+
+        var union = qb.buildUnion(this.union, params);
+        if (StrUtil.isNotEmpty(union)) {
+            sql = String.format("(%s) %s", sql, union);
+        }
+        Query query = this.builder.newQuery(sql).bind(params);
+        return query;
+    }
+
+    private static String joinClauses(List<String> clauses) {
         StringBuilder sqlBuf = new StringBuilder();
-        clauses.stream().forEach(clause -> {
+        clauses.forEach(clause -> {
             if (StrUtil.isNotEmpty(clause)) {
                 if (sqlBuf.length() == 0) {
                     sqlBuf.append(clause);
@@ -166,15 +249,23 @@ public class SelectQuery implements Cloneable {
                 }
             }
         });
+        return sqlBuf.toString();
+    }
 
-        String sql = qb.buildOrderByAndLimit(sqlBuf.toString(), this.orderBy, this.limit, this.offset);
-
-        var union = qb.buildUnion(this.union, params);
-        if (StrUtil.isNotEmpty(union)) {
-            sql = String.format("(%s) %s", sql, union);
+    /**
+     * 查询的结构指纹：除参数值以外决定最终 SQL 的所有部分
+     */
+    private record Shape(List<String> selects, boolean distinct, String selectOption, List<String> from,
+                         List<String> joins, String where, List<String> groupBy, String having,
+                         List<String> orderBy, boolean hasLimit, boolean hasOffset) {
+
+        /**
+         * SelectQuery 中的列表可变且可能被浅拷贝共享，放入缓存的 key 需要复制
+         */
+        Shape copy() {
+            return new Shape(List.copyOf(selects), distinct, selectOption, List.copyOf(from), List.copyOf(joins), where,
+                    List.copyOf(groupBy), having, List.copyOf(orderBy), hasLimit, hasOffset);
         }
-        Query query = this.builder.newQuery(sql).bind(params);
-        return query;
     }
 
     @Override
@@ -0,0 +1,172 @@
+package com.picobase.persistence.dbx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预解析的 SQL 模板：命名参数 SQL 在创建时转换为 ? 占位的位置参数 SQL，并记录参数名顺序
+ * <p> 执行时只需按参数名顺序取值，无需再由 NamedParameterJdbcTemplate 解析命名参数 </p>
+ */
+public class SqlTemplate {
+
+    private static final String PARAMETER_SEPARATORS = "\"':&,;()|=+-*%/\\<>^]";
+
+    private final String namedSql;
+    private final String sql;
+    private final String[] paramNames;
+
+    private SqlTemplate(String namedSql, String sql, String[] paramNames) {
+        this.namedSql = namedSql;
+        this.sql = sql;
+        this.paramNames = paramNames;
+    }
+
+    /**
+     * 解析命名参数 SQL，规则与 NamedParameterJdbcTemplate 一致：跳过引号、反引号及注释中的内容，忽略 :: 类型转换
+     *
+     * @param namedSql 命名参数 SQL
+     * @return SqlTemplate
+     */
+    public static SqlTemplate parse(String namedSql) {
+        int n = namedSql.length();
+        StringBuilder sql = new StringBuilder(n);
+        List<String> names = new ArrayList<>();
+        int i = 0;
+        while (i < n) {
+            char c = namedSql.charAt(i);
+            int skipTo = skipCommentsAndQuotes(namedSql, i);
+            if (skipTo > i) {
+                sql.append(namedSql, i, skipTo);
+                i = skipTo;
+                continue;
+            }
+            if (c == ':' && i + 1 < n && namedSql.charAt(i + 1) == ':') {
+                sql.append("::");
+                i += 2;
+                continue;
+            }
+            if (c == ':') {
+                int end = i + 1;
+                while (end < n && !isParameterSeparator(namedSql.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    names.add(namedSql.substring(i + 1, end));
+                    sql.append('?');
+                    i = end;
+                    continue;
+                }
+            }
+            sql.append(c);
+            i++;
+        }
+        return new SqlTemplate(namedSql, sql.toString(), names.toArray(new String[0]));
+    }
+
+    /**
+     * 按映射替换命名参数 SQL 中的参数名，跳过的内容与 {@link #parse} 一致，映射中不存在的参数保持不变
+     *
+     * @param namedSql 命名参数 SQL
+     * @param names    原参数名到新参数名的映射
+     * @return 替换参数名后的命名参数 SQL
+     */
+    public static String renameParams(String namedSql, Map<String, String> names) {
+        int n = namedSql.length();
+        StringBuilder sql = new StringBuilder(n + 16);
+        int i = 0;
+        while (i < n) {
+            char c = namedSql.charAt(i);
+            int skipTo = skipCommentsAndQuotes(namedSql, i);
+            if (skipTo > i) {
+                sql.append(namedSql, i, skipTo);
+                i = skipTo;
+                continue;
+            }
+            if (c == ':' && i + 1 < n && namedSql.charAt(i + 1) == ':') {
+                sql.append("::");
+                i += 2;
+                continue;
+            }
+            if (c == ':') {
+                int end = i + 1;
+                while (end < n && !isParameterSeparator(namedSql.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    String name = namedSql.substring(i + 1, end);
+                    sql.append(':').append(names.getOrDefault(name, name));
+                    i = end;
+                    continue;
+                }
+            }
+            sql.append(c);
+            i++;
+        }
+        return sql.toString();
+    }
+
+    private static int skipCommentsAndQuotes(String sql, int start) {
+        char c = sql.charAt(start);
+        String end;
+        if (c == '\'' || c == '"' || c == '`') {
+            end = String.valueOf(c);
+        } else if (sql.startsWith("--", start)) {
+            end = "\n";
+        } else if (sql.startsWith("/*", start)) {
+            end = "*/";
+        } else {
+            return start;
+        }
+        int found = sql.indexOf(end, start + 1 + (end.length() == 2 ? 1 : 0));
+        return found < 0 ? sql.length() : found + end.length();
+    }
+
+    private static boolean isParameterSeparator(char c) {
+        return Character.isWhitespace(c) || PARAMETER_SEPARATORS.indexOf(c) >= 0;
+    }
+
+    /**
+     * 按参数名顺序取出参数值
+     *
+     * @param params 命名参数
+     * @return 位置参数；存在缺失的参数或集合类型参数（需要展开为多个占位符）时返回 null，由调用方使用命名参数执行
+     */
+    public Object[] args(Map<String, Object> params) {
+        Object[] args = new Object[paramNames.length];
+        for (int i = 0; i < paramNames.length; i++) {
+            Object value = params.get(paramNames[i]);
+            if (value == null && !params.containsKey(paramNames[i])) {
+                return null;
+            }
+            if (value instanceof Iterable<?>) {
+                return null;
+            }
+            args[i] = value;
+        }
+        return args;
+    }
+
+    /**
+     * @return 命名参数 SQL
+     */
+    public String getNamedSql() {
+        return namedSql;
+    }
+
+    /**
+     * @return 位置参数 SQL
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    public String[] getParamNames() {
+        return paramNames.clone();
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,37 @@
+package com.picobase.persistence.dbx;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL 模板缓存，key 为查询的结构指纹
+ * <p> 缓存达到上限后不再写入，避免参数以字面量拼接等无法复用的查询无限占用内存 </p>
+ */
+public class SqlTemplateCache {
+
+    private final int maxSize;
+
+    private final Map<Object, SqlTemplate> templates = new ConcurrentHashMap<>();
+
+    public SqlTemplateCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public SqlTemplate get(Object key) {
+        return templates.get(key);
+    }
+
+    public void put(Object key, SqlTemplate template) {
+        if (templates.size() < maxSize) {
+            templates.putIfAbsent(key, template);
+        }
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+}
@@ -1,6 +1,5 @@
 package com.picobase.persistence.dbx.expression;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,23 +14,42 @@ public class AndOrExp implements Expression {
 
     @Override
     public String build(Map<String, Object> params) {
-        if (exps.isEmpty()) {
-            return "";
-        }
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
 
-        List<String> parts = new ArrayList<>();
+    /**
+     * 多个非空子表达式输出为 (a) AND (b)，只有一个时直接输出该子表达式
+     */
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
+        int start = sb.length();
+        sb.append('(');
+        int count = 0;
         for (Expression exp : exps) {
             if (exp == null) {
                 continue;
             }
-            String sql = exp.build(params);
-            if (!sql.isEmpty()) {
-                parts.add(sql);
+            int mark = sb.length();
+            if (count > 0) {
+                sb.append(") ").append(this.op).append(" (");
+            }
+            int partStart = sb.length();
+            exp.build(sb, params);
+            if (sb.length() == partStart) {
+                sb.setLength(mark);
+            } else {
+                count++;
             }
         }
-        if (parts.size() == 1) {
-            return parts.get(0);
+
+        if (count == 0) {
+            sb.setLength(start);
+        } else if (count == 1) {
+            sb.deleteCharAt(start);
+        } else {
+            sb.append(')');
         }
-        return "(" + String.join(") " + this.op + " (", parts) + ")";
     }
-}
\ No newline at end of file
+}
@@ -11,10 +11,20 @@ public class EncloseExp implements Expression {
 
     @Override
     public String build(Map<String, Object> params) {
-        var str = this.exp.build(params);
-        if (str == null || str.isEmpty()) {
-            return "";
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
+        int start = sb.length();
+        sb.append('(');
+        this.exp.build(sb, params);
+        if (sb.length() == start + 1) {
+            sb.setLength(start);
+            return;
         }
-        return "(" + str + ")";
+        sb.append(')');
     }
-}
\ No newline at end of file
+}
@@ -14,16 +14,24 @@ public class ExistsExp implements Expression {
 
     @Override
     public String build(Map<String, Object> params) {
-        var str = this.exp.build(params);
-        if (str == null || str.isEmpty()) {
-            if (not) {
-                return "";
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
+        int start = sb.length();
+        sb.append(not ? "NOT EXISTS (" : "EXISTS (");
+        int expStart = sb.length();
+        this.exp.build(sb, params);
+        if (sb.length() == expStart) {
+            sb.setLength(start);
+            if (!not) {
+                sb.append("0=1");
             }
-            return "0=1";
-        }
-        if (not) {
-            return "NOT EXISTS (" + str + ")";
+            return;
         }
-        return "EXISTS (" + str + ")";
+        sb.append(')');
     }
 }
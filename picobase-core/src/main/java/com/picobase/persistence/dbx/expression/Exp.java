@@ -30,6 +30,14 @@ public class Exp implements Expression {
         return e;
     }
 
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> rootParams) {
+        if (!params.isEmpty()) {
+            rootParams.putAll(params);
+        }
+        sb.append(e);
+    }
+
     public String getE() {
         return e;
     }
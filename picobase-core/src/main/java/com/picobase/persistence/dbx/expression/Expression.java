@@ -7,6 +7,20 @@ public interface Expression {
 
     String build(Map<String, Object> params);
 
+    /**
+     * 将表达式对应的 SQL 片段直接追加到 sb 中，嵌套的表达式共用同一个 StringBuilder，避免逐层生成中间字符串
+     * <p> 表达式为空时不追加任何内容；默认实现回退到 {@link #build(Map)} </p>
+     *
+     * @param sb     SQL 输出
+     * @param params 绑定参数
+     */
+    default void build(StringBuilder sb, Map<String, Object> params) {
+        String sql = build(params);
+        if (sql != null) {
+            sb.append(sql);
+        }
+    }
+
     static Expression newExpr(String e, Map<String, Object>... params) {
         return new Exp(e, params);
     }
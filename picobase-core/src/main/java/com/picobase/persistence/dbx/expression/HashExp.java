@@ -1,7 +1,5 @@
 package com.picobase.persistence.dbx.expression;
 
-import cn.hutool.core.util.StrUtil;
-
 import java.util.*;
 
 import static com.picobase.persistence.dbx.DbxUtil.quoteColumnName;
@@ -18,41 +16,52 @@ public class HashExp extends HashMap<String, Object> implements Expression {
      */
     @Override
     public String build(Map<String, Object> params) {
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
         if (this.isEmpty()) {
-            return "";
+            return;
         }
 
         // Sort key names for consistency
         List<String> names = new ArrayList<>(this.keySet());
         names.sort(Comparator.naturalOrder());
 
-        List<String> parts = new ArrayList<>();
+        boolean first = true;
         for (String name : names) {
             Object value = this.get(name);
-            String sql;
+            int mark = sb.length();
+            if (!first) {
+                sb.append(" AND ");
+            }
+            int partStart = sb.length();
             if (value == null) {
-                sql = quoteColumnName(name) + " IS NULL";
+                sb.append(quoteColumnName(name)).append(" IS NULL");
             } else if (value instanceof Expression subExpression) {
-                sql = subExpression.build(params);
-                if (StrUtil.isNotEmpty(sql)) {
-                    sql = "(" + subExpression.build(params) + ")";
+                sb.append('(');
+                subExpression.build(sb, params);
+                if (sb.length() == partStart + 1) {
+                    sb.setLength(partStart);
+                } else {
+                    sb.append(')');
                 }
             } else if (value instanceof List values) {
-                sql = Expression.in(name, values).build(params);
-
+                Expression.in(name, values).build(sb, params);
             } else {
                 String paramName = "p" + params.size();
-                sql = quoteColumnName(name) + " = :" + paramName;
+                sb.append(quoteColumnName(name)).append(" = :").append(paramName);
                 params.put(paramName, value);
             }
-            if (!sql.isEmpty()) {
-                parts.add(sql);
-            }
-        }
 
-        if (parts.size() == 1) {
-            return parts.get(0);
+            if (sb.length() == partStart) {
+                sb.setLength(mark);
+            } else {
+                first = false;
+            }
         }
-        return String.join(" AND ", parts);
     }
-}
\ No newline at end of file
+}
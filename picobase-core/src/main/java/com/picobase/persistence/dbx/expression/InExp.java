@@ -1,6 +1,5 @@
 package com.picobase.persistence.dbx.expression;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -23,32 +22,46 @@ public class InExp<T> implements Expression {
      */
     @Override
     public String build(Map<String, Object> params) {
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
         if (values.isEmpty()) {
-            if (this.not) {
-                return "";
+            if (!this.not) {
+                sb.append("0=1");
             }
-            return "0=1";
+            return;
+        }
+
+        sb.append(quoteColumnName(this.col));
+        if (values.size() == 1) {
+            sb.append(not ? "<>" : "=");
+            appendValue(sb, values.get(0), params);
+            return;
         }
 
-        List<String> values = new ArrayList<>();
-        for (Object value : this.values) {
-            if (value == null) {
-                values.add("NULL");
-            } else if (value instanceof Expression subExpression) {
-                values.add(subExpression.build(params));
-            } else {
-                String paramName = "p" + params.size();
-                params.put(paramName, value);
-                values.add(":" + paramName);
+        sb.append(not ? " NOT IN (" : " IN (");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
             }
+            appendValue(sb, values.get(i), params);
         }
+        sb.append(')');
+    }
 
-        String col = quoteColumnName(this.col);
-        String in = not ? "NOT IN" : "IN";
-        if (values.size() == 1) {
-            return col + (not ? "<>" : "=") + values.get(0);
+    private static void appendValue(StringBuilder sb, Object value, Map<String, Object> params) {
+        if (value == null) {
+            sb.append("NULL");
+        } else if (value instanceof Expression subExpression) {
+            subExpression.build(sb, params);
         } else {
-            return String.format("%s %s (%s)", col, in, String.join(", ", values));
+            String paramName = "p" + params.size();
+            params.put(paramName, value);
+            sb.append(':').append(paramName);
         }
     }
 }
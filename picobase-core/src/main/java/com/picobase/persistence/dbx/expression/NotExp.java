@@ -1,7 +1,5 @@
 package com.picobase.persistence.dbx.expression;
 
-import cn.hutool.core.util.StrUtil;
-
 import java.util.Map;
 
 // NotExp represents an expression that should prefix "NOT" to a specified expression.
@@ -14,11 +12,31 @@ public class NotExp implements Expression {
 
     @Override
     public String build(Map<String, Object> params) {
-        var str = this.exp.build(params);
-        if (StrUtil.isNotBlank(str)) {
-            return "NOT (" + str + ")";
+        StringBuilder sb = new StringBuilder();
+        build(sb, params);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
+        int start = sb.length();
+        sb.append("NOT (");
+        int expStart = sb.length();
+        this.exp.build(sb, params);
+        if (isBlank(sb, expStart)) {
+            sb.setLength(start);
+            return;
+        }
+        sb.append(')');
+    }
+
+    private static boolean isBlank(StringBuilder sb, int from) {
+        for (int i = from; i < sb.length(); i++) {
+            if (!Character.isWhitespace(sb.charAt(i))) {
+                return false;
+            }
         }
-        return "";
+        return true;
     }
 
 }
@@ -13,4 +13,9 @@ public class OpExp implements Expression {
     public String build(Map<String, Object> params) {
         return op;
     }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> params) {
+        sb.append(op);
+    }
 }
@@ -413,7 +413,9 @@ public class FexprScanner {
                     SignAnyLt,
                     SignAnyLte,
                     SignAnyGt,
-                    SignAnyGte:
+                    SignAnyGte,
+                    SignMatch,
+                    SignNmatch:
                 return true;
             default:
                 return false;
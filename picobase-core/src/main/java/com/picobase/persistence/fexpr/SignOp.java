@@ -14,6 +14,10 @@ public enum SignOp {
     SignGt(">"),
     SignGte(">="),
 
+    // full-text operators
+    SignMatch("~~"),
+    SignNmatch("!~~"),
+
     // array/any operators
     SignAnyEq("?="),
     SignAnyNeq("?!="),
@@ -0,0 +1,111 @@
+package com.picobase.persistence.model;
+
+import java.util.List;
+
+/**
+ * 根据采样到的过滤及排序字段生成的索引建议，耗时单位均为毫秒
+ */
+public class IndexSuggestion {
+
+    /**
+     * 集合名称
+     */
+    private String collection;
+    /**
+     * 建议的索引列，依次为等值条件列、排序列或范围条件列
+     */
+    private List<String> columns;
+    /**
+     * 可直接加入集合 indexes 的 CREATE INDEX 语句
+     */
+    private String index;
+    /**
+     * 可使用该索引的采样查询次数
+     */
+    private long samples;
+    /**
+     * 可使用该索引的采样查询累计耗时
+     */
+    private double totalTime;
+    private double avgTime;
+    /**
+     * 最近一次采样查询 EXPLAIN 得到的当前使用的索引，未执行 EXPLAIN 或未使用索引时为 null
+     */
+    private String explainKey;
+    /**
+     * 最近一次采样查询 EXPLAIN 得到的预估扫描行数，未执行 EXPLAIN 时为 null
+     */
+    private Long explainRows;
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public IndexSuggestion setCollection(String collection) {
+        this.collection = collection;
+        return this;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public IndexSuggestion setColumns(List<String> columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public IndexSuggestion setIndex(String index) {
+        this.index = index;
+        return this;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public IndexSuggestion setSamples(long samples) {
+        this.samples = samples;
+        return this;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public IndexSuggestion setTotalTime(double totalTime) {
+        this.totalTime = totalTime;
+        return this;
+    }
+
+    public double getAvgTime() {
+        return avgTime;
+    }
+
+    public IndexSuggestion setAvgTime(double avgTime) {
+        this.avgTime = avgTime;
+        return this;
+    }
+
+    public String getExplainKey() {
+        return explainKey;
+    }
+
+    public IndexSuggestion setExplainKey(String explainKey) {
+        this.explainKey = explainKey;
+        return this;
+    }
+
+    public Long getExplainRows() {
+        return explainRows;
+    }
+
+    public IndexSuggestion setExplainRows(Long explainRows) {
+        this.explainRows = explainRows;
+        return this;
+    }
+}
@@ -0,0 +1,117 @@
+package com.picobase.persistence.model;
+
+/**
+ * 单个语句指纹的执行统计快照，耗时单位均为毫秒
+ */
+public class SqlStatementStats {
+
+    /**
+     * 语句指纹：字面量及参数占位符统一为 ?，参数列表折叠为 (?+)
+     */
+    private String sql;
+    private long count;
+    private long errors;
+    /**
+     * 查询返回行数或更新影响行数的累计值
+     */
+    private long rows;
+    private double totalTime;
+    private double avgTime;
+    private double maxTime;
+    /**
+     * 耗时分位数，取值为所在直方图区间的上限
+     */
+    private double p50;
+    private double p95;
+    private double p99;
+
+    public String getSql() {
+        return sql;
+    }
+
+    public SqlStatementStats setSql(String sql) {
+        this.sql = sql;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public SqlStatementStats setCount(long count) {
+        this.count = count;
+        return this;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public SqlStatementStats setErrors(long errors) {
+        this.errors = errors;
+        return this;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public SqlStatementStats setRows(long rows) {
+        this.rows = rows;
+        return this;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public SqlStatementStats setTotalTime(double totalTime) {
+        this.totalTime = totalTime;
+        return this;
+    }
+
+    public double getAvgTime() {
+        return avgTime;
+    }
+
+    public SqlStatementStats setAvgTime(double avgTime) {
+        this.avgTime = avgTime;
+        return this;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public SqlStatementStats setMaxTime(double maxTime) {
+        this.maxTime = maxTime;
+        return this;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public SqlStatementStats setP50(double p50) {
+        this.p50 = p50;
+        return this;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public SqlStatementStats setP95(double p95) {
+        this.p95 = p95;
+        return this;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public SqlStatementStats setP99(double p99) {
+        this.p99 = p99;
+        return this;
+    }
+}
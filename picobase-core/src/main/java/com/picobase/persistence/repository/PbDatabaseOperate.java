@@ -106,6 +106,16 @@ public interface PbDatabaseOperate {
      */
     Object runInTransaction(Function<Object, Object> action, boolean rollBack);
 
+    /**
+     * 在事务之外依次执行 DDL 语句
+     * <p>
+     * MySQL 中 DDL 会隐式提交当前事务，不能放在 {@link #update(List)} 的事务中执行
+     *
+     * @param sqls DDL 语句
+     * @return 是否全部执行成功，失败时不再执行后续语句
+     */
+    Boolean executeDdl(List<String> sqls);
+
     /**
      * data modify transaction.
      *
@@ -0,0 +1,272 @@
+package com.picobase.persistence.repository;
+
+import com.picobase.PbManager;
+import com.picobase.config.PbSqlConfig;
+import com.picobase.persistence.model.SqlStatementStats;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 执行统计记录器
+ * <p> 按语句指纹统计执行次数、耗时直方图、行数及错误数，记录过程只涉及 LongAdder 累加，不加锁；原始 SQL 到指纹的映射会被缓存，相同 SQL 只计算一次指纹 </p>
+ */
+public class SqlStatsRecorder {
+
+    /**
+     * 直方图区间数，第 i 个区间为 [2^(i-1), 2^i) 微秒，最后一个区间包含所有更长的耗时
+     */
+    private static final int HISTOGRAM_BUCKETS = 32;
+
+    /**
+     * 超出 maxStatements 后的语句合并到该指纹下
+     */
+    private static final String OTHER = "<other>";
+
+    private static final Pattern VALUE_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("(\\(\\?\\+?\\))(?:\\s*,\\s*\\(\\?\\+?\\))+");
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * 原始 SQL -> 统计项
+     */
+    private final Map<String, Statement> bySql = new ConcurrentHashMap<>();
+
+    /**
+     * 语句指纹 -> 统计项
+     */
+    private final Map<String, Statement> byFingerprint = new ConcurrentHashMap<>();
+
+    private SqlStatsRecorder() {
+    }
+
+    /**
+     * 获得单例的 SqlStatsRecorder
+     *
+     * @return SqlStatsRecorder
+     */
+    public static SqlStatsRecorder getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param sql        执行的 SQL
+     * @param startNanos 开始执行时的 {@link System#nanoTime()}
+     * @param rows       查询返回行数或更新影响行数
+     * @param error      是否执行失败
+     */
+    public void record(String sql, long startNanos, long rows, boolean error) {
+        long cost = System.nanoTime() - startNanos;
+        PbSqlConfig config = PbManager.getConfig().getSql();
+
+        if (Boolean.TRUE.equals(config.getRecordStats())) {
+            statement(sql, config.getMaxStatements()).record(cost, rows, error);
+        }
+
+        long slowThreshold = config.getSlowThreshold();
+        if (slowThreshold >= 0 && cost >= slowThreshold * 1_000_000L) {
+            PbManager.getLog().warn("[slow-sql] [{}ms] rows: {}, error: {}, sql: {}", cost / NANOS_PER_MILLI, rows, error, sql);
+        } else if (Boolean.TRUE.equals(config.getIsLog())) {
+            PbManager.getLog().debug("[{}ms] rows: {}, sql: {}", cost / NANOS_PER_MILLI, rows, sql);
+        }
+    }
+
+    private Statement statement(String sql, int maxStatements) {
+        Statement statement = bySql.get(sql);
+        if (statement != null) {
+            return statement;
+        }
+
+        String fingerprint = fingerprint(sql);
+        statement = byFingerprint.get(fingerprint);
+        if (statement == null) {
+            statement = byFingerprint.size() < maxStatements
+                    ? byFingerprint.computeIfAbsent(fingerprint, Statement::new)
+                    : byFingerprint.computeIfAbsent(OTHER, Statement::new);
+        }
+        // 参数以字面量拼接的 SQL 每次文本都不同，限制缓存大小避免无限增长
+        if (bySql.size() < maxStatements * 4) {
+            bySql.putIfAbsent(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * 计算语句指纹：压缩空白，字符串、数字字面量及命名参数替换为 ?，参数列表及多行 values 折叠
+     *
+     * @param sql 原始 SQL
+     * @return 语句指纹
+     */
+    public static String fingerprint(String sql) {
+        int n = sql.length();
+        StringBuilder out = new StringBuilder(n);
+        boolean space = false;
+        for (int i = 0; i < n; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+                space = false;
+            }
+
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(sql, i, c);
+                out.append('?');
+            } else if (c == '`') {
+                int end = sql.indexOf('`', i + 1);
+                end = end < 0 ? n - 1 : end;
+                out.append(sql, i, end + 1);
+                i = end;
+            } else if (c == ':' && i + 1 < n && Character.isJavaIdentifierStart(sql.charAt(i + 1)) && (i == 0 || sql.charAt(i - 1) != ':')) {
+                i++;
+                while (i + 1 < n && Character.isJavaIdentifierPart(sql.charAt(i + 1))) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isDigit(c) && (out.length() == 0 || !Character.isJavaIdentifierPart(out.charAt(out.length() - 1)))) {
+                while (i + 1 < n && (Character.isLetterOrDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+            }
+        }
+
+        String fingerprint = VALUE_LIST.matcher(out).replaceAll("?+");
+        return ROW_LIST.matcher(fingerprint).replaceAll("$1,...");
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        int n = sql.length();
+        for (int i = start + 1; i < n; i++) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                if (i + 1 < n && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return n - 1;
+    }
+
+    /**
+     * 按累计耗时倒序返回前 limit 条语句的统计
+     *
+     * @param limit 返回条数
+     * @return 统计快照
+     */
+    public List<SqlStatementStats> top(int limit) {
+        return byFingerprint.values().stream()
+                .sorted(Comparator.comparingLong(Statement::totalNanos).reversed())
+                .limit(Math.max(0, limit))
+                .map(Statement::snapshot)
+                .toList();
+    }
+
+    /**
+     * 清空所有统计
+     */
+    public void reset() {
+        bySql.clear();
+        byFingerprint.clear();
+    }
+
+    private static class Statement {
+        private final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+        Statement(String fingerprint) {
+            this.fingerprint = fingerprint;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos, long rows, boolean error) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (rows > 0) {
+                this.rows.add(rows);
+            }
+            if (error) {
+                errors.increment();
+            }
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+            long micros = nanos / 1000;
+            histogram[Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+        }
+
+        long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        SqlStatementStats snapshot() {
+            long[] buckets = new long[HISTOGRAM_BUCKETS];
+            long total = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                buckets[i] = histogram[i].sum();
+                total += buckets[i];
+            }
+            long calls = count.sum();
+            double totalMillis = totalNanos.sum() / NANOS_PER_MILLI;
+            return new SqlStatementStats()
+                    .setSql(fingerprint)
+                    .setCount(calls)
+                    .setErrors(errors.sum())
+                    .setRows(rows.sum())
+                    .setTotalTime(totalMillis)
+                    .setAvgTime(calls == 0 ? 0 : totalMillis / calls)
+                    .setMaxTime(maxNanos.get() / NANOS_PER_MILLI)
+                    .setP50(percentile(buckets, total, 0.50))
+                    .setP95(percentile(buckets, total, 0.95))
+                    .setP99(percentile(buckets, total, 0.99));
+        }
+
+        /**
+         * @return 分位数所在直方图区间的上限（单位：毫秒）
+         */
+        private static double percentile(long[] buckets, long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return (1L << i) / 1000D;
+                }
+            }
+            return (1L << (buckets.length - 1)) / 1000D;
+        }
+    }
+
+    private static class SingletonHolder {
+        private static final SqlStatsRecorder INSTANCE = new SqlStatsRecorder();
+    }
+}
@@ -1,6 +1,7 @@
 package com.picobase.persistence.resolver;
 
 
+import cn.hutool.core.util.RandomUtil;
 import com.picobase.persistence.dbx.SelectQuery;
 
 import java.util.List;
@@ -13,6 +14,16 @@ public interface FieldResolver {
 
     ResolverResult resolve(String field);
 
+    /**
+     * 当前查询的参数占位符分配器，同一查询中的所有过滤条件共用
+     * <p> 默认每次调用返回带随机前缀的新分配器；解析器实例应持有一个分配器，使结构相同的过滤条件生成相同的 SQL </p>
+     *
+     * @return PlaceholderAllocator
+     */
+    default PlaceholderAllocator placeholders() {
+        return new PlaceholderAllocator(PlaceholderAllocator.DEFAULT_PREFIX + RandomUtil.randomString(5) + "_");
+    }
+
 
     static FieldResolver newSimpleFieldResolver(String... field) {
         return new SimpleFieldResolver(List.of(field));
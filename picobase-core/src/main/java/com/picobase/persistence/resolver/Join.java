@@ -7,17 +7,27 @@ public class Join {
     private final String tableName;
     private final String tableAlias;
     private final Expression on;
+    /**
+     * 主查询的每行最多 join 一行（例如按主键 join 单值 relation），不会产生重复行
+     */
+    private final boolean toOne;
 
     public Join(String tableName, String tableAlias, Expression on) {
+        this(tableName, tableAlias, on, false);
+    }
+
+    public Join(String tableName, String tableAlias, Expression on, boolean toOne) {
         this.tableName = tableName;
         this.tableAlias = tableAlias;
         this.on = on;
+        this.toOne = toOne;
     }
 
     public Join(String tableName, String tableAlias) {
         this.tableName = tableName;
         this.tableAlias = tableAlias;
         this.on = null;
+        this.toOne = false;
     }
 
     public String getTableName() {
@@ -31,4 +41,8 @@ public class Join {
     public Expression getOn() {
         return on;
     }
+
+    public boolean isToOne() {
+        return toOne;
+    }
 }
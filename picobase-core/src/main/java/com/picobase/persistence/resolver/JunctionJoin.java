@@ -0,0 +1,53 @@
+package com.picobase.persistence.resolver;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.RelationOptions;
+import com.picobase.persistence.dbx.expression.Expression;
+import com.picobase.util.PbConstants;
+
+import java.util.Map;
+
+/**
+ * 多值 relation 字段关联表（{@link PbConstants.TableName#RELATION}）的 join 条件
+ * <p>
+ * 关联表的写入与同步见 {@code com.picobase.logic.mapper.RelationJunction}
+ */
+public final class JunctionJoin {
+
+    public static final String TABLE = PbConstants.TableName.RELATION;
+
+    private JunctionJoin() {
+    }
+
+    /**
+     * @return 字段是否为开启关联表的多值 relation 字段
+     */
+    public static boolean isEnabled(SchemaField field) {
+        if (field == null || !PbConstants.FieldType.Relation.equals(field.getType())) {
+            return false;
+        }
+        field.initOptions();
+        return field.getOptions() instanceof RelationOptions options && options.isJunction() && options.isMultiple();
+    }
+
+    /**
+     * 关联表的 join 条件，从 sourceAlias 的记录关联到其 field 字段的目标 id（{@code alias.target_id}）
+     */
+    public static Expression sourceJoin(String alias, String sourceAlias, CollectionModel collection, SchemaField field) {
+        return join(alias, "source_id", sourceAlias, collection, field);
+    }
+
+    /**
+     * 关联表的 join 条件，从 targetAlias 的记录关联到引用它的记录 id（{@code alias.source_id}）
+     */
+    public static Expression targetJoin(String alias, String targetAlias, CollectionModel collection, SchemaField field) {
+        return join(alias, "target_id", targetAlias, collection, field);
+    }
+
+    private static Expression join(String alias, String column, String otherAlias, CollectionModel collection, SchemaField field) {
+        return Expression.newExpr(String.format("`%s`.`collection_id` = :%s_c AND `%s`.`field_id` = :%s_f AND `%s`.`%s` = `%s`.`id`",
+                        alias, alias, alias, alias, alias, column, otherAlias),
+                Map.of(alias + "_c", collection.getId(), alias + "_f", field.getId()));
+    }
+}
@@ -29,8 +29,16 @@ public class MultiMatchSubquery implements Expression {
      */
     @Override
     public String build(Map<String, Object> rootParams) {
+        StringBuilder sb = new StringBuilder();
+        build(sb, rootParams);
+        return sb.toString();
+    }
+
+    @Override
+    public void build(StringBuilder sb, Map<String, Object> rootParams) {
         if ("".equals(this.baseTableAlias) || "".equals(this.fromTableName) || "".equals(this.fromTableAlias)) {
-            return "0=1";
+            sb.append("0=1");
+            return;
         }
 
         if (rootParams == null) {
@@ -38,29 +46,26 @@ public class MultiMatchSubquery implements Expression {
         } else {
             rootParams.putAll(this.params);
         }
-        StringBuilder mergedJoins = new StringBuilder();
+
+        sb.append("SELECT ").append(DbxUtil.quoteColumnName(this.valueIdentifier)).append(" as `multiMatchValue` FROM ")
+                .append(DbxUtil.quoteColumnName(this.fromTableName)).append(' ')
+                .append(DbxUtil.quoteColumnName(this.fromTableAlias)).append(' ');
         for (int i = 0; i < this.joins.size(); i++) {
             var j = this.joins.get(i);
             if (i > 0) {
-                mergedJoins.append(" ");
+                sb.append(" ");
             }
-            mergedJoins.append("LEFT JOIN ")
+            sb.append("LEFT JOIN ")
                     .append(DbxUtil.quoteTableName(j.getTableName()))
                     .append(" ")
                     .append(DbxUtil.quoteTableName(j.getTableAlias()));
             if (j.getOn() != null) {
-                mergedJoins.append(" ON ").append(j.getOn().build(rootParams));
+                sb.append(" ON ");
+                j.getOn().build(sb, rootParams);
             }
         }
-
-        return String.format("SELECT %s as `multiMatchValue` FROM %s %s %s WHERE %s = %s",
-                DbxUtil.quoteColumnName(this.valueIdentifier),
-                DbxUtil.quoteColumnName(this.fromTableName),
-                DbxUtil.quoteColumnName(this.fromTableAlias),
-                mergedJoins,
-                DbxUtil.quoteColumnName(this.fromTableAlias + ".id"),
-                DbxUtil.quoteColumnName(this.baseTableAlias + ".id")
-        );
+        sb.append(" WHERE ").append(DbxUtil.quoteColumnName(this.fromTableAlias + ".id"))
+                .append(" = ").append(DbxUtil.quoteColumnName(this.baseTableAlias + ".id"));
     }
 
     public String getBaseTableAlias() {
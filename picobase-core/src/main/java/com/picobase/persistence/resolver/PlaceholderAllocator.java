@@ -0,0 +1,36 @@
+package com.picobase.persistence.resolver;
+
+/**
+ * 查询级别的命名参数占位符分配器，按顺序生成 t0、t1 ... 形式的参数名
+ * <p> 同一查询中的所有过滤条件、字段解析及 multi-match 子查询共用一个分配器，结构相同的过滤条件因此生成完全相同的 SQL，便于驱动及数据库缓存预编译语句 </p>
+ * <p> 前缀不使用 p，避免与 HashExp、InExp 构建时按参数个数生成的 p0、p1 ... 冲突；分配器随查询创建，不是线程安全的 </p>
+ */
+public class PlaceholderAllocator {
+
+    public static final String DEFAULT_PREFIX = "t";
+
+    private final String prefix;
+    private int next;
+
+    public PlaceholderAllocator() {
+        this(DEFAULT_PREFIX);
+    }
+
+    public PlaceholderAllocator(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return 下一个参数名（不含 : 前缀）
+     */
+    public String next() {
+        return prefix + next++;
+    }
+
+    /**
+     * @return 已分配的参数个数
+     */
+    public int size() {
+        return next;
+    }
+}
@@ -2,7 +2,6 @@ package com.picobase.persistence.resolver;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.NumberUtil;
-import cn.hutool.core.util.RandomUtil;
 import com.picobase.PbUtil;
 import com.picobase.fun.PbCollFetchFun;
 import com.picobase.logic.mapper.CollectionMapper;
@@ -13,6 +12,7 @@ import com.picobase.persistence.dbx.SelectQuery;
 import com.picobase.util.PbConstants;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static com.picobase.persistence.dbx.DbxUtil.splitModifier;
 import static com.picobase.util.PbConstants.IssetModifier;
@@ -26,6 +26,45 @@ public class RecordFieldResolver implements FieldResolver {
     private List<CollectionModel> loadedCollections;
     private List<Join> joins;
     private boolean allowHiddenFields;
+    private final PlaceholderAllocator placeholders = new PlaceholderAllocator();
+    /**
+     * 编译规则计划时记录的静态请求字段取值，null 表示不记录
+     */
+    private List<RequestProbe> probes;
+    /**
+     * 解析结果的结构（join、标识符）是否依赖请求中的值，依赖时规则计划不可复用
+     */
+    private boolean requestDependent;
+    /**
+     * 每个 join 别名被注册的次数，只被一个条件使用的 join 才能移入该条件的 EXISTS 子查询
+     */
+    private final Map<String, Integer> joinUsages = new HashMap<>();
+    /**
+     * 正在解析的字段注册的 join 别名
+     */
+    private List<String> resolvingJoins;
+    /**
+     * 可改写为 EXISTS 子查询的条件
+     */
+    private final List<SemiJoinExpr> semiJoins = new ArrayList<>();
+    /**
+     * 是否将条件改写为 EXISTS 子查询
+     */
+    private boolean semiJoinEnabled = true;
+
+    /**
+     * 规则及过滤条件中允许使用的字段（正则）
+     */
+    public static final List<String> ALLOWED_FIELDS = List.of(
+            "^\\w+[\\w\\.\\:]*$",
+            "^\\@request\\.context$",
+            "^\\@request\\.method$",
+            "^\\@request\\.auth\\.[\\w\\.\\:]*\\w+$",
+            "^\\@request\\.data\\.[\\w\\.\\:]*\\w+$",
+            "^\\@request\\.query\\.[\\w\\.\\:]*\\w+$",
+            "^\\@request\\.headers\\.\\w+$",
+            "^\\@collection\\.\\w+(\\:\\w+)?\\.[\\w\\.\\:]*\\w+$"
+    );
 
     private final CollectionMapper collectionMapper = PbUtil.findMapper(CollectionModel.class);
 
@@ -39,16 +78,7 @@ public class RecordFieldResolver implements FieldResolver {
         this.joins = new ArrayList<>();
         this.loadedCollections = new ArrayList<>();
         this.loadedCollections.add(baseCollection);
-        this.allowedFields = Arrays.asList(
-                "^\\w+[\\w\\.\\:]*$",
-                "^\\@request\\.context$",
-                "^\\@request\\.method$",
-                "^\\@request\\.auth\\.[\\w\\.\\:]*\\w+$",
-                "^\\@request\\.data\\.[\\w\\.\\:]*\\w+$",
-                "^\\@request\\.query\\.[\\w\\.\\:]*\\w+$",
-                "^\\@request\\.headers\\.\\w+$",
-                "^\\@collection\\.\\w+(\\:\\w+)?\\.[\\w\\.\\:]*\\w+$"
-        );
+        this.allowedFields = ALLOWED_FIELDS;
 
         this.staticRequestInfo = new HashMap<>();
         if (requestInfo != null) {
@@ -72,15 +102,40 @@ public class RecordFieldResolver implements FieldResolver {
      */
     @Override
     public void updateQuery(SelectQuery query) {
-        if (!this.joins.isEmpty()) {
-            query.distinct(true);
+        List<Join> queryJoins = queryJoins();
+        if (!queryJoins.isEmpty()) {
+            // 只有一对一的 join 时不会产生重复行
+            if (queryJoins.stream().anyMatch(join -> !join.isToOne())) {
+                query.distinct(true);
+            }
 
-            for (Join join : this.joins) {
+            for (Join join : queryJoins) {
                 query.leftJoin(join.getTableName() + " " + join.getTableAlias(), join.getOn());
             }
         }
     }
 
+    /**
+     * @return 需要加入主查询的 join，不包含已移入 EXISTS 子查询的 join
+     */
+    public List<Join> queryJoins() {
+        Set<String> moved = new HashSet<>();
+        for (SemiJoinExpr semiJoin : this.semiJoins) {
+            if (semiJoin.isApplied()) {
+                moved.addAll(semiJoin.aliases);
+            }
+        }
+        if (moved.isEmpty()) {
+            return this.joins;
+        }
+        return this.joins.stream().filter(join -> !moved.contains(join.getTableAlias())).toList();
+    }
+
+    @Override
+    public PlaceholderAllocator placeholders() {
+        return placeholders;
+    }
+
     /**
      * Resolve implements `search.FieldResolver` interface.
      * <p>
@@ -104,7 +159,51 @@ public class RecordFieldResolver implements FieldResolver {
      */
     @Override
     public ResolverResult resolve(String fieldName) {
-        return parseAndRun(fieldName, this);
+        List<String> registered = new ArrayList<>();
+        this.resolvingJoins = registered;
+        ResolverResult result;
+        try {
+            result = parseAndRun(fieldName, this);
+        } finally {
+            this.resolvingJoins = null;
+        }
+        return withSemiJoin(result, registered);
+    }
+
+    /**
+     * 字段经过会使行数倍增的 join（多值 relation、back relation、@collection 等）时，
+     * 使用该字段的条件在构建时改写为 EXISTS 子查询，从第一个倍增的 join 开始的 join 移入子查询
+     * <p>
+     * 只有这些 join 没有被其他条件或排序使用时才改写，结果与 join 后 DISTINCT 一致
+     */
+    private ResolverResult withSemiJoin(ResolverResult result, List<String> registered) {
+        int from = -1;
+        for (int i = 0; i < registered.size() && from < 0; i++) {
+            Join join = findJoin(registered.get(i));
+            if (join != null && !join.isToOne()) {
+                from = i;
+            }
+        }
+        if (result == null || from < 0 || !semiJoinEnabled) {
+            return result;
+        }
+
+        List<String> aliases = List.copyOf(registered.subList(from, registered.size()));
+        Function<Expression, Expression> afterBuild = result.getAfterBuild();
+        return new ResolverResult(result.getIdentifier(), result.isNoCoalesce(), result.getParams(), result.getMultiMatchSubQuery(), expr -> {
+            SemiJoinExpr semiJoin = new SemiJoinExpr(aliases, afterBuild != null ? afterBuild.apply(expr) : expr);
+            this.semiJoins.add(semiJoin);
+            return semiJoin;
+        }, result.isFullText());
+    }
+
+    private Join findJoin(String tableAlias) {
+        for (Join join : this.joins) {
+            if (join.getTableAlias().equals(tableAlias)) {
+                return join;
+            }
+        }
+        return null;
     }
 
     private ResolverResult parseAndRun(String fieldName, RecordFieldResolver recordFieldResolver) {
@@ -114,7 +213,7 @@ public class RecordFieldResolver implements FieldResolver {
     public CollectionModel loadCollection(String collectionNameOrId) {
         //return already loaded
         CollectionModel collectionModel = this.loadedCollections.stream()
-                .filter(co -> co.getId().equals(collectionNameOrId) || co.getId().equalsIgnoreCase(collectionNameOrId))
+                .filter(co -> co.getId().equals(collectionNameOrId) || co.getName().equalsIgnoreCase(collectionNameOrId))
                 .findFirst().orElse(null);
 
         if (collectionModel != null) {
@@ -130,7 +229,14 @@ public class RecordFieldResolver implements FieldResolver {
     }
 
     public void registerJoin(String tableName, String tableAlias, Expression on) {
-        var join = new Join(tableName, tableAlias, on);
+        registerJoin(new Join(tableName, tableAlias, on));
+    }
+
+    public void registerJoin(Join join) {
+        this.joinUsages.merge(join.getTableAlias(), 1, Integer::sum);
+        if (this.resolvingJoins != null) {
+            this.resolvingJoins.add(join.getTableAlias());
+        }
 
         // replace existing join
         for (int i = 0; i < this.joins.size(); i++) {
@@ -153,22 +259,41 @@ public class RecordFieldResolver implements FieldResolver {
 
         path.set(path.size() - 1, lastProp);
 
+        var value = staticRequestValue(path, modifier);
+        ResolverResult result = value.identifier() != null
+                ? ResolverResult.builder().identifier(value.identifier()).build()
+                : ResolverResult.placeholder(this.placeholders, value.value());
+        if (this.probes != null) {
+            var placeholder = value.identifier() != null ? null : result.getParams().keySet().iterator().next();
+            this.probes.add(new RequestProbe(List.copyOf(path), modifier, value, placeholder));
+        }
+        return result;
+    }
+
+    /**
+     * 取出静态请求字段的值，与 {@link #resolveStaticRequestField} 的解析规则一致
+     *
+     * @param path     字段路径（不含 @request 及修饰符）
+     * @param modifier 修饰符，可以为 null
+     * @return 取值结果
+     */
+    public StaticRequestValue staticRequestValue(List<String> path, String modifier) {
         // extract value
         ResultCouple<Object> couple = extractNestedMapVal(this.staticRequestInfo, path);
         var resultVal = couple.getResult();
 
         if (IssetModifier.equals(modifier)) {
             if (couple.getError() != null) {
-                return ResolverResult.builder().identifier("FALSE").build();
+                return new StaticRequestValue("FALSE", null);
             }
-            return ResolverResult.builder().identifier("TRUE").build();
+            return new StaticRequestValue("TRUE", null);
         }
 
         // note: we are ignoring the error because requestInfo is dynamic
         // and some of the lookup keys may not be defined for the request
 
         if (resultVal == null) {
-            return ResolverResult.builder().identifier("NULL").build();
+            return new StaticRequestValue("NULL", null);
         } else if (resultVal instanceof String) {
             // check if it is a number field and explicitly try to cast to
             // float in case of a numeric string value was used
@@ -186,9 +311,124 @@ public class RecordFieldResolver implements FieldResolver {
             resultVal = resultVal.toString();
             //throw new RuntimeException("not implemented");
         }
-        var placeholder = "t" + RandomUtil.randomString(5);
-        return ResolverResult.builder().identifier(":" + placeholder)
-                .params(Map.of(placeholder, resultVal)).build();
+        return new StaticRequestValue(null, resultVal);
+    }
+
+    /**
+     * 开始记录静态请求字段的取值，用于编译规则计划
+     */
+    public RecordFieldResolver recordProbes() {
+        this.probes = new ArrayList<>();
+        return this;
+    }
+
+    /**
+     * 关闭 EXISTS 子查询改写
+     * <p>
+     * 规则计划单独编译规则并缓存 SQL，编译时无法知道同一查询中的其他条件是否使用相同的 join，因此保留普通 join，
+     * join 注册到请求的 resolver 后与其他条件一起计数
+     */
+    public RecordFieldResolver disableSemiJoin() {
+        this.semiJoinEnabled = false;
+        return this;
+    }
+
+    public List<RequestProbe> getProbes() {
+        return probes;
+    }
+
+    /**
+     * 标记解析结果的结构依赖请求中的值（例如 join 了请求中的 auth record 或 relation id）
+     */
+    public void markRequestDependent() {
+        this.requestDependent = true;
+    }
+
+    public boolean isRequestDependent() {
+        return requestDependent;
+    }
+
+    /**
+     * @return 参数中是否包含已记录的静态请求字段的值
+     */
+    public boolean isProbed(Map<String, Object> params) {
+        if (probes == null || params == null || params.isEmpty()) {
+            return false;
+        }
+        for (RequestProbe probe : probes) {
+            if (probe.placeholder() != null && params.containsKey(probe.placeholder())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 条件的 EXISTS 子查询形式：
+     * EXISTS (SELECT 1 FROM (SELECT 1) __sj LEFT JOIN ... WHERE 条件)
+     * <p>
+     * 子查询中保留 LEFT JOIN，没有关联行时与主查询的 LEFT JOIN 一样得到一行 NULL 值；是否改写在构建时按最终的 join 使用情况决定
+     */
+    private final class SemiJoinExpr implements Expression {
+        private final List<String> aliases;
+        private final Expression expr;
+
+        private SemiJoinExpr(List<String> aliases, Expression expr) {
+            this.aliases = aliases;
+            this.expr = expr;
+        }
+
+        boolean isApplied() {
+            for (String alias : aliases) {
+                if (joinUsages.getOrDefault(alias, 0) != 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String build(Map<String, Object> params) {
+            StringBuilder sb = new StringBuilder();
+            build(sb, params);
+            return sb.toString();
+        }
+
+        @Override
+        public void build(StringBuilder sb, Map<String, Object> params) {
+            if (!isApplied()) {
+                expr.build(sb, params);
+                return;
+            }
+
+            sb.append("EXISTS (SELECT 1 FROM (SELECT 1) `__sj`");
+            for (String alias : aliases) {
+                Join join = findJoin(alias);
+                sb.append(" LEFT JOIN ").append(join.getTableName()).append(' ').append(join.getTableAlias()).append(" ON ");
+                int mark = sb.length();
+                if (join.getOn() != null) {
+                    join.getOn().build(sb, params);
+                }
+                if (sb.length() == mark) {
+                    sb.append("1=1");
+                }
+            }
+            sb.append(" WHERE ");
+            expr.build(sb, params);
+            sb.append(')');
+        }
+    }
+
+    /**
+     * 静态请求字段的取值：identifier 不为 null 时为 NULL、TRUE、FALSE 等字面量，否则为参数值 value
+     */
+    public record StaticRequestValue(String identifier, Object value) {
+    }
+
+    /**
+     * 一次静态请求字段的取值记录，placeholder 为值绑定的参数名
+     */
+    public record RequestProbe(List<String> path, String modifier, StaticRequestValue value, String placeholder) {
     }
 
     private ResultCouple<Object> extractNestedMapVal(Map<String, Object> m, List<String> keys) {
@@ -1,6 +1,7 @@
 package com.picobase.persistence.resolver;
 
 
+import com.picobase.model.schema.JsonIndexedPath;
 import com.picobase.persistence.dbx.expression.Expression;
 
 import java.util.HashMap;
@@ -19,12 +20,32 @@ public class ResolverResult {
 
     private Function<Expression, Expression> afterBuild;
 
+    /**
+     * 标识符为开启全文索引的字段列，可用于 MATCH ... AGAINST
+     */
+    private boolean fullText;
+
+    /**
+     * 标识符为 json 索引路径的生成列时对应的索引路径
+     */
+    private JsonIndexedPath indexedPath;
+
+    /**
+     * 改写为 json 索引路径生成列之前的结果；生成列只保存同类型的值，无法保证比较结果一致时使用该结果
+     */
+    private ResolverResult unindexed;
+
     public ResolverResult(String identifier, boolean noCoalesce, Map<String, Object> params, Expression multiMatchSubQuery, Function<Expression, Expression> afterBuild) {
+        this(identifier, noCoalesce, params, multiMatchSubQuery, afterBuild, false);
+    }
+
+    public ResolverResult(String identifier, boolean noCoalesce, Map<String, Object> params, Expression multiMatchSubQuery, Function<Expression, Expression> afterBuild, boolean fullText) {
         this.identifier = identifier;
         this.noCoalesce = noCoalesce;
         this.params = params;
         this.multiMatchSubQuery = multiMatchSubQuery;
         this.afterBuild = afterBuild;
+        this.fullText = fullText;
     }
 
     public String getIdentifier() {
@@ -47,6 +68,32 @@ public class ResolverResult {
         return afterBuild;
     }
 
+    public boolean isFullText() {
+        return fullText;
+    }
+
+    public JsonIndexedPath getIndexedPath() {
+        return indexedPath;
+    }
+
+    public ResolverResult getUnindexed() {
+        return unindexed;
+    }
+
+    /**
+     * 将值绑定为命名参数，参数名由查询的占位符分配器生成
+     *
+     * @param placeholders 占位符分配器
+     * @param value        参数值
+     * @return 以 :参数名 为标识符的 ResolverResult
+     */
+    public static ResolverResult placeholder(PlaceholderAllocator placeholders, Object value) {
+        var placeholder = placeholders.next();
+        Map<String, Object> params = new HashMap<>(2);
+        params.put(placeholder, value);
+        return builder().identifier(":" + placeholder).params(params).build();
+    }
+
     public static ResolverResultBuilder builder() {
         return new ResolverResultBuilder();
     }
@@ -61,6 +108,12 @@ public class ResolverResult {
 
         private Function<Expression, Expression> afterBuild;
 
+        private boolean fullText;
+
+        private JsonIndexedPath indexedPath;
+
+        private ResolverResult unindexed;
+
 
         public ResolverResultBuilder identifier(String identifier) {
             this.identifier = identifier;
@@ -91,8 +144,22 @@ public class ResolverResult {
             return this;
         }
 
+        public ResolverResultBuilder fullText(boolean fullText) {
+            this.fullText = fullText;
+            return this;
+        }
+
+        public ResolverResultBuilder indexed(JsonIndexedPath indexedPath, ResolverResult unindexed) {
+            this.indexedPath = indexedPath;
+            this.unindexed = unindexed;
+            return this;
+        }
+
         public ResolverResult build() {
-            return new ResolverResult(identifier, noCoalesce, params, multiMatchSubQuery, afterBuild);
+            var result = new ResolverResult(identifier, noCoalesce, params, multiMatchSubQuery, afterBuild, fullText);
+            result.indexedPath = indexedPath;
+            result.unindexed = unindexed;
+            return result;
         }
     }
 }
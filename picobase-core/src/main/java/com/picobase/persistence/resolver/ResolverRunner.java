@@ -1,10 +1,11 @@
 package com.picobase.persistence.resolver;
 
 import cn.hutool.core.util.NumberUtil;
-import cn.hutool.core.util.RandomUtil;
 import com.picobase.PbManager;
 import com.picobase.log.PbLog;
 import com.picobase.model.CollectionModel;
+import com.picobase.model.schema.FullTextSearchable;
+import com.picobase.model.schema.JsonIndexedPath;
 import com.picobase.model.schema.MultiValuer;
 import com.picobase.model.schema.SchemaField;
 import com.picobase.model.schema.fieldoptions.RelationOptions;
@@ -106,6 +107,7 @@ public class ResolverRunner {
 
             if (this.activeProps.get(0).equals("@request")) {
                 if (this.resolver.getRequestInfo() == null) {
+                    this.resolver.markRequestDependent();
                     return ResolverResult.builder().identifier("NULL").build();
                 }
 
@@ -157,6 +159,7 @@ public class ResolverRunner {
     }
 
     private ResolverResult processRequestInfoLengthModifier(SchemaField dataField) {
+        this.resolver.markRequestDependent();
         var dataItems = ListUtil.toUniqueStringList(this.resolver.getRequestInfo().getData().get(dataField.getName()));
 
         var result = ResolverResult.builder().identifier(String.valueOf(dataItems.size()));
@@ -168,12 +171,13 @@ public class ResolverRunner {
         if (!(dataField.getOptions() instanceof MultiValuer options)) {
             throw new RuntimeException("field " + dataField.getName() + " options are not initialized or doesn't support multivaluer operations");
         }
+        this.resolver.markRequestDependent();
 
         var dataItems = ListUtil.toUniqueStringList(this.resolver.getRequestInfo().getData().get(dataField.getName()));
 
         var rawJson = PbManager.getPbJsonTemplate().toJsonString(dataItems);
 
-        var placeholder = "dataEach" + RandomUtil.randomString(4);
+        var placeholder = this.resolver.placeholders().next();
         var cleanFieldName = columnify(dataField.getName());
         var jeTable = String.format("JSON_TABLE( :%s, '$[*]' COLUMNS ( `value` VARCHAR(255) PATH '$' ) )", placeholder);
         var jeAlias = "__dataEach_" + cleanFieldName + "_je";
@@ -186,7 +190,7 @@ public class ResolverRunner {
         }
 
         if (this.withMultiMatch) {
-            var placeholder2 = "mm" + placeholder;
+            var placeholder2 = this.resolver.placeholders().next();
             var jeTable2 = String.format("JSON_TABLE( :%s, '$[*]' COLUMNS ( `value` VARCHAR(255) PATH '$' ) )", placeholder2);
             var jeAlias2 = "__mm" + jeAlias;
 
@@ -206,6 +210,7 @@ public class ResolverRunner {
         if (!(dataField.getOptions() instanceof RelationOptions options)) {
             throw new RuntimeException("failed to initialize data field " + dataField.getName() + " options");
         }
+        this.resolver.markRequestDependent();
         var dataRelCollection = this.resolver.loadCollection(options.getCollectionId());
         if (dataRelCollection == null) {
             throw new RuntimeException("failed to load collection " + options.getCollectionId() + " from data field " + dataField.getName());
@@ -256,6 +261,7 @@ public class ResolverRunner {
 
         // resolve the auth collection field
         // ---
+        this.resolver.markRequestDependent();
         if (this.resolver.getRequestInfo() == null || this.resolver.getRequestInfo().getAuthRecord() == null || this.resolver.getRequestInfo().getAuthRecord().getCollection() == null) {
             return ResolverResult.builder().identifier("NULL").build();
         }
@@ -266,10 +272,11 @@ public class ResolverRunner {
         this.activeTableAlias = "__auth_" + columnify(this.activeCollectionName);
 
         // join the auth collection to the main query
-        this.resolver.registerJoin(
+        this.resolver.registerJoin(new Join(
                 columnify(this.activeCollectionName),
                 this.activeTableAlias,
-                Expression.newHashExpr(Map.of(this.activeTableAlias + ".id", this.resolver.getRequestInfo().getAuthRecord().getId())));
+                Expression.newHashExpr(Map.of(this.activeTableAlias + ".id", this.resolver.getRequestInfo().getAuthRecord().getId())),
+                true));
 
         // join the auth collection to the multi-match subquery
         this.multiMatchActiveTableAlias = "__mm_" + this.activeTableAlias;
@@ -387,8 +394,13 @@ public class ResolverRunner {
                 if (EachModifier.equals(modifier) && existInArray(field.getType(), ArraybleFieldTypes())) {
                     var jePair = this.activeTableAlias + "." + cleanFieldName;
                     var jeAlias = this.activeTableAlias + "_" + cleanFieldName + "_je";
-                    this.resolver.registerJoin(DbUtil.jsonEach(jePair), jeAlias, newExpr("1=1"));
-                    var result = ResolverResult.builder().identifier(String.format("%s.value", jeAlias));
+                    var junction = JunctionJoin.isEnabled(field);
+                    if (junction) {
+                        this.resolver.registerJoin(JunctionJoin.TABLE, jeAlias, JunctionJoin.sourceJoin(jeAlias, this.activeTableAlias, collection, field));
+                    } else {
+                        this.resolver.registerJoin(DbUtil.jsonEach(jePair), jeAlias, newExpr("1=1"));
+                    }
+                    var result = ResolverResult.builder().identifier(String.format(junction ? "%s.target_id" : "%s.value", jeAlias));
 
                     if (!(field.getOptions() instanceof MultiValuer options)) {
                         throw new RuntimeException("field " + prop + " options are not initialized or doesn't multivaluer arrayable operations");
@@ -402,8 +414,12 @@ public class ResolverRunner {
                         var jePair2 = this.multiMatchActiveTableAlias + "." + cleanFieldName;
                         var jeAlias2 = this.multiMatchActiveTableAlias + "_" + cleanFieldName + "_je";
 
-                        this.multiMatch.getJoins().add(new Join(DbUtil.jsonEach(jePair2), jeAlias2, newExpr("1=1")));
-                        this.multiMatch.setValueIdentifier(String.format("%s.value", jeAlias2));
+                        if (junction) {
+                            this.multiMatch.getJoins().add(new Join(JunctionJoin.TABLE, jeAlias2, JunctionJoin.sourceJoin(jeAlias2, this.multiMatchActiveTableAlias, collection, field)));
+                        } else {
+                            this.multiMatch.getJoins().add(new Join(DbUtil.jsonEach(jePair2), jeAlias2, newExpr("1=1")));
+                        }
+                        this.multiMatch.setValueIdentifier(String.format(junction ? "%s.target_id" : "%s.value", jeAlias2));
                         result.multiMatchSubQuery(this.multiMatch);
                     }
                     return result.build();
@@ -412,7 +428,8 @@ public class ResolverRunner {
                 // default
                 // -------------------------------------------------------
 
-                var result = ResolverResult.builder().identifier(this.activeTableAlias + "." + cleanFieldName);
+                var result = ResolverResult.builder().identifier(this.activeTableAlias + "." + cleanFieldName)
+                        .fullText(field.getOptions() instanceof FullTextSearchable options && options.isFullText());
 
                 if (this.withMultiMatch) {
                     this.multiMatch.setValueIdentifier(String.format("%s.%s", this.multiMatchActiveTableAlias, cleanFieldName));
@@ -451,6 +468,17 @@ public class ResolverRunner {
                     }
                 }
                 var jsonPathStr = jsonPath.toString();
+
+                // indexed json path -> use the generated column
+                // 生成列只保存同类型的值，保留原 json 路径的结果由 SearchFilter 按比较方式选择；multi-match 子查询中不改写
+                var indexed = JsonIndexedPath.find(field, jsonPathStr);
+                if (indexed != null && !this.withMultiMatch) {
+                    var unindexed = ResolverResult.builder().noCoalesce(true)
+                            .identifier(DbUtil.jsonExtract(this.activeTableAlias + "." + columnify(prop), jsonPathStr)).build();
+                    return ResolverResult.builder().noCoalesce(true).identifier(this.activeTableAlias + "." + indexed.columnName())
+                            .indexed(indexed, unindexed).build();
+                }
+
                 var result = ResolverResult.builder().noCoalesce(true).identifier(DbUtil.jsonExtract(this.activeTableAlias + "." + columnify(prop), jsonPathStr));
 
                 if (this.withMultiMatch) {
@@ -517,9 +545,18 @@ public class ResolverRunner {
                     isBackRelMultiple = !hasSingleColumnUniqueIndex(backField.getName(), backCollection.getIndexes());
                 }
 
+                var backJunction = JunctionJoin.isEnabled(backField);
+
                 if (!isBackRelMultiple) {
+                    // the back relation field has a unique index
+                    this.resolver.registerJoin(new Join(newCollectionName, newTableAlias,
+                            newExpr(String.format("%s.%s=%s.id", newTableAlias, cleanBackFieldName, this.activeTableAlias)), true));
+                } else if (backJunction) {
+                    var jeAlias = this.activeTableAlias + "_" + cleanProp + "_je";
+
+                    this.resolver.registerJoin(JunctionJoin.TABLE, jeAlias, JunctionJoin.targetJoin(jeAlias, this.activeTableAlias, backCollection, backField));
                     this.resolver.registerJoin(newCollectionName, newTableAlias,
-                            newExpr(String.format("%s.%s=%s.id", newTableAlias, cleanBackFieldName, this.activeTableAlias)));
+                            newExpr(String.format("`%s`.`id` = `%s`.`source_id`", newTableAlias, jeAlias)));
                 } else {
                     var jeAlias = this.activeTableAlias + "_" + cleanProp + "_je";
 
@@ -551,6 +588,13 @@ public class ResolverRunner {
                 if (!isBackRelMultiple) {
                     this.multiMatch.getJoins().add(new Join(newCollectionName, newTableAlias2,
                             newExpr(String.format("%s.%s = %s.id", newTableAlias2, cleanBackFieldName, this.multiMatchActiveTableAlias))));
+                } else if (backJunction) {
+                    var jeAlias2 = this.multiMatchActiveTableAlias + "_" + cleanProp + "_je";
+
+                    this.multiMatch.getJoins().add(new Join(JunctionJoin.TABLE, jeAlias2,
+                            JunctionJoin.targetJoin(jeAlias2, this.multiMatchActiveTableAlias, backCollection, backField)));
+                    this.multiMatch.getJoins().add(new Join(newCollectionName, newTableAlias2,
+                            newExpr(String.format("`%s`.`id` = `%s`.`source_id`", newTableAlias2, jeAlias2))));
                 } else {
                     var jeAlias2 = this.multiMatchActiveTableAlias + "_" + cleanProp + "_je";
 
@@ -595,11 +639,17 @@ public class ResolverRunner {
             var newCollectionName = relCollection.getName();
 
             if (!options.isMultiple()) {
-                this.resolver.registerJoin(
+                this.resolver.registerJoin(new Join(
                         columnify(newCollectionName),
                         newTableAlias,
-                        newExpr(String.format("%s.id = %s", newTableAlias, prefixedFieldName))
-                );
+                        newExpr(String.format("%s.id = %s", newTableAlias, prefixedFieldName)),
+                        true
+                ));
+            } else if (JunctionJoin.isEnabled(field)) {
+                var jeAlias = this.activeTableAlias + "_" + cleanFieldName + "_je";
+                this.resolver.registerJoin(JunctionJoin.TABLE, jeAlias, JunctionJoin.sourceJoin(jeAlias, this.activeTableAlias, collection, field));
+                this.resolver.registerJoin(columnify(newCollectionName), newTableAlias,
+                        newExpr(String.format("`%s`.`id` = `%s`.`target_id`", newTableAlias, jeAlias)));
             } else {
                 var jeAlias = this.activeTableAlias + "_" + cleanFieldName + "_je";
                 this.resolver.registerJoin(DbUtil.jsonEach(prefixedFieldName), jeAlias, newExpr("1=1"));
@@ -623,6 +673,12 @@ public class ResolverRunner {
             if (!options.isMultiple()) {
                 this.multiMatch.getJoins().add(new Join(columnify(newCollectionName), newTableAlias2,
                         newExpr(String.format("%s.id = %s", newTableAlias2, prefixedFieldName2))));
+            } else if (JunctionJoin.isEnabled(field)) {
+                var jeAlias2 = this.multiMatchActiveTableAlias + "_" + cleanFieldName + "_je";
+                this.multiMatch.getJoins().add(new Join(JunctionJoin.TABLE, jeAlias2,
+                        JunctionJoin.sourceJoin(jeAlias2, this.multiMatchActiveTableAlias, collection, field)));
+                this.multiMatch.getJoins().add(new Join(columnify(newCollectionName), newTableAlias2,
+                        newExpr(String.format("%s.id = %s.target_id", newTableAlias2, jeAlias2))));
             } else {
                 var jeAlias2 = this.multiMatchActiveTableAlias + "_" + cleanFieldName + "_je";
                 this.multiMatch.getJoins().add(new Join(DbUtil.jsonEach(prefixedFieldName2), jeAlias2,
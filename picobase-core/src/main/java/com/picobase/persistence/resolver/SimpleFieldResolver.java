@@ -9,7 +9,11 @@ import java.util.stream.Stream;
 import static com.picobase.persistence.dbx.DbxUtil.columnify;
 
 
-public record SimpleFieldResolver(List<String> allowedFields) implements FieldResolver {
+public record SimpleFieldResolver(List<String> allowedFields, PlaceholderAllocator placeholders) implements FieldResolver {
+
+    public SimpleFieldResolver(List<String> allowedFields) {
+        this(allowedFields, new PlaceholderAllocator());
+    }
 
     @Override
     public ResolverResult resolve(String field) {
@@ -0,0 +1,288 @@
+package com.picobase.router;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的路由匹配符集合
+ *
+ * <p> 匹配符按 / 切分为路径段后合并为一棵前缀树，匹配时对路径只遍历一次，同时推进所有匹配符的状态，不再逐个匹配符重新解析。 </p>
+ * <p> 匹配规则与 Spring MVC PatternsRequestCondition 一致：匹配符与路径相同，或按 AntPathMatcher 规则匹配（? * ** {name} {name:regex}），
+ * 或匹配符不以 / 结尾时路径多一个结尾的 / 也视为匹配。 </p>
+ */
+public final class PbPathPatterns {
+
+    private static final String SEPARATOR = "/";
+    private static final String DOUBLE_STAR = "**";
+    private static final String STAR = "*";
+
+    /**
+     * 最多缓存的匹配符集合数量，超出后每次重新编译
+     */
+    private static final int MAX_CACHED = 1000;
+
+    private static final Map<List<String>, PbPathPatterns> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 与 AntPathStringMatcher 相同的段内通配符
+     */
+    private static final Pattern GLOB_PATTERN = Pattern.compile("\\?|\\*|\\{((?:\\{[^/]+?\\}|[^/{}]|\\\\[{}])+?)\\}");
+
+    private final Set<String> exact = new HashSet<>();
+    private final Node slashRoot = new Node();
+    private final Node relativeRoot = new Node();
+
+    private PbPathPatterns(List<String> patterns) {
+        for (String pattern : patterns) {
+            if (pattern != null) {
+                add(pattern);
+            }
+        }
+    }
+
+    /**
+     * 编译匹配符集合，相同的匹配符集合共用编译结果
+     *
+     * @param patterns 路由匹配符集合
+     * @return 编译后的匹配符集合
+     */
+    public static PbPathPatterns compile(List<String> patterns) {
+        PbPathPatterns compiled = cache.get(patterns);
+        if (compiled != null) {
+            return compiled;
+        }
+        if (cache.size() >= MAX_CACHED) {
+            return new PbPathPatterns(patterns);
+        }
+        return cache.computeIfAbsent(List.copyOf(patterns), PbPathPatterns::new);
+    }
+
+    /**
+     * 编译匹配符数组，相同的匹配符集合共用编译结果
+     *
+     * @param patterns 路由匹配符数组
+     * @return 编译后的匹配符集合
+     */
+    public static PbPathPatterns compile(String... patterns) {
+        return compile(Arrays.asList(patterns));
+    }
+
+    /**
+     * 判断：路径是否可被集合中任一匹配符匹配
+     *
+     * @param path 被匹配的路由
+     * @return 是否匹配成功
+     */
+    public boolean match(String path) {
+        if (path == null) {
+            return false;
+        }
+        if (exact.contains(path)) {
+            return true;
+        }
+
+        Node root = path.startsWith(SEPARATOR) ? slashRoot : relativeRoot;
+        List<Node> active = new ArrayList<>();
+        addClosure(active, root);
+        List<Node> next = new ArrayList<>();
+
+        int len = path.length();
+        int start = 0;
+        while (start < len && !active.isEmpty()) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = len;
+            }
+            String segment = path.substring(start, end);
+            start = end;
+
+            next.clear();
+            for (Node node : active) {
+                if (node.doubleStar) {
+                    addClosure(next, node);
+                }
+                if (node.literals != null) {
+                    Node child = node.literals.get(segment);
+                    if (child != null) {
+                        addClosure(next, child);
+                    }
+                }
+                if (node.globs != null) {
+                    for (Node child : node.globs) {
+                        if (child.matches(segment)) {
+                            addClosure(next, child);
+                        }
+                    }
+                }
+            }
+            List<Node> swap = active;
+            active = next;
+            next = swap;
+        }
+        if (start < len) {
+            return false;
+        }
+
+        boolean trailingSlash = path.endsWith(SEPARATOR);
+        for (Node node : active) {
+            if (node.accepts(trailingSlash)) {
+                return true;
+            }
+            // 路径以 / 结尾时，最后一段为 * 的匹配符可匹配空段（如 /user/* 匹配 /user/）
+            if (trailingSlash && node.starChild != null && (node.starChild.end || node.starChild.endSlash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String pattern) {
+        exact.add(pattern);
+
+        boolean hasDoubleStar = false;
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split(SEPARATOR)) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+                hasDoubleStar |= DOUBLE_STAR.equals(segment);
+            }
+        }
+
+        Node node = pattern.startsWith(SEPARATOR) ? slashRoot : relativeRoot;
+        for (String segment : segments) {
+            node = node.child(segment);
+        }
+        if (hasDoubleStar) {
+            // 经过 ** 的匹配不再校验结尾的 /
+            node.endAny = true;
+        } else if (pattern.endsWith(SEPARATOR)) {
+            node.endSlash = true;
+        } else {
+            node.end = true;
+        }
+    }
+
+    /**
+     * 加入节点及其后连续的 ** 节点（** 可匹配零个路径段）
+     */
+    private static void addClosure(List<Node> nodes, Node node) {
+        while (node != null) {
+            if (!nodes.contains(node)) {
+                nodes.add(node);
+            }
+            node = node.doubleStarChild;
+        }
+    }
+
+    private static Pattern globToRegex(String segment) {
+        StringBuilder regex = new StringBuilder();
+        Matcher matcher = GLOB_PATTERN.matcher(segment);
+        int last = 0;
+        while (matcher.find()) {
+            regex.append(quote(segment, last, matcher.start()));
+            String match = matcher.group();
+            if ("?".equals(match)) {
+                regex.append('.');
+            } else if (STAR.equals(match)) {
+                regex.append(".*");
+            } else {
+                int colon = match.indexOf(':');
+                regex.append(colon < 0 ? "((?s).*)" : "(" + match.substring(colon + 1, match.length() - 1) + ")");
+            }
+            last = matcher.end();
+        }
+        regex.append(quote(segment, last, segment.length()));
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static String quote(String s, int start, int end) {
+        return start == end ? "" : Pattern.quote(s.substring(start, end));
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private List<Node> globs;
+        /**
+         * 子节点中的 ** 段
+         */
+        private Node doubleStarChild;
+        /**
+         * 子节点中的 * 段
+         */
+        private Node starChild;
+
+        private boolean doubleStar;
+        private String source;
+        private Pattern glob;
+
+        /**
+         * 以该节点结束且不含 ** 的匹配符：不以 / 结尾（路径是否以 / 结尾均可）、以 / 结尾（路径须以 / 结尾）
+         */
+        private boolean end;
+        private boolean endSlash;
+        /**
+         * 以该节点结束且含 ** 的匹配符
+         */
+        private boolean endAny;
+
+        Node child(String segment) {
+            if (DOUBLE_STAR.equals(segment)) {
+                if (doubleStarChild == null) {
+                    doubleStarChild = new Node();
+                    doubleStarChild.doubleStar = true;
+                }
+                return doubleStarChild;
+            }
+            if (GLOB_PATTERN.matcher(segment).find()) {
+                if (globs == null) {
+                    globs = new ArrayList<>();
+                }
+                for (Node child : globs) {
+                    if (child.source.equals(segment)) {
+                        return child;
+                    }
+                }
+                Node child = new Node();
+                child.source = segment;
+                // 单独的 * 匹配任意段，不需要正则
+                child.glob = STAR.equals(segment) ? null : globToRegex(segment);
+                globs.add(child);
+                if (child.glob == null) {
+                    starChild = child;
+                }
+                return child;
+            }
+            if (literals == null) {
+                literals = new HashMap<>();
+            }
+            return literals.computeIfAbsent(segment, k -> new Node());
+        }
+
+        boolean matches(String segment) {
+            return glob == null || glob.matcher(segment).matches();
+        }
+
+        boolean accepts(boolean trailingSlash) {
+            return end || endAny || (endSlash && trailingSlash);
+        }
+    }
+
+	/*
+	 	性能测试：
+			31 个匹配符（30 个 /api/mN 下的 ** 匹配符及 1 个 records 路由匹配符），3 种路径轮流匹配 100万次
+			逐个匹配符调用 PbPatternsRequestConditionHolder，耗时：10.4s ~ 11.5s
+			预编译前缀树，耗时：0.28s ~ 0.59s
+	 */
+}
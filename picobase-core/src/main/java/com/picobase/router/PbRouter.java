@@ -9,6 +9,7 @@ import com.picobase.fun.PbFunction;
 import com.picobase.fun.PbParamFunction;
 import com.picobase.fun.PbParamRetFunction;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,7 +44,7 @@ public class PbRouter {
     }
 
     /**
-     * 路由匹配
+     * 路由匹配，由上下文处理器判断匹配符集合中是否有任一匹配符可以匹配
      *
      * @param patterns 路由匹配符集合
      * @param path     被匹配的路由
@@ -53,16 +54,11 @@ public class PbRouter {
         if (patterns == null) {
             return false;
         }
-        for (String pattern : patterns) {
-            if (isMatch(pattern, path)) {
-                return true;
-            }
-        }
-        return false;
+        return PbManager.getPbContext().matchPaths(patterns, path);
     }
 
     /**
-     * 路由匹配
+     * 路由匹配，由上下文处理器判断匹配符数组中是否有任一匹配符可以匹配
      *
      * @param patterns 路由匹配符数组
      * @param path     被匹配的路由
@@ -72,12 +68,7 @@ public class PbRouter {
         if (patterns == null) {
             return false;
         }
-        for (String pattern : patterns) {
-            if (isMatch(pattern, path)) {
-                return true;
-            }
-        }
-        return false;
+        return PbManager.getPbContext().matchPaths(Arrays.asList(patterns), path);
     }
 
     /**
@@ -0,0 +1,508 @@
+package com.picobase.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.picobase.PbManager;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.schema.MultiValuer;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.persistence.dbx.Query;
+import com.picobase.persistence.fexpr.Expr;
+import com.picobase.persistence.fexpr.ExprGroup;
+import com.picobase.persistence.fexpr.JoinOp;
+import com.picobase.persistence.fexpr.Token;
+import com.picobase.persistence.fexpr.TokenType;
+import com.picobase.persistence.model.Index;
+import com.picobase.persistence.model.IndexColumn;
+import com.picobase.persistence.model.IndexSuggestion;
+import com.picobase.util.PbConstants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.picobase.util.PbConstants.FieldName.*;
+
+/**
+ * 索引建议
+ * <p> 按 {@link com.picobase.config.PbSqlConfig#getIndexAdvisorSampleRate()} 采样 record 列表查询，按集合统计过滤条件中的等值、范围字段及排序字段的组合（查询形状）与耗时；
+ * 生成建议时将每种形状转换为候选索引列（等值列、排序列或范围列），去除已有索引可覆盖的候选，按可受益的累计耗时倒序返回 </p>
+ */
+public class IndexAdvisor {
+
+    private static final int MAX_COLLECTIONS = 200;
+
+    /**
+     * 每个集合最多统计的查询形状数量，超出后的形状不再统计
+     */
+    private static final int MAX_SHAPES = 100;
+
+    private static final int MAX_COLUMNS = 4;
+
+    /**
+     * TEXT 列只能建立前缀索引，前缀索引不能用于排序
+     */
+    private static final int TEXT_PREFIX_LENGTH = 64;
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * 集合 id -> 查询形状 -> 统计
+     */
+    private final Map<String, Map<Shape, Stats>> byCollection = new ConcurrentHashMap<>();
+
+    private IndexAdvisor() {
+    }
+
+    /**
+     * 获得单例的 IndexAdvisor
+     *
+     * @return IndexAdvisor
+     */
+    public static IndexAdvisor getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    /**
+     * @return 本次查询是否采样
+     */
+    public static boolean sample() {
+        double rate = PbManager.getConfig().getSql().getIndexAdvisorSampleRate();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * 记录一次采样查询
+     *
+     * @param collection 查询的集合
+     * @param filters    查询的过滤条件（包括集合规则）
+     * @param sort       查询的排序字段
+     * @param query      实际执行的查询，只保留 SQL 及参数类型用于 EXPLAIN，可为 null
+     * @param nanos      查询耗时
+     */
+    public void record(CollectionModel collection, List<SearchFilter> filters, List<SortField> sort, Query query, long nanos) {
+        if (collection == null || collection.getId() == null || collection.isView()) {
+            return;
+        }
+        Shape shape = shape(collection, filters, sort);
+        if (shape == null) {
+            return;
+        }
+
+        Map<Shape, Stats> shapes = byCollection.get(collection.getId());
+        if (shapes == null) {
+            if (byCollection.size() >= MAX_COLLECTIONS) {
+                return;
+            }
+            shapes = byCollection.computeIfAbsent(collection.getId(), k -> new ConcurrentHashMap<>());
+        }
+        Stats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= MAX_SHAPES) {
+                return;
+            }
+            stats = shapes.computeIfAbsent(shape, k -> new Stats());
+        }
+        stats.record(nanos, query);
+    }
+
+    /**
+     * 生成集合的索引建议，按可受益的采样查询累计耗时倒序
+     *
+     * @param collection 集合
+     * @param explain    是否对每条建议最近一次采样的查询执行 EXPLAIN（使用占位参数值，不使用请求中的实际参数值）
+     * @return 索引建议
+     */
+    public List<IndexSuggestion> suggest(CollectionModel collection, boolean explain) {
+        Map<Shape, Stats> shapes = byCollection.get(collection.getId());
+        if (shapes == null) {
+            return List.of();
+        }
+
+        List<List<IndexColumn>> existing = existingIndexes(collection);
+        Map<List<String>, Candidate> candidates = new LinkedHashMap<>();
+        shapes.forEach((shape, stats) -> {
+            List<IndexColumn> columns = shape.columns(collection);
+            if (columns.isEmpty() || existing.stream().anyMatch(index -> covers(index, columns, shape.equal().size()))) {
+                return;
+            }
+            List<String> key = columns.stream().map(IndexAdvisor::columnKey).toList();
+            candidates.computeIfAbsent(key, k -> new Candidate(columns)).add(stats);
+        });
+
+        // 候选的列是另一候选的前缀时，较长的索引同样可用于该候选的查询，合并统计
+        List<Candidate> sorted = new ArrayList<>(candidates.values());
+        sorted.sort(Comparator.comparingInt(c -> c.columns.size()));
+        List<Candidate> merged = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Candidate candidate = sorted.get(i);
+            Candidate target = null;
+            for (int j = i + 1; j < sorted.size(); j++) {
+                Candidate other = sorted.get(j);
+                if (other.columns.size() > candidate.columns.size() && isPrefix(candidate.columns, other.columns)
+                        && (target == null || other.nanos > target.nanos)) {
+                    target = other;
+                }
+            }
+            if (target == null) {
+                merged.add(candidate);
+            } else {
+                target.merge(candidate);
+            }
+        }
+
+        return merged.stream()
+                .sorted(Comparator.comparingLong((Candidate c) -> c.nanos).reversed())
+                .map(c -> c.toSuggestion(collection, explain))
+                .toList();
+    }
+
+    /**
+     * 清空集合的采样统计及采样的查询
+     */
+    public void reset(String collectionId) {
+        byCollection.remove(collectionId);
+    }
+
+    /**
+     * 清空所有采样统计及采样的查询
+     */
+    public void reset() {
+        byCollection.clear();
+    }
+
+    /**
+     * 提取查询形状，没有可使用索引的条件时返回 null
+     */
+    static Shape shape(CollectionModel collection, List<SearchFilter> filters, List<SortField> sort) {
+        Set<String> equal = new TreeSet<>();
+        Set<String> range = new TreeSet<>();
+        for (SearchFilter filter : filters) {
+            if (StrUtil.isBlank(filter.getFilterData())) {
+                continue;
+            }
+            try {
+                collect(collection, SearchFilter.parse(filter.getFilterData()), equal, range);
+            } catch (Exception ignored) {
+                // 含占位符等无法单独解析的过滤条件不参与统计
+            }
+        }
+
+        List<String> sortColumns = new ArrayList<>();
+        for (SortField field : sort) {
+            if (!isColumn(collection, field.getName()) || isTextColumn(collection, field.getName())) {
+                sortColumns = List.of();
+                break;
+            }
+            sortColumns.add(SortField.SortDesc.equals(field.getDirection()) ? field.getName() + " " + SortField.SortDesc : field.getName());
+        }
+
+        if (equal.isEmpty() && range.isEmpty() && sortColumns.isEmpty()) {
+            return null;
+        }
+        return new Shape(List.copyOf(equal), List.copyOf(range), List.copyOf(sortColumns));
+    }
+
+    /**
+     * 收集 AND 连接的比较条件，含 OR 的分组不能整体使用同一索引，忽略
+     */
+    private static void collect(CollectionModel collection, List<ExprGroup> groups, Set<String> equal, Set<String> range) {
+        for (int i = 1; i < groups.size(); i++) {
+            if (groups.get(i).getJoin() == JoinOp.OR) {
+                return;
+            }
+        }
+        for (ExprGroup group : groups) {
+            Object item = group.getItem();
+            if (item instanceof Expr expr) {
+                collect(collection, expr, equal, range);
+            } else if (item instanceof ExprGroup nested) {
+                collect(collection, List.of(nested), equal, range);
+            } else if (item instanceof List<?> list) {
+                collect(collection, (List<ExprGroup>) list, equal, range);
+            }
+        }
+    }
+
+    private static void collect(CollectionModel collection, Expr expr, Set<String> equal, Set<String> range) {
+        String column = column(collection, expr.getLeft());
+        Token other = expr.getRight();
+        if (column == null) {
+            column = column(collection, expr.getRight());
+            other = expr.getLeft();
+        }
+        // 两侧都是列的比较不能使用索引查找
+        if (column == null || column(collection, other) != null) {
+            return;
+        }
+        switch (expr.getOp()) {
+            case SignEq, SignAnyEq -> equal.add(column);
+            case SignLt, SignLte, SignGt, SignGte, SignAnyLt, SignAnyLte, SignAnyGt, SignAnyGte -> range.add(column);
+            default -> {
+            }
+        }
+    }
+
+    private static String column(CollectionModel collection, Token token) {
+        if (token == null || token.getType() != TokenType.Identifier) {
+            return null;
+        }
+        return isColumn(collection, token.getLiteral()) ? token.getLiteral() : null;
+    }
+
+    /**
+     * @return name 是否为集合表中可建立索引的列，json 及多值字段不可
+     */
+    private static boolean isColumn(CollectionModel collection, String name) {
+        switch (name) {
+            case Id, Created, Updated:
+                return true;
+            case Username, Email, EmailVisibility, Verified:
+                return collection.isAuth();
+            default:
+                break;
+        }
+        SchemaField field = collection.getSchema() == null ? null : collection.getSchema().getFieldByName(name);
+        if (field == null || PbConstants.FieldType.Json.equals(field.getType())) {
+            return false;
+        }
+        field.initOptions();
+        return !(field.getOptions() instanceof MultiValuer multi && multi.isMultiple());
+    }
+
+    private static boolean isTextColumn(CollectionModel collection, String name) {
+        SchemaField field = collection.getSchema() == null ? null : collection.getSchema().getFieldByName(name);
+        return field != null && field.colDefinition().startsWith("TEXT");
+    }
+
+    /**
+     * 集合已有的索引列，包括主键及 auth 集合的唯一索引
+     */
+    private static List<List<IndexColumn>> existingIndexes(CollectionModel collection) {
+        List<List<IndexColumn>> indexes = new ArrayList<>();
+        indexes.add(List.of(new IndexColumn(Id, "", "")));
+        if (collection.isAuth()) {
+            indexes.add(List.of(new IndexColumn(Username, "", "")));
+            indexes.add(List.of(new IndexColumn(Email, "", "")));
+            indexes.add(List.of(new IndexColumn(TokenKey, "", "")));
+        }
+        if (collection.getIndexes() != null) {
+            for (String sql : collection.getIndexes()) {
+                Index index = Index.parseIndex(sql);
+                if (index.getColumns() != null && !index.getColumns().isEmpty() && StrUtil.isBlank(index.getWhere())) {
+                    indexes.add(index.getColumns());
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * 已有索引是否可覆盖候选：索引的前 equalCount 列与候选的等值列相同（顺序不限），之后的列与候选其余列依次相同
+     * <p> 等值列包含 id 时主键即可定位记录，不需要其他索引 </p>
+     */
+    private static boolean covers(List<IndexColumn> index, List<IndexColumn> columns, int equalCount) {
+        if (columns.subList(0, equalCount).stream().anyMatch(c -> Id.equals(bareName(c)))) {
+            return true;
+        }
+        if (index.size() < columns.size()) {
+            return false;
+        }
+        Set<String> indexEqual = new TreeSet<>();
+        Set<String> candidateEqual = new TreeSet<>();
+        for (int i = 0; i < equalCount; i++) {
+            indexEqual.add(bareName(index.get(i)));
+            candidateEqual.add(bareName(columns.get(i)));
+        }
+        if (!indexEqual.equals(candidateEqual)) {
+            return false;
+        }
+        for (int i = equalCount; i < columns.size(); i++) {
+            if (!bareName(index.get(i)).equals(bareName(columns.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPrefix(List<IndexColumn> prefix, List<IndexColumn> columns) {
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!columnKey(prefix.get(i)).equals(columnKey(columns.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 去除前缀长度的列名
+     */
+    private static String bareName(IndexColumn column) {
+        String name = column.getName();
+        int i = name.indexOf('(');
+        return i > 0 ? name.substring(0, i) : name;
+    }
+
+    private static String columnKey(IndexColumn column) {
+        return StrUtil.isBlank(column.getSort()) ? column.getName() : column.getName() + " " + column.getSort();
+    }
+
+    /**
+     * 查询形状：等值条件列、范围条件列（均已排序）及排序列（DESC 排序带后缀），排序不能使用索引时排序列为空
+     */
+    record Shape(List<String> equal, List<String> range, List<String> sort) {
+
+        /**
+         * 候选索引列：等值列在前，其后为排序列（可避免排序），没有排序时为第一个范围列
+         */
+        List<IndexColumn> columns(CollectionModel collection) {
+            List<IndexColumn> columns = new ArrayList<>();
+            for (String name : equal) {
+                if (!isColumn(collection, name)) {
+                    return List.of();
+                }
+                columns.add(new IndexColumn(isTextColumn(collection, name) ? name + "(" + TEXT_PREFIX_LENGTH + ")" : name, "", ""));
+            }
+            if (!sort.isEmpty()) {
+                for (String item : sort) {
+                    String name = StrUtil.removeSuffix(item, " " + SortField.SortDesc);
+                    if (!isColumn(collection, name) || isTextColumn(collection, name)) {
+                        break;
+                    }
+                    columns.add(new IndexColumn(name, "", item.equals(name) ? "" : SortField.SortDesc));
+                }
+            } else if (!range.isEmpty() && isColumn(collection, range.get(0))) {
+                String name = range.get(0);
+                columns.add(new IndexColumn(isTextColumn(collection, name) ? name + "(" + TEXT_PREFIX_LENGTH + ")" : name, "", ""));
+            }
+            return columns.size() > MAX_COLUMNS ? columns.subList(0, MAX_COLUMNS) : columns;
+        }
+    }
+
+    private static class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        /**
+         * 最近一次采样的查询
+         */
+        private volatile Sample sample;
+
+        void record(long nanos, Query query) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (query != null) {
+                sample = Sample.of(query);
+            }
+        }
+    }
+
+    /**
+     * 采样的查询，只保留 SQL 及参数类型，参数值替换为同类型的占位值
+     * <p> 采样在单例中长期保留并可通过 explain 触发执行，不保留请求中的实际参数值（如邮箱、token） </p>
+     */
+    record Sample(String sql, Map<String, Object> params) {
+
+        static Sample of(Query query) {
+            Map<String, Object> params = new HashMap<>();
+            if (query.getParams() != null) {
+                query.getParams().forEach((name, value) -> params.put(name, placeholder(value)));
+            }
+            return new Sample(query.getSql(), params);
+        }
+
+        /**
+         * 与参数值同类型的占位值，null 保持为 null；集合参数会展开为 IN 列表，保留一个元素
+         */
+        private static Object placeholder(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Number) {
+                return 0;
+            }
+            if (value instanceof Boolean) {
+                return false;
+            }
+            if (value instanceof Collection<?> collection) {
+                return collection.isEmpty() ? List.of() : List.of(placeholder(collection.iterator().next()));
+            }
+            return "";
+        }
+    }
+
+    private static class Candidate {
+        private final List<IndexColumn> columns;
+        private long samples;
+        private long nanos;
+        private long sampleNanos;
+        private Sample sample;
+
+        Candidate(List<IndexColumn> columns) {
+            this.columns = columns;
+        }
+
+        void add(Stats stats) {
+            long total = stats.totalNanos.sum();
+            samples += stats.count.sum();
+            nanos += total;
+            if (stats.sample != null && total >= sampleNanos) {
+                sample = stats.sample;
+                sampleNanos = total;
+            }
+        }
+
+        void merge(Candidate other) {
+            samples += other.samples;
+            nanos += other.nanos;
+            if (other.sample != null && other.sampleNanos > sampleNanos) {
+                sample = other.sample;
+                sampleNanos = other.sampleNanos;
+            }
+        }
+
+        IndexSuggestion toSuggestion(CollectionModel collection, boolean explain) {
+            List<String> names = columns.stream().map(IndexAdvisor::columnKey).toList();
+            String indexName = "idx_" + Integer.toHexString((collection.getName() + names).hashCode());
+            IndexSuggestion suggestion = new IndexSuggestion()
+                    .setCollection(collection.getName())
+                    .setColumns(names)
+                    .setIndex(new Index().setUnique(false).setOptional(false).setIndexName(indexName)
+                            .setTableName(collection.getName()).setColumns(columns).build())
+                    .setSamples(samples)
+                    .setTotalTime(nanos / NANOS_PER_MILLI)
+                    .setAvgTime(samples == 0 ? 0 : nanos / NANOS_PER_MILLI / samples);
+            if (explain && sample != null) {
+                explain(collection, suggestion, sample);
+            }
+            return suggestion;
+        }
+
+        private static void explain(CollectionModel collection, IndexSuggestion suggestion, Sample sample) {
+            try {
+                List<Map<String, Object>> rows = PbManager.getPbDatabaseOperate().queryMany("EXPLAIN " + sample.sql(), sample.params());
+                Map<String, Object> row = rows.stream()
+                        .filter(r -> collection.getName().equals(r.get("table")))
+                        .findFirst()
+                        .orElse(rows.isEmpty() ? null : rows.get(0));
+                if (row != null) {
+                    suggestion.setExplainKey(row.get("key") == null ? null : row.get("key").toString());
+                    suggestion.setExplainRows(row.get("rows") instanceof Number n ? n.longValue() : null);
+                }
+            } catch (Exception e) {
+                PbManager.getLog().warn("[index-advisor] Failed to explain the sampled query: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static class SingletonHolder {
+        private static final IndexAdvisor INSTANCE = new IndexAdvisor();
+    }
+}
@@ -17,6 +17,7 @@ import com.picobase.persistence.resolver.FieldResolver;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -107,6 +108,7 @@ public class PbProvider {
         }
 
 
+        long start = System.nanoTime();
         try {
             // shallow clone the provider's query
             SelectQuery modelsQuery = (SelectQuery) this.query.clone();
@@ -120,12 +122,16 @@ public class PbProvider {
             });
 
             // apply sorting
+            Map<String, Object> sortParams = new HashMap<>();
             sort.forEach(sortField -> {
-                String expr = sortField.buildExpr(this.fieldResolver);
+                String expr = sortField.buildExpr(this.fieldResolver, sortParams);
                 if (expr != null) {
                     modelsQuery.andOrderBy(expr);
                 }
             });
+            if (!sortParams.isEmpty()) {
+                modelsQuery.andBind(sortParams);
+            }
 
             // apply field resolver query modifications (if any)
             this.fieldResolver.updateQuery(modelsQuery);
@@ -194,6 +200,9 @@ public class PbProvider {
             } else {
                 items = modelsExec.call();
             }
+            if (this.collection != null && IndexAdvisor.sample()) {
+                IndexAdvisor.getInstance().record(this.collection, this.filter, this.sort, skipData ? null : modelsQuery.build(), System.nanoTime() - start);
+            }
             return new Page<>(this.page, this.perPage, (int) totalCount, (int) totalPages, items);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
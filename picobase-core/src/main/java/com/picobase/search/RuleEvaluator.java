@@ -0,0 +1,440 @@
+package com.picobase.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.MultiValuer;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.persistence.fexpr.Expr;
+import com.picobase.persistence.fexpr.ExprGroup;
+import com.picobase.persistence.fexpr.JoinOp;
+import com.picobase.persistence.fexpr.SignOp;
+import com.picobase.persistence.fexpr.Token;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.persistence.resolver.RecordFieldResolver.StaticRequestValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import static com.picobase.persistence.dbx.DbxUtil.splitModifier;
+import static com.picobase.persistence.resolver.ListUtil.existInArray;
+import static com.picobase.persistence.resolver.ListUtil.existInListWithRegex;
+import static com.picobase.util.PbConstants.*;
+
+/**
+ * 在内存中计算单条记录的集合规则（createRule、updateRule、deleteRule 等），省去按规则查询数据库
+ * <p>
+ * 只引用记录自身的单值字段及 @request.* 静态字段的规则可在内存中计算；引用 @collection、关联字段、多值字段、
+ * 日期字段或宏的规则不能在内存中计算，由调用方使用 SQL 检查。
+ * <p>
+ * 比较的语义与 SearchFilter 生成的 SQL 一致。结果取决于数据库的排序规则（大小写、尾随空格、非 ASCII 字符）
+ * 或隐式类型转换时，计算结果为无法确定，同样由调用方使用 SQL 检查
+ */
+public final class RuleEvaluator {
+
+    /**
+     * 可在内存中比较的单值字段类型
+     */
+    private static final Set<String> SUPPORTED_TYPES = Set.of(
+            FieldType.Text, FieldType.Number, FieldType.Bool, FieldType.Email, FieldType.Url, FieldType.Editor,
+            FieldType.Select, FieldType.File, FieldType.Relation);
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    /**
+     * 只判断能否解析时使用的操作数
+     */
+    private static final Operand UNBOUND = new Operand(null, false, false);
+
+    private RuleEvaluator() {
+    }
+
+    /**
+     * 规则能否在内存中计算，只取决于规则及集合的字段定义
+     *
+     * @param rule       集合规则，为空时表示不限制
+     * @param collection 规则所属集合
+     */
+    public static boolean isResolvable(String rule, CollectionModel collection) {
+        if (StrUtil.isEmpty(rule)) {
+            return true;
+        }
+        List<ExprGroup> data;
+        try {
+            data = SearchFilter.parse(rule);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return !data.isEmpty() && isResolvable(data, collection);
+    }
+
+    /**
+     * 在内存中计算规则
+     *
+     * @param rule        集合规则，为空时表示不限制
+     * @param record      规则检查的记录
+     * @param requestInfo 当前请求
+     * @return 记录是否满足规则；规则不能在内存中计算或结果无法确定时返回 empty
+     */
+    public static Optional<Boolean> evaluate(String rule, RecordModel record, RequestInfo requestInfo) {
+        if (StrUtil.isEmpty(rule)) {
+            return Optional.of(true);
+        }
+        if (requestInfo == null || !isResolvable(rule, record.getCollection())) {
+            return Optional.empty();
+        }
+
+        Context ctx = new Context(record, new RecordFieldResolver(record.getCollection(), requestInfo, true));
+        Boolean result = evaluateGroups(SearchFilter.parse(rule), ctx);
+        return Optional.ofNullable(result);
+    }
+
+    private static boolean isResolvable(List<ExprGroup> groups, CollectionModel collection) {
+        for (ExprGroup group : groups) {
+            Object item = group.getItem();
+            boolean resolvable;
+            if (item instanceof Expr expr) {
+                // 全文匹配依赖数据库的分词及停用词，只能查询数据库
+                resolvable = !isMatchOp(expr.getOp())
+                        && resolve(expr.getLeft(), collection, null) != null && resolve(expr.getRight(), collection, null) != null;
+            } else if (item instanceof ExprGroup nested) {
+                resolvable = isResolvable(Collections.singletonList(nested), collection);
+            } else if (item instanceof List<?> nested) {
+                resolvable = !nested.isEmpty() && isResolvable((List<ExprGroup>) nested, collection);
+            } else {
+                resolvable = false;
+            }
+            if (!resolvable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按 SQL 的优先级（AND 先于 OR）计算，null 表示无法确定
+     */
+    private static Boolean evaluateGroups(List<ExprGroup> groups, Context ctx) {
+        Boolean any = false;
+        Boolean all = null;
+        for (int i = 0; i < groups.size(); i++) {
+            ExprGroup group = groups.get(i);
+            Boolean result = evaluateItem(group.getItem(), ctx);
+            if (i == 0) {
+                all = result;
+            } else if (group.getJoin() == JoinOp.OR) {
+                any = or(any, all);
+                all = result;
+            } else {
+                all = and(all, result);
+            }
+        }
+        return or(any, all);
+    }
+
+    private static Boolean evaluateItem(Object item, Context ctx) {
+        if (item instanceof Expr expr) {
+            return compare(expr, ctx);
+        } else if (item instanceof ExprGroup nested) {
+            return evaluateGroups(Collections.singletonList(nested), ctx);
+        }
+        return evaluateGroups((List<ExprGroup>) item, ctx);
+    }
+
+    private static Boolean compare(Expr expr, Context ctx) {
+        CollectionModel collection = ctx.record.getCollection();
+        Operand left = resolve(expr.getLeft(), collection, ctx);
+        Operand right = resolve(expr.getRight(), collection, ctx);
+
+        // 单值操作数的 ?= 等运算与普通运算一致
+        return switch (expr.getOp()) {
+            case SignEq, SignAnyEq -> equal(left, right);
+            case SignNeq, SignAnyNeq -> notEqual(left, right);
+            case SignLike, SignAnyLike -> like(left, right);
+            case SignNlike, SignAnyNlike -> not(like(left, right));
+            case SignLt, SignAnyLt -> order(left, right, c -> c < 0);
+            case SignLte, SignAnyLte -> order(left, right, c -> c <= 0);
+            case SignGt, SignAnyGt -> order(left, right, c -> c > 0);
+            case SignGte, SignAnyGte -> order(left, right, c -> c >= 0);
+            case SignMatch, SignNmatch -> null;
+        };
+    }
+
+    private static boolean isMatchOp(SignOp op) {
+        return op == SignOp.SignMatch || op == SignOp.SignNmatch;
+    }
+
+    /**
+     * 解析操作数，与 SearchFilter 及 ResolverRunner 的解析规则一致
+     *
+     * @param ctx 为 null 时只判断能否解析
+     * @return 操作数，不能在内存中解析时返回 null
+     */
+    private static Operand resolve(Token token, CollectionModel collection, Context ctx) {
+        return switch (token.getType()) {
+            case Text -> ctx == null ? UNBOUND : Operand.param(token.getLiteral());
+            case Number -> ctx == null ? UNBOUND : Operand.param(Double.valueOf(token.getLiteral()));
+            case Identifier -> {
+                try {
+                    yield resolveIdentifier(token.getLiteral(), collection, ctx);
+                } catch (RuntimeException e) {
+                    // 未知的 modifier 等，由 SQL 检查报告错误
+                    yield null;
+                }
+            }
+            default -> null;
+        };
+    }
+
+    private static Operand resolveIdentifier(String name, CollectionModel collection, Context ctx) {
+        // 宏的值为时间；不允许使用的字段由 SQL 检查报告错误
+        if (IdentifierMacros.getMacro(name) != null || !existInListWithRegex(name, RecordFieldResolver.ALLOWED_FIELDS)) {
+            return null;
+        }
+        List<String> props = Arrays.asList(name.split("\\.", -1));
+
+        if (props.get(0).equals("@collection")) {
+            return null;
+        }
+
+        if (props.get(0).equals("@request")) {
+            // 需要 join auth 集合的字段
+            if (name.startsWith("@request.auth.") && !existInArray(name, plainRequestAuthFields)) {
+                return null;
+            }
+            if (name.startsWith("@request.data.") && props.size() > 2) {
+                String[] arr = splitModifier(props.get(2));
+                SchemaField dataField = collection.getSchema().getFieldByName(arr[0]);
+                if (dataField != null) {
+                    // 请求中的 relation 字段的关联集合字段、:each 及 :length
+                    if (dataField.getType().equals(FieldType.Relation) && props.size() > 3) {
+                        return null;
+                    }
+                    if ((EachModifier.equals(arr[1]) || LengthModifier.equals(arr[1]))
+                            && existInArray(dataField.getType(), ArraybleFieldTypes()) && props.size() == 3) {
+                        return null;
+                    }
+                }
+            }
+
+            List<String> path = new ArrayList<>(props.subList(1, props.size()));
+            String[] arr = splitModifier(path.get(path.size() - 1));
+            if (ctx == null) {
+                return UNBOUND;
+            }
+            path.set(path.size() - 1, arr[0]);
+            StaticRequestValue value = ctx.resolver.staticRequestValue(path, arr[1]);
+            if (value.identifier() == null) {
+                return Operand.param(value.value());
+            }
+            return Operand.literal(switch (value.identifier()) {
+                case "TRUE" -> 1;
+                case "FALSE" -> 0;
+                default -> null;
+            });
+        }
+
+        // 关联字段及带 modifier 的字段
+        if (props.size() > 1 || !name.matches("^\\w+$")) {
+            return null;
+        }
+        if (FieldName.Id.equals(name)) {
+            return ctx == null ? UNBOUND : Operand.column(ctx.record.getId());
+        }
+        SchemaField field = collection.getSchema().getFieldByName(name);
+        if (field == null) {
+            // 不存在的 null、true、false 字段作为字面量
+            return switch (name.toLowerCase()) {
+                case "null" -> Operand.literal(null);
+                case "true" -> Operand.literal(1);
+                case "false" -> Operand.literal(0);
+                default -> null;
+            };
+        }
+        field.initOptions();
+        if (!SUPPORTED_TYPES.contains(field.getType())
+                || (field.getOptions() instanceof MultiValuer options && options.isMultiple())) {
+            return null;
+        }
+        return ctx == null ? UNBOUND : Operand.column(ctx.record.get(name));
+    }
+
+    /**
+     * = 运算：'' 与 NULL 均视为空值，空值之间相等
+     */
+    private static Boolean equal(Operand left, Operand right) {
+        boolean leftEmpty = isEmpty(left.value), rightEmpty = isEmpty(right.value);
+        if (leftEmpty && rightEmpty) {
+            return true;
+        }
+        if (leftEmpty || rightEmpty) {
+            // 数据库中 '' 与数字比较时转换为 0，内存中未赋值的数字、布尔字段在数据库中也有默认值
+            return isNumeric(leftEmpty ? right.value : left.value) ? null : false;
+        }
+        return same(left.value, right.value);
+    }
+
+    /**
+     * != 运算：与 NULL 比较的 SQL 形式取决于另一侧是否为已知的非空值，记录中的 NULL 值结果无法确定
+     */
+    private static Boolean notEqual(Operand left, Operand right) {
+        boolean leftEmpty = isEmpty(left.value), rightEmpty = isEmpty(right.value);
+        if (leftEmpty && rightEmpty) {
+            return false;
+        }
+        if (leftEmpty || rightEmpty) {
+            Operand empty = leftEmpty ? left : right;
+            Operand other = leftEmpty ? right : left;
+            if ((empty.column && empty.value == null) || isNumeric(other.value)) {
+                return null;
+            }
+            return true;
+        }
+        return not(same(left.value, right.value));
+    }
+
+    private static Boolean same(Object a, Object b) {
+        if (isNumeric(a) || isNumeric(b)) {
+            Double x = toNumber(a), y = toNumber(b);
+            if (x == null || y == null) {
+                return null;
+            }
+            return x.doubleValue() == y.doubleValue();
+        }
+        String s = a.toString(), t = b.toString();
+        if (s.equals(t)) {
+            return true;
+        }
+        if (!isAscii(s) || !isAscii(t) || StrUtil.trimEnd(s).equalsIgnoreCase(StrUtil.trimEnd(t))) {
+            return null;
+        }
+        return false;
+    }
+
+    /**
+     * 大小比较：只比较数字，字符串的比较取决于排序规则
+     */
+    private static Boolean order(Operand left, Operand right, IntPredicate predicate) {
+        if (!isNumeric(left.value) && !isNumeric(right.value)) {
+            return null;
+        }
+        Double x = toNumber(left.value), y = toNumber(right.value);
+        if (x == null || y == null) {
+            return null;
+        }
+        return predicate.test(Double.compare(x, y));
+    }
+
+    /**
+     * LIKE 运算：右侧为参数时按 SearchFilter 的规则包裹，为字段时为包含匹配
+     */
+    private static Boolean like(Operand left, Operand right) {
+        if (!(left.value instanceof String value) || right.value == null) {
+            return null;
+        }
+        String pattern = right.param
+                ? SearchFilter.wrapLikeValue(String.valueOf(right.value))
+                : "%" + right.value + "%";
+
+        if (likePattern(pattern, 0).matcher(value).matches()) {
+            return true;
+        }
+        if (!isAscii(value) || !isAscii(pattern) || likePattern(pattern, Pattern.CASE_INSENSITIVE).matcher(value).matches()) {
+            return null;
+        }
+        return false;
+    }
+
+    private static Pattern likePattern(String pattern, int flags) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), flags | Pattern.DOTALL);
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || (value instanceof String s && s.isEmpty());
+    }
+
+    private static boolean isNumeric(Object value) {
+        return value instanceof Number || value instanceof Boolean;
+    }
+
+    private static Double toNumber(Object value) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        if (value instanceof Boolean b) {
+            return b ? 1d : 0d;
+        }
+        if (value instanceof String s && NUMBER.matcher(s).matches()) {
+            return Double.valueOf(s);
+        }
+        return null;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0x7f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Boolean not(Boolean a) {
+        return a == null ? null : !a;
+    }
+
+    private static Boolean and(Boolean a, Boolean b) {
+        if (Boolean.FALSE.equals(a) || Boolean.FALSE.equals(b)) {
+            return false;
+        }
+        return a == null || b == null ? null : true;
+    }
+
+    private static Boolean or(Boolean a, Boolean b) {
+        if (Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b)) {
+            return true;
+        }
+        return a == null || b == null ? null : false;
+    }
+
+    /**
+     * 操作数：column 为记录的字段值，param 为以参数绑定的值（文本、数字及请求字段），其余为 NULL、TRUE 等字面量
+     */
+    private record Operand(Object value, boolean column, boolean param) {
+
+        static Operand column(Object value) {
+            return new Operand(value, true, false);
+        }
+
+        static Operand param(Object value) {
+            return new Operand(value, false, true);
+        }
+
+        static Operand literal(Object value) {
+            return new Operand(value, false, false);
+        }
+    }
+
+    private record Context(RecordModel record, RecordFieldResolver resolver) {
+    }
+}
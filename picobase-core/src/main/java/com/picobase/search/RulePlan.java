@@ -0,0 +1,236 @@
+package com.picobase.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.picobase.model.CollectionModel;
+import com.picobase.persistence.dbx.SqlTemplate;
+import com.picobase.persistence.dbx.expression.Expression;
+import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.persistence.resolver.Join;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.persistence.resolver.RecordFieldResolver.RequestProbe;
+import com.picobase.persistence.resolver.RecordFieldResolver.StaticRequestValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 集合访问规则（listRule、viewRule、updateRule、deleteRule 等）的编译计划
+ * <p>
+ * 规则按集合版本只解析一次：字段解析、join 注册及 multi-match 子查询在编译时完成，得到固定的 SQL 片段与 join 列表；
+ * 规则中的 @request.* 静态字段编译为参数槽位，请求时只需取出这些字段的值并绑定到槽位。
+ * <p>
+ * 静态字段的取值会影响生成的 SQL 结构（例如 NULL、空字符串或 :isset 修饰符），因此按取值的种类保存多个变体；
+ * 结构直接依赖请求值的规则（join 请求中的 auth record 或 relation、:each、:length 以及对请求值使用 LIKE）不缓存，每次重新解析
+ */
+public final class RulePlan {
+
+    /**
+     * 编译后 SQL 中的参数名前缀，与查询中其他过滤条件的参数名（t0、p0 ...）区分
+     */
+    private static final String PARAM_PREFIX = "rule";
+    private static final int MAX_PLANS = 500;
+    private static final int MAX_VARIANTS = 16;
+
+    private static final Map<String, RulePlan> plans = new ConcurrentHashMap<>();
+
+    private final String rule;
+    /**
+     * 规则中的静态请求字段（路径及修饰符），第一次编译时确定
+     */
+    private volatile List<RequestProbe> probes;
+    /**
+     * 规则的结构依赖请求值，不能复用
+     */
+    private volatile boolean dynamic;
+    private final Map<String, Variant> variants = new ConcurrentHashMap<>();
+
+    private RulePlan(String rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * 使用编译计划构建规则表达式，规则中的 join 注册到 resolver，与 {@code new SearchFilter(rule).buildExpr(resolver)} 结果一致
+     *
+     * @param rule     集合规则
+     * @param resolver 当前请求的字段解析器
+     * @return 规则表达式，规则为空时返回 null
+     */
+    public static Expression buildExpr(String rule, RecordFieldResolver resolver) {
+        if (StrUtil.isEmpty(rule)) {
+            return null;
+        }
+        CollectionModel collection = resolver.getBaseCollection();
+        if (resolver.getRequestInfo() == null || collection.getId() == null) {
+            return new SearchFilter(rule).buildExpr(resolver);
+        }
+
+        String key = collection.getId() + "|" + collection.getUpdated() + "|" + resolver.isAllowHiddenFields() + "|" + rule;
+        RulePlan plan = plans.get(key);
+        if (plan == null) {
+            plan = plans.size() < MAX_PLANS ? plans.computeIfAbsent(key, k -> new RulePlan(rule)) : new RulePlan(rule);
+        }
+        return plan.bind(resolver);
+    }
+
+    /**
+     * 以规则计划构建表达式的 SearchFilter，用于 {@link PbProvider#addFilter(SearchFilter)}
+     */
+    public static SearchFilter filter(String rule) {
+        return new SearchFilter(rule) {
+            @Override
+            public Expression buildExpr(FieldResolver fieldResolver, Map<String, Object>... placeholderReplacements) {
+                if (placeholderReplacements.length == 0 && fieldResolver instanceof RecordFieldResolver resolver) {
+                    return RulePlan.buildExpr(rule, resolver);
+                }
+                return super.buildExpr(fieldResolver, placeholderReplacements);
+            }
+        };
+    }
+
+    /**
+     * 清除所有规则计划，集合（包括规则中关联的集合）变化时调用
+     */
+    public static void invalidateAll() {
+        plans.clear();
+    }
+
+    private Expression bind(RecordFieldResolver resolver) {
+        if (dynamic) {
+            return new SearchFilter(rule).buildExpr(resolver);
+        }
+        if (probes == null && compile(resolver) == null) {
+            return new SearchFilter(rule).buildExpr(resolver);
+        }
+
+        List<RequestProbe> shape = this.probes;
+        Object[] values = new Object[shape.size()];
+        StringBuilder signature = new StringBuilder();
+        for (int i = 0; i < shape.size(); i++) {
+            RequestProbe probe = shape.get(i);
+            StaticRequestValue value = resolver.staticRequestValue(new ArrayList<>(probe.path()), probe.modifier());
+            values[i] = value.value();
+            signature.append(kind(value)).append(',');
+        }
+
+        Variant variant = variants.get(signature.toString());
+        if (variant == null) {
+            variant = compile(resolver);
+            if (variant == null || !variant.signature.equals(signature.toString())) {
+                return new SearchFilter(rule).buildExpr(resolver);
+            }
+        }
+        return variant.apply(values, resolver);
+    }
+
+    /**
+     * 使用当前请求编译规则，得到与当前请求静态字段取值种类相同的变体
+     *
+     * @return 编译得到的变体，规则不能复用时返回 null
+     */
+    private Variant compile(RecordFieldResolver resolver) {
+        RecordFieldResolver compiler = new RecordFieldResolver(resolver.getBaseCollection(), resolver.getRequestInfo(), resolver.isAllowHiddenFields())
+                .recordProbes()
+                .disableSemiJoin();
+        // 复用当前请求已加载的集合
+        for (CollectionModel loaded : resolver.getLoadedCollections()) {
+            if (!compiler.getLoadedCollections().contains(loaded)) {
+                compiler.getLoadedCollections().add(loaded);
+            }
+        }
+        Expression expr = new SearchFilter(rule).buildExpr(compiler);
+        if (compiler.isRequestDependent()) {
+            dynamic = true;
+            return null;
+        }
+
+        Map<String, Object> built = new HashMap<>();
+        String sql = expr.build(built);
+
+        // 参数改名，避免与查询中其他表达式的参数冲突
+        Map<String, String> names = new HashMap<>((int) (built.size() / 0.75f) + 1);
+        Map<String, Object> params = new HashMap<>((int) (built.size() / 0.75f) + 1);
+        for (Map.Entry<String, Object> entry : built.entrySet()) {
+            String name = PARAM_PREFIX + names.size();
+            names.put(entry.getKey(), name);
+            params.put(name, entry.getValue());
+        }
+        sql = SqlTemplate.renameParams(sql, names);
+
+        List<RequestProbe> recorded = compiler.getProbes();
+        String[] slots = new String[recorded.size()];
+        StringBuilder signature = new StringBuilder();
+        for (int i = 0; i < recorded.size(); i++) {
+            RequestProbe probe = recorded.get(i);
+            signature.append(kind(probe.value())).append(',');
+            if (probe.placeholder() == null || !names.containsKey(probe.placeholder())) {
+                continue;
+            }
+            slots[i] = names.get(probe.placeholder());
+            // 参数值在构建时被改写（例如 LIKE 的 % 包裹），无法直接绑定请求值
+            if (!Objects.equals(params.get(slots[i]), probe.value().value())) {
+                dynamic = true;
+                return null;
+            }
+        }
+
+        List<RequestProbe> shape = this.probes;
+        if (shape == null) {
+            this.probes = recorded;
+        } else if (!samePaths(shape, recorded)) {
+            dynamic = true;
+            return null;
+        }
+
+        Variant variant = new Variant(signature.toString(), sql, params, slots, List.copyOf(compiler.queryJoins()));
+        if (variants.size() < MAX_VARIANTS) {
+            variants.putIfAbsent(variant.signature, variant);
+        }
+        return variant;
+    }
+
+    private static boolean samePaths(List<RequestProbe> a, List<RequestProbe> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).path().equals(b.get(i).path()) || !Objects.equals(a.get(i).modifier(), b.get(i).modifier())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取值种类：NULL、TRUE、FALSE 等字面量，空值（E）或非空值（V），与 SearchFilter 中决定 SQL 结构的判断一致
+     */
+    private static String kind(StaticRequestValue value) {
+        if (value.identifier() != null) {
+            return value.identifier();
+        }
+        Object v = value.value();
+        return v == null || (v instanceof String s && s.isEmpty()) ? "E" : "V";
+    }
+
+    /**
+     * 静态字段取值种类相同的请求共用的编译结果
+     */
+    private record Variant(String signature, String sql, Map<String, Object> params, String[] slots, List<Join> joins) {
+
+        Expression apply(Object[] values, RecordFieldResolver resolver) {
+            Map<String, Object> bound = new HashMap<>(params);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    bound.put(slots[i], values[i]);
+                }
+            }
+            for (Join join : joins) {
+                resolver.registerJoin(join);
+            }
+            return Expression.newExpr(sql, bound);
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.picobase.search;
 
-import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.picobase.PbManager;
 import com.picobase.model.Store;
+import com.picobase.model.schema.JsonIndexedPath;
 import com.picobase.persistence.dbx.ConcatExpr;
 import com.picobase.persistence.dbx.expression.Expression;
 import com.picobase.persistence.fexpr.*;
 import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.persistence.resolver.RecordFieldResolver;
 import com.picobase.persistence.resolver.ResolverResult;
 import com.picobase.util.StringEscapeUtils;
 
@@ -26,16 +27,30 @@ public class SearchFilter {
         this.filterData = filterData;
     }
 
+    String getFilterData() {
+        return filterData;
+    }
+
 
     // parsedFilterData holds a cache with previously parsed filter data expressions
     // (initialized with some preallocated empty data map)
-    Store<List<ExprGroup>> parsedFilterData = new Store<>();
+    static final Store<List<ExprGroup>> parsedFilterData = new Store<>();
 
     // DefaultLikeEscape specifies the default special character escaping for LIKE expressions
     // The strings at 2i positions are the special characters to be escaped while those at 2i+1 positions
     // are the corresponding escaped versions.
     public static final String[] DEFAULT_LIKE_ESCAPE = {"\\", "\\\\", "%", "\\%", "_", "\\_"};
 
+    /**
+     * 全文索引 ngram 分词器的分词长度（MySQL 默认 ngram_token_size=2）
+     */
+    static final int NGRAM_TOKEN_SIZE = 2;
+
+    /**
+     * multi-match 子查询别名序号，别名在表达式创建时分配，同一过滤条件多次构建（如 count 与 list 查询）得到相同的 SQL
+     */
+    private int multiMatchAliasCount;
+
     /**
      * // BuildExpr parses the current filter data and returns a new db WHERE expression.
      * //
@@ -83,11 +98,18 @@ public class SearchFilter {
         }
 
 
-        if (parsedFilterData.has(raw)) {
-            return buildParsedFilterExpr(parsedFilterData.get(raw), fieldResolver);
+        return buildParsedFilterExpr(parse(raw), fieldResolver);
+    }
+
+    /**
+     * 解析过滤条件，解析结果在所有实例间缓存
+     */
+    static List<ExprGroup> parse(String raw) {
+        List<ExprGroup> data = parsedFilterData.get(raw);
+        if (data != null) {
+            return data;
         }
 
-        List<ExprGroup> data;
         try {
             data = FexprParser.parse(raw);
         } catch (Exception e) {
@@ -96,7 +118,7 @@ public class SearchFilter {
         // store in cache
         // (the limit size is arbitrary and it is there to prevent the cache growing too big)
         parsedFilterData.setIfLessThanLimit(raw, data, 500);
-        return buildParsedFilterExpr(data, fieldResolver);
+        return data;
     }
 
 
@@ -150,7 +172,65 @@ public class SearchFilter {
             throw new RuntimeException(String.format("invalid right operand %s", expr.getRight().getLiteral()));
         }
 
-        return buildResolversExpr(lResult, expr.getOp(), rResult);
+        // LIKE 会按请求值改写参数（% 包裹及转义），全文匹配按请求值选择 MATCH 或 LIKE，
+        // json 索引路径按请求值选择是否使用生成列，该规则不能以参数槽位复用
+        if (fieldResolver instanceof RecordFieldResolver recordResolver
+                && (isLikeOp(expr.getOp()) || lResult.getIndexedPath() != null || rResult.getIndexedPath() != null)
+                && (recordResolver.isProbed(lResult.getParams()) || recordResolver.isProbed(rResult.getParams()))) {
+            recordResolver.markRequestDependent();
+        }
+
+        return buildIndexedExpr(lResult, expr.getOp(), rResult);
+    }
+
+    /**
+     * json 索引路径与同类型的值比较时使用生成列，结果与原 json 路径一致：
+     * <ul>
+     *     <li>相等比较：其他类型的 json 值与该值不相等，生成列中的 NULL 不影响结果（超过 {@link JsonIndexedPath#TEXT_LENGTH} 的文本除外）</li>
+     *     <li>大小比较及超长文本的相等比较：生成列为 NULL 的行按原 json 路径复核</li>
+     *     <li>其余比较（不等、LIKE、与列或其他类型的值比较）使用原 json 路径</li>
+     * </ul>
+     */
+    private Expression buildIndexedExpr(ResolverResult left, SignOp op, ResolverResult right) {
+        boolean leftIndexed = left.getIndexedPath() != null;
+        boolean rightIndexed = right.getIndexedPath() != null;
+        if (!leftIndexed && !rightIndexed) {
+            return buildResolversExpr(left, op, right);
+        }
+
+        Expression unindexed = buildResolversExpr(leftIndexed ? left.getUnindexed() : left, op, rightIndexed ? right.getUnindexed() : right);
+        ResolverResult column = leftIndexed ? left : right;
+        ResolverResult other = leftIndexed ? right : left;
+        if (leftIndexed == rightIndexed || other.getParams().size() != 1) {
+            return unindexed;
+        }
+        Object value = other.getParams().values().iterator().next();
+        JsonIndexedPath indexedPath = column.getIndexedPath();
+        if (!indexedPath.isSameType(value)) {
+            return unindexed;
+        }
+
+        return switch (op) {
+            case SignEq, SignAnyEq -> indexedPath.isStorable(value) ? buildResolversExpr(left, op, right)
+                    : recheckExpr(column, buildResolversExpr(left, op, right), unindexed);
+            case SignLt, SignAnyLt, SignLte, SignAnyLte, SignGt, SignAnyGt, SignGte, SignAnyGte ->
+                    recheckExpr(column, buildResolversExpr(left, op, right), unindexed);
+            default -> unindexed;
+        };
+    }
+
+    /**
+     * 使用生成列比较，生成列为 NULL（json 值缺失、类型不一致或超长）的行按原 json 路径复核
+     */
+    private static Expression recheckExpr(ResolverResult column, Expression indexed, Expression unindexed) {
+        return Expression.or(indexed, and(Expression.newExpr(column.getIdentifier() + " IS NULL"), unindexed));
+    }
+
+    private static boolean isLikeOp(SignOp op) {
+        return switch (op) {
+            case SignLike, SignAnyLike, SignNlike, SignAnyNlike, SignMatch, SignNmatch -> true;
+            default -> false;
+        };
     }
 
     private ResolverResult resolveToken(Token token, FieldResolver fieldResolver) {
@@ -159,9 +239,7 @@ public class SearchFilter {
                 // check for macros
                 IdentifierMacros.Macro macro = IdentifierMacros.getMacro(token.getLiteral());
                 if (macro != null) {
-                    var placeholder = "t" + RandomUtil.randomString(5);
-                    Object value = macro.getValue();
-                    return ResolverResult.builder().identifier(":" + placeholder).params(Map.of(placeholder, value)).build();
+                    return ResolverResult.placeholder(fieldResolver.placeholders(), macro.getValue());
                 }
 
                 ResolverResult result = null;
@@ -189,18 +267,10 @@ public class SearchFilter {
 
             }
             case Text -> {
-                var placeholder = "t" + RandomUtil.randomString(5);
-                return ResolverResult.builder()
-                        .identifier(":" + placeholder)
-                        .params(Map.of(placeholder, token.getLiteral()))
-                        .build();
+                return ResolverResult.placeholder(fieldResolver.placeholders(), token.getLiteral());
             }
             case Number -> {
-                var placeholder = "t" + RandomUtil.randomString(5);
-                return ResolverResult.builder()
-                        .identifier(":" + placeholder)
-                        .params(Map.of(placeholder, Double.valueOf(token.getLiteral())))
-                        .build();
+                return ResolverResult.placeholder(fieldResolver.placeholders(), Double.valueOf(token.getLiteral()));
             }
         }
         throw new RuntimeException("unresolvable token type");
@@ -210,26 +280,10 @@ public class SearchFilter {
         Expression expr = switch (op) {
             case SignEq, SignAnyEq -> resolveEqualExpr(true, left, right);
             case SignNeq, SignAnyNeq -> resolveEqualExpr(false, left, right);
-            case SignLike, SignAnyLike -> {
-                // the right side is a column and therefor wrap it with "%" for not-contains like behavior
-                if (right.getParams().isEmpty()) {
-                    yield Expression.newExpr(String.format("%s LIKE CONCAT('%%',%s,'%%')", left.getIdentifier(), right.getIdentifier()),
-                            left.getParams());
-                } else {
-                    yield Expression.newExpr(String.format("%s LIKE %s", left.getIdentifier(), right.getIdentifier()),
-                            mergeParams(left.getParams(), wrapLikeParams(right.getParams())));
-                }
-            }
-            case SignNlike, SignAnyNlike -> {
-                // the right side is a column and therefor wrap it with "%" for not-contains like behavior
-                if (right.getParams().isEmpty()) {
-                    yield Expression.newExpr(String.format("%s NOT LIKE CONCAT('%%',%s,'%%')", left.getIdentifier(), right.getIdentifier()),
-                            left.getParams());
-                } else {
-                    yield Expression.newExpr(String.format("%s NOT LIKE %s", left.getIdentifier(), right.getIdentifier()),
-                            mergeParams(left.getParams(), wrapLikeParams(right.getParams())));
-                }
-            }
+            case SignLike, SignAnyLike -> resolveLikeExpr(true, left, right);
+            case SignNlike, SignAnyNlike -> resolveLikeExpr(false, left, right);
+            case SignMatch -> resolveMatchExpr(true, left, right);
+            case SignNmatch -> resolveMatchExpr(false, left, right);
             case SignLt, SignAnyLt ->
                     Expression.newExpr(String.format("%s < %s", left.getIdentifier(), right.getIdentifier()),
                             mergeParams(left.getParams(), right.getParams()));
@@ -273,6 +327,38 @@ public class SearchFilter {
         return expr;
     }
 
+    private Expression resolveLikeExpr(boolean like, ResolverResult left, ResolverResult right) {
+        String op = like ? "LIKE" : "NOT LIKE";
+        // the right side is a column and therefor wrap it with "%" for contains like behavior
+        if (right.getParams().isEmpty()) {
+            return Expression.newExpr(String.format("%s %s CONCAT('%%',%s,'%%')", left.getIdentifier(), op, right.getIdentifier()),
+                    left.getParams());
+        }
+        return Expression.newExpr(String.format("%s %s %s", left.getIdentifier(), op, right.getIdentifier()),
+                mergeParams(left.getParams(), wrapLikeParams(right.getParams())));
+    }
+
+    /**
+     * 全文匹配：左侧为开启全文索引的字段且右侧为不短于 ngram 分词长度的文本时使用 MATCH ... AGAINST（自然语言模式），
+     * 否则（未开启全文索引的字段、multi-match 子查询的值、列与列比较或过短的文本）与 ~ / !~ 一致按 LIKE 包含匹配
+     */
+    private Expression resolveMatchExpr(boolean match, ResolverResult left, ResolverResult right) {
+        if (!left.isFullText() || right.getParams().size() != 1
+                || !(right.getParams().values().iterator().next() instanceof String term) || isShortTerm(term)) {
+            return resolveLikeExpr(match, left, right);
+        }
+        return Expression.newExpr(String.format(match ? "MATCH(%s) AGAINST(%s)" : "NOT MATCH(%s) AGAINST(%s)", left.getIdentifier(), right.getIdentifier()),
+                mergeParams(left.getParams(), right.getParams()));
+    }
+
+    /**
+     * 全文索引使用 ngram 分词（默认 ngram_token_size=2），短于分词长度的文本不会产生任何词元，MATCH 无法命中
+     */
+    private static boolean isShortTerm(String term) {
+        String trimmed = term.strip();
+        return trimmed.codePointCount(0, trimmed.length()) < NGRAM_TOKEN_SIZE;
+    }
+
     private boolean isAnyMatchOp(SignOp op) {
         return switch (op) {
             case SignAnyEq, SignAnyNeq, SignAnyLike, SignAnyNlike, SignAnyLt, SignAnyLte, SignAnyGt, SignAnyGte -> true;
@@ -297,21 +383,24 @@ public class SearchFilter {
         Map<String, Object> result = new HashMap<>();
 
         for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String key = entry.getKey();
-            String valueStr = String.valueOf(entry.getValue());
-
-            if (!containsUnescapedChar(valueStr, '%')) {
-                // note: this is done to minimize the breaking changes and to preserve the original autoescape behavior
-                valueStr = escapeUnescapedChars(valueStr, '\\', '%', '_');
-                valueStr = "%" + valueStr + "%";
-            }
-
-            result.put(key, valueStr);
+            result.put(entry.getKey(), wrapLikeValue(String.valueOf(entry.getValue())));
         }
 
         return result;
     }
 
+    /**
+     * LIKE 右侧的参数值：不包含未转义的 % 时，转义其中的 % 与 _ 并以 % 包裹
+     */
+    static String wrapLikeValue(String valueStr) {
+        if (!containsUnescapedChar(valueStr, '%')) {
+            // note: this is done to minimize the breaking changes and to preserve the original autoescape behavior
+            valueStr = escapeUnescapedChars(valueStr, '\\', '%', '_');
+            valueStr = "%" + valueStr + "%";
+        }
+        return valueStr;
+    }
+
     /**
      * 包含转译的（%）字符
      * <p>
@@ -319,7 +408,7 @@ public class SearchFilter {
      * "abc\\%abc", '%' -> false
      * "abc\\\\%abc", '%' -> true
      */
-    private boolean containsUnescapedChar(String str, char ch) {
+    private static boolean containsUnescapedChar(String str, char ch) {
         char prev = 0;
 
         for (int i = 0; i < str.length(); i++) {
@@ -345,7 +434,7 @@ public class SearchFilter {
      * @param escapeChars 可变参数，指定需要转义的字符列表
      * @return
      */
-    private String escapeUnescapedChars(String str, char... escapeChars) {
+    private static String escapeUnescapedChars(String str, char... escapeChars) {
         char[] rs = str.toCharArray();
         int total = rs.length;
         StringBuilder result = new StringBuilder();
@@ -520,11 +609,16 @@ public class SearchFilter {
         private final ResolverResult left;
         private final ResolverResult right;
         private final SignOp op;
+        private final String lAlias;
+        private final String rAlias;
 
         public ManyVsManyExpr(ResolverResult left, ResolverResult right, SignOp op) {
             this.left = left;
             this.right = right;
             this.op = op;
+            int n = multiMatchAliasCount++;
+            this.lAlias = "__ml" + n;
+            this.rAlias = "__mr" + n;
         }
 
         /**
@@ -532,13 +626,18 @@ public class SearchFilter {
          */
         @Override
         public String build(Map<String, Object> params) {
+            StringBuilder sb = new StringBuilder();
+            build(sb, params);
+            return sb.toString();
+        }
+
+        @Override
+        public void build(StringBuilder sb, Map<String, Object> params) {
             if (this.left.getMultiMatchSubQuery() == null || this.right.getMultiMatchSubQuery() == null) {
-                return "0=1";
+                sb.append("0=1");
+                return;
             }
 
-            var lAlias = "__ml" + RandomUtil.randomString(5);
-            var rAlias = "__mr" + RandomUtil.randomString(5);
-
             Expression whereExpr;
             try {
                 whereExpr = buildResolversExpr(
@@ -551,16 +650,18 @@ public class SearchFilter {
                                 .build()
                 );
             } catch (Exception ignore) {
-                return "0=1";
+                sb.append("0=1");
+                return;
             }
 
-            return String.format("NOT EXISTS (SELECT 1 FROM (%s) %s LEFT JOIN (%s) %s ON 1=1 WHERE %s)", // 这里的 1=1 在左右为表达式情况下需要 如下条件：self_rel_many.title = self_rel_many.title
-                    this.left.getMultiMatchSubQuery().build(params),
-                    lAlias,
-                    this.right.getMultiMatchSubQuery().build(params),
-                    rAlias,
-                    whereExpr.build(params)
-            );
+            // 这里的 1=1 在左右为表达式情况下需要 如下条件：self_rel_many.title = self_rel_many.title
+            sb.append("NOT EXISTS (SELECT 1 FROM (");
+            this.left.getMultiMatchSubQuery().build(sb, params);
+            sb.append(") ").append(lAlias).append(" LEFT JOIN (");
+            this.right.getMultiMatchSubQuery().build(sb, params);
+            sb.append(") ").append(rAlias).append(" ON 1=1 WHERE ");
+            whereExpr.build(sb, params);
+            sb.append(')');
         }
     }
 
@@ -599,6 +700,7 @@ public class SearchFilter {
         private final Expression subQuery;
         private final SignOp op;
         private final ResolverResult otherOperand;
+        private final String alias = "__sm" + multiMatchAliasCount++;
         private boolean inverse;
 
         public ManyVsOneExpr(boolean noCoalesce, Expression subQuery, SignOp op, ResolverResult otherOperand) {
@@ -618,17 +720,23 @@ public class SearchFilter {
 
         @Override
         public String build(Map<String, Object> params) {
+            StringBuilder sb = new StringBuilder();
+            build(sb, params);
+            return sb.toString();
+        }
+
+        @Override
+        public void build(StringBuilder sb, Map<String, Object> params) {
             if (this.subQuery == null) {
-                return "0=1";
+                sb.append("0=1");
+                return;
             }
-            var alias = "__sm" + RandomUtil.randomString(5);
 
             var r1 = ResolverResult.builder().noCoalesce(this.noCoalesce).identifier(alias + ".multiMatchValue").afterBuild(multiMatchAfterBuildFunc(this.op, alias)).build();
 
             var r2 = ResolverResult.builder().identifier(this.otherOperand.getIdentifier()).params(this.otherOperand.getParams()).build();
 
-            Expression whereExpr = null;
-            Exception err = null;
+            Expression whereExpr;
             try {
                 if (this.inverse) {
                     whereExpr = buildResolversExpr(r2, this.op, r1);
@@ -636,19 +744,15 @@ public class SearchFilter {
                     whereExpr = buildResolversExpr(r1, this.op, r2);
                 }
             } catch (Exception e) {
-                err = e;
-            }
-
-            if (err != null) {
-                return "0=1";
+                sb.append("0=1");
+                return;
             }
 
-            return String.format(
-                    "NOT EXISTS (SELECT 1 FROM (%s) %s WHERE %s)",
-                    this.subQuery.build(params),
-                    alias,
-                    whereExpr.build(params)
-            );
+            sb.append("NOT EXISTS (SELECT 1 FROM (");
+            this.subQuery.build(sb, params);
+            sb.append(") ").append(alias).append(" WHERE ");
+            whereExpr.build(sb, params);
+            sb.append(')');
         }
     }
 }
\ No newline at end of file
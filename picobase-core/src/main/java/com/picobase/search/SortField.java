@@ -2,15 +2,23 @@ package com.picobase.search;
 
 
 import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.persistence.resolver.ResolverResult;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class SortField {
 
     public static final String SortAsc = "ASC";
     public static final String SortDesc = "DESC";
     private static final String RandomSortKey = "@random"; // mysql 中需要使用 RAND()函数
+    /**
+     * 全文相关度排序：@rank(field,'term')，field 需开启全文索引，按 MATCH(field) AGAINST('term') 的相关度排序
+     */
+    private static final Pattern RankSortPattern = Pattern.compile("^@rank\\(\\s*([\\w.]+)\\s*,\\s*'((?:[^'\\\\]|\\\\.)*)'\\s*\\)$");
 
     private String name;
     private String direction;
@@ -20,6 +28,14 @@ public class SortField {
         this.direction = direction;
     }
 
+    String getName() {
+        return name;
+    }
+
+    String getDirection() {
+        return direction;
+    }
+
 
     /**
      * // ParseSortFromString parses the provided string expression
@@ -30,9 +46,8 @@ public class SortField {
      */
     public static List<SortField> parseSortFromString(String str) {
         List<SortField> fields = new ArrayList<>();
-        String[] data = str.split(",", -1);
 
-        for (String field : data) {
+        for (String field : splitSortString(str)) {
             // trim whitespaces
             field = field.trim();
             if (field.startsWith("-")) {
@@ -48,14 +63,70 @@ public class SortField {
         return fields;
     }
 
+    /**
+     * 按逗号切分排序表达式，括号及引号内的逗号不切分（例如 @rank(title,'a, b')）
+     */
+    private static List<String> splitSortString(String str) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            if (quoted) {
+                if (ch == '\\') {
+                    i++;
+                } else if (ch == '\'') {
+                    quoted = false;
+                }
+            } else if (ch == '\'') {
+                quoted = true;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+            } else if (ch == ',' && depth == 0) {
+                parts.add(str.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(str.substring(start));
+        return parts;
+    }
+
     // BuildExpr resolves the sort field into a valid db sort expression.
     public String buildExpr(FieldResolver fieldResolver) {
+        return buildExpr(fieldResolver, null);
+    }
+
+    /**
+     * 解析排序字段，排序表达式中的参数（例如 @rank 的搜索文本）写入 params，需绑定到查询
+     *
+     * @param params 为 null 时不支持带参数的排序
+     */
+    public String buildExpr(FieldResolver fieldResolver, Map<String, Object> params) {
         // special case for random sort
         if (name.equals(RandomSortKey)) {
             return "RAND()";
         }
 
+        // full-text relevance sort
+        Matcher rank = RankSortPattern.matcher(name);
+        if (rank.matches()) {
+            var result = fieldResolver.resolve(rank.group(1));
+            if (params == null || result == null || !result.isFullText() || result.getMultiMatchSubQuery() != null) {
+                throw new IllegalArgumentException("invalid rank sort field :" + rank.group(1));
+            }
+            var term = ResolverResult.placeholder(fieldResolver.placeholders(), rank.group(2).replaceAll("\\\\(.)", "$1"));
+            params.putAll(term.getParams());
+            return String.format("MATCH(%s) AGAINST(%s) %s", result.getIdentifier(), term.getIdentifier(), direction);
+        }
+
         var result = fieldResolver.resolve(name);
+        // 生成列中类型不一致或超长的值为 NULL，排序使用原 json 路径
+        if (result != null && result.getUnindexed() != null) {
+            result = result.getUnindexed();
+        }
 
         // invalidate empty fields and non-column identifiers
         if (result == null || result.getParams().size() > 0 || result.getIdentifier() == null || result.getIdentifier().isEmpty() || result.getIdentifier().toLowerCase().equals("null")) {
@@ -18,6 +18,32 @@ public final class PbStrategy {
     private PbStrategy() {
     }
 
+    /**
+     * 默认的集合元素匹配算法：先尝试 equals，再逐个元素模糊匹配（* 通配）
+     */
+    public static final PbHasElementFunction DEFAULT_HAS_ELEMENT = (list, element) -> {
+
+        // 空集合直接返回false
+        if (list == null || list.size() == 0) {
+            return false;
+        }
+
+        // 先尝试一下简单匹配，如果可以匹配成功则无需继续模糊匹配
+        if (list.contains(element)) {
+            return true;
+        }
+
+        // 开始模糊匹配
+        for (String patt : list) {
+            if (CommonHelper.vagueMatch(patt, element)) {
+                return true;
+            }
+        }
+
+        // 走出for循环说明没有一个元素可以匹配成功
+        return false;
+    };
+
     public static final PbStrategy instance = new PbStrategy();
 
     /**
@@ -187,29 +213,9 @@ public final class PbStrategy {
 
     /**
      * 判断：集合中是否包含指定元素（模糊匹配）
+     * <p> 未修改此算法时，权限、角色校验使用与其等价的预编译匹配器 {@link com.picobase.logic.authz.PbElementMatcher} </p>
      */
-    public PbHasElementFunction hasElement = (list, element) -> {
-
-        // 空集合直接返回false
-        if (list == null || list.size() == 0) {
-            return false;
-        }
-
-        // 先尝试一下简单匹配，如果可以匹配成功则无需继续模糊匹配
-        if (list.contains(element)) {
-            return true;
-        }
-
-        // 开始模糊匹配
-        for (String patt : list) {
-            if (CommonHelper.vagueMatch(patt, element)) {
-                return true;
-            }
-        }
-
-        // 走出for循环说明没有一个元素可以匹配成功
-        return false;
-    };
+    public PbHasElementFunction hasElement = DEFAULT_HAS_ELEMENT;
 
     /**
      * 判断：集合中是否包含指定元素（模糊匹配）
@@ -79,6 +79,11 @@ public final class PbConstants {
      */
     public static final String SWITCH_TO_SAVE_KEY = "SWITCH_TO_SAVE_KEY_";
 
+    /**
+     * 常量 key 标记: 在当前请求中缓存已编译的权限、角色匹配器时使用的 key
+     */
+    public static final String AUTHZ_MATCHER_SAVE_KEY = "AUTHZ_MATCHER_SAVE_KEY_";
+
     /**
      * 常量 key 标记: 在进行 Token 二级验证时，使用的 key
      */
@@ -249,6 +254,7 @@ public final class PbConstants {
         public static final String ADMIN = "pb_admin";
         public static final String COLLECTION = "pb_collection";
         public static final String EXTERNAL_AUTHS = "pb_external_auths";
+        public static final String RELATION = "pb_relation";
 
 
     }
@@ -6,12 +6,17 @@ import cn.hutool.jwt.JWTException;
 import cn.hutool.jwt.signers.JWTSigner;
 import cn.hutool.jwt.signers.JWTSignerUtil;
 import com.picobase.cache.PbCache;
+import com.picobase.context.PbContext;
+import com.picobase.context.PbHolder;
+import com.picobase.context.model.PbStorage;
 import com.picobase.jwt.error.PbJwtErrorCode;
 import com.picobase.jwt.exception.PbJwtException;
 import com.picobase.util.CommonHelper;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * jwt 操作模板方法封装
@@ -55,6 +60,31 @@ public class PbJwtTemplate {
 	 * 表示一个值不存在 
 	 */ 
 	public static final long NOT_VALUE_EXPIRE = PbCache.NOT_VALUE_EXPIRE;
+
+	/**
+	 * 在 [ Storage存储器 ] 中保存已解析 jwt 的 key 前缀
+	 */
+	public static final String PARSED_JWT_SAVE_KEY = "PARSED_JWT_SAVE_KEY_";
+
+	/**
+	 * 最多缓存的已验签 token 数量，超出后先清理已过期的，仍超出则不再缓存
+	 */
+	public static final int MAX_VERIFIED_TOKENS = 10000;
+
+	/**
+	 * 每个线程最多缓存的签名器数量（一般只有一两个秘钥），超出后清空重建
+	 */
+	private static final int MAX_SIGNERS_PER_THREAD = 16;
+
+	/**
+	 * 按秘钥缓存的签名器；HMAC 签名器内部的 Mac 对象不是线程安全的，因此按线程分别缓存
+	 */
+	private final ThreadLocal<Map<String, JWTSigner>> signerCache = ThreadLocal.withInitial(HashMap::new);
+
+	/**
+	 * 已通过验签的 token 及其解析结果，key 为 token 的签名段，在 token 的 eff 到期后失效
+	 */
+	private final Map<String, VerifiedToken> verifiedCache = new ConcurrentHashMap<>();
 	
 	// ------ 创建
 
@@ -126,7 +156,26 @@ public class PbJwtTemplate {
 	 * @return 根据 JWT 对象和 keyt 秘钥，生成的 token 字符串
 	 */
 	public String generateToken (JWT jwt, String keyt) {
-		return jwt.setSigner(createSigner(keyt)).sign();
+		return jwt.setSigner(getSigner(keyt)).sign();
+	}
+
+	/**
+	 * 获取当前线程下指定秘钥的签名器，首次获取时调用 {@link #createSigner(String)} 创建
+	 *
+	 * @param keyt 秘钥
+	 * @return /
+	 */
+	public JWTSigner getSigner (String keyt) {
+		Map<String, JWTSigner> signers = signerCache.get();
+		JWTSigner signer = signers.get(keyt);
+		if(signer == null) {
+			if(signers.size() >= MAX_SIGNERS_PER_THREAD) {
+				signers.clear();
+			}
+			signer = createSigner(keyt);
+			signers.put(keyt, signer);
+		}
+		return signer;
 	}
 
 	/**
@@ -162,20 +211,9 @@ public class PbJwtTemplate {
     		throw new PbJwtException("jwt 字符串不可为空");
     	}
     	
-    	// 解析 
-    	JWT jwt;
-    	try {
-    		jwt = JWT.of(token);
-		} catch (JWTException e) {
-    		throw new PbJwtException("jwt 解析失败：" + token, e).setCode(PbJwtErrorCode.CODE_30201);
-		}
+    	// 解析并校验 Token 签名
+    	JWT jwt = parseAndVerify(token, keyt);
     	JSONObject payloads = jwt.getPayloads();
-    	
-    	// 校验 Token 签名
-		boolean verify = jwt.setSigner(createSigner(keyt)).verify();
-    	if( ! verify) {
-    		throw new PbJwtException("jwt 签名无效：" + token).setCode(PbJwtErrorCode.CODE_30202);
-    	}
 
     	// 校验 loginType 
     	if( ! Objects.equals(loginType, payloads.getStr(LOGIN_TYPE))) {
@@ -258,21 +296,14 @@ public class PbJwtTemplate {
     		return NOT_VALUE_EXPIRE;
     	}
     	
-    	// 取出数据 
+    	// 取出数据，如果解析失败或签名无效
     	JWT jwt;
     	try {
-    		jwt = JWT.of(token);
-		} catch (JWTException e) {
-			// 解析失败 
+    		jwt = parseAndVerify(token, keyt);
+		} catch (PbJwtException e) {
 			return NOT_VALUE_EXPIRE;
 		}
     	JSONObject payloads = jwt.getPayloads();
-    	
-    	// 如果签名无效 
-    	boolean verify = jwt.setSigner(createSigner(keyt)).verify();
-    	if( ! verify) {
-    		return NOT_VALUE_EXPIRE;
-    	}
 
     	// 如果 loginType  无效 
     	if( ! Objects.equals(loginType, payloads.getStr(LOGIN_TYPE))) {
@@ -293,4 +324,93 @@ public class PbJwtTemplate {
         return (effTime - System.currentTimeMillis()) / 1000;
     }
 
+    /**
+     * 解析 jwt 并校验签名（不校验 loginType、timeout）
+     *
+     * <p> 同一请求内相同 token 只解析一次；验签通过的 token 连同解析结果跨请求缓存至其 eff 到期，期间不再重复解析和计算签名。
+     * 返回的 jwt 对象可能被多个请求共用，调用方不应修改 </p>
+     *
+     * @param token Jwt-Token值
+     * @param keyt 秘钥
+     * @return 解析后的jwt 对象
+     */
+    public JWT parseAndVerify(String token, String keyt) {
+
+    	// 当前请求内已解析
+    	PbStorage storage = isRequestValid() ? PbHolder.getStorage() : null;
+    	String storageKey = PARSED_JWT_SAVE_KEY + token;
+    	if(storage != null && storage.get(storageKey) instanceof ParsedToken parsed && parsed.keyt().equals(keyt)) {
+    		return parsed.jwt();
+    	}
+
+    	// 已验签且未过期的 token 直接使用缓存的解析结果
+    	String signature = token.substring(token.lastIndexOf('.') + 1);
+    	VerifiedToken verified = verifiedCache.get(signature);
+    	JWT jwt;
+    	if(verified != null && verified.isValid(token, keyt)) {
+    		jwt = verified.jwt();
+    	} else {
+    		// 解析
+    		try {
+    			jwt = JWT.of(token);
+    		} catch (JWTException e) {
+    			throw new PbJwtException("jwt 解析失败：" + token, e).setCode(PbJwtErrorCode.CODE_30201);
+    		}
+
+    		// 校验 Token 签名
+    		if( ! jwt.setSigner(getSigner(keyt)).verify()) {
+    			throw new PbJwtException("jwt 签名无效：" + token).setCode(PbJwtErrorCode.CODE_30202);
+    		}
+    		cacheVerified(signature, token, keyt, jwt);
+    	}
+
+    	if(storage != null) {
+    		storage.set(storageKey, new ParsedToken(keyt, jwt));
+    	}
+    	return jwt;
+    }
+
+    /**
+     * 清空已验签 token 的缓存（例如更换秘钥后）
+     */
+    public void clearVerifiedCache() {
+    	verifiedCache.clear();
+    }
+
+    private void cacheVerified(String signature, String token, String keyt, JWT jwt) {
+    	Long effTime = jwt.getPayloads().getLong(EFF);
+    	long expireAt = (effTime == null || effTime == NEVER_EXPIRE) ? Long.MAX_VALUE : effTime;
+    	if(expireAt <= System.currentTimeMillis()) {
+    		return;
+    	}
+    	if(verifiedCache.size() >= MAX_VERIFIED_TOKENS) {
+    		long now = System.currentTimeMillis();
+    		verifiedCache.values().removeIf(v -> v.expireAt() <= now);
+    		if(verifiedCache.size() >= MAX_VERIFIED_TOKENS) {
+    			return;
+    		}
+    	}
+    	verifiedCache.put(signature, new VerifiedToken(token, keyt, jwt, expireAt));
+    }
+
+    private static boolean isRequestValid() {
+    	PbContext context = PbHolder.getContext();
+    	return context != null && context.isValid();
+    }
+
+    /**
+     * 已验签的 token，签名段相同时仍比对完整 token 与秘钥，防止篡改载荷后复用签名
+     */
+    private record VerifiedToken(String token, String keyt, JWT jwt, long expireAt) {
+    	boolean isValid(String token, String keyt) {
+    		return expireAt > System.currentTimeMillis() && this.token.equals(token) && this.keyt.equals(keyt);
+    	}
+    }
+
+    /**
+     * 当前请求内已解析的 token
+     */
+    private record ParsedToken(String keyt, JWT jwt) {
+    }
+
 }
@@ -18,8 +18,10 @@ import com.picobase.spring.context.path.ApplicationContextPathLoading;
 import com.picobase.spring.json.PbJsonTemplateForJackson;
 import com.picobase.spring.json.PbJsonTemplateForJacksonTurbo;
 import com.picobase.spring.repository.MysqlDatabaseOperateImpl;
+import com.picobase.spring.repository.MysqlStatementCacheConfigurer;
 import com.picobase.strategy.PbStrategy;
 import javassist.ClassPool;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -123,6 +125,17 @@ public class PbBeanRegister {
         return new MysqlDatabaseOperateImpl(jdbcTemplate, namedParameterJdbcTemplate, transactionTemplate);
     }
 
+    /**
+     * 为 MySQL 数据源开启预编译语句缓存
+     *
+     * @param pbConfig 配置对象
+     * @return /
+     */
+    @Bean
+    public static MysqlStatementCacheConfigurer getMysqlStatementCacheConfigurer(ObjectProvider<PbConfig> pbConfig) {
+        return new MysqlStatementCacheConfigurer(pbConfig);
+    }
+
     @Bean
     //@ConditionalOnMissingClass("com.picobase.console.mapper.MapperManagerWithProxy")
     public PbMapperManager getMapperManager(PbConfig pbConfig) {
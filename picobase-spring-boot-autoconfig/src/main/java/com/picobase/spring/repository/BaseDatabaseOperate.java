@@ -5,6 +5,7 @@ import com.picobase.log.PbLog;
 import com.picobase.persistence.repository.ModifyRequest;
 import com.picobase.persistence.repository.PbDatabaseOperate;
 import com.picobase.persistence.repository.PbRowMapper;
+import com.picobase.persistence.repository.SqlStatsRecorder;
 import com.picobase.util.ExceptionHelper;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -13,10 +14,14 @@ import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.transaction.IllegalTransactionStateException;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -273,6 +278,7 @@ public interface BaseDatabaseOperate extends PbDatabaseOperate {
 
     /**
      * execute update operation, to fix #3617.
+     * <p> consecutive requests with the same sql are executed as one JDBC batch, see {@link #batchUpdate} </p>
      *
      * @param transactionTemplate {@link TransactionTemplate}
      * @param jdbcTemplate        {@link JdbcTemplate}
@@ -291,24 +297,26 @@ public interface BaseDatabaseOperate extends PbDatabaseOperate {
                     // 影响的行数
                     AtomicInteger row = new AtomicInteger();
 
-                    contexts.forEach(pair -> {
-                        errSql[0] = pair.getSql();
-                        args[0] = pair.getArgs();
-                        boolean rollBackOnUpdateFail = pair.isRollBackOnUpdateFail();
-                        //LOGGER.debug("current sql : {}", errSql[0]);
-                        //LOGGER.debug("current args : {}", args[0]);
+                    for (int i = 0; i < contexts.size(); ) {
+                        ModifyRequest first = contexts.get(i);
+                        // 累计影响行数小于 1 时，要求回滚的请求需要执行后立即检查，批次在该请求处结束
+                        int end = batchEnd(contexts, i, row.get() < 1);
+                        errSql[0] = first.getSql();
+                        args[0] = first.getArgs();
 
-                        if (pair.getNamedArgs() != null) {
-                            row.addAndGet(namedParameterJdbcTemplate.update(pair.getSql(), pair.getNamedArgs()));
-                        } else {
-                            row.addAndGet(jdbcTemplate.update(pair.getSql(), pair.getArgs()));
+                        int[] affected = batchUpdate(jdbcTemplate, namedParameterJdbcTemplate, contexts.subList(i, end));
+                        // 按原有语义逐条检查：累计影响行数小于 1 且要求回滚时回滚整个事务
+                        for (int j = 0; j < affected.length; j++) {
+                            ModifyRequest request = contexts.get(i + j);
+                            errSql[0] = request.getSql();
+                            args[0] = request.getArgs();
+                            row.addAndGet(affected[j]);
+                            if (request.isRollBackOnUpdateFail() && row.get() < 1) {
+                                throw new IllegalTransactionStateException("Illegal transaction");
+                            }
                         }
-                        //LOGGER.debug("SQL update affected {} rows ", row);
-                        if (rollBackOnUpdateFail && row.get() < 1) {
-                            //LOGGER.debug("SQL update affected {} rows ", row);
-                            throw new IllegalTransactionStateException("Illegal transaction");
-                        }
-                    });
+                        i = end;
+                    }
                     if (consumer != null) {
                         consumer.accept(row.get(), null);
                     }
@@ -340,6 +348,73 @@ public interface BaseDatabaseOperate extends PbDatabaseOperate {
     }
 
 
+    /**
+     * 连续且 SQL 相同、参数形式相同的请求合并为一次批量执行
+     * <p> 累计影响行数仍可能小于 1 时，批次在第一条要求回滚的请求处结束，保证检查失败时其后的请求不会被执行 </p>
+     *
+     * @param contexts  请求列表
+     * @param start     起始下标
+     * @param checkFail 是否需要在要求回滚的请求处结束批次
+     * @return 本批次的结束下标（不包含）
+     */
+    private static int batchEnd(List<ModifyRequest> contexts, int start, boolean checkFail) {
+        ModifyRequest first = contexts.get(start);
+        boolean named = first.getNamedArgs() != null;
+        if ((!named && first.getArgs() == null) || (checkFail && first.isRollBackOnUpdateFail())) {
+            return start + 1;
+        }
+        int end = start + 1;
+        while (end < contexts.size()) {
+            ModifyRequest next = contexts.get(end);
+            if (!first.getSql().equals(next.getSql())
+                    || named != (next.getNamedArgs() != null)
+                    || (!named && next.getArgs() == null)) {
+                break;
+            }
+            end++;
+            if (checkFail && next.isRollBackOnUpdateFail()) {
+                break;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 执行一批 SQL 相同的请求，多于一条时使用 JDBC batch，一次往返提交所有参数
+     * <p> MySQL 需要在连接串中配置 rewriteBatchedStatements=true，驱动才会将批量 insert 改写为多行 values，否则仍逐条发送 </p>
+     *
+     * @return 每条请求的影响行数，驱动返回 {@link Statement#SUCCESS_NO_INFO} 时按 1 行计
+     */
+    private static int[] batchUpdate(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate, List<ModifyRequest> batch) {
+        ModifyRequest first = batch.get(0);
+        long start = System.nanoTime();
+        int[] affected = new int[0];
+        boolean error = true;
+        try {
+            if (batch.size() == 1) {
+                affected = new int[]{first.getNamedArgs() != null
+                        ? namedParameterJdbcTemplate.update(first.getSql(), first.getNamedArgs())
+                        : jdbcTemplate.update(first.getSql(), first.getArgs())};
+            } else if (first.getNamedArgs() != null) {
+                SqlParameterSource[] batchArgs = batch.stream()
+                        .map(request -> new MapSqlParameterSource(request.getNamedArgs()))
+                        .toArray(SqlParameterSource[]::new);
+                affected = namedParameterJdbcTemplate.batchUpdate(first.getSql(), batchArgs);
+            } else {
+                affected = jdbcTemplate.batchUpdate(first.getSql(), batch.stream().map(ModifyRequest::getArgs).toList());
+            }
+            for (int i = 0; i < affected.length; i++) {
+                if (affected[i] == Statement.SUCCESS_NO_INFO) {
+                    affected[i] = 1;
+                }
+            }
+            error = false;
+            return affected;
+        } finally {
+            SqlStatsRecorder.getInstance().record(first.getSql(), start, Arrays.stream(affected).sum(), error);
+        }
+    }
+
     default Object runInTransaction(TransactionTemplate transactionTemplate, Function<Object, Object> action, boolean rollBack) throws IllegalTransactionStateException {
         return transactionTemplate.execute(status -> {
             try {
@@ -4,6 +4,8 @@ import cn.hutool.core.util.ClassUtil;
 import com.picobase.persistence.repository.ModifyRequest;
 import com.picobase.persistence.repository.PbRowMapper;
 import com.picobase.persistence.repository.PbRowMapperRegistry;
+import com.picobase.persistence.repository.SqlStatsRecorder;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -13,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Mysql operation
@@ -27,6 +30,9 @@ public class MysqlDatabaseOperateImpl implements BaseDatabaseOperate {
     private TransactionTemplate transactionTemplate;
 
 
+    private final SqlStatsRecorder recorder = SqlStatsRecorder.getInstance();
+
+
     public MysqlDatabaseOperateImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate, TransactionTemplate transactionTemplate) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
         this.jdbcTemplate = jdbcTemplate;
@@ -40,86 +46,109 @@ public class MysqlDatabaseOperateImpl implements BaseDatabaseOperate {
 
     @Override
     public <R> R queryOne(String sql, Object[] args, Class<R> cls) {
-        if (ClassUtil.isBasicType(cls)) {
-            return queryOne(jdbcTemplate, sql, args, cls);
-        }
+        return record(sql, () -> {
+            if (ClassUtil.isBasicType(cls)) {
+                return queryOne(jdbcTemplate, sql, args, cls);
+            }
 
-        if (Map.class.isAssignableFrom(cls)) {
-            return queryOne(jdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
-        }
+            if (Map.class.isAssignableFrom(cls)) {
+                return queryOne(jdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
+            }
 
-        return (R) queryOne(jdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(cls, true));
+            return (R) queryOne(jdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(cls, true));
+        });
     }
 
     @Override
     public <R> R queryOne(String sql, Map<String, Object> args, Class<R> cls) {
-        if (ClassUtil.isBasicType(cls)) {
-            return queryOne(namedParameterJdbcTemplate, sql, args, cls);
-        }
+        return record(sql, () -> {
+            if (ClassUtil.isBasicType(cls)) {
+                return queryOne(namedParameterJdbcTemplate, sql, args, cls);
+            }
 
-        if (Map.class.isAssignableFrom(cls)) {
-            return queryOne(namedParameterJdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
-        }
+            if (Map.class.isAssignableFrom(cls)) {
+                return queryOne(namedParameterJdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
+            }
 
-        return (R) queryOne(namedParameterJdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(cls, true));
+            return (R) queryOne(namedParameterJdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(cls, true));
+        });
     }
 
     @Override
     public <R> R queryOne(String sql, Object[] args, PbRowMapper<R> mapper) {
-        return queryOne(jdbcTemplate, sql, args, mapper);
+        return record(sql, () -> queryOne(jdbcTemplate, sql, args, mapper));
     }
 
     @Override
     public <R> R queryOne(String sql, Map<String, Object> args, PbRowMapper<R> mapper) {
-        return queryOne(namedParameterJdbcTemplate, sql, args, mapper);
+        return record(sql, () -> queryOne(namedParameterJdbcTemplate, sql, args, mapper));
     }
 
     @Override
     public <R> List<R> queryMany(String sql, Object[] args, PbRowMapper<R> mapper) {
-        return queryMany(jdbcTemplate, sql, args, mapper);
+        return record(sql, () -> queryMany(jdbcTemplate, sql, args, mapper));
     }
 
     @Override
     public <R> List<R> queryMany(String sql, Map<String, Object> args, PbRowMapper<R> mapper) {
-        return queryMany(namedParameterJdbcTemplate, sql, args, mapper);
+        return record(sql, () -> queryMany(namedParameterJdbcTemplate, sql, args, mapper));
     }
 
     @Override
     public <R> List<R> queryMany(String sql, Object[] args, Class<R> rClass) {
-        if (ClassUtil.isBasicType(rClass)) {
-            return queryMany(jdbcTemplate, sql, args, rClass);
-        }
+        return record(sql, () -> {
+            if (ClassUtil.isBasicType(rClass)) {
+                return queryMany(jdbcTemplate, sql, args, rClass);
+            }
 
-        if (Map.class.isAssignableFrom(rClass)) {
-            return queryMany(jdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
-        }
+            if (Map.class.isAssignableFrom(rClass)) {
+                return queryMany(jdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
+            }
 
-        return queryMany(jdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(rClass, true));
+            return queryMany(jdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(rClass, true));
+        });
     }
 
     @Override
     public <R> List<R> queryMany(String sql, Map<String, Object> args, Class<R> rClass) {
-        if (ClassUtil.isBasicType(rClass)) {
-            return queryMany(namedParameterJdbcTemplate, sql, args, rClass);
-        }
+        return record(sql, () -> {
+            if (ClassUtil.isBasicType(rClass)) {
+                return queryMany(namedParameterJdbcTemplate, sql, args, rClass);
+            }
 
-        if (Map.class.isAssignableFrom(rClass)) {
-            return queryMany(namedParameterJdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
-        }
+            if (Map.class.isAssignableFrom(rClass)) {
+                return queryMany(namedParameterJdbcTemplate, sql, args, (rs, rowNum) -> (R) new ColumnMapRowMapper().mapRow(rs, rowNum));
+            }
 
-        return queryMany(namedParameterJdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(rClass, true));
+            return queryMany(namedParameterJdbcTemplate, sql, args, PbRowMapperRegistry.getInstance().getPbRowMapper(rClass, true));
+        });
     }
 
     @Override
     public List<Map<String, Object>> queryMany(String sql, Object[] args) {
-        return queryMany(jdbcTemplate, sql, args);
+        return record(sql, () -> queryMany(jdbcTemplate, sql, args));
     }
 
     @Override
     public List<Map<String, Object>> queryMany(String sql, Map<String, Object> args) {
-        return queryMany(namedParameterJdbcTemplate, sql, args);
+        return record(sql, () -> queryMany(namedParameterJdbcTemplate, sql, args));
     }
 
+    /**
+     * 执行查询并记录 SQL 执行统计
+     */
+    private <R> R record(String sql, Supplier<R> query) {
+        long start = System.nanoTime();
+        R result = null;
+        boolean error = true;
+        try {
+            result = query.get();
+            error = false;
+            return result;
+        } finally {
+            recorder.record(sql, start, result instanceof List<?> list ? list.size() : result == null ? 0 : 1, error);
+        }
+    }
 
     @Override
     public Boolean update(List<ModifyRequest> modifyRequests, BiConsumer<Integer, Throwable> consumer) {
@@ -132,6 +161,22 @@ public class MysqlDatabaseOperateImpl implements BaseDatabaseOperate {
 
     }
 
+    @Override
+    public Boolean executeDdl(List<String> sqls) {
+        for (String sql : sqls) {
+            try {
+                record(sql, () -> {
+                    jdbcTemplate.execute(sql);
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                LOGGER.error("[db-error] ddl : {}, error : {}", sql, e.toString());
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public Boolean update(List<ModifyRequest> requestList) {
         return update(transactionTemplate, jdbcTemplate, namedParameterJdbcTemplate, requestList);
@@ -0,0 +1,89 @@
+package com.picobase.spring.repository;
+
+import com.picobase.config.PbConfig;
+import com.picobase.config.PbSqlConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 将 {@link PbSqlConfig} 中的预编译语句缓存配置追加到 spring.datasource.url 中
+ * <p> MySQL 驱动在每个连接上按 SQL 维护预编译语句的 LRU 缓存，JdbcTemplate 关闭语句时语句会回到缓存中，下一次执行相同 SQL 时不再重新 prepare </p>
+ * <p> 只处理 jdbc:mysql: 连接串，连接串中已显式配置的参数保持不变；自定义的 DataSource Bean 需自行配置这些参数 </p>
+ */
+public class MysqlStatementCacheConfigurer implements BeanPostProcessor {
+
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+
+    private final ObjectProvider<PbConfig> pbConfig;
+
+    public MysqlStatementCacheConfigurer(ObjectProvider<PbConfig> pbConfig) {
+        this.pbConfig = pbConfig;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSourceProperties properties) {
+            PbConfig config = pbConfig.getIfAvailable();
+            if (config != null && config.getSql() != null) {
+                properties.setUrl(applyTo(properties.getUrl(), config.getSql()));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 追加连接串中缺少的预编译语句缓存参数
+     *
+     * @param url    jdbc 连接串
+     * @param config SQL 配置
+     * @return 追加参数后的连接串，非 MySQL 连接串原样返回
+     */
+    public static String applyTo(String url, PbSqlConfig config) {
+        if (url == null || !url.startsWith(MYSQL_URL_PREFIX)) {
+            return url;
+        }
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("cachePrepStmts", config.getCachePrepStmts());
+        // 服务端预编译只在显式开启时追加，未开启时保持驱动默认行为
+        if (Boolean.TRUE.equals(config.getUseServerPrepStmts())) {
+            properties.put("useServerPrepStmts", true);
+        }
+        if (Boolean.TRUE.equals(config.getCachePrepStmts())) {
+            properties.put("prepStmtCacheSize", config.getPrepStmtCacheSize());
+            properties.put("prepStmtCacheSqlLimit", config.getPrepStmtCacheSqlLimit());
+        }
+
+        int query = url.indexOf('?');
+        String existing = query < 0 ? "" : url.substring(query + 1).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(url);
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (entry.getValue() == null || hasParameter(existing, entry.getKey().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            char last = sb.charAt(sb.length() - 1);
+            if (sb.indexOf("?") < 0) {
+                sb.append('?');
+            } else if (last != '?' && last != '&') {
+                sb.append('&');
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasParameter(String query, String name) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if ((eq < 0 ? pair : pair.substring(0, eq)).equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.picobase.console;
+
+import com.picobase.PbManager;
+import com.picobase.context.PbContext;
+import com.picobase.context.model.PbRequest;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.spring.json.PbJsonTemplateForJackson;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.picobase.util.PbConstants.QueryParam.FIELDS;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FieldsFilterHttpMessageConverterTest {
+
+    private PbContext original;
+
+    @BeforeEach
+    public void setUp() {
+        PbManager.setSaJsonTemplate(new PbJsonTemplateForJackson());
+        original = PbManager.getPbContext();
+        PbRequest request = mock(PbRequest.class);
+        when(request.getParameter(FIELDS)).thenReturn("id,title");
+        PbContext context = mock(PbContext.class);
+        when(context.getRequest()).thenReturn(request);
+        PbManager.setPbContext(context);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PbManager.setPbContext(original);
+    }
+
+    @Test
+    public void testRecordResponseUsesConverterSettings() throws Exception {
+        MappingJackson2HttpMessageConverter converter = newConverter();
+        converter.setJsonPrefix(")]}', ");
+        OutputMessage message = new OutputMessage();
+        converter.write(newRecord(), null, new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_16BE), message);
+
+        // 按 Content-Type 的字符集编码并写入前缀，响应流交由容器关闭
+        String body = message.body.toString(StandardCharsets.UTF_16BE);
+        assertTrue(body.startsWith(")]}', "), body);
+        JSONAssert.assertEquals("{\"id\":\"r1\",\"title\":\"hello\"}", body.substring(")]}', ".length()), true);
+        assertFalse(message.closed);
+    }
+
+    @Test
+    public void testRecordListResponse() throws Exception {
+        OutputMessage message = new OutputMessage();
+        newConverter().write(List.of(newRecord(), newRecord()), null, MediaType.APPLICATION_JSON, message);
+        JSONAssert.assertEquals("[{\"id\":\"r1\",\"title\":\"hello\"},{\"id\":\"r1\",\"title\":\"hello\"}]",
+                message.body.toString(StandardCharsets.UTF_8), true);
+        assertFalse(message.closed);
+    }
+
+    private static MappingJackson2HttpMessageConverter newConverter() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebMvcConfig(null).configureMessageConverters(converters);
+        return (MappingJackson2HttpMessageConverter) converters.get(0);
+    }
+
+    private static RecordModel newRecord() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("c1");
+        collection.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("total", PbConstants.FieldType.Number));
+        collection.setSchema(schema);
+
+        RecordModel record = new RecordModel(collection);
+        record.load(Map.of("id", "r1", "title", "hello", "total", 2));
+        return record;
+    }
+
+    /**
+     * 记录响应流是否被关闭
+     */
+    private static class OutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private boolean closed;
+
+        @Override
+        public OutputStream getBody() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    closed = true;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
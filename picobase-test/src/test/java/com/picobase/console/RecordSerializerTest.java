@@ -0,0 +1,85 @@
+package com.picobase.console;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.picobase.PbManager;
+import com.picobase.console.json.RecordSerializer;
+import com.picobase.json.LazyJson;
+import com.picobase.logic.FieldsFilterProcessor;
+import com.picobase.logic.FieldsProjection;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.SelectOptions;
+import com.picobase.spring.json.PbJsonTemplateForJackson;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import java.util.List;
+import java.util.Map;
+
+public class RecordSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(RecordModel.class, new RecordSerializer()));
+
+    @BeforeAll
+    public static void setUp() {
+        // 多值字段的 json 数组需要可用的 json 解析器
+        PbManager.setSaJsonTemplate(new PbJsonTemplateForJackson());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "title", "labels", "labels:excerpt(1)", "*,expand.rel.id", "id,expand.*,expand.rel.title:excerpt(3, true)", "expand.tags.title", "missing"})
+    public void testSameAsPublicExport(String fields) throws Exception {
+        // 流式序列化的结果与导出 publicData 后挑选字段的结果一致
+        String streamed = mapper.writer()
+                .withAttribute(RecordSerializer.PROJECTION, FieldsProjection.compile(fields))
+                .writeValueAsString(newRecord());
+
+        Map exported = mapper.readValue(mapper.writeValueAsString(newRecord().publicExport()), Map.class);
+        if (!fields.isEmpty()) {
+            FieldsFilterProcessor.pickFields(exported, fields);
+        }
+        JSONAssert.assertEquals(mapper.writeValueAsString(exported), streamed, true);
+    }
+
+    @Test
+    public void testLazyJson() throws Exception {
+        RecordModel record = newRecord();
+        // 未修改的多值字段原样输出，修改后按规范化的值输出
+        Assertions.assertTrue(mapper.writeValueAsString(record).contains("\"labels\":[\"a\", \"b\"]"));
+        Assertions.assertEquals(List.of("a", "b"), record.get("labels"));
+        record.set("labels", List.of("c", "c"));
+        Assertions.assertTrue(mapper.writeValueAsString(record).contains("\"labels\":[\"c\"]"));
+    }
+
+    private static RecordModel newRecord() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("c1");
+        collection.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("total", PbConstants.FieldType.Number));
+        schema.addField(new SchemaField("labels", PbConstants.FieldType.Select, new SelectOptions().setMaxSelect(3)));
+        collection.setSchema(schema);
+
+        RecordModel rel = new RecordModel(collection);
+        rel.load(Map.of("id", "r1", "title", "<p>related</p>", "total", 2));
+        RecordModel tag = new RecordModel(collection);
+        tag.load(Map.of("id", "r2", "title", "tag"));
+
+        RecordModel record = new RecordModel(collection);
+        // 与数据库加载的多值字段一致，使用延迟解析的 json 数组
+        LazyJson<Object> labels = LazyJson.of("[\"a\", \"b\"]", schema.getFieldByName("labels")::prepareValue);
+        record.load(Map.of("id", "r0", "title", "lorem", "total", 1, "labels", labels));
+        record.setExpand(Map.of("rel", rel, "tags", List.of(tag)));
+        return record;
+    }
+}
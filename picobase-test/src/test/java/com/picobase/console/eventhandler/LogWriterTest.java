@@ -0,0 +1,101 @@
+package com.picobase.console.eventhandler;
+
+import com.picobase.console.config.LogsConfig;
+import com.picobase.console.mapper.LogMapper;
+import com.picobase.console.model.LogModel;
+import com.picobase.console.model.LogWriterStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LogWriterTest {
+
+    private final List<String> saved = new ArrayList<>();
+
+    private LogMapper logMapper() {
+        LogMapper mapper = mock(LogMapper.class);
+        when(mapper.batchSave(anyList())).thenAnswer(inv -> {
+            List<LogModel> batch = inv.getArgument(0);
+            batch.forEach(m -> saved.add(m.getMessage()));
+            return true;
+        });
+        return mapper;
+    }
+
+    private static LogModel log(String message) {
+        LogModel model = new LogModel();
+        model.setMessage(message);
+        return model;
+    }
+
+    private static LogsConfig config(LogsConfig.OverflowPolicy policy) {
+        return new LogsConfig().setQueueCapacity(2).setOverflowPolicy(policy).setOfferTimeout(10).setFlushInterval(10);
+    }
+
+    @Test
+    public void testDropNewest() {
+        LogWriter writer = new LogWriter(logMapper(), config(LogsConfig.OverflowPolicy.DROP_NEWEST));
+        assertTrue(writer.offer(log("a")));
+        assertTrue(writer.offer(log("b")));
+        assertFalse(writer.offer(log("c")));
+
+        LogWriterStats stats = writer.stats();
+        assertEquals(2, stats.getQueueSize());
+        assertEquals(2, stats.getAccepted());
+        assertEquals(1, stats.getDropped());
+
+        // 启动前提交的日志在线程启动后写入，停止时队列中的日志全部写入
+        writer.start();
+        writer.stop();
+        assertEquals(List.of("a", "b"), saved);
+        assertEquals(2, writer.stats().getWritten());
+    }
+
+    @Test
+    public void testDropOldest() {
+        LogWriter writer = new LogWriter(logMapper(), config(LogsConfig.OverflowPolicy.DROP_OLDEST));
+        assertTrue(writer.offer(log("a")));
+        assertTrue(writer.offer(log("b")));
+        assertTrue(writer.offer(log("c")));
+
+        LogWriterStats stats = writer.stats();
+        assertEquals(2, stats.getQueueSize());
+        assertEquals(3, stats.getAccepted());
+        assertEquals(1, stats.getDropped());
+
+        writer.start();
+        writer.stop();
+        assertEquals(List.of("b", "c"), saved);
+    }
+
+    @Test
+    public void testBlockTimeout() {
+        LogWriter writer = new LogWriter(logMapper(), config(LogsConfig.OverflowPolicy.BLOCK));
+        assertTrue(writer.offer(log("a")));
+        assertTrue(writer.offer(log("b")));
+        // 队列满且写入线程未启动，等待 offerTimeout 后丢弃
+        assertFalse(writer.offer(log("c")));
+        assertEquals(1, writer.stats().getDropped());
+    }
+
+    @Test
+    public void testStartStop() {
+        LogWriter writer = new LogWriter(logMapper(), config(LogsConfig.OverflowPolicy.DROP_NEWEST));
+        // 未启动时停止无效，重复启动无效
+        writer.stop();
+        writer.start();
+        writer.start();
+        assertTrue(writer.offer(log("a")));
+        writer.stop();
+        assertEquals(List.of("a"), saved);
+        assertEquals(1, writer.stats().getFlushCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.picobase.console.mapper;
+
+import com.picobase.PbManager;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分区维护生成的 DDL；没有可用的 MySQL 时使用记录语句的数据库桩
+ */
+public class LogPartitionsTest {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final PbDatabaseOperate original = PbManager.getPbDatabaseOperate();
+    private final List<String> ddl = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        PbManager.pbDatabaseOperate = original;
+    }
+
+    @Test
+    public void testMaintain() {
+        LocalDate today = LocalDate.now();
+        List<String> names = new ArrayList<>();
+        for (int i = 10; i >= 0; i--) {
+            names.add(NAME_FORMAT.format(today.minusDays(i)));
+        }
+        names.add("pmax");
+        stub(names);
+
+        assertTrue(new LogPartitions().maintain(7, 2));
+
+        // DDL 在事务之外执行：先拆分 pmax 创建未来的分区，再删除过期分区
+        assertEquals(2, ddl.size());
+        assertEquals("ALTER TABLE pb_log REORGANIZE PARTITION pmax INTO (PARTITION " + NAME_FORMAT.format(today.plusDays(1))
+                + " VALUES LESS THAN ('" + today.plusDays(2) + " 00:00:00'), PARTITION " + NAME_FORMAT.format(today.plusDays(2))
+                + " VALUES LESS THAN ('" + today.plusDays(3) + " 00:00:00'), PARTITION pmax VALUES LESS THAN (MAXVALUE))", ddl.get(0));
+        assertEquals("ALTER TABLE pb_log DROP PARTITION " + String.join(",", names.subList(0, 3)), ddl.get(1));
+    }
+
+    @Test
+    public void testPartitionTable() {
+        stub(List.of());
+
+        assertTrue(new LogPartitions().maintain(7, 1));
+        assertEquals(2, ddl.size());
+        assertEquals("ALTER TABLE pb_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, created)", ddl.get(0));
+        assertTrue(ddl.get(1).startsWith("ALTER TABLE pb_log PARTITION BY RANGE COLUMNS(created) (PARTITION "
+                + NAME_FORMAT.format(LocalDate.now().minusDays(7))), ddl.get(1));
+    }
+
+    /**
+     * @param partitions information_schema 中 pb_log 的分区名
+     */
+    private void stub(List<String> partitions) {
+        PbManager.pbDatabaseOperate = (PbDatabaseOperate) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PbDatabaseOperate.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "queryMany" -> ((String) args[0]).contains("information_schema.partitions") ? partitions : List.of("id");
+                    case "queryOne" -> "datetime";
+                    case "executeDdl" -> {
+                        @SuppressWarnings("unchecked")
+                        List<String> sqls = (List<String>) args[0];
+                        ddl.addAll(sqls);
+                        yield true;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
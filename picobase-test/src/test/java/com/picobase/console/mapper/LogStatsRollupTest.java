@@ -0,0 +1,101 @@
+package com.picobase.console.mapper;
+
+import com.picobase.PbManager;
+import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogStatsRollupTest {
+
+    @Test
+    public void testDeleteBeforeBoundary() {
+        LogStatsRollup rollup = readyRollup();
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 10, 37, 15);
+        List<ModifyRequest> requests = rollup.deleteBeforeRequests(time);
+        assertEquals(4, requests.size());
+
+        // 分钟桶：删除 10:37 及之前的桶，再从 10:37:15 之后的日志重新聚合 10:37 这一分钟
+        assertEquals(List.of("m", LocalDateTime.of(2024, 5, 1, 10, 37)), List.of(requests.get(0).getArgs()));
+        Object[] minute = requests.get(1).getArgs();
+        assertTrue(requests.get(1).getSql().contains("from pb_log where created > ? and created < ?"), requests.get(1).getSql());
+        assertEquals(List.of("m", time, LocalDateTime.of(2024, 5, 1, 10, 38)), List.of(minute[0], minute[2], minute[3]));
+
+        // 小时桶：10:00 这一小时中 10:37:15 之后的日志重新聚合
+        assertEquals(List.of("h", LocalDateTime.of(2024, 5, 1, 10, 0)), List.of(requests.get(2).getArgs()));
+        Object[] hour = requests.get(3).getArgs();
+        assertEquals(List.of("h", time, LocalDateTime.of(2024, 5, 1, 11, 0)), List.of(hour[0], hour[2], hour[3]));
+    }
+
+    @Test
+    public void testCreatedAlignedToMinutes() {
+        assertTrue(LogStatsRollup.alignedToMinutes(List.of("2024-05-01 10:37:00", "2024-05-01", 200, "GET")));
+        assertTrue(LogStatsRollup.alignedToMinutes(List.of("2024-05-01 10:37:00.000Z", LocalDateTime.of(2024, 5, 1, 10, 37))));
+        assertFalse(LogStatsRollup.alignedToMinutes(List.of("2024-05-01 10:37:15")));
+        assertFalse(LogStatsRollup.alignedToMinutes(List.of("2024-05-01 10:37:00.123Z")));
+        assertFalse(LogStatsRollup.alignedToMinutes(List.of(LocalDateTime.of(2024, 5, 1, 10, 37, 1))));
+    }
+
+    @Test
+    public void testCreatedOperators() {
+        // 日志时间及其所在分钟桶；统计表只在与原始表结果一致的比较上使用
+        List<LocalDateTime> created = List.of(
+                LocalDateTime.of(2024, 5, 1, 10, 36, 30),
+                LocalDateTime.of(2024, 5, 1, 10, 37, 0),
+                LocalDateTime.of(2024, 5, 1, 10, 37, 30),
+                LocalDateTime.of(2024, 5, 1, 10, 38, 0));
+        LocalDateTime value = LocalDateTime.of(2024, 5, 1, 10, 37);
+        Map<String, BiPredicate<LocalDateTime, LocalDateTime>> ops = Map.of(
+                ">=", (a, b) -> !a.isBefore(b),
+                "<", LocalDateTime::isBefore,
+                ">", LocalDateTime::isAfter,
+                "<=", (a, b) -> !a.isAfter(b),
+                "=", LocalDateTime::isEqual,
+                "!=", (a, b) -> !a.isEqual(b));
+        ops.forEach((op, predicate) -> {
+            long raw = created.stream().filter(c -> predicate.test(c, value)).count();
+            long rolled = created.stream().filter(c -> predicate.test(c.truncatedTo(ChronoUnit.MINUTES), value)).count();
+            boolean byMinutes = LogStatsRollup.createdByMinutes("created " + op + " '2024-05-01 10:37:00'");
+            assertEquals(op.equals(">=") || op.equals("<"), byMinutes, op);
+            if (byMinutes) {
+                assertEquals(raw, rolled, op);
+            } else {
+                assertNotEquals(raw, rolled, op);
+            }
+        });
+
+        // 值在左侧时按相反方向比较，同一 filter 中任一 created 条件不满足时查询原始表
+        assertTrue(LogStatsRollup.createdByMinutes("'2024-05-01 10:37:00' > created && '2024-05-01 10:00:00' <= created"));
+        assertFalse(LogStatsRollup.createdByMinutes("'2024-05-01 10:37:00' < created"));
+        assertTrue(LogStatsRollup.createdByMinutes("created >= '2024-05-01 10:00:00' && (level = 0 || data.status >= 400)"));
+        assertFalse(LogStatsRollup.createdByMinutes("created >= '2024-05-01 10:00:00' && (level = 0 || created > '2024-05-01 11:00:00')"));
+        assertFalse(LogStatsRollup.createdByMinutes("created >= '2024-05-01 10:37:15'"));
+        assertFalse(LogStatsRollup.createdByMinutes("created >= @now"));
+        assertFalse(LogStatsRollup.createdByMinutes("created ?>= '2024-05-01 10:00:00'"));
+    }
+
+    private static LogStatsRollup readyRollup() {
+        PbDatabaseOperate original = PbManager.getPbDatabaseOperate();
+        // 统计表视为已存在
+        PbManager.pbDatabaseOperate = (PbDatabaseOperate) Proxy.newProxyInstance(LogStatsRollupTest.class.getClassLoader(),
+                new Class[]{PbDatabaseOperate.class}, (proxy, method, args) -> 1L);
+        try {
+            LogStatsRollup rollup = new LogStatsRollup();
+            rollup.ensureTable();
+            return rollup;
+        } finally {
+            PbManager.pbDatabaseOperate = original;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.picobase.console.web;
+
+import com.picobase.console.config.LogsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogSamplerTest {
+
+    @Test
+    public void testDefaultRecordsAll() {
+        LogSampler sampler = new LogSampler(new LogsConfig());
+        assertSame(LogSampler.EXCLUDED, sampler.begin("/api/logs/stats"));
+        assertSame(LogSampler.EXCLUDED, sampler.begin("/console/index.html"));
+
+        LogSampler.Decision decision = sampler.begin("/api/collections/posts/records");
+        assertNotSame(LogSampler.EXCLUDED, decision);
+        assertTrue(sampler.shouldRecord(decision, 200, 0));
+        assertFalse(sampler.shouldRecord(LogSampler.EXCLUDED, 500, 5000));
+    }
+
+    @Test
+    public void testSampleRules() {
+        LogsConfig config = new LogsConfig()
+                .setExcludePaths(List.of())
+                .setSampleRate(0.5)
+                .setSlowThreshold(1000)
+                .setSampleRules(List.of(
+                        new LogsConfig.SampleRule().setPath("/api/health").setRate(0),
+                        new LogsConfig.SampleRule().setPath("/api/collections/**").setStatus("3xx").setRate(1)));
+        LogSampler sampler = new LogSampler(config);
+
+        // 采样率为 0 的路由：成功请求不记录，错误请求及慢请求始终记录
+        LogSampler.Decision health = sampler.begin("/api/health");
+        assertFalse(sampler.shouldRecord(health, 200, 10));
+        assertTrue(sampler.shouldRecord(health, 404, 10));
+        assertTrue(sampler.shouldRecord(health, 500, 10));
+        assertTrue(sampler.shouldRecord(health, 200, 1000));
+
+        // 规则按状态码类别生效，未命中状态码类别时使用默认采样率
+        LogSampler.Decision records = new LogSampler.Decision(sampler.begin("/api/collections/posts/records").rules(), 0.9);
+        assertTrue(sampler.shouldRecord(records, 304, 10));
+        assertFalse(sampler.shouldRecord(records, 200, 10));
+        assertTrue(sampler.shouldRecord(new LogSampler.Decision(records.rules(), 0.1), 200, 10));
+
+        // 未匹配任何规则的路由使用默认采样率
+        LogSampler.Decision other = sampler.begin("/api/admins");
+        assertTrue(other.rules().isEmpty());
+        assertFalse(sampler.shouldRecord(new LogSampler.Decision(other.rules(), 0.5), 200, 10));
+        assertTrue(sampler.shouldRecord(new LogSampler.Decision(other.rules(), 0.49), 200, 10));
+    }
+}
@@ -97,6 +97,15 @@ public class FieldsFilterProcessorTest {
                         "*:excerpt",
                         true,
                         "{\"a\":1,\"b\":2,\"c\":\"test\"}"),
+                Arguments.of("wildcard inside nested slice of maps",
+                        new HashMap<String, Object>(
+                                Map.of("id", "123", "expand", new HashMap<String, Object>(Map.of("tags", new ArrayList<Object>(List.of(
+                                        new HashMap<String, Object>(Map.of("id", "456", "title", "t1")),
+                                        new HashMap<String, Object>(Map.of("id", "789", "title", "t2", "extra", 1)))))))),
+                        "id,expand.tags.*,expand.tags.extra:excerpt(1)",
+                        false,
+                        "{\"id\":\"123\",\"expand\":{\"tags\":[{\"id\":\"456\",\"title\":\"t1\"},{\"id\":\"789\",\"title\":\"t2\",\"extra\":1}]}}"
+                ),
                 Arguments.of("valid excerpt modifier",
                         new HashMap<String, Object>(
                                 Map.of("id", "123", "title", "lorem", "rel",
@@ -0,0 +1,69 @@
+package com.picobase.core.logic;
+
+import com.picobase.PbManager;
+import com.picobase.config.PbConfig;
+import com.picobase.logic.authz.PbAuthZLogic;
+import com.picobase.logic.authz.PbElementMatcher;
+import com.picobase.logic.authz.PbPermissionInterface;
+import com.picobase.strategy.PbStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PbElementMatcherTest {
+
+    @Test
+    public void testSameAsDefaultStrategy() {
+        List<String> permissions = Arrays.asList("user.add", "art*", "goods.*.edit", "*.delete", "order.**", "a*b*c", null);
+        PbElementMatcher matcher = PbElementMatcher.compile(permissions);
+        for (String element : Arrays.asList("user.add", "user.edit", "art", "article.view", "goods.1.edit", "goods.1.view",
+                "user.delete", ".delete", "order.", "order", "abc", "aXbYc", "ab", "", null)) {
+            assertEquals(PbStrategy.DEFAULT_HAS_ELEMENT.apply(permissions, element), matcher.match(element), String.valueOf(element));
+        }
+        assertTrue(PbElementMatcher.compile(List.of("*")).match("anything"));
+        assertFalse(PbElementMatcher.compile(null).match("user.add"));
+    }
+
+    @Test
+    public void testCachedAcrossChecks() {
+        AtomicInteger loads = new AtomicInteger();
+        List<String> permissions = new ArrayList<>(List.of("user.*"));
+        PbPermissionInterface original = PbManager.getPermissionInterface();
+        PbManager.setStpInterface(new PbPermissionInterface() {
+            @Override
+            public List<String> getPermissionList(Object loginId, String loginType) {
+                loads.incrementAndGet();
+                return List.copyOf(permissions);
+            }
+
+            @Override
+            public List<String> getRoleList(Object loginId, String loginType) {
+                return List.of();
+            }
+        });
+        try {
+            PbAuthZLogic logic = new PbAuthZLogic("matcher-test").setConfig(new PbConfig().setPermissionCacheTimeout(60));
+            assertTrue(logic.hasPermission("u1", "user.add"));
+            assertFalse(logic.hasPermission("u1", "goods.add"));
+            assertEquals(1, loads.get());
+
+            // 权限数据变化后刷新版本号，重新加载
+            permissions.add("goods.add");
+            logic.refreshPermission("u1");
+            assertTrue(logic.hasPermission("u1", "goods.add"));
+            assertEquals(2, loads.get());
+
+            assertEquals("order.add", logic.getPermissionMatcher("u1").firstMismatch("user.add", "order.add", "goods.delete"));
+        } finally {
+            PbManager.removePbAuthZLogic("matcher-test");
+            PbManager.setStpInterface(original);
+        }
+    }
+}
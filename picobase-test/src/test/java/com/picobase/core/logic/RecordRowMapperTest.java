@@ -0,0 +1,113 @@
+package com.picobase.core.logic;
+
+import com.picobase.exception.PbException;
+import com.picobase.logic.mapper.RecordRowMapper;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RecordRowMapperTest {
+
+    private static CollectionModel newCollection() {
+        CollectionModel posts = new CollectionModel();
+        posts.setId("posts_id");
+        posts.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("views", PbConstants.FieldType.Number));
+        posts.setSchema(schema);
+        return posts;
+    }
+
+    /**
+     * 构造结果集，labels 与 types 按列序号一一对应
+     */
+    private static ResultSet resultSet(String[] labels, int[] types) throws Exception {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+            when(metaData.getColumnType(i + 1)).thenReturn(types[i]);
+        }
+        return rs;
+    }
+
+    @Test
+    public void testMapByColumnIndex() throws Exception {
+        // 列名不区分大小写，同名列取第一个；缺少的基础字段（created、updated）取值为 null
+        ResultSet rs = resultSet(new String[]{"ID", "title", "Views", "title"},
+                new int[]{Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.VARCHAR});
+        when(rs.getString(1)).thenReturn("r1", "r2");
+        when(rs.getString(2)).thenReturn("hello", "world");
+        when(rs.getObject(3)).thenReturn(1D, 2D);
+        when(rs.getString(4)).thenReturn("duplicate");
+
+        RecordRowMapper mapper = new RecordRowMapper(newCollection());
+        RecordModel first = mapper.mapRow(rs, 0);
+        RecordModel second = mapper.mapRow(rs, 1);
+
+        assertEquals("r1", first.getId());
+        assertEquals("hello", first.get("title"));
+        assertEquals(1D, first.get("views"));
+        assertNull(first.get("created"));
+        assertEquals("r2", second.getId());
+        assertEquals("world", second.get("title"));
+        assertEquals(2D, second.get("views"));
+
+        // 同一结果集只读取一次元数据，按列序号取值，不按列名查找
+        verify(rs, times(1)).getMetaData();
+        verify(rs, never()).getObject(anyString());
+        verify(rs, never()).getString(anyString());
+        verify(rs, never()).getString(4);
+        verify(rs, never()).getObject(2);
+    }
+
+    @Test
+    public void testNewResultSetRebuildsPlan() throws Exception {
+        RecordRowMapper mapper = new RecordRowMapper(newCollection());
+        ResultSet rs1 = resultSet(new String[]{"id", "title", "views"}, new int[]{Types.VARCHAR, Types.VARCHAR, Types.DOUBLE});
+        when(rs1.getString(1)).thenReturn("r1");
+        when(rs1.getString(2)).thenReturn("hello");
+        mapper.mapRow(rs1, 0);
+
+        // 列顺序不同的结果集重新计算映射计划
+        ResultSet rs2 = resultSet(new String[]{"views", "title", "id"}, new int[]{Types.DOUBLE, Types.VARCHAR, Types.VARCHAR});
+        when(rs2.getString(3)).thenReturn("r2");
+        when(rs2.getString(2)).thenReturn("world");
+        when(rs2.getObject(1)).thenReturn(3D);
+        RecordModel record = mapper.mapRow(rs2, 0);
+
+        assertEquals("r2", record.getId());
+        assertEquals("world", record.get("title"));
+        assertEquals(3D, record.get("views"));
+        verify(rs2, times(1)).getMetaData();
+    }
+
+    @Test
+    public void testMissingSchemaColumn() throws Exception {
+        ResultSet rs = resultSet(new String[]{"id", "title"}, new int[]{Types.VARCHAR, Types.VARCHAR});
+        RecordRowMapper mapper = new RecordRowMapper(newCollection());
+        assertThrows(PbException.class, () -> mapper.mapRow(rs, 0));
+        verify(rs, never()).getString(anyInt());
+    }
+}
@@ -0,0 +1,193 @@
+package com.picobase.core.logic;
+
+import com.picobase.PbManager;
+import com.picobase.logic.mapper.RecordRowMapper;
+import com.picobase.logic.mapper.RelationJunction;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.RelationOptions;
+import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+import com.picobase.spring.json.PbJsonTemplateForJackson;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RelationJunctionTest {
+
+    private final List<ModifyRequest> executed = new ArrayList<>();
+    private PbDatabaseOperate original;
+
+    @BeforeEach
+    public void setUp() {
+        PbManager.setSaJsonTemplate(new PbJsonTemplateForJackson());
+        original = PbManager.getPbDatabaseOperate();
+        // 只记录写入的语句，关联表视为已存在
+        PbManager.pbDatabaseOperate = (PbDatabaseOperate) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PbDatabaseOperate.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "queryOne" -> 1L;
+                    case "update" -> {
+                        @SuppressWarnings("unchecked")
+                        List<ModifyRequest> requests = (List<ModifyRequest>) args[0];
+                        executed.addAll(requests);
+                        if (args.length > 1 && args[1] != null) {
+                            @SuppressWarnings("unchecked")
+                            BiConsumer<Integer, Throwable> consumer = (BiConsumer<Integer, Throwable>) args[1];
+                            consumer.accept(requests.size(), null);
+                        }
+                        yield true;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PbManager.pbDatabaseOperate = original;
+    }
+
+    @Test
+    public void testUpdateLoadedRecord() throws Exception {
+        RecordModel record = loadRecord(newCollection(), "[\"u1\",\"u2\"]");
+
+        // 从数据库加载的多值字段为延迟解析的 json，原始数据中应为解析后的值
+        assertEquals(List.of("u1", "u2"), record.getOriginalData().get("members"));
+
+        record.set("title", "changed");
+        RelationJunction.syncRecord(record);
+        assertTrue(executed.isEmpty(), "unchanged relation field should not touch pb_relation");
+
+        record.set("members", List.of("u3"));
+        RelationJunction.syncRecord(record);
+        assertEquals(2, executed.size());
+        assertTrue(executed.get(0).getSql().startsWith("delete from pb_relation"));
+        assertEquals(List.of("posts_id", "members_field", "r1", "u3"), List.of(executed.get(1).getArgs()));
+    }
+
+    @Test
+    public void testCreateRecord() {
+        RecordModel record = new RecordModel(newCollection());
+        record.setId("r2");
+        record.set("members", List.of("u1", "u2"));
+        record.setNew(true);
+        RelationJunction.syncRecord(record);
+
+        // 新建 record 没有旧的关联行，只写入
+        assertEquals(2, executed.size());
+        assertTrue(executed.stream().allMatch(r -> r.getSql().startsWith("insert ignore into pb_relation")));
+        assertEquals(List.of("posts_id", "members_field", "r2", "u2"), List.of(executed.get(1).getArgs()));
+    }
+
+    @Test
+    public void testUpdateUnchanged() throws Exception {
+        RecordModel record = loadRecord(newCollection(), "[\"u1\",\"u2\"]");
+        record.set("members", List.of("u1", "u2"));
+        RelationJunction.syncRecord(record);
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    public void testUpdateChanged() throws Exception {
+        RecordModel record = loadRecord(newCollection(), "[\"u1\",\"u2\"]");
+        record.set("members", List.of());
+        RelationJunction.syncRecord(record);
+
+        // 清空字段只删除旧的关联行
+        assertEquals(1, executed.size());
+        assertEquals(List.of("posts_id", "members_field", "r1"), List.of(executed.get(0).getArgs()));
+    }
+
+    @Test
+    public void testDeleteRecord() throws Exception {
+        RelationJunction.deleteRecord(loadRecord(newCollection(), "[\"u1\"]"));
+        assertEquals(1, executed.size());
+        assertEquals("delete from pb_relation where collection_id = ? and source_id = ?", executed.get(0).getSql());
+        assertEquals(List.of("posts_id", "r1"), List.of(executed.get(0).getArgs()));
+    }
+
+    @Test
+    public void testBackfill() {
+        CollectionModel collection = newCollection();
+        SchemaField members = collection.getSchema().getFieldByName("members");
+        assertEquals(1, RelationJunction.backfill(collection, members));
+
+        // 先清除字段已有的关联行，再从 json 数组重建
+        assertEquals(2, executed.size());
+        assertEquals("delete from pb_relation where collection_id = ? and field_id = ?", executed.get(0).getSql());
+        String insert = executed.get(1).getSql();
+        assertTrue(insert.startsWith("insert ignore into pb_relation(collection_id,field_id,source_id,target_id) select ?, ?, `posts`.`id`"), insert);
+        assertTrue(insert.contains("JSON_TABLE( IF(JSON_VALID(`posts`.`members`)"), insert);
+        assertEquals(List.of("posts_id", "members_field"), List.of(executed.get(1).getArgs()));
+    }
+
+    @Test
+    public void testSyncCollection() {
+        CollectionModel disabled = newCollection();
+        ((RelationOptions) disabled.getSchema().getFieldByName("members").getOptions()).setJunction(false);
+        CollectionModel enabled = newCollection();
+
+        // 开启关联表时回填
+        RelationJunction.syncCollection(enabled, disabled);
+        assertEquals(2, executed.size());
+        assertTrue(executed.get(1).getSql().startsWith("insert ignore into pb_relation"));
+
+        // 关闭关联表时清除字段的关联行
+        executed.clear();
+        RelationJunction.syncCollection(disabled, enabled);
+        assertEquals(1, executed.size());
+        assertEquals("delete from pb_relation where collection_id = ? and field_id = ?", executed.get(0).getSql());
+
+        // 删除集合时清除集合的关联行
+        executed.clear();
+        RelationJunction.syncCollection(null, enabled);
+        assertEquals(List.of("posts_id"), List.of(executed.get(0).getArgs()));
+    }
+
+    static CollectionModel newCollection() {
+        CollectionModel posts = new CollectionModel();
+        posts.setId("posts_id");
+        posts.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("members", PbConstants.FieldType.Relation, new RelationOptions().setCollectionId("users_id").setJunction(true))
+                .setId("members_field"));
+        posts.setSchema(schema);
+        return posts;
+    }
+
+    /**
+     * 通过 RecordRowMapper 从结果集加载 record，与 RecordMapper 查询得到的 record 一致
+     */
+    static RecordModel loadRecord(CollectionModel collection, String members) throws Exception {
+        String[] labels = {"id", "created", "updated", "title", "members"};
+        String[] values = {"r1", null, null, "hello", members};
+
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        when(metaData.getColumnType(anyInt())).thenReturn(Types.VARCHAR);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+            when(rs.getString(i + 1)).thenReturn(values[i]);
+        }
+        return new RecordRowMapper(collection).mapRow(rs, 0);
+    }
+}
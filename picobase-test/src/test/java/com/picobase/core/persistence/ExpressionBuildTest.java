@@ -0,0 +1,71 @@
+package com.picobase.core.persistence;
+
+import com.picobase.persistence.dbx.ConcatExpr;
+import com.picobase.persistence.dbx.expression.Expression;
+import com.picobase.persistence.resolver.FieldResolver;
+import com.picobase.search.SearchFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExpressionBuildTest {
+
+    @Test
+    public void testBuild() {
+        Map<String, Object> hash = new LinkedHashMap<>();
+        hash.put("b", List.of(1, 2));
+        hash.put("a", "x");
+        hash.put("c", null);
+        hash.put("d", Expression.newExpr(""));
+
+        Expression expr = Expression.and(
+                Expression.newHashExpr(hash),
+                Expression.or(Expression.newExpr(""), Expression.newExpr("e = :e", Map.of("e", 1))),
+                Expression.not(Expression.newExpr(" ")),
+                Expression.enclose(Expression.in("f", "y")),
+                Expression.notExists(Expression.newExpr("")),
+                Expression.exists(Expression.newExpr("SELECT 1"))
+        );
+
+        Map<String, Object> params = new HashMap<>();
+        assertEquals("(`a` = :p0 AND `b` IN (:p1, :p2) AND `c` IS NULL) AND (e = :e) AND ((`f`=:p4)) AND (EXISTS (SELECT 1))",
+                expr.build(params));
+        assertEquals(Map.of("p0", "x", "p1", 1, "p2", 2, "e", 1, "p4", "y"), params);
+    }
+
+    @Test
+    public void testConcat() {
+        ConcatExpr concat = new ConcatExpr().setSeparator(" ");
+        concat.addPart(Expression.newExpr("a = 1"));
+        assertEquals("a = 1", concat.build(new HashMap<>()));
+
+        concat.addPart(Expression.newOp("or"));
+        concat.addPart(Expression.newExpr("b = 1"));
+        assertEquals("(a = 1 or b = 1)", concat.build(new HashMap<>()));
+
+        ConcatExpr single = new ConcatExpr().setSeparator(" ");
+        single.addPart(Expression.newExpr("a = 1 and b = 1"));
+        assertEquals("(a = 1 and b = 1)", single.build(new HashMap<>()));
+    }
+
+    @Test
+    public void testFilterPlaceholders() {
+        String filter = "title = 'a' && (total > 10 || title ~ 'b')";
+        FieldResolver first = FieldResolver.newSimpleFieldResolver("title", "total");
+        FieldResolver second = FieldResolver.newSimpleFieldResolver("title", "total");
+
+        Map<String, Object> params = new HashMap<>();
+        String sql = new SearchFilter(filter).buildExpr(first).build(params);
+        assertEquals("(`title` = :t0 AND (`total` > :t1 OR `title` LIKE :t2))", sql);
+        assertEquals(Map.of("t0", "a", "t1", 10D, "t2", "%b%"), params);
+        assertEquals(sql, new SearchFilter(filter).buildExpr(second).build(new HashMap<>()));
+
+        // 同一查询中的多个过滤条件共用分配器，参数名不会冲突
+        assertEquals("`title` = :t3", new SearchFilter("title = 'c'").buildExpr(first).build(params));
+    }
+}
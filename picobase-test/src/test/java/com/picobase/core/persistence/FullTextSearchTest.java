@@ -0,0 +1,70 @@
+package com.picobase.core.persistence;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.EditorOptions;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.search.SearchFilter;
+import com.picobase.search.SortField;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FullTextSearchTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "content ~~ 'hello world'  ; MATCH(posts.content) AGAINST(:t0)",
+            "content !~~ 'hello'       ; NOT MATCH(posts.content) AGAINST(:t0)",
+            // 全文索引使用 ngram 分词，中日韩文本同样使用 MATCH
+            "content ~~ '全文检索'        ; MATCH(posts.content) AGAINST(:t0)",
+            "content ~~ '检索'          ; MATCH(posts.content) AGAINST(:t0)",
+            // 短于 ngram 分词长度的文本不产生词元，按 LIKE 包含匹配
+            "content ~~ '检'           ; posts.content LIKE :t0",
+            "content !~~ ' a '         ; posts.content NOT LIKE :t0",
+            // 空文本及未开启全文索引的字段按 LIKE 包含匹配
+            "content ~~ ''             ; posts.content LIKE :t0",
+            "title ~~ 'hello'          ; posts.title LIKE :t0",
+            "content ~~ title          ; posts.content LIKE CONCAT('%',posts.title,'%')",
+    })
+    public void testMatchFilter(String filter, String expected) {
+        String sql = new SearchFilter(filter).buildExpr(newResolver()).build(new HashMap<>());
+        assertEquals(expected, sql);
+    }
+
+    @Test
+    public void testRankSort() {
+        List<SortField> sort = SortField.parseSortFromString("-@rank(content,'a, b\\'c'),title");
+        assertEquals(2, sort.size());
+
+        RecordFieldResolver resolver = newResolver();
+        Map<String, Object> params = new HashMap<>();
+        assertEquals("MATCH(posts.content) AGAINST(:t0) DESC", sort.get(0).buildExpr(resolver, params));
+        assertEquals(Map.of("t0", "a, b'c"), params);
+        assertEquals("posts.title ASC", sort.get(1).buildExpr(resolver, params));
+
+        // 未开启全文索引的字段不能按相关度排序
+        assertThrows(IllegalArgumentException.class, () -> new SortField("@rank(title,'a')", SortField.SortDesc).buildExpr(resolver, params));
+    }
+
+    private static RecordFieldResolver newResolver() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("full_text_test");
+        collection.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("content", PbConstants.FieldType.Editor, new EditorOptions().setFullText(true)));
+        collection.setSchema(schema);
+        return new RecordFieldResolver(collection, new RequestInfo(), false);
+    }
+}
@@ -0,0 +1,108 @@
+package com.picobase.core.persistence;
+
+import com.picobase.PbManager;
+import com.picobase.model.CollectionModel;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.SelectOptions;
+import com.picobase.persistence.dbx.Query;
+import com.picobase.persistence.model.IndexSuggestion;
+import com.picobase.persistence.repository.PbDatabaseOperate;
+import com.picobase.search.IndexAdvisor;
+import com.picobase.search.SearchFilter;
+import com.picobase.search.SortField;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexAdvisorTest {
+
+    @Test
+    public void testSuggest() {
+        CollectionModel collection = newCollection();
+        IndexAdvisor advisor = IndexAdvisor.getInstance();
+        advisor.reset(collection.getId());
+
+        record(advisor, collection, "status = 'draft' && total > 1", "-created", 30);
+        record(advisor, collection, "status = 'draft'", "", 10);
+        record(advisor, collection, "(total > 1 && status = 'a')", "", 5);
+        // 已有索引、主键、OR 条件、多值字段及字段间比较不产生建议
+        record(advisor, collection, "title = 'a'", "", 100);
+        record(advisor, collection, "id = 'a' && status = 'b'", "", 100);
+        record(advisor, collection, "status = 'a' || total = 1", "", 100);
+        record(advisor, collection, "tags = 'a' && total = total", "", 100);
+
+        List<IndexSuggestion> suggestions = advisor.suggest(collection, false);
+        assertEquals(2, suggestions.size());
+
+        // status 的候选是 (status, created DESC) 的前缀，合并统计
+        assertEquals(List.of("status", "created DESC"), suggestions.get(0).getColumns());
+        assertEquals(2, suggestions.get(0).getSamples());
+        assertEquals(40, suggestions.get(0).getTotalTime(), 0.001);
+        assertEquals(List.of("status", "total"), suggestions.get(1).getColumns());
+        assertEquals("CREATE INDEX `" + suggestions.get(1).getIndex().split("`")[1] + "` ON `posts` (  `status`,  `total`)", suggestions.get(1).getIndex());
+    }
+
+    @Test
+    public void testExplainWithoutRequestValues() {
+        CollectionModel collection = newCollection();
+        IndexAdvisor advisor = IndexAdvisor.getInstance();
+        advisor.reset(collection.getId());
+
+        Query query = new Query(null, "SELECT `posts`.* FROM `posts` WHERE `status` = :t0 AND `total` > :t1 AND `status` IN (:t2)")
+                .bind(new HashMap<>(Map.of("t0", "alice@example.com", "t1", 12.5D, "t2", List.of("token-a", "token-b"))));
+        advisor.record(collection, List.of(new SearchFilter("status = 'alice@example.com' && total > 12.5")), List.of(), query, 1_000_000L);
+
+        List<Object[]> explained = new ArrayList<>();
+        PbDatabaseOperate original = PbManager.getPbDatabaseOperate();
+        PbManager.pbDatabaseOperate = (PbDatabaseOperate) Proxy.newProxyInstance(IndexAdvisorTest.class.getClassLoader(),
+                new Class[]{PbDatabaseOperate.class}, (proxy, method, args) -> {
+                    explained.add(args);
+                    return List.of(Map.of("table", "posts", "key", "idx_status", "rows", 3L));
+                });
+        try {
+            List<IndexSuggestion> suggestions = advisor.suggest(collection, true);
+            assertEquals(1, suggestions.size());
+            assertEquals("idx_status", suggestions.get(0).getExplainKey());
+
+            // EXPLAIN 使用原 SQL 及同类型的占位参数值，不保留请求中的参数值
+            assertEquals(1, explained.size());
+            assertEquals("EXPLAIN " + query.getSql(), explained.get(0)[0]);
+            assertEquals(Map.of("t0", "", "t1", 0, "t2", List.of("")), explained.get(0)[1]);
+
+            // reset 后不再保留采样
+            advisor.reset(collection.getId());
+            assertTrue(advisor.suggest(collection, true).isEmpty());
+            assertEquals(1, explained.size());
+        } finally {
+            PbManager.pbDatabaseOperate = original;
+        }
+    }
+
+    private static void record(IndexAdvisor advisor, CollectionModel collection, String filter, String sort, long millis) {
+        advisor.record(collection, List.of(new SearchFilter(filter)), sort.isEmpty() ? List.of() : SortField.parseSortFromString(sort), null, millis * 1_000_000L);
+    }
+
+    private static CollectionModel newCollection() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("index_advisor_test");
+        collection.setName("posts");
+        collection.setType(PbConstants.CollectionType.Base);
+        collection.setIndexes(List.of("CREATE INDEX `idx_title` ON `posts` (`title`)"));
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("status", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("total", PbConstants.FieldType.Number));
+        schema.addField(new SchemaField("tags", PbConstants.FieldType.Select, new SelectOptions().setMaxSelect(3)));
+        collection.setSchema(schema);
+        return collection;
+    }
+}
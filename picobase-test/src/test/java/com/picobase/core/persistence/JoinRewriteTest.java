@@ -0,0 +1,123 @@
+package com.picobase.core.persistence;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.RelationOptions;
+import com.picobase.persistence.resolver.Join;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.search.RulePlan;
+import com.picobase.search.SearchFilter;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JoinRewriteTest {
+
+    @Test
+    public void testSemiJoin() {
+        RecordFieldResolver resolver = newResolver();
+        String sql = new SearchFilter("members.name ?= 'a' && title != ''").buildExpr(resolver).build(new HashMap<>());
+
+        // 多值关联只被一个条件使用，移入 EXISTS 子查询，主查询不需要 join 及 DISTINCT
+        assertTrue(sql.startsWith("(EXISTS (SELECT 1 FROM (SELECT 1) `__sj` LEFT JOIN"), sql);
+        assertTrue(resolver.queryJoins().isEmpty());
+    }
+
+    @Test
+    public void testSharedJoin() {
+        RecordFieldResolver resolver = newResolver();
+        String sql = new SearchFilter("members.name ?= 'a' && members.name ?!= 'b'").buildExpr(resolver).build(new HashMap<>());
+
+        // 两个条件需要关联到同一行，保留 join
+        assertFalse(sql.contains("EXISTS"), sql);
+        assertEquals(2, resolver.queryJoins().size());
+        assertTrue(resolver.queryJoins().stream().noneMatch(Join::isToOne));
+    }
+
+    @Test
+    public void testToOneJoin() {
+        RecordFieldResolver resolver = newResolver();
+        String sql = new SearchFilter("author.name = 'a'").buildExpr(resolver).build(new HashMap<>());
+
+        // 单值关联不会使行数倍增，保留 join
+        assertFalse(sql.contains("EXISTS"), sql);
+        List<Join> joins = resolver.queryJoins();
+        assertEquals(1, joins.size());
+        assertTrue(joins.get(0).isToOne());
+    }
+
+    @Test
+    public void testJunctionJoin() {
+        RecordFieldResolver resolver = newResolver(true);
+        Map<String, Object> params = new HashMap<>();
+        String sql = new SearchFilter("members.name ?= 'a'").buildExpr(resolver).build(params);
+
+        // 开启关联表的字段通过 pb_relation 上的索引 join，不再展开 json 数组
+        assertTrue(sql.contains("LEFT JOIN pb_relation posts_members_je ON `posts_members_je`.`collection_id`"), sql);
+        assertTrue(sql.contains("`posts_members`.`id` = `posts_members_je`.`target_id`"), sql);
+        assertFalse(sql.contains("JSON_TABLE"), sql);
+        assertEquals("members_field", params.get("posts_members_je_f"));
+    }
+
+    @Test
+    public void testRuleAndFilterSharedJoin() {
+        String rule = "members.name ?= @request.data.name";
+        String filter = "members.role ?= 'admin'";
+
+        // 第二次使用缓存的规则计划
+        for (int i = 0; i < 2; i++) {
+            RequestInfo requestInfo = new RequestInfo();
+            requestInfo.setData(new HashMap<>(Map.of("name", "bob")));
+            RecordFieldResolver resolver = newResolver(false, requestInfo);
+            Map<String, Object> params = new HashMap<>();
+            String ruleSql = RulePlan.buildExpr(rule, resolver).build(params);
+            String filterSql = new SearchFilter(filter).buildExpr(resolver).build(params);
+
+            // 规则与过滤条件需要关联到同一个 members 行，两者都保留 join
+            assertFalse(ruleSql.contains("EXISTS"), ruleSql);
+            assertFalse(filterSql.contains("EXISTS"), filterSql);
+            assertTrue(resolver.queryJoins().stream().anyMatch(join -> join.getTableAlias().equals("posts_members")));
+        }
+    }
+
+    private static RecordFieldResolver newResolver() {
+        return newResolver(false);
+    }
+
+    private static RecordFieldResolver newResolver(boolean junction) {
+        return newResolver(junction, new RequestInfo());
+    }
+
+    private static RecordFieldResolver newResolver(boolean junction, RequestInfo requestInfo) {
+        CollectionModel users = new CollectionModel();
+        users.setId("join_rewrite_users");
+        users.setName("users");
+        Schema usersSchema = Schema.newSchema();
+        usersSchema.addField(new SchemaField("name", PbConstants.FieldType.Text));
+        usersSchema.addField(new SchemaField("role", PbConstants.FieldType.Text));
+        users.setSchema(usersSchema);
+
+        CollectionModel posts = new CollectionModel();
+        posts.setId("join_rewrite_posts");
+        posts.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("author", PbConstants.FieldType.Relation, new RelationOptions().setCollectionId(users.getId()).setMaxSelect(1)));
+        schema.addField(new SchemaField("members", PbConstants.FieldType.Relation, new RelationOptions().setCollectionId(users.getId()).setJunction(junction))
+                .setId("members_field"));
+        posts.setSchema(schema);
+
+        RecordFieldResolver resolver = new RecordFieldResolver(posts, requestInfo, false);
+        resolver.getLoadedCollections().add(users);
+        return resolver;
+    }
+}
@@ -0,0 +1,143 @@
+package com.picobase.core.persistence;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.JsonIndexedPath;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.JsonOptions;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.search.RulePlan;
+import com.picobase.search.SearchFilter;
+import com.picobase.search.SortField;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonIndexedPathTest {
+
+    @Test
+    public void testRewrite() {
+        SchemaField meta = newMetaField();
+        String status = JsonIndexedPath.find(meta, "status").columnName();
+        String total = JsonIndexedPath.find(meta, "items[0].total").columnName();
+
+        // 声明索引的路径与同类型的值相等比较时改写为生成列，其余路径仍使用 JSON_EXTRACT
+        assertEquals("posts." + status + " = :t0", build(newResolver(meta), "meta.status = 'x'"));
+        assertEquals("posts." + total + " = :t0", build(newResolver(meta), "meta.items.0.total = 5"));
+        assertTrue(build(newResolver(meta), "meta.other = 'x'").contains("JSON_EXTRACT"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // 大小写不同：生成列使用二进制排序规则，与 json 值比较一致，可以改写
+            "meta.status = 'X'",
+            // 数字以文本形式比较（json 数字与文本不相等）、文本以数字形式比较：不改写
+            "meta.status = 5",
+            "meta.status > 5",
+            "meta.items.0.total = '5'",
+            "meta.items.0.total = 'abc'",
+            "meta.items.0.total > 'abc'",
+            // 不等、LIKE、与列比较及超长文本：不改写
+            "meta.status != 'x'",
+            "meta.status ~ 'x'",
+            "meta.status = meta.other",
+            "meta.items.0.total != 5",
+    })
+    public void testSameAsUnindexed(String filter) {
+        String indexed = build(newResolver(newMetaField()), filter);
+        String unindexed = build(newResolver(newPlainMetaField()), filter);
+        if (filter.equals("meta.status = 'X'")) {
+            assertEquals("posts." + JsonIndexedPath.find(newMetaField(), "status").columnName() + " = :t0", indexed);
+            assertTrue(JsonIndexedPath.find(newMetaField(), "status").columnDefinition().contains("COLLATE utf8mb4_bin"));
+        } else {
+            assertEquals(unindexed, indexed);
+        }
+    }
+
+    @Test
+    public void testRecheck() {
+        SchemaField meta = newMetaField();
+        RecordFieldResolver resolver = newResolver(meta);
+        String status = "posts." + JsonIndexedPath.find(meta, "status").columnName();
+        String total = "posts." + JsonIndexedPath.find(meta, "items[0].total").columnName();
+        String longText = "x".repeat(JsonIndexedPath.TEXT_LENGTH + 1);
+
+        // 大小比较及超长文本的相等比较：生成列为 NULL（缺失、其他类型或超长）的行按原 json 路径复核
+        assertEquals("((" + status + " = :t0) OR ((" + status + " IS NULL) AND (" + build(newResolver(newPlainMetaField()), "meta.status = '" + longText + "'") + ")))",
+                build(newResolver(meta), "meta.status = '" + longText + "'"));
+        assertEquals("((" + total + " < :t0) OR ((" + total + " IS NULL) AND (" + build(newResolver(newPlainMetaField()), "meta.items.0.total < 5") + ")))",
+                build(newResolver(meta), "meta.items.0.total < 5"));
+        assertTrue(build(newResolver(meta), "meta.status >= 'x'").startsWith("((" + status + " >= :t0) OR"));
+
+        // 排序使用原 json 路径
+        assertTrue(new SortField("meta.status", SortField.SortAsc).buildExpr(resolver, new HashMap<>()).startsWith("(IF(JSON_VALID"));
+        assertTrue(new SortField("meta.items.0.total", SortField.SortAsc).buildExpr(resolver, new HashMap<>()).startsWith("(IF(JSON_VALID"));
+    }
+
+    @Test
+    public void testRulePlanUsesRequestValue() {
+        SchemaField meta = newMetaField();
+        CollectionModel collection = newResolver(meta).getBaseCollection();
+        String rule = "meta.items.0.total = @request.data.total";
+        // 是否使用生成列取决于请求值的类型，编译的规则计划不能复用
+        for (Object value : List.of(5, "5", 6D, "abc")) {
+            RequestInfo requestInfo = new RequestInfo();
+            requestInfo.setData(new HashMap<>(Map.of("total", value)));
+            String planned = RulePlan.buildExpr(rule, new RecordFieldResolver(collection, requestInfo, false)).build(new HashMap<>());
+            String direct = new SearchFilter(rule).buildExpr(new RecordFieldResolver(collection, requestInfo, false)).build(new HashMap<>());
+            assertEquals(direct, planned.replaceAll(":rule\\w+", ":t0"), String.valueOf(value));
+            assertEquals(value instanceof Number, planned.startsWith("posts._jp_"), String.valueOf(value));
+        }
+    }
+
+    private static String build(RecordFieldResolver resolver, String filter) {
+        return new SearchFilter(filter).buildExpr(resolver).build(new HashMap<>());
+    }
+
+    @Test
+    public void testColumnDefinition() {
+        SchemaField meta = newMetaField();
+        // 只保存类型一致的 json 值，text 列使用二进制排序规则
+        assertEquals("VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin GENERATED ALWAYS AS (CASE WHEN JSON_TYPE(JSON_EXTRACT(`meta`, '$.status')) = 'STRING' "
+                        + "THEN JSON_VALUE(`meta`, '$.status' RETURNING CHAR(255) NULL ON ERROR) END) STORED INVISIBLE",
+                JsonIndexedPath.find(meta, "status").columnDefinition());
+        assertEquals("DOUBLE GENERATED ALWAYS AS (CASE WHEN JSON_TYPE(JSON_EXTRACT(`meta`, '$.items[0].total')) IN ('INTEGER','UNSIGNED INTEGER','DOUBLE','DECIMAL') "
+                        + "THEN JSON_VALUE(`meta`, '$.items[0].total' RETURNING DOUBLE NULL ON ERROR) END) STORED INVISIBLE",
+                JsonIndexedPath.find(meta, "items[0].total").columnDefinition());
+
+        assertFalse(JsonIndexedPath.isValid("a-b"));
+        assertFalse(JsonIndexedPath.isValid("a:date"));
+    }
+
+    /**
+     * 未声明索引路径的同名字段，用于得到原 json 路径的 SQL
+     */
+    private static SchemaField newPlainMetaField() {
+        return new SchemaField("meta", PbConstants.FieldType.Json, new JsonOptions(100)).setId("meta_field");
+    }
+
+    private static SchemaField newMetaField() {
+        return new SchemaField("meta", PbConstants.FieldType.Json,
+                new JsonOptions(100).setIndexedPaths(List.of("status", "items.0.total:number"))).setId("meta_field");
+    }
+
+    private static RecordFieldResolver newResolver(SchemaField meta) {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("json_indexed_path_test");
+        collection.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(meta);
+        collection.setSchema(schema);
+        return new RecordFieldResolver(collection, new RequestInfo(), false);
+    }
+}
@@ -0,0 +1,86 @@
+package com.picobase.core.persistence;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RecordModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.model.schema.fieldoptions.SelectOptions;
+import com.picobase.search.RuleEvaluator;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleEvaluatorTest {
+
+    @Test
+    public void testResolvable() {
+        CollectionModel collection = newCollection();
+        assertTrue(RuleEvaluator.isResolvable("", collection));
+        assertTrue(RuleEvaluator.isResolvable("title = @request.data.title && (total > 1 || flag = true)", collection));
+        assertTrue(RuleEvaluator.isResolvable("@request.auth.id != '' && @request.data.tags:isset = false", collection));
+        // 关联、多值、日期字段、宏及 @collection 需要查询数据库
+        assertFalse(RuleEvaluator.isResolvable("tags ?= 'a'", collection));
+        assertFalse(RuleEvaluator.isResolvable("title = 'a' && created > @now", collection));
+        assertFalse(RuleEvaluator.isResolvable("@collection.posts.title = title", collection));
+        assertFalse(RuleEvaluator.isResolvable("@request.auth.profile.name = 'a'", collection));
+        assertFalse(RuleEvaluator.isResolvable("@request.data.tags:length > 1", collection));
+        assertFalse(RuleEvaluator.isResolvable("missing = 1", collection));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "title = 'Hello'                                     ; true",
+            "title = @request.data.title                         ; true",
+            "title != @request.data.title                        ; false",
+            "title = 'world' || total > 2                        ; true",
+            "title = 'world' && total > 2 || flag = true         ; true",
+            "title = 'world' && (total > 2 || flag = true)       ; false",
+            "total >= @request.query.min && total < 10           ; true",
+            "title ~ 'ell' && title !~ 'xyz'                     ; true",
+            "title ~ 'H%o'                                       ; true",
+            "status = '' && @request.data.missing = null         ; true",
+            "@request.auth.id != ''                              ; false",
+            "@request.data.title:isset = true                    ; true",
+            "title = 'hello'                                     ; ",
+            "total = 'abc'                                       ; ",
+            "title > 'A'                                         ; ",
+    })
+    public void testEvaluate(String rule, Boolean expected) {
+        RequestInfo requestInfo = new RequestInfo();
+        requestInfo.setData(new HashMap<>(Map.of("title", "Hello")));
+        requestInfo.setQuery(Map.<CharSequence, CharSequence>of("min", "3"));
+
+        assertEquals(Optional.ofNullable(expected), RuleEvaluator.evaluate(rule, newRecord(), requestInfo));
+    }
+
+    private static RecordModel newRecord() {
+        RecordModel record = new RecordModel(newCollection());
+        record.load(Map.of("id", "r0", "title", "Hello", "total", 3, "status", "", "flag", true, "tags", List.of("a", "b")));
+        return record;
+    }
+
+    private static CollectionModel newCollection() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("rule_evaluator_test");
+        collection.setName("posts");
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("status", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("total", PbConstants.FieldType.Number));
+        schema.addField(new SchemaField("flag", PbConstants.FieldType.Bool));
+        schema.addField(new SchemaField("tags", PbConstants.FieldType.Select, new SelectOptions().setMaxSelect(3)));
+        collection.setSchema(schema);
+        return collection;
+    }
+}
@@ -0,0 +1,77 @@
+package com.picobase.core.persistence;
+
+import com.picobase.model.CollectionModel;
+import com.picobase.model.RequestInfo;
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.persistence.resolver.RecordFieldResolver;
+import com.picobase.search.RulePlan;
+import com.picobase.search.SearchFilter;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RulePlanTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "title = @request.data.title && status != @request.query.status",
+            "title = @request.data.title || @request.data.title = ''",
+            "title ~ @request.data.title",
+            "@request.data.title:isset = true && total > @request.data.total"
+    })
+    public void testSameAsSearchFilter(String rule) {
+        CollectionModel collection = newCollection();
+        // 第一个请求编译计划，之后的请求复用计划，结果与每次重新解析一致
+        for (Map<String, Object> data : List.of(
+                Map.<String, Object>of("title", "a", "total", 1),
+                Map.<String, Object>of("title", "b%", "total", 2),
+                Map.<String, Object>of("title", ""),
+                Map.<String, Object>of("title", "c", "total", 3))) {
+            RequestInfo requestInfo = new RequestInfo();
+            requestInfo.setData(new HashMap<>(data));
+            requestInfo.setQuery(Map.<CharSequence, CharSequence>of("status", "draft"));
+
+            Map<String, Object> planned = new HashMap<>();
+            String plannedSql = RulePlan.buildExpr(rule, new RecordFieldResolver(collection, requestInfo, false)).build(planned);
+            Map<String, Object> direct = new HashMap<>();
+            String directSql = new SearchFilter(rule).buildExpr(new RecordFieldResolver(collection, requestInfo, false)).build(direct);
+
+            assertEquals(inline(directSql, direct), inline(plannedSql, planned));
+            // LIKE 按请求值改写参数，不使用编译计划
+            assertEquals(!rule.contains("~"), planned.keySet().stream().allMatch(name -> name.startsWith("rule")));
+        }
+    }
+
+    private static CollectionModel newCollection() {
+        CollectionModel collection = new CollectionModel();
+        collection.setId("rule_plan_test");
+        collection.setName("posts");
+        collection.setUpdated(LocalDateTime.now());
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("title", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("status", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("total", PbConstants.FieldType.Number));
+        collection.setSchema(schema);
+        return collection;
+    }
+
+    /**
+     * 将参数值代入 SQL，参数名不同但绑定值相同的 SQL 结果一致
+     */
+    private static String inline(String sql, Map<String, Object> params) {
+        List<String> names = params.keySet().stream().sorted(Comparator.comparingInt(String::length).reversed()).toList();
+        for (String name : names) {
+            sql = sql.replace(":" + name, "'" + params.get(name) + "'");
+        }
+        return sql;
+    }
+}
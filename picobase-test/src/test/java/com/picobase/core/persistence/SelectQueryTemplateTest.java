@@ -0,0 +1,47 @@
+package com.picobase.core.persistence;
+
+import com.picobase.persistence.dbx.MysqlPbDbxBuilder;
+import com.picobase.persistence.dbx.PbDbxBuilder;
+import com.picobase.persistence.dbx.Query;
+import com.picobase.persistence.dbx.SqlTemplate;
+import com.picobase.persistence.dbx.expression.Expression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectQueryTemplateTest {
+
+    @Test
+    public void testTemplateCache() {
+        PbDbxBuilder builder = new MysqlPbDbxBuilder(null);
+
+        Query first = builder.select("id", "name as n").from("users")
+                .where(Expression.newExpr("age > :age AND name <> ':skip'", Map.of("age", 18)))
+                .orderBy("created DESC").limit(10).offset(20).build();
+        Query second = builder.select("id", "name as n").from("users")
+                .where(Expression.newExpr("age > :age AND name <> ':skip'", Map.of("age", 30)))
+                .orderBy("created DESC").limit(5).offset(0).build();
+        Query third = builder.select("id", "name as n").from("users")
+                .where(Expression.newExpr("age > :age AND name <> ':skip'", Map.of("age", 40)))
+                .orderBy("created DESC").limit(5).offset(10).build();
+
+        assertEquals("SELECT `id`, `name` AS `n` FROM `users` WHERE age > :age AND name <> ':skip' ORDER BY `created` DESC LIMIT :pbLimit OFFSET :pbOffset", first.getSql());
+        assertEquals("SELECT `id`, `name` AS `n` FROM `users` WHERE age > ? AND name <> ':skip' ORDER BY `created` DESC LIMIT ? OFFSET ?", first.getTemplate().getSql());
+        assertArrayEquals(new Object[]{18, 10L, 20L}, first.getTemplate().args(first.getParams()));
+
+        // 不同 offset 是否存在决定了不同的结构，相同结构复用同一模板
+        assertNotSame(first.getTemplate(), second.getTemplate());
+        assertSame(first.getTemplate(), third.getTemplate());
+        assertArrayEquals(new Object[]{40, 5L, 10L}, third.getTemplate().args(third.getParams()));
+    }
+
+    @Test
+    public void testTemplateArgsFallback() {
+        SqlTemplate template = SqlTemplate.parse("select * from t where id in (:ids) and a = :a");
+        assertEquals("select * from t where id in (?) and a = ?", template.getSql());
+        assertNull(template.args(Map.of("ids", java.util.List.of(1, 2), "a", 1)));
+        assertNull(template.args(Map.of("ids", 1)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.picobase.core.persistence;
+
+import com.picobase.persistence.model.SqlStatementStats;
+import com.picobase.persistence.repository.SqlStatsRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlStatsRecorderTest {
+
+    @Test
+    public void testFingerprint() {
+        assertEquals("select * from `users` where id = ? and name = ?",
+                SqlStatsRecorder.fingerprint("select *  from `users`\n where id = 12 and name = 'a''b'"));
+        assertEquals("select * from t1 where data = ? and id IN (?+)",
+                SqlStatsRecorder.fingerprint("select * from t1 where data = :tAbc12 and id IN (:p0, :p1, :p2)"));
+        assertEquals("insert into pb_log(id,level) values (?+),...",
+                SqlStatsRecorder.fingerprint("insert into pb_log(id,level) values (?,?),(?,?),(?,?)"));
+    }
+
+    @Test
+    public void testTop() {
+        SqlStatsRecorder recorder = SqlStatsRecorder.getInstance();
+        recorder.reset();
+        long start = System.nanoTime();
+        recorder.record("select * from a where id = 1", start, 1, false);
+        recorder.record("select * from a where id = 2", start, 1, false);
+        recorder.record("select * from b", start, 0, true);
+
+        List<SqlStatementStats> top = recorder.top(10);
+        assertEquals(2, top.size());
+        SqlStatementStats a = top.stream().filter(s -> s.getSql().equals("select * from a where id = ?")).findFirst().orElseThrow();
+        assertEquals(2, a.getCount());
+        assertEquals(2, a.getRows());
+        assertEquals(0, a.getErrors());
+        recorder.reset();
+    }
+}
@@ -0,0 +1,69 @@
+package com.picobase.core.router;
+
+import com.picobase.PbManager;
+import com.picobase.context.PbContext;
+import com.picobase.router.PbPathPatterns;
+import com.picobase.router.PbRouter;
+import com.picobase.spring.pathmatch.PbPatternsRequestConditionHolder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PbPathPatternsTest {
+
+    private static final List<String> PATTERNS = List.of(
+            "/api/collections/*/records", "/api/collections/*/records/*", "/api/files/**", "/console/**", "/favicon.ico",
+            "/api/admins/auth-with-password", "/a/**/b", "/a/*/c/", "/u/{id}", "/u/{id:\\d+}/x", "/v?/x*y", "/**/*.js", "/d/*",
+            "/e/**/**/f", "/g/", "/**", "rel/*", "/p/a**b");
+
+    private static final List<String> PATHS = List.of(
+            "/api/collections/posts/records", "/api/collections/posts/records/", "/api/collections/posts/records/r1",
+            "/api/collections/posts/records/r1/x", "/api/collections/posts", "/api/files", "/api/files/", "/api/files/a/b.png",
+            "/console", "/console/", "/console/index.html", "/favicon.ico", "/favicon.ico/", "/api/admins/auth-with-password",
+            "/a/b", "/a/x/y/b", "/a/x/b/", "/a/b/c", "/a/x/c", "/a/x/c/", "/u/1", "/u/1/x", "/u/a/x", "/v1/xzy", "/v12/xy",
+            "/js/app.js", "/app.js", "/d/", "/d", "/d/x", "/d/x/y", "/e/f", "/e/1/2/f", "/g", "/g/", "rel/x", "/rel/x",
+            "/p/ab", "/p/aXb", "//api//files//x", "/", "");
+
+    @Test
+    public void testSameAsSpring() {
+        for (String path : PATHS) {
+            for (String pattern : PATTERNS) {
+                assertEquals(PbPatternsRequestConditionHolder.match(pattern, path), PbPathPatterns.compile(pattern).match(path),
+                        pattern + " <> " + path);
+            }
+            boolean expected = PATTERNS.stream().filter(p -> !"/**".equals(p)).anyMatch(p -> PbPatternsRequestConditionHolder.match(p, path));
+            assertEquals(expected, PbPathPatterns.compile(PATTERNS.stream().filter(p -> !"/**".equals(p)).toList()).match(path), path);
+        }
+    }
+
+    @Test
+    public void testRouterUsesContext() {
+        PbContext original = PbManager.getPbContext();
+        PbContext context = mock(PbContext.class);
+        when(context.matchPaths(anyList(), anyString())).thenReturn(true);
+        PbManager.setPbContext(context);
+        try {
+            // 匹配符集合、数组均由上下文处理器判断，上下文处理器可以使用自己的匹配规则
+            assertTrue(PbRouter.isMatch(List.of("/a"), "/b"));
+            assertTrue(PbRouter.isMatch(new String[]{"/a"}, "/b"));
+            verify(context, times(2)).matchPaths(List.of("/a"), "/b");
+
+            // 默认使用预编译的匹配符集合
+            when(context.matchPaths(anyList(), anyString())).thenCallRealMethod();
+            assertTrue(PbRouter.isMatch(List.of("/a", "/u/{id}"), "/u/1"));
+            assertFalse(PbRouter.isMatch(new String[]{"/a", "/u/{id}"}, "/u/1/x"));
+        } finally {
+            PbManager.setPbContext(original);
+        }
+    }
+}
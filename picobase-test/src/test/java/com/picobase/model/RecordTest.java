@@ -8,9 +8,11 @@ import com.picobase.model.schema.fieldoptions.RelationOptions;
 import com.picobase.model.schema.fieldoptions.SelectOptions;
 import com.picobase.util.PbConstants;
 import org.json.JSONException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,4 +86,35 @@ public class RecordTest {
         System.out.println(raw);
 
     }
+
+    @Test
+    public void testRecordData() {
+        CollectionModel collection = new CollectionModel();
+        Schema schema = Schema.newSchema();
+        schema.addField(new SchemaField("text", PbConstants.FieldType.Text));
+        schema.addField(new SchemaField("number", PbConstants.FieldType.Number));
+        collection.setSchema(schema);
+
+        RecordModel record = new RecordModel(collection);
+        Assertions.assertNull(record.unknownData());
+        record.load(Map.of("text", "a", "number", 1, "unknown", "u"));
+        Assertions.assertEquals("a", record.get("text"));
+        Assertions.assertEquals(Map.of("unknown", "u"), record.unknownData());
+        Assertions.assertEquals(Map.of("text", "a", "number", 1.0), record.schemaData());
+
+        // clean copy 与原 record 共享数据，任一方写入前复制
+        RecordModel copy = record.cleanCopy();
+        copy.set("text", "b");
+        record.set("number", 2);
+        Assertions.assertEquals("a", record.get("text"));
+        Assertions.assertEquals(1.0, copy.get("number"));
+        Assertions.assertEquals(Map.of("text", "a", "number", 1.0, "unknown", "u"), copy.getOriginalData());
+
+        // schema 变化后按字段名迁移已有的值
+        schema.addField(new SchemaField("unknown", PbConstants.FieldType.Text));
+        schema.setFields(new ArrayList<>(List.of(schema.getFields().get(2), schema.getFields().get(0))));
+        Assertions.assertEquals("u", record.get("unknown"));
+        Assertions.assertEquals("a", record.get("text"));
+        Assertions.assertEquals(Map.of("number", 2.0), record.unknownData());
+    }
 }
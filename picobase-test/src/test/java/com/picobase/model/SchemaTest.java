@@ -0,0 +1,42 @@
+package com.picobase.model;
+
+import com.picobase.model.schema.Schema;
+import com.picobase.model.schema.SchemaField;
+import com.picobase.util.PbConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SchemaTest {
+
+    @Test
+    public void testFieldIndexAfterRename() {
+        SchemaField title = new SchemaField("title", PbConstants.FieldType.Text).setId("f1");
+        SchemaField body = new SchemaField("body", PbConstants.FieldType.Text).setId("f2");
+        Schema schema = Schema.newSchema();
+        schema.addField(title);
+        schema.addField(body);
+        assertSame(title, schema.getFieldByName("title"));
+
+        // 通过 Schema 改名
+        schema.renameField("f1", "subject");
+        assertSame(title, schema.getFieldByName("subject"));
+        assertNull(schema.getFieldByName("title"));
+
+        // 直接修改字段对象的名称
+        body.setName("content");
+        assertSame(body, schema.getFieldByName("content"));
+        assertNull(schema.getFieldByName("body"));
+
+        // 在字段列表中原位替换字段，列表长度不变
+        SchemaField summary = new SchemaField("summary", PbConstants.FieldType.Text).setId("f3");
+        schema.getFields().set(1, summary);
+        assertSame(summary, schema.getFieldByName("summary"));
+        assertNull(schema.getFieldByName("content"));
+
+        schema.removeField("f3");
+        assertNull(schema.getFieldByName("summary"));
+        assertSame(title, schema.getFieldByName("subject"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.picobase.springboot;
+
+import com.picobase.persistence.repository.ModifyRequest;
+import com.picobase.spring.repository.MysqlDatabaseOperateImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchUpdateTest {
+
+    private static final String INSERT = "insert into t (a) values (?)";
+    private static final String UPDATE = "update t set a = ? where id = ?";
+    private static final String NAMED = "update t set a = :a";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final MysqlDatabaseOperateImpl operate = new MysqlDatabaseOperateImpl(jdbcTemplate, namedTemplate, transactionTemplate());
+
+    @SuppressWarnings("unchecked")
+    private static TransactionTemplate transactionTemplate() {
+        TransactionTemplate template = mock(TransactionTemplate.class);
+        when(template.execute(any())).thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+        return template;
+    }
+
+    private static ModifyRequest request(String sql, Object... args) {
+        return new ModifyRequest(sql).setArgs(args);
+    }
+
+    @Test
+    public void testGroupConsecutiveSameSql() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT), anyList())).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO, 1});
+        when(jdbcTemplate.update(eq(UPDATE), (Object[]) any())).thenReturn(2);
+        when(namedTemplate.batchUpdate(eq(NAMED), any(SqlParameterSource[].class))).thenReturn(new int[]{1, 1});
+
+        List<ModifyRequest> requests = List.of(
+                request(INSERT, 1), request(INSERT, 2), request(INSERT, 3),
+                request(UPDATE, 1, 1),
+                new ModifyRequest(NAMED).setNamedArgs(Map.of("a", 1)),
+                new ModifyRequest(NAMED).setNamedArgs(Map.of("a", 2)));
+        List<Integer> rows = new ArrayList<>();
+        assertTrue(operate.update(requests, (row, e) -> rows.add(row)));
+
+        // 相同 SQL 的连续请求一次批量执行，单条请求仍走 update；SUCCESS_NO_INFO 按 1 行计
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(INSERT), anyList());
+        verify(jdbcTemplate, times(1)).update(eq(UPDATE), (Object[]) any());
+        verify(namedTemplate, times(1)).batchUpdate(eq(NAMED), any(SqlParameterSource[].class));
+        assertEquals(List.of(7), rows);
+    }
+
+    @Test
+    public void testStopAtFirstFailingStatement() {
+        // 第一条影响 0 行且要求回滚：其后的同 SQL 请求不再执行
+        when(jdbcTemplate.update(eq(UPDATE), (Object[]) any())).thenReturn(0);
+        List<ModifyRequest> requests = List.of(
+                request(UPDATE, 1, 1).setRollBackOnUpdateFail(true),
+                request(UPDATE, 2, 2).setRollBackOnUpdateFail(true),
+                request(UPDATE, 3, 3).setRollBackOnUpdateFail(true));
+        List<Throwable> errors = new ArrayList<>();
+        assertFalse(operate.update(requests, (row, e) -> errors.add(e)));
+
+        verify(jdbcTemplate, times(1)).update(eq(UPDATE), (Object[]) any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof IllegalTransactionStateException);
+    }
+
+    @Test
+    public void testBatchAfterRowsAffected() {
+        // 累计影响行数已不小于 1 后检查不会再失败，其后的请求可以合并批量执行
+        when(jdbcTemplate.update(eq(UPDATE), (Object[]) any())).thenReturn(1);
+        when(jdbcTemplate.batchUpdate(eq(UPDATE), anyList())).thenReturn(new int[]{0, 0});
+        List<ModifyRequest> requests = List.of(
+                request(UPDATE, 1, 1).setRollBackOnUpdateFail(true),
+                request(UPDATE, 2, 2).setRollBackOnUpdateFail(true),
+                request(UPDATE, 3, 3).setRollBackOnUpdateFail(true));
+        assertTrue(operate.update(requests));
+
+        verify(jdbcTemplate, times(1)).update(eq(UPDATE), (Object[]) any());
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UPDATE), anyList());
+    }
+
+    @Test
+    public void testFailOnLaterStatement() {
+        // 未要求回滚的请求可以与其后第一条要求回滚的请求合并，检查失败时回滚
+        when(jdbcTemplate.batchUpdate(eq(UPDATE), anyList())).thenReturn(new int[]{0, 0});
+        List<ModifyRequest> requests = List.of(
+                request(UPDATE, 1, 1),
+                request(UPDATE, 2, 2).setRollBackOnUpdateFail(true),
+                request(UPDATE, 3, 3).setRollBackOnUpdateFail(true));
+        assertFalse(operate.update(requests));
+
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UPDATE), anyList());
+        verify(jdbcTemplate, never()).update(eq(UPDATE), (Object[]) any());
+    }
+
+    @Test
+    public void testDataIntegrityViolation() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT), anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        List<Object> results = new ArrayList<>();
+        assertFalse(operate.update(List.of(request(INSERT, 1), request(INSERT, 1)), (row, e) -> {
+            results.add(row);
+            results.add(e);
+        }));
+        assertNull(results.get(0));
+        assertTrue(results.get(1) instanceof DataIntegrityViolationException);
+    }
+}
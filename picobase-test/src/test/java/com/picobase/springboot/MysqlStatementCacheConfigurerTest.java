@@ -0,0 +1,23 @@
+package com.picobase.springboot;
+
+import com.picobase.config.PbSqlConfig;
+import com.picobase.spring.repository.MysqlStatementCacheConfigurer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MysqlStatementCacheConfigurerTest {
+
+    @Test
+    public void testServerPrepStmtsOptIn() {
+        String url = "jdbc:mysql://localhost:3306/pb";
+        // 默认只开启驱动端的语句缓存，不改变预编译方式
+        assertEquals(url + "?cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048",
+                MysqlStatementCacheConfigurer.applyTo(url, new PbSqlConfig()));
+        assertEquals(url + "?useSSL=false&cachePrepStmts=true&useServerPrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048",
+                MysqlStatementCacheConfigurer.applyTo(url + "?useSSL=false", new PbSqlConfig().setUseServerPrepStmts(true)));
+        // 连接串中已配置的参数不覆盖
+        assertEquals(url + "?useServerPrepStmts=false&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048",
+                MysqlStatementCacheConfigurer.applyTo(url + "?useServerPrepStmts=false", new PbSqlConfig().setUseServerPrepStmts(true)));
+    }
+}